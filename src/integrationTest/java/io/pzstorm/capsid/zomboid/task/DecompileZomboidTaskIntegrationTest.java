@@ -0,0 +1,133 @@
+/*
+ * Storm Capsid - Project Zomboid mod development framework for Gradle.
+ * Copyright (C) 2021 Matthew Cain
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.pzstorm.capsid.zomboid.task;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.plugins.ExtraPropertiesExtension;
+import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.pzstorm.capsid.PluginIntegrationTest;
+import io.pzstorm.capsid.ProjectProperty;
+import io.pzstorm.capsid.zomboid.ZomboidTasks;
+
+class DecompileZomboidTaskIntegrationTest extends PluginIntegrationTest {
+
+	private Project project;
+
+	@BeforeEach
+	void registerZomboidTasks() {
+
+		project = getProject(true);
+
+		// zomboid tasks are registered after project evaluation
+		Arrays.stream(ZomboidTasks.values()).forEach(t -> t.register(project));
+	}
+
+	@Test
+	void shouldDecompileOnAllAvailableProcessorsByDefault() {
+
+		List<String> args = getDecompileTask().getDecompileArguments(project);
+
+		String threads = String.valueOf(Runtime.getRuntime().availableProcessors());
+		Assertions.assertTrue(args.contains('-' + IFernflowerPreferences.THREADS + '=' + threads));
+	}
+
+	@Test
+	void shouldDecompileOnNumberOfThreadsFromProjectProperty() {
+
+		project.getExtensions().getExtraProperties().set("decompileThreads", "3");
+		List<String> args = getDecompileTask().getDecompileArguments(project);
+
+		Assertions.assertTrue(args.contains('-' + IFernflowerPreferences.THREADS + "=3"));
+	}
+
+	@Test
+	void shouldCacheDecompiledClassesWhenNotProfiling() {
+
+		List<String> args = getDecompileTask().getDecompileArguments(project);
+
+		File cacheDir = ProjectProperty.DECOMPILER_CACHE_DIR.get(project);
+		Assertions.assertTrue(args.contains('-' + IFernflowerPreferences.CACHE_DIRECTORY + '=' + cacheDir.toPath()));
+		Assertions.assertFalse(args.stream().anyMatch(a -> a.startsWith('-' + IFernflowerPreferences.PROFILE_DIRECTORY + '=')));
+	}
+
+	@Test
+	void shouldWriteProfileReportsInsteadOfCachingWhenProfiling() {
+
+		project.getExtensions().getExtraProperties().set("decompileProfile", "true");
+		DecompileZomboidTask task = getDecompileTask();
+		List<String> args = task.getDecompileArguments(project);
+
+		File reportsDir = new File(ProjectProperty.DECOMPILE_REPORTS_DIR.get(project), task.getName());
+		Assertions.assertTrue(args.contains('-' + IFernflowerPreferences.PROFILE_DIRECTORY + '=' + reportsDir.toPath()));
+		Assertions.assertFalse(args.stream().anyMatch(a -> a.startsWith('-' + IFernflowerPreferences.CACHE_DIRECTORY + '=')));
+	}
+
+	@Test
+	void shouldDecompileToZomboidSourcesDirectoryByDefault() {
+
+		DecompileZomboidTask task = getDecompileTask();
+		List<String> args = task.getDecompileArguments(project);
+
+		File sourcesDir = ProjectProperty.ZOMBOID_SOURCES_DIR.get(project);
+		Assertions.assertEquals(sourcesDir.toPath().toString(), args.get(args.size() - 1));
+		Assertions.assertFalse(DecompileZomboidTask.isDecompilingToJar(project));
+
+		// sources directory is created when the task runs, not when it is configured
+		Assertions.assertFalse(sourcesDir.exists());
+
+		Set<? extends Task> finalizers = task.getFinalizedBy().getDependencies(task);
+		Assertions.assertTrue(finalizers.contains(getTask(ZomboidTasks.ZOMBOID_SOURCES_JAR)));
+	}
+
+	@Test
+	void shouldDecompileToZomboidSourcesJarWhenRequested() {
+
+		ExtraPropertiesExtension ext = project.getExtensions().getExtraProperties();
+		ext.set("decompileToJar", "true");
+
+		DecompileZomboidTask task = getDecompileTask();
+		Assertions.assertTrue(DecompileZomboidTask.isDecompilingToJar(project));
+
+		Set<? extends Task> finalizers = task.getFinalizedBy().getDependencies(task);
+		Assertions.assertFalse(finalizers.contains(getTask(ZomboidTasks.ZOMBOID_SOURCES_JAR)));
+
+		Set<? extends Task> dependencies = task.getTaskDependencies().getDependencies(task);
+		Assertions.assertTrue(dependencies.contains(getTask(ZomboidTasks.ZOMBOID_VERSION)));
+
+		ext.set("decompileToJar", "false");
+		Assertions.assertFalse(DecompileZomboidTask.isDecompilingToJar(project));
+	}
+
+	private DecompileZomboidTask getDecompileTask() {
+		return (DecompileZomboidTask) getTask(ZomboidTasks.DECOMPILE_ZOMBOID);
+	}
+
+	private Task getTask(ZomboidTasks task) {
+		return project.getTasks().getByName(task.name);
+	}
+}
@@ -0,0 +1,95 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.jmh;
+
+import com.sun.management.ThreadMXBean;
+import org.jetbrains.java.decompiler.main.DecompilerContext;
+import org.jetbrains.java.decompiler.main.rels.MethodProcessorRunnable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures every stage of {@link MethodProcessorRunnable#codeToJava} on its own. Before each invocation all methods
+ * of the {@link Corpus} are brought to the state the measured stage expects, then the stage is applied to all of them.
+ * <p>
+ * Allocation figures of the gc profiler include the preparation of the methods, {@link StageAllocation} reports
+ * the bytes allocated by the measured stage alone.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CodeToJavaBenchmark {
+  public enum Stage {
+    GRAPH, DEAD_CODE, PARSE_GRAPH, FINALLY, EXPRESSIONS, STACK_VARS, MERGE_IFS, VARIABLES
+  }
+
+  @Param
+  public Stage stage;
+
+  private Corpus corpus;
+  private List<Corpus.MethodState> methods;
+
+  @Setup(Level.Trial)
+  public void loadCorpus() throws URISyntaxException {
+    corpus = new Corpus();
+  }
+
+  @TearDown(Level.Trial)
+  public void clearContext() {
+    corpus.close();
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareMethods() throws IOException {
+    methods = corpus.prepareMethods(stage);
+  }
+
+  @Benchmark
+  public void stage(StageAllocation allocation, Blackhole blackhole) throws IOException {
+    DecompilerContext parentContext = DecompilerContext.getCurrentContext();
+    long allocated = allocation.getAllocatedBytes();
+    for (Corpus.MethodState state : methods) {
+      state.apply(stage);
+      blackhole.consume(state.root != null ? state.root : state.graph);
+    }
+    allocation.add(allocation.getAllocatedBytes() - allocated);
+    DecompilerContext.setCurrentContext(parentContext);
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class StageAllocation {
+    private final ThreadMXBean threadBean = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+    private long totalBytes;
+    private long invocations;
+
+    /**
+     * Average number of bytes allocated by one application of the stage to the whole corpus.
+     */
+    public long stageBytesPerOp;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      totalBytes = 0;
+      invocations = 0;
+      stageBytesPerOp = 0;
+    }
+
+    private long getAllocatedBytes() {
+      return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private void add(long bytes) {
+      totalBytes += bytes;
+      stageBytesPerOp = totalBytes / ++invocations;
+    }
+  }
+}
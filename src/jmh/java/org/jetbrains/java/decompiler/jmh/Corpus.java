@@ -0,0 +1,193 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.jmh;
+
+import org.jetbrains.java.decompiler.code.cfg.ControlFlowGraph;
+import org.jetbrains.java.decompiler.jmh.CodeToJavaBenchmark.Stage;
+import org.jetbrains.java.decompiler.main.ClassesProcessor.ClassNode;
+import org.jetbrains.java.decompiler.main.DecompilerContext;
+import org.jetbrains.java.decompiler.main.Fernflower;
+import org.jetbrains.java.decompiler.main.collectors.ImportCollector;
+import org.jetbrains.java.decompiler.main.decompiler.PrintStreamLogger;
+import org.jetbrains.java.decompiler.main.extern.IBytecodeProvider;
+import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
+import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.jetbrains.java.decompiler.main.extern.IResultSaver;
+import org.jetbrains.java.decompiler.main.rels.ClassWrapper;
+import org.jetbrains.java.decompiler.main.rels.MethodProcessorRunnable;
+import org.jetbrains.java.decompiler.modules.decompiler.DomHelper;
+import org.jetbrains.java.decompiler.modules.decompiler.stats.RootStatement;
+import org.jetbrains.java.decompiler.modules.decompiler.vars.VarProcessor;
+import org.jetbrains.java.decompiler.struct.StructClass;
+import org.jetbrains.java.decompiler.struct.StructMethod;
+import org.jetbrains.java.decompiler.struct.gen.MethodDescriptor;
+import org.jetbrains.java.decompiler.util.InterpreterUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.Manifest;
+
+/**
+ * The classes in the {@code corpus} package next to the benchmarks, loaded into a decompiler context.
+ */
+final class Corpus {
+  private final Fernflower engine;
+  private final List<ClassNode> classes = new ArrayList<>();
+
+  Corpus() throws URISyntaxException {
+    Map<String, Object> options = new HashMap<>(IFernflowerPreferences.DEFAULTS);
+    options.put(IFernflowerPreferences.DECOMPILE_GENERIC_SIGNATURES, "1");
+    options.put(IFernflowerPreferences.MAX_PROCESSING_METHOD, "0");
+
+    PrintStreamLogger logger = new PrintStreamLogger(System.out);
+    logger.setSeverity(IFernflowerLogger.Severity.ERROR);
+
+    engine = new Fernflower(new FileProvider(), new NoOpSaver(), options, logger);
+
+    URL corpus = Corpus.class.getResource("corpus");
+    if (corpus == null || !"file".equals(corpus.getProtocol())) {
+      throw new IllegalStateException("Benchmark corpus must be a directory on the class path: " + corpus);
+    }
+    engine.addSource(new File(corpus.toURI()));
+
+    DecompilerContext.getClassProcessor().loadClasses(null);
+    for (StructClass cl : DecompilerContext.getStructContext().getClasses().values()) {
+      if (cl.isOwn()) {
+        ClassNode node = DecompilerContext.getClassProcessor().getMapRootClasses().get(cl.qualifiedName);
+        if (node != null) {
+          classes.add(node);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return all methods with code, each one brought to the state the given stage expects
+   */
+  List<MethodState> prepareMethods(Stage stage) throws IOException {
+    DecompilerContext parentContext = DecompilerContext.getCurrentContext();
+
+    List<MethodState> methods = new ArrayList<>();
+    for (ClassNode node : classes) {
+      StructClass cl = node.classStruct;
+      ClassWrapper wrapper = new ClassWrapper(cl);
+
+      for (StructMethod mt : cl.getMethods()) {
+        if (mt.containsCode()) {
+          MethodState state = new MethodState(parentContext, node, wrapper, mt);
+          for (Stage previous : Stage.values()) {
+            if (previous == stage) {
+              break;
+            }
+            state.apply(previous);
+          }
+          methods.add(state);
+        }
+      }
+    }
+
+    DecompilerContext.setCurrentContext(parentContext);
+    return methods;
+  }
+
+  void close() {
+    engine.clearContext();
+  }
+
+  /**
+   * A method on its way through the stages, with its own context so that counters and variables are kept apart.
+   */
+  static final class MethodState {
+    final DecompilerContext context;
+    final StructMethod mt;
+    final MethodDescriptor md;
+    final VarProcessor varProc;
+    ControlFlowGraph graph;
+    RootStatement root;
+
+    private MethodState(DecompilerContext parentContext, ClassNode node, ClassWrapper wrapper, StructMethod mt) {
+      this.context = parentContext.createWorkerContext();
+      this.mt = mt;
+      this.md = MethodDescriptor.parseDescriptor(mt.getDescriptor());
+      this.varProc = new VarProcessor(mt, md);
+
+      // bytecode is parsed again by every invocation, as it is by codeToJava
+      mt.releaseResources();
+
+      DecompilerContext.setCurrentContext(context);
+      DecompilerContext.startClass(new ImportCollector(node));
+      DecompilerContext.setProperty(DecompilerContext.CURRENT_CLASS_NODE, node);
+      DecompilerContext.setProperty(DecompilerContext.CURRENT_CLASS, node.classStruct);
+      DecompilerContext.setProperty(DecompilerContext.CURRENT_CLASS_WRAPPER, wrapper);
+      DecompilerContext.startMethod(varProc);
+    }
+
+    void apply(Stage stage) throws IOException {
+      DecompilerContext.setCurrentContext(context);
+      switch (stage) {
+        case GRAPH:
+          graph = MethodProcessorRunnable.buildGraph(mt);
+          break;
+        case DEAD_CODE:
+          MethodProcessorRunnable.simplifyGraph(mt, graph);
+          break;
+        case PARSE_GRAPH:
+          root = DomHelper.parseGraph(graph);
+          break;
+        case FINALLY:
+          root = MethodProcessorRunnable.processFinally(mt, md, varProc, graph, root);
+          break;
+        case EXPRESSIONS:
+          MethodProcessorRunnable.processExpressions(mt, md, varProc, root);
+          break;
+        case STACK_VARS:
+          MethodProcessorRunnable.simplifyStackVars(mt, varProc, root);
+          break;
+        case MERGE_IFS:
+          MethodProcessorRunnable.simplifyStatements(mt, varProc, root);
+          break;
+        case VARIABLES:
+          MethodProcessorRunnable.defineVariables(varProc, root);
+          break;
+      }
+    }
+  }
+
+  private static class FileProvider implements IBytecodeProvider {
+    @Override
+    public byte[] getBytecode(String externalPath, String internalPath) throws IOException {
+      return InterpreterUtil.getBytes(new File(externalPath));
+    }
+  }
+
+  private static class NoOpSaver implements IResultSaver {
+    @Override
+    public void saveFolder(String path) { }
+
+    @Override
+    public void copyFile(String source, String path, String entryName) { }
+
+    @Override
+    public void saveClassFile(String path, String qualifiedName, String entryName, String content, int[] mapping) { }
+
+    @Override
+    public void createArchive(String path, String archiveName, Manifest manifest) { }
+
+    @Override
+    public void saveDirEntry(String path, String archiveName, String entryName) { }
+
+    @Override
+    public void copyEntry(String source, String path, String archiveName, String entryName) { }
+
+    @Override
+    public void saveClassEntry(String path, String archiveName, String qualifiedName, String entryName, String content) { }
+
+    @Override
+    public void closeArchive(String path, String archiveName) { }
+  }
+}
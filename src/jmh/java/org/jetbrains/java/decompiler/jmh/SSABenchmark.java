@@ -0,0 +1,77 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.jmh;
+
+import org.jetbrains.java.decompiler.jmh.CodeToJavaBenchmark.Stage;
+import org.jetbrains.java.decompiler.main.DecompilerContext;
+import org.jetbrains.java.decompiler.modules.decompiler.StackVarsProcessor;
+import org.jetbrains.java.decompiler.modules.decompiler.sforms.SSAConstructorSparseEx;
+import org.jetbrains.java.decompiler.modules.decompiler.sforms.SSAUConstructorSparseEx;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of the SSA and SSAU forms of all methods of the {@link Corpus}, in the state
+ * {@link StackVarsProcessor} first builds them in. The corpus includes {@code LargeMethods}, whose graphs take
+ * several passes to reach the fixpoint. With {@code fullPasses} every pass visits all nodes, which is the baseline
+ * for passes that only revisit nodes with changed input.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SSABenchmark {
+  public enum Form {
+    SSA, SSAU
+  }
+
+  @Param
+  public Form form;
+
+  @Param({"false", "true"})
+  public boolean fullPasses;
+
+  private Corpus corpus;
+  private List<Corpus.MethodState> methods;
+
+  @Setup(Level.Trial)
+  public void loadCorpus() throws URISyntaxException {
+    corpus = new Corpus();
+  }
+
+  @TearDown(Level.Trial)
+  public void clearContext() {
+    corpus.close();
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareMethods() throws IOException {
+    // versions are assigned in place, so every invocation needs methods which haven't been through SSA yet
+    methods = corpus.prepareMethods(Stage.STACK_VARS);
+  }
+
+  @Benchmark
+  public void construct(Blackhole blackhole) {
+    DecompilerContext parentContext = DecompilerContext.getCurrentContext();
+    for (Corpus.MethodState state : methods) {
+      DecompilerContext.setCurrentContext(state.context);
+      if (form == Form.SSA) {
+        SSAConstructorSparseEx ssa = new SSAConstructorSparseEx(fullPasses);
+        ssa.splitVariables(state.root, state.mt);
+        blackhole.consume(ssa.getPhi());
+      }
+      else {
+        SSAUConstructorSparseEx ssau = new SSAUConstructorSparseEx(fullPasses);
+        ssau.splitVariables(state.root, state.mt);
+        blackhole.consume(ssau.getSsuversions());
+      }
+    }
+    DecompilerContext.setCurrentContext(parentContext);
+  }
+}
@@ -0,0 +1,126 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.jmh.corpus;
+
+/**
+ * Loops, branches and switches.
+ */
+@SuppressWarnings("unused")
+public class ControlFlow {
+  public static int sumOfPrimes(int limit) {
+    int sum = 0;
+    outer:
+    for (int i = 2; i < limit; i++) {
+      for (int j = 2; j * j <= i; j++) {
+        if (i % j == 0) {
+          continue outer;
+        }
+      }
+      sum += i;
+    }
+    return sum;
+  }
+
+  public static int collatz(long n) {
+    int steps = 0;
+    while (n != 1) {
+      n = (n & 1) == 0 ? n / 2 : 3 * n + 1;
+      steps++;
+    }
+    return steps;
+  }
+
+  public static String classify(int value) {
+    switch (value) {
+      case 0:
+        return "zero";
+      case 1:
+      case 2:
+      case 3:
+        return "small";
+      case 100:
+        return "hundred";
+      default:
+        if (value < 0) {
+          return "negative";
+        }
+        else if (value > 1000 && value % 2 == 0) {
+          return "large even";
+        }
+        return "other";
+    }
+  }
+
+  public static int keyword(String word) {
+    switch (word) {
+      case "if":
+        return 1;
+      case "else":
+        return 2;
+      case "while":
+        return 3;
+      case "do":
+        return 4;
+      default:
+        return 0;
+    }
+  }
+
+  public static int binarySearch(int[] values, int key) {
+    int low = 0;
+    int high = values.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (values[mid] < key) {
+        low = mid + 1;
+      }
+      else if (values[mid] > key) {
+        high = mid - 1;
+      }
+      else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  public static void bubbleSort(int[] values) {
+    boolean swapped;
+    do {
+      swapped = false;
+      for (int i = 1; i < values.length; i++) {
+        if (values[i - 1] > values[i]) {
+          int tmp = values[i];
+          values[i] = values[i - 1];
+          values[i - 1] = tmp;
+          swapped = true;
+        }
+      }
+    }
+    while (swapped);
+  }
+
+  public static boolean matches(String text, String pattern) {
+    int t = 0, p = 0, star = -1, mark = 0;
+    while (t < text.length()) {
+      if (p < pattern.length() && (pattern.charAt(p) == '?' || pattern.charAt(p) == text.charAt(t))) {
+        t++;
+        p++;
+      }
+      else if (p < pattern.length() && pattern.charAt(p) == '*') {
+        star = p++;
+        mark = t;
+      }
+      else if (star != -1) {
+        p = star + 1;
+        t = ++mark;
+      }
+      else {
+        return false;
+      }
+    }
+    while (p < pattern.length() && pattern.charAt(p) == '*') {
+      p++;
+    }
+    return p == pattern.length();
+  }
+}
@@ -0,0 +1,113 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.jmh.corpus;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exception handlers, finally blocks, resources and monitors.
+ */
+@SuppressWarnings("unused")
+public class Exceptions {
+  private final Object lock = new Object();
+  private int counter;
+
+  public List<String> readLines(File file) throws IOException {
+    List<String> lines = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty()) {
+          lines.add(line.trim());
+        }
+      }
+    }
+    return lines;
+  }
+
+  public int parse(String value, int fallback) {
+    try {
+      return Integer.parseInt(value);
+    }
+    catch (NumberFormatException e) {
+      return fallback;
+    }
+    finally {
+      counter++;
+    }
+  }
+
+  public int nested(int[] values) {
+    int result = 0;
+    try {
+      for (int value : values) {
+        try {
+          result += 100 / value;
+        }
+        catch (ArithmeticException e) {
+          result--;
+        }
+        finally {
+          counter++;
+        }
+      }
+    }
+    catch (RuntimeException e) {
+      throw new IllegalStateException(e);
+    }
+    finally {
+      synchronized (lock) {
+        counter += result;
+      }
+    }
+    return result;
+  }
+
+  public synchronized void increment() {
+    counter++;
+  }
+
+  public int guarded(int amount) {
+    synchronized (lock) {
+      if (amount < 0) {
+        throw new IllegalArgumentException("negative amount");
+      }
+      counter += amount;
+      return counter;
+    }
+  }
+
+  public String describe(Object value) {
+    try {
+      if (value instanceof String) {
+        return "string " + ((String)value).length();
+      }
+      else if (value instanceof Number) {
+        return "number " + ((Number)value).intValue();
+      }
+      return String.valueOf(value.hashCode());
+    }
+    catch (NullPointerException | ClassCastException e) {
+      return "unknown";
+    }
+  }
+
+  public void copy(InputStream in, OutputStream out) throws IOException {
+    byte[] buffer = new byte[4096];
+    try {
+      int count;
+      while ((count = in.read(buffer)) >= 0) {
+        out.write(buffer, 0, count);
+      }
+    }
+    finally {
+      try {
+        in.close();
+      }
+      finally {
+        out.close();
+      }
+    }
+  }
+}
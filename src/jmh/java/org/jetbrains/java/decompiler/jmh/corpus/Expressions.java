@@ -0,0 +1,84 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.jmh.corpus;
+
+/**
+ * Arithmetic, conditions, arrays and string building.
+ */
+@SuppressWarnings("unused")
+public class Expressions {
+  private static final long[] POWERS = new long[19];
+  private int index;
+  private long total;
+
+  static {
+    POWERS[0] = 1;
+    for (int i = 1; i < POWERS.length; i++) {
+      POWERS[i] = POWERS[i - 1] * 10;
+    }
+  }
+
+  public long next(int step) {
+    index += step;
+    total += index++ * (long)step;
+    return --total ^ (total >>> 7) | index << 3;
+  }
+
+  public static int clamp(int value, int min, int max) {
+    return value < min ? min : value > max ? max : value;
+  }
+
+  public static double mean(double[] values) {
+    if (values == null || values.length == 0) {
+      return Double.NaN;
+    }
+    double sum = 0;
+    for (double value : values) {
+      sum += value;
+    }
+    return sum / values.length;
+  }
+
+  public static int[][] multiply(int[][] a, int[][] b) {
+    int[][] result = new int[a.length][b[0].length];
+    for (int i = 0; i < a.length; i++) {
+      for (int j = 0; j < b[0].length; j++) {
+        int sum = 0;
+        for (int k = 0; k < b.length; k++) {
+          sum += a[i][k] * b[k][j];
+        }
+        result[i][j] = sum;
+      }
+    }
+    return result;
+  }
+
+  public static String format(String name, int count, boolean verbose) {
+    StringBuilder builder = new StringBuilder();
+    builder.append(name).append(": ").append(count);
+    if (verbose && count != 1) {
+      builder.append(" items");
+    }
+    return builder.toString() + (count > 9 ? "!" : "") + '.';
+  }
+
+  public static boolean isLeapYear(int year) {
+    return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+  }
+
+  public static char hexDigit(int value) {
+    return (char)(value < 10 ? '0' + value : 'a' + value - 10);
+  }
+
+  public static int digits(long value) {
+    for (int i = 1; i < POWERS.length; i++) {
+      if (value < POWERS[i]) {
+        return i;
+      }
+    }
+    return POWERS.length;
+  }
+
+  public static Object box(int kind) {
+    return kind == 0 ? (Object)Integer.valueOf(kind) : kind == 1 ? (Object)Long.valueOf(kind) : (Object)String.valueOf(kind);
+  }
+}
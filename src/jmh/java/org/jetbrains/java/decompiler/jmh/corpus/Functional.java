@@ -0,0 +1,106 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.jmh.corpus;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Generics, lambdas, inner and anonymous classes.
+ */
+@SuppressWarnings("unused")
+public class Functional<T extends Comparable<T>> {
+  private final List<T> items = new ArrayList<>();
+
+  public Functional<T> add(T item) {
+    items.add(item);
+    return this;
+  }
+
+  public <R> List<R> map(Function<? super T, ? extends R> mapper) {
+    List<R> result = new ArrayList<>(items.size());
+    for (T item : items) {
+      result.add(mapper.apply(item));
+    }
+    return result;
+  }
+
+  public List<T> filter(Predicate<? super T> predicate) {
+    return items.stream().filter(predicate).sorted().collect(Collectors.toList());
+  }
+
+  public Map<Boolean, Long> partition(T pivot) {
+    return items.stream().collect(Collectors.partitioningBy(item -> item.compareTo(pivot) < 0, Collectors.counting()));
+  }
+
+  public Optional<T> max() {
+    T max = null;
+    for (T item : items) {
+      if (max == null || item.compareTo(max) > 0) {
+        max = item;
+      }
+    }
+    return Optional.ofNullable(max);
+  }
+
+  public Iterator<T> reversed() {
+    return new Iterator<T>() {
+      private int position = items.size();
+
+      @Override
+      public boolean hasNext() {
+        return position > 0;
+      }
+
+      @Override
+      public T next() {
+        if (position == 0) {
+          throw new NoSuchElementException();
+        }
+        return items.get(--position);
+      }
+    };
+  }
+
+  public Runnable counter(int[] box) {
+    return () -> {
+      for (T item : items) {
+        if (item != null) {
+          box[0]++;
+        }
+      }
+    };
+  }
+
+  public static Map<String, List<String>> groupByFirstLetter(Collection<String> words) {
+    Map<String, List<String>> groups = new TreeMap<>();
+    for (String word : words) {
+      String key = word.isEmpty() ? "" : word.substring(0, 1).toUpperCase(Locale.ROOT);
+      groups.computeIfAbsent(key, k -> new ArrayList<>()).add(word);
+    }
+    groups.values().forEach(list -> list.sort(Comparator.comparing(String::length).thenComparing(Function.identity())));
+    return groups;
+  }
+
+  public class Node {
+    private final T value;
+    private Node next;
+
+    public Node(T value) {
+      this.value = value;
+    }
+
+    public int length() {
+      int length = 0;
+      for (Node node = this; node != null; node = node.next) {
+        length++;
+      }
+      return length;
+    }
+
+    public Functional<T> owner() {
+      return Functional.this;
+    }
+  }
+}
@@ -0,0 +1,164 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.jmh.corpus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Long bodies with many locals live across nested loops, in the manner of the update methods of game entities.
+ */
+@SuppressWarnings("unused")
+public class LargeMethods {
+  private float x, y, z;
+  private float speed;
+  private int health;
+  private int state;
+  private long lastUpdate;
+  private final int[] inventory = new int[32];
+
+  public int update(List<LargeMethods> others, Map<String, Integer> stats, long time, boolean paused) {
+    int moved = 0;
+    int hits = 0;
+    int idle = 0;
+    float dx = 0, dy = 0, dz = 0;
+    float nearest = Float.MAX_VALUE;
+    LargeMethods target = null;
+    long elapsed = time - lastUpdate;
+
+    for (int step = 0; step < 4 && !paused; step++) {
+      for (LargeMethods other : others) {
+        if (other == this || other.health <= 0) {
+          continue;
+        }
+        float ox = other.x - x, oy = other.y - y, oz = other.z - z;
+        float distance = ox * ox + oy * oy + oz * oz;
+        if (distance < nearest) {
+          nearest = distance;
+          target = other;
+        }
+        if (distance < 1.0f) {
+          hits++;
+          other.health -= step + 1;
+          if (other.health <= 0) {
+            stats.merge("kills", 1, Integer::sum);
+            break;
+          }
+        }
+        else if (distance < 16.0f) {
+          dx += ox * 0.1f;
+          dy += oy * 0.1f;
+        }
+        else {
+          idle++;
+        }
+      }
+
+      switch (state) {
+        case 0:
+          if (target != null) {
+            state = nearest < 4.0f ? 2 : 1;
+          }
+          break;
+        case 1:
+          if (target == null) {
+            state = 0;
+          }
+          else {
+            dx += (target.x - x) * speed;
+            dy += (target.y - y) * speed;
+            dz += (target.z - z) * speed;
+            moved++;
+          }
+          break;
+        case 2:
+          for (int i = 0; i < inventory.length; i++) {
+            if (inventory[i] > 0 && hits > i) {
+              inventory[i]--;
+              hits -= i;
+            }
+          }
+          state = hits > 0 ? 2 : 1;
+          break;
+        default:
+          state = 0;
+      }
+
+      int blocked = 0;
+      while (dx * dx + dy * dy + dz * dz > speed * speed && blocked < 8) {
+        dx *= 0.5f;
+        dy *= 0.5f;
+        dz *= 0.5f;
+        blocked++;
+      }
+      x += dx;
+      y += dy;
+      z += dz;
+      if (blocked > 4) {
+        idle += blocked;
+      }
+    }
+
+    if (elapsed > 1000 && idle > moved) {
+      speed *= 0.9f;
+    }
+    else if (moved > 0) {
+      speed = Math.min(speed * 1.1f, 10.0f);
+    }
+    lastUpdate = time;
+    stats.put("moved", moved);
+    stats.put("idle", idle);
+    return hits * 31 + moved;
+  }
+
+  public int process(int[] data, Object lock, StringBuilder log) {
+    int total = 0;
+    int errors = 0;
+    int retries = 0;
+    int last = -1;
+
+    for (int round = 0; round < data.length; round += 8) {
+      int sum = 0;
+      int max = Integer.MIN_VALUE;
+      int min = Integer.MAX_VALUE;
+      synchronized (lock) {
+        for (int i = round; i < Math.min(round + 8, data.length); i++) {
+          int value = data[i];
+          try {
+            if (value < 0) {
+              throw new IllegalArgumentException(String.valueOf(value));
+            }
+            sum += value;
+            max = Math.max(max, value);
+            min = Math.min(min, value);
+            last = i;
+          }
+          catch (IllegalArgumentException e) {
+            errors++;
+            log.append(e.getMessage());
+            if (retries++ < 3) {
+              i--;
+              data[i + 1] = -value;
+            }
+          }
+          finally {
+            total++;
+          }
+        }
+      }
+
+      int spread = max - min;
+      while (spread > 16) {
+        spread >>= 1;
+        sum += spread;
+      }
+      if (sum > 1000) {
+        log.append(round).append(':').append(sum).append('\n');
+      }
+      else if (errors > retries) {
+        break;
+      }
+    }
+
+    return total * 17 + errors * 5 + last;
+  }
+}
@@ -69,6 +69,16 @@ public class ProjectProperty<T> {
 	 */
 	public static final ProjectProperty<File> MEDIA_RESOURCES_DIR;
 
+	/**
+	 * Directory where decompiled classes are cached between builds.
+	 */
+	public static final ProjectProperty<File> DECOMPILER_CACHE_DIR;
+
+	/**
+	 * Directory where decompiler profile reports are written.
+	 */
+	public static final ProjectProperty<File> DECOMPILE_REPORTS_DIR;
+
 	@Unmodifiable
 	static final Set<ProjectProperty<?>> PROPERTIES;
 
@@ -98,9 +108,16 @@ public class ProjectProperty<T> {
 		MEDIA_RESOURCES_DIR = new ProjectProperty<>("mediaResourcesDir", project ->
 				new File(project.getBuildDir(), "resources/media")
 		);
+		DECOMPILER_CACHE_DIR = new ProjectProperty<>("decompilerCacheDir", project ->
+				new File(project.getBuildDir(), "caches/decompiler")
+		);
+		DECOMPILE_REPORTS_DIR = new ProjectProperty<>("decompileReportsDir", project ->
+				new File(project.getBuildDir(), "reports/capsid/decompile")
+		);
 		PROPERTIES = ImmutableSet.of(
 				ZOMBOID_CLASSES_DIR, ZOMBOID_SOURCES_DIR, ZDOC_LUA_DIR,
-				MOD_INFO_FILE, MEDIA_CLASSES_DIR, MEDIA_RESOURCES_DIR
+				MOD_INFO_FILE, MEDIA_CLASSES_DIR, MEDIA_RESOURCES_DIR, DECOMPILER_CACHE_DIR,
+				DECOMPILE_REPORTS_DIR
 		);
 	}
 
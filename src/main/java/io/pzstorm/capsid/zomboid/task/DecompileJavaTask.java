@@ -37,11 +37,35 @@ import com.google.common.collect.ImmutableMap;
 
 import io.pzstorm.capsid.CapsidTask;
 import io.pzstorm.capsid.ProjectPropertiesSupplier;
+import io.pzstorm.capsid.ProjectProperty;
 import io.pzstorm.capsid.zomboid.ZomboidTasks;
 
 /**
  * This class decompiles specified classes with FernFlower.
  * Custom compiler parameters can be specified in class constructor.
+ * <p>
+ * Classes are decompiled on as many threads as there are available processors.
+ * This can be changed with project property 'decompileThreads', where {@code 1}
+ * means that classes will be decompiled sequentially on a single thread.
+ * </p>
+ * <ul><li>Example:</li>
+ * <pre>
+ * gradle decompileZomboid -PdecompileThreads=4
+ * </pre></ul>
+ * <p>
+ * Decompiled classes are cached in {@link ProjectProperty#DECOMPILER_CACHE_DIR} and
+ * reused as long as their bytecode and decompiler options do not change.
+ * </p>
+ * <p>
+ * Setting project property 'decompileProfile' records the time and memory spent on every
+ * pass of every decompiled method. The report is written as JSON and CSV files to
+ * {@link ProjectProperty#DECOMPILE_REPORTS_DIR} and the slowest methods are listed
+ * at the end of the task. Cached classes are not used while profiling.
+ * </p>
+ * <ul><li>Example:</li>
+ * <pre>
+ * gradle decompileZomboid -PdecompileProfile
+ * </pre></ul>
  */
 public class DecompileJavaTask extends DefaultTask implements CapsidTask {
 
@@ -70,6 +94,7 @@ public class DecompileJavaTask extends DefaultTask implements CapsidTask {
 				.put(IFernflowerPreferences.LITERALS_AS_IS, "1")
 				.put(IFernflowerPreferences.NEW_LINE_SEPARATOR, "1")
 				.put(IFernflowerPreferences.MAX_PROCESSING_METHOD, "60")
+				.put(IFernflowerPreferences.THREADS, String.valueOf(Runtime.getRuntime().availableProcessors()))
 				.build()
 		);
 	}//@formatter:on
@@ -78,16 +103,26 @@ public class DecompileJavaTask extends DefaultTask implements CapsidTask {
 	public void configure(String group, String description, Project project) {
 		CapsidTask.super.configure(group, description, project);
 
+		Map<String, Object> options = new LinkedHashMap<>(parameters);
+		ExtraPropertiesExtension ext = project.getExtensions().getExtraProperties();
+		if (ext.has("decompileThreads")) {
+			options.put(IFernflowerPreferences.THREADS, Objects.requireNonNull(ext.get("decompileThreads")));
+		}
+		if (ext.has("decompileProfile")) {
+			// every class has to be decompiled to be measured, so cache is not used
+			File reportsDir = new File(ProjectProperty.DECOMPILE_REPORTS_DIR.get(project), getName());
+			options.put(IFernflowerPreferences.PROFILE_DIRECTORY, reportsDir.toPath().toString());
+		}
+		else {
+			File cacheDir = ProjectProperty.DECOMPILER_CACHE_DIR.get(project);
+			options.put(IFernflowerPreferences.CACHE_DIRECTORY, cacheDir.toPath().toString());
+		}
 		List<String> args = new ArrayList<>();
-		parameters.forEach((k, v) -> args.add(k + '=' + v));
+		options.forEach((k, v) -> args.add('-' + k + '=' + v));
 
 		// decompile to this directory
 		File destinationFile = destination.getProjectProperty(project);
 
-		// decompiler will throw error if destination dir doesn't exist
-		//noinspection ResultOfMethodCallIgnored
-		destinationFile.mkdirs();
-
 		// decompile from these paths
 		for (Path sourcePath : getSourcePaths(project)) {
 			args.add(sourcePath.toString());
@@ -100,7 +135,17 @@ public class DecompileJavaTask extends DefaultTask implements CapsidTask {
 
 	@TaskAction
 	void execute() {
-		ConsoleDecompiler.main(getDecompileArguments(getProject()).toArray(new String[0]));
+
+		List<String> args = getDecompileArguments(getProject());
+		File destinationFile = new File(args.get(args.size() - 1));
+		String destinationName = destinationFile.getName();
+
+		// decompiler will throw error if destination dir doesn't exist
+		boolean isArchive = destinationName.endsWith(".jar") || destinationName.endsWith(".zip");
+		//noinspection ResultOfMethodCallIgnored
+		(isArchive ? destinationFile.getAbsoluteFile().getParentFile() : destinationFile).mkdirs();
+
+		ConsoleDecompiler.main(args.toArray(new String[0]));
 	}
 
 	/**
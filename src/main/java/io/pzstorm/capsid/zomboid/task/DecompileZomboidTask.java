@@ -17,6 +17,7 @@
  */
 package io.pzstorm.capsid.zomboid.task;
 
+import java.io.File;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -45,6 +46,15 @@ import io.pzstorm.capsid.zomboid.ZomboidTasks;
  * gradle decompileZomboid -PdecompileFiles=zombie/FileGuidPair.class,zombie/GameTime.class
  * </pre></ul>
  * </p>
+ * <p>
+ * Decompiled sources are saved in zomboid sources directory and packed into a jar
+ * by {@code zomboidSourcesJar} afterwards. To skip the loose files and write the sources
+ * directly into that jar instead, specify project property 'decompileToJar'.
+ * </p>
+ * <ul><li>Example:</li>
+ * <pre>
+ * gradle decompileZomboid -PdecompileToJar
+ * </pre></ul>
  */
 public class DecompileZomboidTask extends DecompileJavaTask {
 
@@ -58,7 +68,46 @@ public class DecompileZomboidTask extends DecompileJavaTask {
 	public void configure(String group, String description, Project project) {
 		super.configure(group, description, project);
 
-		finalizedBy(project.getTasks().getByName(ZomboidTasks.ZOMBOID_SOURCES_JAR.name));
+		if (isDecompilingToJar(project)) {
+			dependsOn(project.getTasks().getByName(ZomboidTasks.ZOMBOID_VERSION.name));
+		}
+		else finalizedBy(project.getTasks().getByName(ZomboidTasks.ZOMBOID_SOURCES_JAR.name));
+	}
+
+	/**
+	 * Returns {@code true} if sources should be written directly into zomboid sources jar
+	 * instead of being decompiled into zomboid sources directory.
+	 *
+	 * @param project {@code Project} used to resolve the project property.
+	 */
+	public static boolean isDecompilingToJar(Project project) {
+
+		ExtraPropertiesExtension ext = project.getExtensions().getExtraProperties();
+		return ext.has("decompileToJar") && !"false".equals(ext.get("decompileToJar"));
+	}
+
+	/**
+	 * Returns list of arguments to use for decompile task. When decompiling into a jar
+	 * the destination is replaced with zomboid sources jar, which is only known once game
+	 * version has been resolved.
+	 *
+	 * @param project {@code Project} to load the arguments from.
+	 */
+	@Override
+	List<String> getDecompileArguments(Project project) {
+
+		List<String> args = super.getDecompileArguments(project);
+		if (!isDecompilingToJar(project)) {
+			return args;
+		}
+		ZomboidSourcesJarTask sourcesJar = (ZomboidSourcesJarTask) project.getTasks().getByName(
+				ZomboidTasks.ZOMBOID_SOURCES_JAR.name
+		);
+		File jarFile = sourcesJar.getArchiveFile().get().getAsFile();
+
+		List<String> result = new ArrayList<>(args.subList(0, args.size() - 1));
+		result.add(jarFile.toPath().toString());
+		return result;
 	}
 
 	@Override
@@ -37,7 +37,11 @@ public class ZomboidSourcesJarTask extends ZomboidJar implements CapsidTask {
 		CapsidTask.super.configure(group, description, project);
 
 		File zomboidSourcesDir = ProjectProperty.ZOMBOID_SOURCES_DIR.get(project);
+		// sources are otherwise written into the jar by decompile task
 		onlyIf(t -> {
+			if (DecompileZomboidTask.isDecompilingToJar(project)) {
+				return false;
+			}
 			@Nullable File[] zomboidSources = zomboidSourcesDir.listFiles();
 			return zomboidSourcesDir.exists() && zomboidSources != null && zomboidSources.length > 0;
 		});
@@ -0,0 +1,288 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.code;
+
+import org.jetbrains.java.decompiler.util.ClassFileReader;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.jetbrains.java.decompiler.code.CodeConstants.*;
+
+/**
+ * Instructions of a method decoded into parallel arrays, with the operands of all instructions in one pool.
+ * Short forms like {@code iload_1} are expanded to their general form with an operand, and
+ * {@link #getInstruction} creates the {@link Instruction} of an entry for code which needs one.
+ */
+public final class InstructionTable {
+  private static final int[] opr_iconst = {-1, 0, 1, 2, 3, 4, 5};
+  private static final int[] opr_loadstore = {0, 1, 2, 3, 0, 1, 2, 3, 0, 1, 2, 3, 0, 1, 2, 3, 0, 1, 2, 3};
+  private static final int[] opcs_load = {opc_iload, opc_lload, opc_fload, opc_dload, opc_aload};
+  private static final int[] opcs_store = {opc_istore, opc_lstore, opc_fstore, opc_dstore, opc_astore};
+
+  private final int bytecodeVersion;
+
+  private int size;
+  private int[] opcodes;
+  private byte[] groups;
+  private boolean[] wide;
+  private int[] offsets;
+  // operands of instruction i are operands[operandStarts[i]] up to operands[operandStarts[i + 1]]
+  private int[] operandStarts;
+  private int[] operands;
+  private int operandCount;
+
+  private InstructionTable(int bytecodeVersion, int capacity) {
+    this.bytecodeVersion = bytecodeVersion;
+    opcodes = new int[capacity];
+    groups = new byte[capacity];
+    wide = new boolean[capacity];
+    offsets = new int[capacity];
+    operandStarts = new int[capacity + 1];
+    operands = new int[capacity];
+  }
+
+  /**
+   * Reads the instructions and leaves the reader at the exception table following them.
+   *
+   * @param in     contents of the {@code Code} attribute starting with the first instruction
+   * @param length length of the instructions in bytes
+   */
+  public static InstructionTable decode(ClassFileReader in, int length, int bytecodeVersion, boolean java7) throws IOException {
+    // most instructions take two or three bytes
+    InstructionTable table = new InstructionTable(bytecodeVersion, Math.max(length / 2, 4));
+
+    while (in.position() < length) {
+      int offset = in.position();
+
+      int opcode = in.readUnsignedByte();
+      int group = GROUP_GENERAL;
+
+      boolean wide = (opcode == opc_wide);
+
+      if (wide) {
+        opcode = in.readUnsignedByte();
+      }
+
+      table.startInstruction(offset, wide);
+
+      if (opcode >= opc_iconst_m1 && opcode <= opc_iconst_5) {
+        table.addOperand(opr_iconst[opcode - opc_iconst_m1]);
+        opcode = opc_bipush;
+      }
+      else if (opcode >= opc_iload_0 && opcode <= opc_aload_3) {
+        table.addOperand(opr_loadstore[opcode - opc_iload_0]);
+        opcode = opcs_load[(opcode - opc_iload_0) / 4];
+      }
+      else if (opcode >= opc_istore_0 && opcode <= opc_astore_3) {
+        table.addOperand(opr_loadstore[opcode - opc_istore_0]);
+        opcode = opcs_store[(opcode - opc_istore_0) / 4];
+      }
+      else {
+        switch (opcode) {
+          case opc_bipush:
+            table.addOperand(in.readByte());
+            break;
+          case opc_ldc:
+          case opc_newarray:
+            table.addOperand(in.readUnsignedByte());
+            break;
+          case opc_sipush:
+          case opc_ifeq:
+          case opc_ifne:
+          case opc_iflt:
+          case opc_ifge:
+          case opc_ifgt:
+          case opc_ifle:
+          case opc_if_icmpeq:
+          case opc_if_icmpne:
+          case opc_if_icmplt:
+          case opc_if_icmpge:
+          case opc_if_icmpgt:
+          case opc_if_icmple:
+          case opc_if_acmpeq:
+          case opc_if_acmpne:
+          case opc_goto:
+          case opc_jsr:
+          case opc_ifnull:
+          case opc_ifnonnull:
+            if (opcode != opc_sipush) {
+              group = GROUP_JUMP;
+            }
+            table.addOperand(in.readShort());
+            break;
+          case opc_ldc_w:
+          case opc_ldc2_w:
+          case opc_getstatic:
+          case opc_putstatic:
+          case opc_getfield:
+          case opc_putfield:
+          case opc_invokevirtual:
+          case opc_invokespecial:
+          case opc_invokestatic:
+          case opc_new:
+          case opc_anewarray:
+          case opc_checkcast:
+          case opc_instanceof:
+            table.addOperand(in.readUnsignedShort());
+            if (opcode >= opc_getstatic && opcode <= opc_putfield) {
+              group = GROUP_FIELDACCESS;
+            }
+            else if (opcode >= opc_invokevirtual && opcode <= opc_invokestatic) {
+              group = GROUP_INVOCATION;
+            }
+            break;
+          case opc_invokedynamic:
+            if (java7) { // instruction unused in Java 6 and before
+              table.addOperand(in.readUnsignedShort());
+              in.discard(2);
+              group = GROUP_INVOCATION;
+            }
+            break;
+          case opc_iload:
+          case opc_lload:
+          case opc_fload:
+          case opc_dload:
+          case opc_aload:
+          case opc_istore:
+          case opc_lstore:
+          case opc_fstore:
+          case opc_dstore:
+          case opc_astore:
+          case opc_ret:
+            table.addOperand(wide ? in.readUnsignedShort() : in.readUnsignedByte());
+            if (opcode == opc_ret) {
+              group = GROUP_RETURN;
+            }
+            break;
+          case opc_iinc:
+            if (wide) {
+              table.addOperand(in.readUnsignedShort());
+              table.addOperand(in.readShort());
+            }
+            else {
+              table.addOperand(in.readUnsignedByte());
+              table.addOperand(in.readByte());
+            }
+            break;
+          case opc_goto_w:
+          case opc_jsr_w:
+            opcode = opcode == opc_jsr_w ? opc_jsr : opc_goto;
+            table.addOperand(in.readInt());
+            group = GROUP_JUMP;
+            break;
+          case opc_invokeinterface:
+            table.addOperand(in.readUnsignedShort());
+            table.addOperand(in.readUnsignedByte());
+            in.discard(1);
+            group = GROUP_INVOCATION;
+            break;
+          case opc_multianewarray:
+            table.addOperand(in.readUnsignedShort());
+            table.addOperand(in.readUnsignedByte());
+            break;
+          case opc_tableswitch: {
+            in.discard((4 - in.position() % 4) % 4); // padding
+            table.addOperand(in.readInt());
+            int low = in.readInt();
+            table.addOperand(low);
+            int high = in.readInt();
+            table.addOperand(high);
+
+            for (int j = 0; j < high - low + 1; j++) {
+              table.addOperand(in.readInt());
+            }
+            group = GROUP_SWITCH;
+            break;
+          }
+          case opc_lookupswitch: {
+            in.discard((4 - in.position() % 4) % 4); // padding
+            table.addOperand(in.readInt());
+            int npairs = in.readInt();
+            table.addOperand(npairs);
+
+            for (int j = 0; j < npairs; j++) {
+              table.addOperand(in.readInt());
+              table.addOperand(in.readInt());
+            }
+            group = GROUP_SWITCH;
+            break;
+          }
+          case opc_ireturn:
+          case opc_lreturn:
+          case opc_freturn:
+          case opc_dreturn:
+          case opc_areturn:
+          case opc_return:
+          case opc_athrow:
+            group = GROUP_RETURN;
+        }
+      }
+
+      table.endInstruction(opcode, group);
+    }
+
+    return table;
+  }
+
+  private void startInstruction(int offset, boolean isWide) {
+    if (size == opcodes.length) {
+      int capacity = size * 2;
+      opcodes = Arrays.copyOf(opcodes, capacity);
+      groups = Arrays.copyOf(groups, capacity);
+      wide = Arrays.copyOf(wide, capacity);
+      offsets = Arrays.copyOf(offsets, capacity);
+      operandStarts = Arrays.copyOf(operandStarts, capacity + 1);
+    }
+    offsets[size] = offset;
+    wide[size] = isWide;
+    operandStarts[size] = operandCount;
+  }
+
+  private void addOperand(int operand) {
+    if (operandCount == operands.length) {
+      operands = Arrays.copyOf(operands, operandCount * 2);
+    }
+    operands[operandCount++] = operand;
+  }
+
+  private void endInstruction(int opcode, int group) {
+    opcodes[size] = opcode;
+    groups[size] = (byte)group;
+    operandStarts[++size] = operandCount;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int getOpcode(int index) {
+    return opcodes[index];
+  }
+
+  public int getGroup(int index) {
+    return groups[index];
+  }
+
+  public boolean isWide(int index) {
+    return wide[index];
+  }
+
+  public int getOffset(int index) {
+    return offsets[index];
+  }
+
+  public int getOperandCount(int index) {
+    return operandStarts[index + 1] - operandStarts[index];
+  }
+
+  public int getOperand(int index, int operand) {
+    return operands[operandStarts[index] + operand];
+  }
+
+  public Instruction getInstruction(int index) {
+    int start = operandStarts[index];
+    int end = operandStarts[index + 1];
+    int[] ops = start == end ? null : Arrays.copyOfRange(operands, start, end);
+    return Instruction.create(opcodes[index], wide[index], groups[index], bytecodeVersion, ops);
+  }
+}
@@ -7,10 +7,13 @@ import org.jetbrains.java.decompiler.code.SimpleInstructionSequence;
 import org.jetbrains.java.decompiler.main.DecompilerContext;
 import org.jetbrains.java.decompiler.modules.decompiler.decompose.IGraphNode;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class BasicBlock implements IGraphNode {
+  private static final int[] EMPTY_OFFSETS = new int[0];
 
   // *****************************************************************************
   // public fields
@@ -27,7 +30,8 @@ public class BasicBlock implements IGraphNode {
 
   private final List<BasicBlock> preds = new ArrayList<>();
   private final List<BasicBlock> succs = new ArrayList<>();
-  private final List<Integer> instrOldOffsets = new ArrayList<>();
+  private int[] instrOldOffsets = EMPTY_OFFSETS;
+  private int instrOldOffsetCount;
   private final List<BasicBlock> predExceptions = new ArrayList<>();
   private final List<BasicBlock> succExceptions = new ArrayList<>();
 
@@ -45,7 +49,7 @@ public class BasicBlock implements IGraphNode {
     BasicBlock block = new BasicBlock(id);
 
     block.setSeq(seq.clone());
-    block.instrOldOffsets.addAll(instrOldOffsets);
+    block.addOldOffsets(this);
 
     return block;
   }
@@ -63,14 +67,34 @@ public class BasicBlock implements IGraphNode {
     }
   }
 
-  public Integer getOldOffset(int index) {
-    if(index < instrOldOffsets.size()) {
-      return instrOldOffsets.get(index);
+  public int getOldOffset(int index) {
+    if(index < instrOldOffsetCount) {
+      return instrOldOffsets[index];
     } else {
       return -1;
     }
   }
 
+  public int getOldOffsetCount() {
+    return instrOldOffsetCount;
+  }
+
+  public void addOldOffset(int offset) {
+    if (instrOldOffsetCount == instrOldOffsets.length) {
+      instrOldOffsets = Arrays.copyOf(instrOldOffsets, Math.max(4, instrOldOffsetCount * 2));
+    }
+    instrOldOffsets[instrOldOffsetCount++] = offset;
+  }
+
+  public void addOldOffsets(BasicBlock block) {
+    int count = instrOldOffsetCount + block.instrOldOffsetCount;
+    if (count > instrOldOffsets.length) {
+      instrOldOffsets = Arrays.copyOf(instrOldOffsets, count);
+    }
+    System.arraycopy(block.instrOldOffsets, 0, instrOldOffsets, instrOldOffsetCount, block.instrOldOffsetCount);
+    instrOldOffsetCount = count;
+  }
+
   public int size() {
     return seq.length();
   }
@@ -132,6 +156,12 @@ public class BasicBlock implements IGraphNode {
     block.removePredecessorException(this);
   }
 
+  // hashed by id so that sets of blocks are iterated in the same order in every run
+  @Override
+  public int hashCode() {
+    return id;
+  }
+
   public String toString() {
     return toString(0);
   }
@@ -156,15 +186,22 @@ public class BasicBlock implements IGraphNode {
   // getter and setter methods
   // *****************************************************************************
 
-  public List<Integer> getInstrOldOffsets() {
-    return instrOldOffsets;
-  }
-
+  /**
+   * @return regular and exception predecessors, a view which reflects later changes
+   */
   @Override
   public List<? extends IGraphNode> getPredecessors() {
-    List<BasicBlock> lst = new ArrayList<>(preds);
-    lst.addAll(predExceptions);
-    return lst;
+    return new AbstractList<BasicBlock>() {
+      @Override
+      public BasicBlock get(int index) {
+        return index < preds.size() ? preds.get(index) : predExceptions.get(index - preds.size());
+      }
+
+      @Override
+      public int size() {
+        return preds.size() + predExceptions.size();
+      }
+    };
   }
 
   public List<BasicBlock> getPreds() {
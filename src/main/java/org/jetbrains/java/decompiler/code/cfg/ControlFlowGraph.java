@@ -9,8 +9,8 @@ import org.jetbrains.java.decompiler.struct.StructMethod;
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
 import org.jetbrains.java.decompiler.struct.gen.DataPoint;
 import org.jetbrains.java.decompiler.struct.gen.VarType;
+import org.jetbrains.java.decompiler.util.IntKeyedCollection;
 import org.jetbrains.java.decompiler.util.ListStack;
-import org.jetbrains.java.decompiler.util.VBStyleCollection;
 
 import java.util.*;
 import java.util.Map.Entry;
@@ -23,7 +23,7 @@ public class ControlFlowGraph implements CodeConstants {
   // private fields
   // *****************************************************************************
 
-  private VBStyleCollection<BasicBlock, Integer> blocks;
+  private IntKeyedCollection<BasicBlock> blocks;
 
   private BasicBlock first;
 
@@ -192,7 +192,7 @@ public class ControlFlowGraph implements CodeConstants {
     short[] states = findStartInstructions(instrseq);
 
     Map<Integer, BasicBlock> mapInstrBlocks = new HashMap<>();
-    VBStyleCollection<BasicBlock, Integer> colBlocks = createBasicBlocks(states, instrseq, mapInstrBlocks);
+    IntKeyedCollection<BasicBlock> colBlocks = createBasicBlocks(states, instrseq, mapInstrBlocks);
 
     blocks = colBlocks;
 
@@ -255,14 +255,13 @@ public class ControlFlowGraph implements CodeConstants {
   }
 
 
-  private VBStyleCollection<BasicBlock, Integer> createBasicBlocks(short[] startblock,
+  private IntKeyedCollection<BasicBlock> createBasicBlocks(short[] startblock,
                                                                    InstructionSequence instrseq,
                                                                    Map<Integer, BasicBlock> mapInstrBlocks) {
 
-    VBStyleCollection<BasicBlock, Integer> col = new VBStyleCollection<>();
+    IntKeyedCollection<BasicBlock> col = new IntKeyedCollection<>();
 
     InstructionSequence currseq = null;
-    List<Integer> lstOffs = null;
 
     int len = startblock.length;
     short counter = 0;
@@ -275,7 +274,6 @@ public class ControlFlowGraph implements CodeConstants {
         currentBlock = new BasicBlock(++counter);
 
         currseq = currentBlock.getSeq();
-        lstOffs = currentBlock.getInstrOldOffsets();
 
         col.addWithKey(currentBlock, currentBlock.id);
 
@@ -286,7 +284,7 @@ public class ControlFlowGraph implements CodeConstants {
       mapInstrBlocks.put(i, currentBlock);
 
       currseq.addInstruction(instrseq.getInstr(i), instrseq.getOffset(i) - blockoffset);
-      lstOffs.add(instrseq.getOffset(i));
+      currentBlock.addOldOffset(instrseq.getOffset(i));
     }
 
     last_id = counter;
@@ -739,49 +737,60 @@ public class ControlFlowGraph implements CodeConstants {
 
   public List<BasicBlock> getReversePostOrder() {
 
-    List<BasicBlock> res = new LinkedList<>();
-    addToReversePostOrderListIterative(first, res);
+    List<BasicBlock> res = new ArrayList<>(blocks.size());
+    addToPostOrderListIterative(first, res, new boolean[last_id + 1]);
+    Collections.reverse(res);
 
     return res;
   }
 
-  private static void addToReversePostOrderListIterative(BasicBlock root, List<? super BasicBlock> lst) {
+  /**
+   * @param visited marks by block id
+   */
+  private static void addToPostOrderListIterative(BasicBlock root, List<? super BasicBlock> lst, boolean[] visited) {
 
-    LinkedList<BasicBlock> stackNode = new LinkedList<>();
-    LinkedList<Integer> stackIndex = new LinkedList<>();
-
-    Set<BasicBlock> setVisited = new HashSet<>();
+    List<BasicBlock> stackNode = new ArrayList<>();
+    int[] stackIndex = new int[16];
 
     stackNode.add(root);
-    stackIndex.add(0);
+    visited[root.id] = true;
 
     while (!stackNode.isEmpty()) {
 
-      BasicBlock node = stackNode.getLast();
-      int index = stackIndex.removeLast();
+      int depth = stackNode.size() - 1;
+      BasicBlock node = stackNode.get(depth);
+      int index = stackIndex[depth];
 
-      setVisited.add(node);
+      // regular successors first, then exception ones
+      List<BasicBlock> lstSuccs = node.getSuccs();
+      List<BasicBlock> lstSuccExceptions = node.getSuccExceptions();
+      int count = lstSuccs.size() + lstSuccExceptions.size();
 
-      List<BasicBlock> lstSuccs = new ArrayList<>(node.getSuccs());
-      lstSuccs.addAll(node.getSuccExceptions());
+      for (; index < count; index++) {
+        BasicBlock succ = index < lstSuccs.size() ? lstSuccs.get(index) : lstSuccExceptions.get(index - lstSuccs.size());
 
-      for (; index < lstSuccs.size(); index++) {
-        BasicBlock succ = lstSuccs.get(index);
+        if (succ.id >= visited.length) {
+          visited = Arrays.copyOf(visited, succ.id + 1);
+        }
 
-        if (!setVisited.contains(succ)) {
-          stackIndex.add(index + 1);
+        if (!visited[succ.id]) {
+          stackIndex[depth] = index + 1;
 
+          if (depth + 1 == stackIndex.length) {
+            stackIndex = Arrays.copyOf(stackIndex, stackIndex.length * 2);
+          }
           stackNode.add(succ);
-          stackIndex.add(0);
+          stackIndex[depth + 1] = 0;
+          visited[succ.id] = true;
 
           break;
         }
       }
 
-      if (index == lstSuccs.size()) {
-        lst.add(0, node);
+      if (index == count) {
+        lst.add(node);
 
-        stackNode.removeLast();
+        stackNode.remove(depth);
       }
     }
   }
@@ -791,7 +800,7 @@ public class ControlFlowGraph implements CodeConstants {
   // getter and setter methods
   // *****************************************************************************
 
-  public VBStyleCollection<BasicBlock, Integer> getBlocks() {
+  public IntKeyedCollection<BasicBlock> getBlocks() {
     return blocks;
   }
 
@@ -3,7 +3,6 @@ package org.jetbrains.java.decompiler.main;
 
 import org.jetbrains.java.decompiler.code.CodeConstants;
 import org.jetbrains.java.decompiler.main.ClassesProcessor.ClassNode;
-import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
 import org.jetbrains.java.decompiler.main.rels.ClassWrapper;
 import org.jetbrains.java.decompiler.main.rels.MethodWrapper;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.*;
@@ -57,13 +56,13 @@ public final class ClassReference14Processor {
 
   public static void processClassReferences(ClassNode node) {
     // find the synthetic method Class class$(String) if present
-    Map<ClassWrapper, MethodWrapper> mapClassMeths = new HashMap<>();
+    Map<ClassWrapper, MethodWrapper> mapClassMeths = new LinkedHashMap<>();
     mapClassMethods(node, mapClassMeths);
     if (mapClassMeths.isEmpty()) {
       return;
     }
 
-    Set<ClassWrapper> setFound = new HashSet<>();
+    Set<ClassWrapper> setFound = new LinkedHashSet<>();
     processClassRec(node, mapClassMeths, setFound);
 
     if (!setFound.isEmpty()) {
@@ -121,7 +120,7 @@ public final class ClassReference14Processor {
   }
 
   private static void mapClassMethods(ClassNode node, Map<ClassWrapper, MethodWrapper> map) {
-    boolean noSynthFlag = DecompilerContext.getOption(IFernflowerPreferences.SYNTHETIC_NOT_SET);
+    boolean noSynthFlag = DecompilerContext.getOption(DecompilerOptions.Flag.SYNTHETIC_NOT_SET);
 
     ClassWrapper wrapper = node.getWrapper();
 
@@ -205,7 +204,7 @@ public final class ClassReference14Processor {
                   wrapper.getClassStruct().getField(field.getName(), field.getDescriptor().descriptorString);  // FIXME: can be null! why??
 
                 if (fd != null && fd.hasModifier(CodeConstants.ACC_STATIC) &&
-                    (fd.isSynthetic() || DecompilerContext.getOption(IFernflowerPreferences.SYNTHETIC_NOT_SET))) {
+                    (fd.isSynthetic() || DecompilerContext.getOption(DecompilerOptions.Flag.SYNTHETIC_NOT_SET))) {
 
                   if (fexpr.getLstOperands().get(1).type == Exprent.EXPRENT_ASSIGNMENT && fexpr.getLstOperands().get(2).equals(field)) {
                     AssignmentExprent asexpr = (AssignmentExprent)fexpr.getLstOperands().get(1);
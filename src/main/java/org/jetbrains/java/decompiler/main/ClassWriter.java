@@ -5,7 +5,6 @@ import org.jetbrains.java.decompiler.code.CodeConstants;
 import org.jetbrains.java.decompiler.main.ClassesProcessor.ClassNode;
 import org.jetbrains.java.decompiler.main.collectors.BytecodeMappingTracer;
 import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
-import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
 import org.jetbrains.java.decompiler.main.rels.ClassWrapper;
 import org.jetbrains.java.decompiler.main.rels.MethodWrapper;
 import org.jetbrains.java.decompiler.modules.decompiler.ExprProcessor;
@@ -42,15 +41,15 @@ public class ClassWriter {
 
     if (node.type == ClassNode.CLASS_ROOT &&
         !cl.isVersionGE_1_5() &&
-        DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_CLASS_1_4)) {
+        DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_CLASS_1_4)) {
       ClassReference14Processor.processClassReferences(node);
     }
 
-    if (cl.hasModifier(CodeConstants.ACC_ENUM) && DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_ENUM)) {
+    if (cl.hasModifier(CodeConstants.ACC_ENUM) && DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_ENUM)) {
       EnumProcessor.clearEnum(wrapper);
     }
 
-    if (DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_ASSERTIONS)) {
+    if (DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_ASSERTIONS)) {
       AssertProcessor.buildAssertions(node);
     }
   }
@@ -61,7 +60,7 @@ public class ClassWriter {
       return;
     }
 
-    boolean lambdaToAnonymous = DecompilerContext.getOption(IFernflowerPreferences.LAMBDA_TO_ANONYMOUS_CLASS);
+    boolean lambdaToAnonymous = DecompilerContext.getOption(DecompilerOptions.Flag.LAMBDA_TO_ANONYMOUS_CLASS);
 
     ClassNode outerNode = (ClassNode)DecompilerContext.getProperty(DecompilerContext.CURRENT_CLASS_NODE);
     DecompilerContext.setProperty(DecompilerContext.CURRENT_CLASS_NODE, node);
@@ -163,7 +162,7 @@ public class ClassWriter {
       List<StructRecordComponent> components = cl.getRecordComponents();
 
       for (StructField fd : cl.getFields()) {
-        boolean hide = fd.isSynthetic() && DecompilerContext.getOption(IFernflowerPreferences.REMOVE_SYNTHETIC) ||
+        boolean hide = fd.isSynthetic() && DecompilerContext.getOption(DecompilerOptions.Flag.REMOVE_SYNTHETIC) ||
                        wrapper.getHiddenMembers().contains(InterpreterUtil.makeUniqueKey(fd.getName(), fd.getDescriptor()));
         if (hide) continue;
 
@@ -173,7 +172,7 @@ public class ClassWriter {
           continue;
         }
 
-        boolean isEnum = fd.hasModifier(CodeConstants.ACC_ENUM) && DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_ENUM);
+        boolean isEnum = fd.hasModifier(CodeConstants.ACC_ENUM) && DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_ENUM);
         if (isEnum) {
           if (enumFields) {
             buffer.append(',').appendLineSeparator();
@@ -204,8 +203,8 @@ public class ClassWriter {
 
       // methods
       for (StructMethod mt : cl.getMethods()) {
-        boolean hide = mt.isSynthetic() && DecompilerContext.getOption(IFernflowerPreferences.REMOVE_SYNTHETIC) ||
-                       mt.hasModifier(CodeConstants.ACC_BRIDGE) && DecompilerContext.getOption(IFernflowerPreferences.REMOVE_BRIDGE) ||
+        boolean hide = mt.isSynthetic() && DecompilerContext.getOption(DecompilerOptions.Flag.REMOVE_SYNTHETIC) ||
+                       mt.hasModifier(CodeConstants.ACC_BRIDGE) && DecompilerContext.getOption(DecompilerOptions.Flag.REMOVE_BRIDGE) ||
                        wrapper.getHiddenMembers().contains(InterpreterUtil.makeUniqueKey(mt.getName(), mt.getDescriptor()));
         if (hide) continue;
 
@@ -233,7 +232,7 @@ public class ClassWriter {
         if (inner.type == ClassNode.CLASS_MEMBER) {
           StructClass innerCl = inner.classStruct;
           boolean isSynthetic = (inner.access & CodeConstants.ACC_SYNTHETIC) != 0 || innerCl.isSynthetic();
-          boolean hide = isSynthetic && DecompilerContext.getOption(IFernflowerPreferences.REMOVE_SYNTHETIC) ||
+          boolean hide = isSynthetic && DecompilerContext.getOption(DecompilerOptions.Flag.REMOVE_SYNTHETIC) ||
                          wrapper.getHiddenMembers().contains(innerCl.qualifiedName);
           if (hide) continue;
 
@@ -296,7 +295,7 @@ public class ClassWriter {
     int flags = node.type == ClassNode.CLASS_ROOT ? cl.getAccessFlags() : node.access;
     boolean isDeprecated = cl.hasAttribute(StructGeneralAttribute.ATTRIBUTE_DEPRECATED);
     boolean isSynthetic = (flags & CodeConstants.ACC_SYNTHETIC) != 0 || cl.hasAttribute(StructGeneralAttribute.ATTRIBUTE_SYNTHETIC);
-    boolean isEnum = DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_ENUM) && (flags & CodeConstants.ACC_ENUM) != 0;
+    boolean isEnum = DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_ENUM) && (flags & CodeConstants.ACC_ENUM) != 0;
     boolean isInterface = (flags & CodeConstants.ACC_INTERFACE) != 0;
     boolean isAnnotation = (flags & CodeConstants.ACC_ANNOTATION) != 0;
 
@@ -417,7 +416,7 @@ public class ClassWriter {
     int start = buffer.length();
     boolean isInterface = cl.hasModifier(CodeConstants.ACC_INTERFACE);
     boolean isDeprecated = fd.hasAttribute(StructGeneralAttribute.ATTRIBUTE_DEPRECATED);
-    boolean isEnum = fd.hasModifier(CodeConstants.ACC_ENUM) && DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_ENUM);
+    boolean isEnum = fd.hasModifier(CodeConstants.ACC_ENUM) && DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_ENUM);
 
     if (isDeprecated) {
       appendDeprecation(buffer, indent);
@@ -443,7 +442,7 @@ public class ClassWriter {
     VarType fieldType = new VarType(fd.getDescriptor(), false);
 
     GenericFieldDescriptor descriptor = null;
-    if (DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_GENERIC_SIGNATURES)) {
+    if (DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_GENERIC_SIGNATURES)) {
       StructGenericSignatureAttribute attr = fd.getAttribute(StructGeneralAttribute.ATTRIBUTE_SIGNATURE);
       if (attr != null) {
         descriptor = GenericMain.parseFieldSignature(attr.getSignature());
@@ -509,7 +508,7 @@ public class ClassWriter {
     VarType fieldType = new VarType(cd.getDescriptor(), false);
 
     GenericFieldDescriptor descriptor = null;
-    if (DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_GENERIC_SIGNATURES)) {
+    if (DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_GENERIC_SIGNATURES)) {
       StructGenericSignatureAttribute attr = cd.getAttribute(StructGeneralAttribute.ATTRIBUTE_SIGNATURE);
       if (attr != null) {
         descriptor = GenericMain.parseFieldSignature(attr.getSignature());
@@ -564,7 +563,7 @@ public class ClassWriter {
 
             String typeName = ExprProcessor.getCastTypeName(md_content.params[i].copy());
             if (ExprProcessor.UNDEFINED_TYPE_STRING.equals(typeName) &&
-                DecompilerContext.getOption(IFernflowerPreferences.UNDEFINED_PARAM_TYPE_OBJECT)) {
+                DecompilerContext.getOption(DecompilerOptions.Flag.UNDEFINED_PARAM_TYPE_OBJECT)) {
               typeName = ExprProcessor.getCastTypeName(VarType.VARTYPE_OBJECT);
             }
 
@@ -655,7 +654,7 @@ public class ClassWriter {
     try {
       boolean isInterface = cl.hasModifier(CodeConstants.ACC_INTERFACE);
       boolean isAnnotation = cl.hasModifier(CodeConstants.ACC_ANNOTATION);
-      boolean isEnum = cl.hasModifier(CodeConstants.ACC_ENUM) && DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_ENUM);
+      boolean isEnum = cl.hasModifier(CodeConstants.ACC_ENUM) && DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_ENUM);
       boolean isDeprecated = mt.hasAttribute(StructGeneralAttribute.ATTRIBUTE_DEPRECATED);
       boolean clinit = false, init = false, dinit = false;
 
@@ -715,7 +714,7 @@ public class ClassWriter {
       }
 
       GenericMethodDescriptor descriptor = null;
-      if (DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_GENERIC_SIGNATURES)) {
+      if (DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_GENERIC_SIGNATURES)) {
         StructGenericSignatureAttribute attr = mt.getAttribute(StructGeneralAttribute.ATTRIBUTE_SIGNATURE);
         if (attr != null) {
           descriptor = GenericMain.parseMethodSignature(attr.getSignature());
@@ -771,7 +770,7 @@ public class ClassWriter {
         }
 
         List<StructMethodParametersAttribute.Entry> methodParameters = null;
-        if (DecompilerContext.getOption(IFernflowerPreferences.USE_METHOD_PARAMETERS)) {
+        if (DecompilerContext.getOption(DecompilerOptions.Flag.USE_METHOD_PARAMETERS)) {
           StructMethodParametersAttribute attr = mt.getAttribute(StructGeneralAttribute.ATTRIBUTE_METHOD_PARAMETERS);
           if (attr != null) {
             methodParameters = attr.getEntries();
@@ -816,7 +815,7 @@ public class ClassWriter {
             }
 
             if (ExprProcessor.UNDEFINED_TYPE_STRING.equals(typeName) &&
-                DecompilerContext.getOption(IFernflowerPreferences.UNDEFINED_PARAM_TYPE_OBJECT)) {
+                DecompilerContext.getOption(DecompilerOptions.Flag.UNDEFINED_PARAM_TYPE_OBJECT)) {
               typeName = ExprProcessor.getCastTypeName(VarType.VARTYPE_OBJECT);
             }
             buffer.append(typeName);
@@ -937,7 +936,7 @@ public class ClassWriter {
 
   private static boolean hideConstructor(ClassNode node, boolean init, boolean throwsExceptions, int paramCount, int methodAccessFlags) {
 
-    if (!init || throwsExceptions || paramCount > 0 || !DecompilerContext.getOption(IFernflowerPreferences.HIDE_DEFAULT_CONSTRUCTOR)) {
+    if (!init || throwsExceptions || paramCount > 0 || !DecompilerContext.getOption(DecompilerOptions.Flag.HIDE_DEFAULT_CONSTRUCTOR)) {
       return false;
     }
 
@@ -945,7 +944,7 @@ public class ClassWriter {
 	  StructClass cl = wrapper.getClassStruct();
 
 	  int classAccesFlags = node.type == ClassNode.CLASS_ROOT ? cl.getAccessFlags() : node.access;
-    boolean isEnum = cl.hasModifier(CodeConstants.ACC_ENUM) && DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_ENUM);
+    boolean isEnum = cl.hasModifier(CodeConstants.ACC_ENUM) && DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_ENUM);
 
     // default constructor requires same accessibility flags. Exception: enum constructor which is always private
   	if(!isEnum && ((classAccesFlags & ACCESSIBILITY_FLAGS) != (methodAccessFlags & ACCESSIBILITY_FLAGS))) {
@@ -1012,7 +1011,7 @@ public class ClassWriter {
   private static String getTypePrintOut(VarType type) {
     String typeText = ExprProcessor.getCastTypeName(type, false);
     if (ExprProcessor.UNDEFINED_TYPE_STRING.equals(typeText) &&
-        DecompilerContext.getOption(IFernflowerPreferences.UNDEFINED_PARAM_TYPE_OBJECT)) {
+        DecompilerContext.getOption(DecompilerOptions.Flag.UNDEFINED_PARAM_TYPE_OBJECT)) {
       typeText = ExprProcessor.getCastTypeName(VarType.VARTYPE_OBJECT, false);
     }
     return typeText;
@@ -1138,7 +1137,7 @@ public class ClassWriter {
   }
 
   public static GenericClassDescriptor getGenericClassDescriptor(StructClass cl) {
-    if (DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_GENERIC_SIGNATURES)) {
+    if (DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_GENERIC_SIGNATURES)) {
       StructGenericSignatureAttribute attr = cl.getAttribute(StructGeneralAttribute.ATTRIBUTE_SIGNATURE);
       if (attr != null) {
         return GenericMain.parseClassSignature(attr.getSignature());
@@ -2,12 +2,10 @@
 package org.jetbrains.java.decompiler.main;
 
 import org.jetbrains.java.decompiler.code.CodeConstants;
-import org.jetbrains.java.decompiler.code.Instruction;
-import org.jetbrains.java.decompiler.code.InstructionSequence;
+import org.jetbrains.java.decompiler.code.InstructionTable;
 import org.jetbrains.java.decompiler.main.collectors.BytecodeSourceMapper;
 import org.jetbrains.java.decompiler.main.collectors.ImportCollector;
 import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
-import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
 import org.jetbrains.java.decompiler.main.extern.IIdentifierRenamer;
 import org.jetbrains.java.decompiler.main.rels.ClassWrapper;
 import org.jetbrains.java.decompiler.main.rels.LambdaProcessor;
@@ -29,12 +27,13 @@ import org.jetbrains.java.decompiler.util.TextBuffer;
 import java.io.IOException;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ClassesProcessor implements CodeConstants {
   public static final int AVERAGE_CLASS_SIZE = 16 * 1024;
 
   private final StructContext context;
-  private final Map<String, ClassNode> mapRootClasses = new HashMap<>();
+  private Map<String, ClassNode> mapRootClasses = new HashMap<>();
 
   private static class Inner {
     private String simpleName;
@@ -56,8 +55,8 @@ public class ClassesProcessor implements CodeConstants {
     Map<String, Set<String>> mapEnclosingClassReferences = new HashMap<>();
     Map<String, String> mapNewSimpleNames = new HashMap<>();
 
-    boolean bDecompileInner = DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_INNER);
-    boolean verifyAnonymousClasses = DecompilerContext.getOption(IFernflowerPreferences.VERIFY_ANONYMOUS_CLASSES);
+    boolean bDecompileInner = DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_INNER);
+    boolean verifyAnonymousClasses = DecompilerContext.getOption(DecompilerOptions.Flag.VERIFY_ANONYMOUS_CLASSES);
 
     // create class nodes
     for (StructClass cl : context.getClasses().values()) {
@@ -208,6 +207,9 @@ public class ClassesProcessor implements CodeConstants {
         }
       }
     }
+
+    // lambda nodes are registered while classes are written, possibly by several threads at once
+    mapRootClasses = new ConcurrentHashMap<>(mapRootClasses);
   }
 
   private static boolean isAnonymous(StructClass cl, StructClass enclosingCl) {
@@ -245,17 +247,14 @@ public class ClassesProcessor implements CodeConstants {
       }
 
       try {
-        mt.expandData();
-
-        InstructionSequence seq = mt.getInstructionSequence();
-        if (seq != null) {
-          int len = seq.length();
+        InstructionTable table = mt.getInstructionTable();
+        if (table != null) {
+          int len = table.size();
           for (int i = 0; i < len; i++) {
-            Instruction instr = seq.getInstr(i);
-            switch (instr.opcode) {
+            switch (table.getOpcode(i)) {
               case opc_checkcast:
               case opc_instanceof:
-                if (cl.qualifiedName.equals(pool.getPrimitiveConstant(instr.operand(0)).getString())) {
+                if (cl.qualifiedName.equals(pool.getPrimitiveConstant(table.getOperand(i, 0)).getString())) {
                   refCounter++;
                   refNotNew = true;
                 }
@@ -263,21 +262,19 @@ public class ClassesProcessor implements CodeConstants {
               case opc_new:
               case opc_anewarray:
               case opc_multianewarray:
-                if (cl.qualifiedName.equals(pool.getPrimitiveConstant(instr.operand(0)).getString())) {
+                if (cl.qualifiedName.equals(pool.getPrimitiveConstant(table.getOperand(i, 0)).getString())) {
                   refCounter++;
                 }
                 break;
               case opc_getstatic:
               case opc_putstatic:
-                if (cl.qualifiedName.equals(pool.getLinkConstant(instr.operand(0)).classname)) {
+                if (cl.qualifiedName.equals(pool.getLinkConstant(table.getOperand(i, 0)).classname)) {
                   refCounter++;
                   refNotNew = true;
                 }
             }
           }
         }
-
-        mt.releaseResources();
       }
       catch (IOException ex) {
         String message = "Could not read method while checking anonymous class definition: '" + enclosingCl.qualifiedName + "', '" +
@@ -320,7 +317,10 @@ public class ClassesProcessor implements CodeConstants {
       new NestedMemberAccess().propagateMemberAccess(root);
 
       TextBuffer classBuffer = new TextBuffer(AVERAGE_CLASS_SIZE);
+      DecompileProfiler.Record profile = DecompileProfiler.startClass(cl);
+      profile.begin();
       new ClassWriter().classToJava(root, classBuffer, 0, null);
+      profile.end(DecompileProfiler.Pass.WRITE);
 
       int index = cl.qualifiedName.lastIndexOf("/");
       if (index >= 0) {
@@ -342,13 +342,13 @@ public class ClassesProcessor implements CodeConstants {
 
       buffer.append(classBuffer);
 
-      if (DecompilerContext.getOption(IFernflowerPreferences.BYTECODE_SOURCE_MAPPING)) {
+      if (DecompilerContext.getOption(DecompilerOptions.Flag.BYTECODE_SOURCE_MAPPING)) {
         BytecodeSourceMapper mapper = DecompilerContext.getBytecodeSourceMapper();
         mapper.addTotalOffset(offsetLines);
-        if (DecompilerContext.getOption(IFernflowerPreferences.DUMP_ORIGINAL_LINES)) {
+        if (DecompilerContext.getOption(DecompilerOptions.Flag.DUMP_ORIGINAL_LINES)) {
           buffer.dumpOriginalLineNumbers(mapper.getOriginalLinesMapping());
         }
-        if (DecompilerContext.getOption(IFernflowerPreferences.UNIT_TEST_MODE)) {
+        if (DecompilerContext.getOption(DecompilerOptions.Flag.UNIT_TEST_MODE)) {
           buffer.appendLineSeparator();
           mapper.dumpMapping(buffer, true);
         }
@@ -369,6 +369,7 @@ public class ClassesProcessor implements CodeConstants {
     wrapper.init();
 
     node.wrapper = wrapper;
+    node.wrapperContext = DecompilerContext.getClassContext();
 
     for (ClassNode nd : node.nested) {
       initWrappers(nd);
@@ -387,6 +388,7 @@ public class ClassesProcessor implements CodeConstants {
 
   private static void destroyWrappers(ClassNode node) {
     node.wrapper = null;
+    node.wrapperContext = null;
     node.classStruct.releaseResources();
 
     for (ClassNode nd : node.nested) {
@@ -411,6 +413,7 @@ public class ClassesProcessor implements CodeConstants {
     public String simpleName;
     public final StructClass classStruct;
     private ClassWrapper wrapper;
+    private DecompilerContext wrapperContext;
     public String enclosingMethod;
     public InvocationExprent superInvocation;
     public final Map<String, VarVersionPair> mapFieldsToVars = new HashMap<>();
@@ -446,7 +449,7 @@ public class ClassesProcessor implements CodeConstants {
 
       anonymousClassType = new VarType(lambda_class_name, true);
 
-      boolean is_method_reference = (content_class_name != classStruct.qualifiedName);
+      boolean is_method_reference = !content_class_name.equals(classStruct.qualifiedName);
       if (!is_method_reference) { // content method in the same class, check synthetic flag
         StructMethod mt = classStruct.getMethod(content_method_name, content_method_descriptor);
         is_method_reference = !mt.isSynthetic(); // if not synthetic -> method reference
@@ -473,12 +476,16 @@ public class ClassesProcessor implements CodeConstants {
       return null;
     }
 
+    /**
+     * @return wrapper of the class if its root class is being decompiled in the current context, null otherwise;
+     * other root classes may be decompiled by other threads at the same time, so their wrappers are not visible
+     */
     public ClassWrapper getWrapper() {
       ClassNode node = this;
       while (node.type == CLASS_LAMBDA) {
         node = node.parent;
       }
-      return node.wrapper;
+      return node.wrapperContext == DecompilerContext.getClassContext() ? node.wrapper : null;
     }
 
     public static class LambdaInformation {
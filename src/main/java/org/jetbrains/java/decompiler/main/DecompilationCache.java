@@ -0,0 +1,282 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main;
+
+import org.jetbrains.java.decompiler.main.ClassesProcessor.ClassNode;
+import org.jetbrains.java.decompiler.main.ParallelDecompiler.ClassContent;
+import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
+import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.jetbrains.java.decompiler.struct.StructClass;
+import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
+import org.jetbrains.java.decompiler.struct.lazy.LazyLoader;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk store of decompiled classes. An entry is addressed by a hash of the bytecode of the root class,
+ * its nested classes, the classes their constant pools refer to and the super types of all of these, together
+ * with all options affecting the output and the names of the classes which may clash with the imports of the
+ * class, so classes that did not change since the last run can be written without being decompiled again.
+ * <p>
+ * Classes which are only named in descriptors and signatures, without a class entry in the pool, are
+ * covered by their names alone. A change to one of them which alters the output, like turning it into
+ * an inner class, is missed until the class referring to it changes too.
+ */
+public class DecompilationCache {
+  // bump whenever a change to the decompiler alters its output
+  private static final String FORMAT_VERSION = "1";
+  private static final int ENTRY_MAGIC = 0xFFCAC4E1;
+  private static final String FAILED_METHOD_MARKER = "$FF: Couldn't be decompiled";
+  private static final Set<String> IGNORED_OPTIONS = new HashSet<>(Arrays.asList(
+    IFernflowerPreferences.CACHE_DIRECTORY, IFernflowerPreferences.THREADS, IFernflowerPreferences.LOG_LEVEL,
+    IFernflowerPreferences.LOADER_CACHE_SIZE, IFernflowerPreferences.PROFILE_DIRECTORY));
+
+  private final Path directory;
+  private final byte[] optionsDigest;
+  // package -> hash of the names of its classes
+  private final Map<String, byte[]> packageDigests;
+  private final Map<String, ClassInfo> classInfos = new ConcurrentHashMap<>();
+
+  private DecompilationCache(Path directory, byte[] optionsDigest, Map<String, byte[]> packageDigests) {
+    this.directory = directory;
+    this.optionsDigest = optionsDigest;
+    this.packageDigests = packageDigests;
+  }
+
+  /**
+   * @return cache in the directory set with {@link IFernflowerPreferences#CACHE_DIRECTORY}; null if none was set
+   */
+  public static DecompilationCache create() {
+    Map<String, Object> properties = DecompilerContext.getProperties();
+    Object value = properties.get(IFernflowerPreferences.CACHE_DIRECTORY);
+    if (value == null || value.toString().isEmpty()) {
+      return null;
+    }
+
+    MessageDigest digest = newDigest();
+    digest.update(FORMAT_VERSION.getBytes(StandardCharsets.UTF_8));
+    for (String key : new TreeSet<>(properties.keySet())) {
+      if (!IGNORED_OPTIONS.contains(key)) {
+        digest.update((key + '=' + properties.get(key) + '\n').getBytes(StandardCharsets.UTF_8));
+      }
+    }
+
+    // imports depend on which simple names are taken by the classes of the same package and the default package
+    Map<String, MessageDigest> packages = new HashMap<>();
+    for (String name : new TreeSet<>(DecompilerContext.getStructContext().getClassNames())) {
+      packages.computeIfAbsent(getPackage(name), k -> newDigest()).update((name + '\n').getBytes(StandardCharsets.UTF_8));
+    }
+    Map<String, byte[]> packageDigests = new HashMap<>();
+    for (Map.Entry<String, MessageDigest> entry : packages.entrySet()) {
+      packageDigests.put(entry.getKey(), entry.getValue().digest());
+    }
+
+    return new DecompilationCache(Paths.get(value.toString()), digest.digest(), packageDigests);
+  }
+
+  private static String getPackage(String className) {
+    int index = className.lastIndexOf('/');
+    return index < 0 ? "" : className.substring(0, index);
+  }
+
+  public String getKey(StructClass cl) throws IOException {
+    MessageDigest digest = newDigest();
+    digest.update(optionsDigest);
+
+    updatePackage(digest, getPackage(cl.qualifiedName));
+    updatePackage(digest, "");
+
+    LazyLoader loader = cl.getLoader();
+    Set<String> visited = new HashSet<>();
+    LinkedList<String> queue = new LinkedList<>();
+    ClassNode node = DecompilerContext.getClassProcessor().getMapRootClasses().get(cl.qualifiedName);
+    updateNested(digest, loader, node, visited, queue);
+
+    // fields and inner classes of super types are taken into account when collecting imports, and signatures of
+    // the members of referenced classes when writing calls and field accesses;
+    // referenced classes are hashed as they are stored, so library classes don't have to be parsed
+    while (!queue.isEmpty()) {
+      String name = queue.removeFirst();
+      if (!visited.add(name)) {
+        continue;
+      }
+
+      digest.update(name.getBytes(StandardCharsets.UTF_8));
+      ClassInfo referenced = getClassInfo(loader, name);
+      if (referenced != null) {
+        digest.update(referenced.digest);
+        queue.addAll(referenced.superTypes);
+      }
+    }
+
+    return toHex(digest.digest());
+  }
+
+  private void updatePackage(MessageDigest digest, String packageName) {
+    byte[] packageDigest = packageDigests.get(packageName);
+    if (packageDigest != null) {
+      digest.update(packageDigest);
+    }
+  }
+
+  private void updateNested(MessageDigest digest, LazyLoader loader, ClassNode node, Set<String> visited, List<String> queue)
+    throws IOException {
+    if (node.type == ClassNode.CLASS_LAMBDA) {
+      return;
+    }
+
+    StructClass cl = node.classStruct;
+    ClassInfo info = getClassInfo(loader, cl.qualifiedName);
+    if (info != null) {
+      digest.update(info.digest);
+      queue.addAll(info.superTypes);
+    }
+    visited.add(cl.qualifiedName);
+    queue.addAll(cl.getPool().getClassNames());
+
+    for (ClassNode nested : node.nested) {
+      updateNested(digest, loader, nested, visited, queue);
+    }
+  }
+
+  /**
+   * @return hash and super types of the class, read from its class file; null if the class is unknown
+   */
+  private ClassInfo getClassInfo(LazyLoader loader, String name) throws IOException {
+    ClassInfo info = classInfos.get(name);
+    if (info == null) {
+      byte[] bytes = loader.getClassBytes(name);
+      if (bytes == null) {
+        return null;
+      }
+      info = new ClassInfo(newDigest().digest(bytes), readSuperTypes(bytes));
+      classInfos.put(name, info);
+    }
+    return info;
+  }
+
+  private static List<String> readSuperTypes(byte[] bytes) throws IOException {
+    ClassFileReader in = new ClassFileReader(bytes);
+    in.discard(8);
+    ConstantPool pool = new ConstantPool(in);
+    in.discard(4);  // access flags and this class
+
+    List<String> superTypes = new ArrayList<>();
+    int superClass = in.readUnsignedShort();
+    if (superClass != 0) {
+      superTypes.add(pool.getPrimitiveConstant(superClass).getString());
+    }
+    int interfaces = in.readUnsignedShort();
+    for (int i = 0; i < interfaces; i++) {
+      superTypes.add(pool.getPrimitiveConstant(in.readUnsignedShort()).getString());
+    }
+    return superTypes;
+  }
+
+  public ClassContent load(String key) {
+    Path file = getEntryFile(key);
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+      if (in.readInt() != ENTRY_MAGIC) {
+        return null;
+      }
+
+      int[] mapping = null;
+      int mappingLength = in.readInt();
+      if (mappingLength >= 0) {
+        mapping = new int[mappingLength];
+        for (int i = 0; i < mappingLength; i++) {
+          mapping[i] = in.readInt();
+        }
+      }
+
+      byte[] content = new byte[in.readInt()];
+      in.readFully(content);
+      return new ClassContent(new String(content, StandardCharsets.UTF_8), mapping);
+    }
+    catch (IOException ex) {
+      DecompilerContext.getLogger().writeMessage("Cannot read cache entry " + file, IFernflowerLogger.Severity.WARN, ex);
+      return null;
+    }
+  }
+
+  public void store(String key, ClassContent content) {
+    // failures may be caused by time limits, so let them be retried on the next run
+    if (content.content == null || content.content.contains(FAILED_METHOD_MARKER)) {
+      return;
+    }
+
+    Path file = getEntryFile(key);
+    try {
+      Files.createDirectories(file.getParent());
+      Path temp = Files.createTempFile(file.getParent(), key, ".tmp");
+      try {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+          out.writeInt(ENTRY_MAGIC);
+          if (content.mapping == null) {
+            out.writeInt(-1);
+          }
+          else {
+            out.writeInt(content.mapping.length);
+            for (int value : content.mapping) {
+              out.writeInt(value);
+            }
+          }
+
+          byte[] bytes = content.content.getBytes(StandardCharsets.UTF_8);
+          out.writeInt(bytes.length);
+          out.write(bytes);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      finally {
+        Files.deleteIfExists(temp);
+      }
+    }
+    catch (IOException ex) {
+      DecompilerContext.getLogger().writeMessage("Cannot write cache entry " + file, IFernflowerLogger.Severity.WARN, ex);
+    }
+  }
+
+  private Path getEntryFile(String key) {
+    return directory.resolve(key.substring(0, 2)).resolve(key);
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder builder = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return builder.toString();
+  }
+
+  private static final class ClassInfo {
+    private final byte[] digest;
+    private final List<String> superTypes;
+
+    private ClassInfo(byte[] digest, List<String> superTypes) {
+      this.digest = digest;
+      this.superTypes = superTypes;
+    }
+  }
+}
@@ -0,0 +1,286 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main;
+
+import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.jetbrains.java.decompiler.struct.StructClass;
+import org.jetbrains.java.decompiler.struct.StructMethod;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records the time spent and the bytes allocated by every pass of method processing and by writing classes.
+ * The results are saved as {@code profile.json} and {@code profile.csv} in the directory set with
+ * {@link IFernflowerPreferences#PROFILE_DIRECTORY}.
+ */
+public class DecompileProfiler {
+  public enum Pass {
+    GRAPH("graph"),
+    DEAD_CODE("deadCode"),
+    PARSE_GRAPH("parseGraph"),
+    FINALLY("finally"),
+    EXPRESSIONS("expressions"),
+    STACK_VARS("stackVars"),
+    MERGE_IFS("mergeIfs"),
+    VARIABLES("variables"),
+    WRITE("write");
+
+    public final String id;
+
+    Pass(String id) {
+      this.id = id;
+    }
+  }
+
+  public enum Status {OK, TIMEOUT, ERROR}
+
+  private static final int SUMMARY_SIZE = 20;
+  private static final com.sun.management.ThreadMXBean threadBean = getThreadBean();
+
+  private final File directory;
+  private final Queue<Record> records = new ConcurrentLinkedQueue<>();
+
+  private DecompileProfiler(File directory) {
+    this.directory = directory;
+  }
+
+  public static DecompileProfiler create(Map<String, Object> properties) {
+    Object value = properties.get(IFernflowerPreferences.PROFILE_DIRECTORY);
+    return value == null || value.toString().isEmpty() ? null : new DecompileProfiler(new File(value.toString()));
+  }
+
+  private static com.sun.management.ThreadMXBean getThreadBean() {
+    try {
+      java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean)bean).isThreadAllocatedMemorySupported()) {
+        ((com.sun.management.ThreadMXBean)bean).setThreadAllocatedMemoryEnabled(true);
+        return (com.sun.management.ThreadMXBean)bean;
+      }
+    }
+    catch (LinkageError | UnsupportedOperationException ignored) { }
+    return null;
+  }
+
+  private static long getAllocatedBytes() {
+    return threadBean == null ? 0 : threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * @return record of the method in the current context; a record ignoring everything if profiling is off
+   */
+  public static Record startMethod(StructMethod mt) {
+    DecompileProfiler profiler = DecompilerContext.getProfiler();
+    if (profiler == null) {
+      return Record.NONE;
+    }
+    return profiler.add(new Record(mt.getClassStruct().qualifiedName, mt.getName() + " " + mt.getDescriptor()));
+  }
+
+  /**
+   * @return record of the class in the current context; a record ignoring everything if profiling is off
+   */
+  public static Record startClass(StructClass cl) {
+    DecompileProfiler profiler = DecompilerContext.getProfiler();
+    return profiler == null ? Record.NONE : profiler.add(new Record(cl.qualifiedName, null));
+  }
+
+  private Record add(Record record) {
+    records.add(record);
+    return record;
+  }
+
+  /**
+   * Writes the report files.
+   *
+   * @return summary of the slowest methods
+   */
+  public String writeReport() throws IOException {
+    List<Record> sorted = new ArrayList<>(records);
+    sorted.sort(Comparator.comparing((Record r) -> r.className).thenComparing(r -> r.methodName == null ? "" : r.methodName));
+
+    if (!(directory.mkdirs() || directory.isDirectory())) {
+      throw new IOException("Cannot create directory " + directory);
+    }
+    writeJson(sorted, new File(directory, "profile.json"));
+    writeCsv(sorted, new File(directory, "profile.csv"));
+
+    return getSummary(sorted);
+  }
+
+  private static void writeJson(List<Record> sorted, File file) throws IOException {
+    Map<String, List<Record>> classes = new LinkedHashMap<>();
+    for (Record record : sorted) {
+      classes.computeIfAbsent(record.className, k -> new ArrayList<>()).add(record);
+    }
+
+    try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+      out.write("{\"classes\": [");
+      boolean firstClass = true;
+      for (Map.Entry<String, List<Record>> entry : classes.entrySet()) {
+        out.write(firstClass ? "\n  " : ",\n  ");
+        firstClass = false;
+        out.write("{\"name\": " + quoteJson(entry.getKey()));
+
+        // class records only hold the time spent writing the class
+        for (Record record : entry.getValue()) {
+          if (record.methodName == null) {
+            out.write(", \"write\": " + passToJson(record, Pass.WRITE));
+          }
+        }
+
+        out.write(", \"methods\": [");
+        boolean firstMethod = true;
+        for (Record record : entry.getValue()) {
+          if (record.methodName == null) {
+            continue;
+          }
+
+          out.write(firstMethod ? "\n    " : ",\n    ");
+          firstMethod = false;
+          out.write("{\"name\": " + quoteJson(record.methodName) + ", \"status\": " + quoteJson(record.status.name().toLowerCase(Locale.ENGLISH)));
+          if (record.error != null) {
+            out.write(", \"error\": " + quoteJson(record.error));
+          }
+          out.write(", \"timeNanos\": " + record.getTotalTime() + ", \"allocatedBytes\": " + record.getTotalBytes() + ", \"passes\": {");
+          boolean firstPass = true;
+          for (Pass pass : Pass.values()) {
+            if (pass != Pass.WRITE) {
+              out.write((firstPass ? "" : ", ") + quoteJson(pass.id) + ": " + passToJson(record, pass));
+              firstPass = false;
+            }
+          }
+          out.write("}}");
+        }
+        out.write("]}");
+      }
+      out.write("\n]}\n");
+    }
+  }
+
+  private static String passToJson(Record record, Pass pass) {
+    return "{\"timeNanos\": " + record.times[pass.ordinal()] + ", \"allocatedBytes\": " + record.bytes[pass.ordinal()] + "}";
+  }
+
+  private static void writeCsv(List<Record> sorted, File file) throws IOException {
+    try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+      out.write("class,method,status,pass,time_ns,allocated_bytes\n");
+      for (Record record : sorted) {
+        String prefix = quoteCsv(record.className) + ',' + quoteCsv(record.methodName == null ? "" : record.methodName) + ',' +
+                        record.status.name().toLowerCase(Locale.ENGLISH) + ',';
+        for (Pass pass : Pass.values()) {
+          if ((pass == Pass.WRITE) == (record.methodName == null)) {
+            out.write(prefix + pass.id + ',' + record.times[pass.ordinal()] + ',' + record.bytes[pass.ordinal()] + '\n');
+          }
+        }
+      }
+    }
+  }
+
+  private static String getSummary(List<Record> sorted) {
+    // class records only hold the time spent writing the class, which is not comparable to processing a method
+    List<Record> slowest = new ArrayList<>();
+    for (Record record : sorted) {
+      if (record.methodName != null) {
+        slowest.add(record);
+      }
+    }
+    slowest.sort(Comparator.comparingLong(Record::getTotalTime).reversed());
+
+    StringBuilder summary = new StringBuilder("Slowest methods:");
+    for (Record record : slowest.subList(0, Math.min(SUMMARY_SIZE, slowest.size()))) {
+      Pass slowestPass = Pass.GRAPH;
+      for (Pass pass : Pass.values()) {
+        if (record.times[pass.ordinal()] > record.times[slowestPass.ordinal()]) {
+          slowestPass = pass;
+        }
+      }
+
+      summary.append(String.format("%n%8d ms %8d KB  %s %s", record.getTotalTime() / 1_000_000, record.getTotalBytes() / 1024,
+                                   record.className, record.methodName));
+      summary.append(" [").append(slowestPass.id);
+      if (record.status != Status.OK) {
+        summary.append(", ").append(record.status.name().toLowerCase(Locale.ENGLISH));
+      }
+      summary.append(']');
+    }
+    return summary.toString();
+  }
+
+  private static String quoteJson(String value) {
+    StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        builder.append('\\').append(c);
+      }
+      else if (c < 0x20) {
+        builder.append(String.format("\\u%04x", (int)c));
+      }
+      else {
+        builder.append(c);
+      }
+    }
+    return builder.append('"').toString();
+  }
+
+  private static String quoteCsv(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  /**
+   * Measurements of a method, or of a class when there is no method name. A pass is measured between
+   * {@link #begin()} and {@link #end(Pass)} on the thread performing it; repeated passes add up.
+   */
+  public static class Record {
+    public static final Record NONE = new Record(null, null);
+
+    private final String className;
+    private final String methodName;
+    private final long[] times = new long[Pass.values().length];
+    private final long[] bytes = new long[Pass.values().length];
+    private long startTime;
+    private long startBytes;
+    private volatile Status status = Status.OK;
+    private volatile String error;
+
+    private Record(String className, String methodName) {
+      this.className = className;
+      this.methodName = methodName;
+    }
+
+    public void begin() {
+      if (this != NONE) {
+        startTime = System.nanoTime();
+        startBytes = getAllocatedBytes();
+      }
+    }
+
+    public void end(Pass pass) {
+      if (this != NONE) {
+        times[pass.ordinal()] += System.nanoTime() - startTime;
+        bytes[pass.ordinal()] += getAllocatedBytes() - startBytes;
+      }
+    }
+
+    public void fail(Status status, Throwable t) {
+      if (this != NONE) {
+        this.status = status;
+        this.error = t == null ? null : t.toString();
+      }
+    }
+
+    private long getTotalTime() {
+      return Arrays.stream(times).sum();
+    }
+
+    private long getTotalBytes() {
+      return Arrays.stream(bytes).sum();
+    }
+  }
+}
@@ -10,6 +10,8 @@ import org.jetbrains.java.decompiler.modules.decompiler.vars.VarProcessor;
 import org.jetbrains.java.decompiler.modules.renamer.PoolInterceptor;
 import org.jetbrains.java.decompiler.struct.StructContext;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -20,10 +22,13 @@ public class DecompilerContext {
   public static final String CURRENT_METHOD_WRAPPER = "CURRENT_METHOD_WRAPPER";
 
   private final Map<String, Object> properties;
+  private final DecompilerOptions options;
   private final IFernflowerLogger logger;
   private final StructContext structContext;
   private final ClassesProcessor classProcessor;
   private final PoolInterceptor poolInterceptor;
+  private final DecompileProfiler profiler;
+  private DecompilerContext classContext;
   private ImportCollector importCollector;
   private VarProcessor varProcessor;
   private CounterContainer counterContainer;
@@ -34,17 +39,54 @@ public class DecompilerContext {
                            StructContext structContext,
                            ClassesProcessor classProcessor,
                            PoolInterceptor interceptor) {
+    this(properties, new DecompilerOptions(properties, logger), logger, structContext, classProcessor, interceptor,
+         DecompileProfiler.create(properties));
+  }
+
+  private DecompilerContext(Map<String, Object> properties,
+                            DecompilerOptions options,
+                            IFernflowerLogger logger,
+                            StructContext structContext,
+                            ClassesProcessor classProcessor,
+                            PoolInterceptor interceptor,
+                            DecompileProfiler profiler) {
     Objects.requireNonNull(properties);
     Objects.requireNonNull(logger);
     Objects.requireNonNull(structContext);
     Objects.requireNonNull(classProcessor);
 
     this.properties = properties;
+    this.options = options;
     this.logger = logger;
     this.structContext = structContext;
     this.classProcessor = classProcessor;
     this.poolInterceptor = interceptor;
+    this.profiler = profiler;
     this.counterContainer = new CounterContainer();
+    this.classContext = this;
+  }
+
+  /**
+   * Creates a context sharing the loaded classes with this one but with its own properties,
+   * collectors and counters, so that it can be used by another decompiler thread.
+   */
+  public DecompilerContext createWorkerContext() {
+    return new DecompilerContext(new HashMap<>(properties), options, logger, structContext, classProcessor, poolInterceptor, profiler);
+  }
+
+  /**
+   * Creates a context for processing the current method on another thread. It refers to the same class,
+   * variable processor and counters as this one, but keeps referring to them when this context moves on
+   * to the next method, so a method that ran out of time can be left behind.
+   */
+  public DecompilerContext createMethodContext() {
+    DecompilerContext context = new DecompilerContext(new HashMap<>(properties), options, logger, structContext, classProcessor, poolInterceptor, profiler);
+    context.classContext = classContext;
+    context.importCollector = importCollector;
+    context.varProcessor = varProcessor;
+    context.counterContainer = counterContainer;
+    context.bytecodeSourceMapper = bytecodeSourceMapper;
+    return context;
   }
 
   // *****************************************************************************
@@ -82,17 +124,39 @@ public class DecompilerContext {
   // context access
   // *****************************************************************************
 
+  /**
+   * @return context the current class is decompiled in, which differs from the current one while a method is processed
+   * in a context of its own
+   */
+  public static DecompilerContext getClassContext() {
+    return getCurrentContext().classContext;
+  }
+
   public static Object getProperty(String key) {
     return getCurrentContext().properties.get(key);
   }
 
+  public static Map<String, Object> getProperties() {
+    return Collections.unmodifiableMap(getCurrentContext().properties);
+  }
+
+  /**
+   * @return options the context was created with; changes made later with {@link #setProperty} are not reflected
+   */
+  public static DecompilerOptions getOptions() {
+    return getCurrentContext().options;
+  }
+
   public static boolean getOption(String key) {
     return "1".equals(getProperty(key));
   }
 
+  public static boolean getOption(DecompilerOptions.Flag flag) {
+    return getCurrentContext().options.isEnabled(flag);
+  }
+
   public static String getNewLineSeparator() {
-    return getOption(IFernflowerPreferences.NEW_LINE_SEPARATOR) ?
-           IFernflowerPreferences.LINE_SEPARATOR_UNX : IFernflowerPreferences.LINE_SEPARATOR_WIN;
+    return getCurrentContext().options.getLineSeparator();
   }
 
   public static IFernflowerLogger getLogger() {
@@ -111,6 +175,13 @@ public class DecompilerContext {
     return getCurrentContext().poolInterceptor;
   }
 
+  /**
+   * @return profiler of the decompilation; null unless {@link IFernflowerPreferences#PROFILE_DIRECTORY} is set
+   */
+  public static DecompileProfiler getProfiler() {
+    return getCurrentContext().profiler;
+  }
+
   public static ImportCollector getImportCollector() {
     return getCurrentContext().importCollector;
   }
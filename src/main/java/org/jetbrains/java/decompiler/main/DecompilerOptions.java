@@ -0,0 +1,129 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main;
+
+import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
+import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+
+import java.util.Map;
+
+/**
+ * Decompiler options resolved once from the {@link IFernflowerPreferences} map of a context.
+ * Boolean options are kept as bits of a single field, so checking one costs no map lookup.
+ */
+public final class DecompilerOptions {
+  public enum Flag {
+    REMOVE_BRIDGE(IFernflowerPreferences.REMOVE_BRIDGE),
+    REMOVE_SYNTHETIC(IFernflowerPreferences.REMOVE_SYNTHETIC),
+    DECOMPILE_INNER(IFernflowerPreferences.DECOMPILE_INNER),
+    DECOMPILE_CLASS_1_4(IFernflowerPreferences.DECOMPILE_CLASS_1_4),
+    DECOMPILE_ASSERTIONS(IFernflowerPreferences.DECOMPILE_ASSERTIONS),
+    HIDE_EMPTY_SUPER(IFernflowerPreferences.HIDE_EMPTY_SUPER),
+    HIDE_DEFAULT_CONSTRUCTOR(IFernflowerPreferences.HIDE_DEFAULT_CONSTRUCTOR),
+    DECOMPILE_GENERIC_SIGNATURES(IFernflowerPreferences.DECOMPILE_GENERIC_SIGNATURES),
+    NO_EXCEPTIONS_RETURN(IFernflowerPreferences.NO_EXCEPTIONS_RETURN),
+    ENSURE_SYNCHRONIZED_MONITOR(IFernflowerPreferences.ENSURE_SYNCHRONIZED_MONITOR),
+    DECOMPILE_ENUM(IFernflowerPreferences.DECOMPILE_ENUM),
+    REMOVE_GET_CLASS_NEW(IFernflowerPreferences.REMOVE_GET_CLASS_NEW),
+    LITERALS_AS_IS(IFernflowerPreferences.LITERALS_AS_IS),
+    BOOLEAN_TRUE_ONE(IFernflowerPreferences.BOOLEAN_TRUE_ONE),
+    ASCII_STRING_CHARACTERS(IFernflowerPreferences.ASCII_STRING_CHARACTERS),
+    SYNTHETIC_NOT_SET(IFernflowerPreferences.SYNTHETIC_NOT_SET),
+    UNDEFINED_PARAM_TYPE_OBJECT(IFernflowerPreferences.UNDEFINED_PARAM_TYPE_OBJECT),
+    USE_DEBUG_VAR_NAMES(IFernflowerPreferences.USE_DEBUG_VAR_NAMES),
+    USE_METHOD_PARAMETERS(IFernflowerPreferences.USE_METHOD_PARAMETERS),
+    REMOVE_EMPTY_RANGES(IFernflowerPreferences.REMOVE_EMPTY_RANGES),
+    FINALLY_DEINLINE(IFernflowerPreferences.FINALLY_DEINLINE),
+    IDEA_NOT_NULL_ANNOTATION(IFernflowerPreferences.IDEA_NOT_NULL_ANNOTATION),
+    LAMBDA_TO_ANONYMOUS_CLASS(IFernflowerPreferences.LAMBDA_TO_ANONYMOUS_CLASS),
+    BYTECODE_SOURCE_MAPPING(IFernflowerPreferences.BYTECODE_SOURCE_MAPPING),
+    IGNORE_INVALID_BYTECODE(IFernflowerPreferences.IGNORE_INVALID_BYTECODE),
+    VERIFY_ANONYMOUS_CLASSES(IFernflowerPreferences.VERIFY_ANONYMOUS_CLASSES),
+    RENAME_ENTITIES(IFernflowerPreferences.RENAME_ENTITIES),
+    NEW_LINE_SEPARATOR(IFernflowerPreferences.NEW_LINE_SEPARATOR),
+    DUMP_ORIGINAL_LINES(IFernflowerPreferences.DUMP_ORIGINAL_LINES),
+    UNIT_TEST_MODE(IFernflowerPreferences.UNIT_TEST_MODE);
+
+    public final String key;
+
+    Flag(String key) {
+      this.key = key;
+    }
+  }
+
+  private final long flags;
+  private final String indentString;
+  private final String lineSeparator;
+  private final String banner;
+  private final int maxProcessingMethod;
+  private final int threads;
+
+  public DecompilerOptions(Map<String, Object> properties, IFernflowerLogger logger) {
+    long flags = 0;
+    for (Flag flag : Flag.values()) {
+      if ("1".equals(properties.get(flag.key))) {
+        flags |= 1L << flag.ordinal();
+      }
+    }
+    this.flags = flags;
+
+    Object indent = properties.get(IFernflowerPreferences.INDENT_STRING);
+    indentString = indent == null ? "" : indent.toString();
+    lineSeparator = isEnabled(Flag.NEW_LINE_SEPARATOR) ? IFernflowerPreferences.LINE_SEPARATOR_UNX : IFernflowerPreferences.LINE_SEPARATOR_WIN;
+    Object banner = properties.get(IFernflowerPreferences.BANNER);
+    this.banner = banner == null ? "" : banner.toString();
+    maxProcessingMethod = (int)parseNumber(properties, IFernflowerPreferences.MAX_PROCESSING_METHOD, 0, Integer.MAX_VALUE, logger);
+    threads = (int)parseNumber(properties, IFernflowerPreferences.THREADS, 0, Short.MAX_VALUE, logger);
+  }
+
+  /**
+   * @return value of a numeric option; its default value if the option is missing, or with a warning if it is not
+   *         a whole number between {@code min} and {@code max}
+   */
+  public static long parseNumber(Map<String, Object> properties, String key, long min, long max, IFernflowerLogger logger) {
+    long defaultValue = Long.parseLong(IFernflowerPreferences.DEFAULTS.get(key).toString());
+    Object value = properties.get(key);
+    if (value == null) {
+      return defaultValue;
+    }
+
+    try {
+      long number = Long.parseLong(value.toString().trim());
+      if (number >= min && number <= max) {
+        return number;
+      }
+    }
+    catch (NumberFormatException ignored) { }
+
+    String message = "Invalid value '" + value + "' of option '" + key + "', expected a number from " + min + " to " + max +
+                     "; using " + defaultValue;
+    logger.writeMessage(message, IFernflowerLogger.Severity.WARN);
+    return defaultValue;
+  }
+
+  public boolean isEnabled(Flag flag) {
+    return (flags & (1L << flag.ordinal())) != 0;
+  }
+
+  public String getIndentString() {
+    return indentString;
+  }
+
+  public String getLineSeparator() {
+    return lineSeparator;
+  }
+
+  public String getBanner() {
+    return banner;
+  }
+
+  /**
+   * @return time limit for processing a single method in seconds; 0 if there is none
+   */
+  public int getMaxProcessingMethod() {
+    return maxProcessingMethod;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+}
@@ -13,6 +13,7 @@ import org.jetbrains.java.decompiler.struct.lazy.LazyLoader;
 import org.jetbrains.java.decompiler.util.TextBuffer;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -37,7 +38,10 @@ public class Fernflower implements IDecompiledData {
       catch (IllegalArgumentException ignore) { }
     }
 
-    structContext = new StructContext(saver, this, new LazyLoader(provider));
+    // class cache size is given in megabytes
+    long cacheSize = DecompilerOptions.parseNumber(properties, IFernflowerPreferences.LOADER_CACHE_SIZE, 0, Long.MAX_VALUE >> 20, logger);
+    long cacheBudget = cacheSize << 20;
+    structContext = new StructContext(saver, this, new LazyLoader(provider, cacheBudget));
     classProcessor = new ClassesProcessor(structContext);
 
     PoolInterceptor interceptor = null;
@@ -85,6 +89,16 @@ public class Fernflower implements IDecompiledData {
     classProcessor.loadClasses(helper);
 
     structContext.saveContext();
+
+    DecompileProfiler profiler = DecompilerContext.getProfiler();
+    if (profiler != null) {
+      try {
+        DecompilerContext.getLogger().writeMessage(profiler.writeReport(), IFernflowerLogger.Severity.INFO);
+      }
+      catch (IOException ex) {
+        DecompilerContext.getLogger().writeMessage("Cannot write profile report", IFernflowerLogger.Severity.WARN, ex);
+      }
+    }
   }
 
   public void clearContext() {
@@ -110,7 +124,7 @@ public class Fernflower implements IDecompiledData {
   public String getClassContent(StructClass cl) {
     try {
       TextBuffer buffer = new TextBuffer(ClassesProcessor.AVERAGE_CLASS_SIZE);
-      buffer.append(DecompilerContext.getProperty(IFernflowerPreferences.BANNER).toString());
+      buffer.append(DecompilerContext.getOptions().getBanner());
       classProcessor.writeClass(cl, buffer);
       return buffer.toString();
     }
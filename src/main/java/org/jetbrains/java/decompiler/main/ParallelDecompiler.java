@@ -0,0 +1,153 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main;
+
+import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
+import org.jetbrains.java.decompiler.struct.IDecompiledData;
+import org.jetbrains.java.decompiler.struct.StructClass;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decompiles root classes on a fixed number of worker threads. Classes are submitted in the order
+ * they are going to be saved and taken back in the same order, so the result savers are still
+ * called from a single thread and produce the same output as a sequential run. Only a few classes
+ * per thread are decompiled ahead of the one being saved, the others wait in a queue, so a slow
+ * class doesn't keep the sources of all classes after it in memory.
+ * Classes found in the {@link DecompilationCache} are not decompiled at all.
+ */
+public class ParallelDecompiler {
+  private final IDecompiledData decompiledData;
+  private final DecompilationCache cache;
+  private final ExecutorService executor;
+  private final int window;
+  private final Deque<StructClass> queue = new ArrayDeque<>();
+  private final Map<StructClass, Future<ClassContent>> pending = new HashMap<>();
+
+  public ParallelDecompiler(IDecompiledData decompiledData, int threads) {
+    this.decompiledData = decompiledData;
+    this.cache = DecompilationCache.create();
+
+    if (threads <= 1) {
+      executor = null;
+      window = 0;
+      return;
+    }
+
+    executor = createExecutor(threads);
+    window = threads * 2;
+  }
+
+  public static int getThreadCount() {
+    return DecompilerContext.getOptions().getThreads();
+  }
+
+  /**
+   * @return pool of daemon threads, each with its own copy of the current decompiler context
+   */
+  public static ExecutorService createExecutor(int threads) {
+    DecompilerContext parentContext = DecompilerContext.getCurrentContext();
+    AtomicInteger counter = new AtomicInteger();
+    return Executors.newFixedThreadPool(threads, r -> {
+      Thread thread = new Thread(() -> {
+        DecompilerContext.setCurrentContext(parentContext.createWorkerContext());
+        r.run();
+      }, "Java decompiler worker " + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  public boolean isParallel() {
+    return executor != null;
+  }
+
+  public void submit(StructClass cl) {
+    queue.add(cl);
+    fillWindow();
+  }
+
+  private void fillWindow() {
+    while (pending.size() < window && !queue.isEmpty()) {
+      StructClass cl = queue.poll();
+      pending.put(cl, executor.submit(() -> decompile(cl)));
+    }
+  }
+
+  public ClassContent take(StructClass cl) {
+    Future<ClassContent> future = pending.remove(cl);
+    if (future == null) {
+      queue.remove(cl);
+      return decompile(cl);
+    }
+    fillWindow();
+
+    try {
+      return future.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  public void shutdown() {
+    queue.clear();
+    pending.clear();
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private ClassContent decompile(StructClass cl) {
+    if (cache == null) {
+      return decompile(decompiledData, cl);
+    }
+
+    String key;
+    try {
+      key = cache.getKey(cl);
+    }
+    catch (IOException ex) {
+      DecompilerContext.getLogger().writeMessage("Cannot compute cache key of " + cl.qualifiedName, IFernflowerLogger.Severity.WARN, ex);
+      return decompile(decompiledData, cl);
+    }
+
+    ClassContent content = cache.load(key);
+    if (content == null) {
+      content = decompile(decompiledData, cl);
+      cache.store(key, content);
+    }
+    return content;
+  }
+
+  public static ClassContent decompile(IDecompiledData decompiledData, StructClass cl) {
+    String content = decompiledData.getClassContent(cl);
+    int[] mapping = null;
+    if (content != null && DecompilerContext.getOption(DecompilerOptions.Flag.BYTECODE_SOURCE_MAPPING)) {
+      mapping = DecompilerContext.getBytecodeSourceMapper().getOriginalLinesMapping();
+    }
+    return new ClassContent(content, mapping);
+  }
+
+  public static class ClassContent {
+    public final String content;
+    public final int[] mapping;
+
+    public ClassContent(String content, int[] mapping) {
+      this.content = content;
+      this.mapping = mapping;
+    }
+  }
+}
@@ -2,16 +2,15 @@
 package org.jetbrains.java.decompiler.main.collectors;
 
 import org.jetbrains.java.decompiler.struct.attr.StructLineNumberTableAttribute;
-
-import java.util.*;
-import java.util.Map.Entry;
+import org.jetbrains.java.decompiler.util.IntIntMap;
+import org.jetbrains.java.decompiler.util.IntSet;
 
 public class BytecodeMappingTracer {
   public static final BytecodeMappingTracer DUMMY = new BytecodeMappingTracer();
 
   private int currentSourceLine;
   private StructLineNumberTableAttribute lineNumberTable = null;
-  private final Map<Integer, Integer> mapping = new HashMap<>();  // bytecode offset, source line
+  private final IntIntMap mapping = new IntIntMap();  // bytecode offset, source line
 
   public BytecodeMappingTracer() { }
 
@@ -31,23 +30,21 @@ public class BytecodeMappingTracer {
     mapping.putIfAbsent(bytecode_offset, currentSourceLine);
   }
 
-  public void addMapping(Set<Integer> bytecode_offsets) {
+  public void addMapping(IntSet bytecode_offsets) {
     if (bytecode_offsets != null) {
-      for (Integer bytecode_offset : bytecode_offsets) {
-        addMapping(bytecode_offset);
+      for (int i = 0; i < bytecode_offsets.size(); i++) {
+        addMapping(bytecode_offsets.get(i));
       }
     }
   }
 
   public void addTracer(BytecodeMappingTracer tracer) {
     if (tracer != null) {
-      for (Entry<Integer, Integer> entry : tracer.mapping.entrySet()) {
-        mapping.putIfAbsent(entry.getKey(), entry.getValue());
-      }
+      tracer.mapping.forEach(mapping::putIfAbsent);
     }
   }
 
-  public Map<Integer, Integer> getMapping() {
+  public IntIntMap getMapping() {
     return mapping;
   }
 
@@ -63,26 +60,25 @@ public class BytecodeMappingTracer {
     this.lineNumberTable = lineNumberTable;
   }
 
-  private final Set<Integer> unmappedLines = new HashSet<>();
+  private final IntSet unmappedLines = new IntSet();
 
-  public Set<Integer> getUnmappedLines() {
+  public IntSet getUnmappedLines() {
     return unmappedLines;
   }
 
-  public Map<Integer, Integer> getOriginalLinesMapping() {
+  public IntIntMap getOriginalLinesMapping() {
+    IntIntMap res = new IntIntMap();
     if (lineNumberTable == null) {
-      return Collections.emptyMap();
+      return res;
     }
 
-    Map<Integer, Integer> res = new HashMap<>();
-
     // first match offsets from line number table
     int[] data = lineNumberTable.getRawData();
     for (int i = 0; i < data.length; i += 2) {
       int originalOffset = data[i];
       int originalLine = data[i + 1];
-      Integer newLine = mapping.get(originalOffset);
-      if (newLine != null) {
+      int newLine = mapping.get(originalOffset, -1);
+      if (newLine != -1) {
         res.put(originalLine, newLine);
       }
       else {
@@ -90,11 +86,11 @@ public class BytecodeMappingTracer {
       }
     }
 
-    // now match offsets from decompiler mapping
-    for (Entry<Integer, Integer> entry : mapping.entrySet()) {
-      int originalLine = lineNumberTable.findLineNumber(entry.getKey());
+    // now match offsets from decompiler mapping, the lowest offset of a line wins
+    for (int offset : mapping.sortedKeys()) {
+      int originalLine = lineNumberTable.findLineNumber(offset);
       if (originalLine > -1 && !res.containsKey(originalLine)) {
-        res.put(originalLine, entry.getValue());
+        res.put(originalLine, mapping.get(offset, -1));
         unmappedLines.remove(originalLine);
       }
     }
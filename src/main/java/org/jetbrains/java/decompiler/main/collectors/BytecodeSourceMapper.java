@@ -2,6 +2,8 @@
 package org.jetbrains.java.decompiler.main.collectors;
 
 import org.jetbrains.java.decompiler.main.DecompilerContext;
+import org.jetbrains.java.decompiler.util.IntIntMap;
+import org.jetbrains.java.decompiler.util.IntSet;
 import org.jetbrains.java.decompiler.util.TextBuffer;
 
 import java.util.*;
@@ -11,23 +13,25 @@ public class BytecodeSourceMapper {
   private int offset_total;
 
   // class, method, bytecode offset, source line
-  private final Map<String, Map<String, Map<Integer, Integer>>> mapping = new LinkedHashMap<>();
+  private final Map<String, Map<String, IntIntMap>> mapping = new LinkedHashMap<>();
 
   // original line to decompiled line
-  private final Map<Integer, Integer> linesMapping = new HashMap<>();
-  private final Set<Integer> unmappedLines = new TreeSet<>();
+  private final IntIntMap linesMapping = new IntIntMap();
+  private final IntSet unmappedLines = new IntSet();
 
   public void addMapping(String className, String methodName, int bytecodeOffset, int sourceLine) {
-    Map<String, Map<Integer, Integer>> class_mapping = mapping.computeIfAbsent(className, k -> new LinkedHashMap<>()); // need to preserve order
-    Map<Integer, Integer> method_mapping = class_mapping.computeIfAbsent(methodName, k -> new HashMap<>());
+    getMethodMapping(className, methodName).putIfAbsent(bytecodeOffset, sourceLine); // don't overwrite
+  }
 
-    // don't overwrite
-    method_mapping.putIfAbsent(bytecodeOffset, sourceLine);
+  private IntIntMap getMethodMapping(String className, String methodName) {
+    Map<String, IntIntMap> class_mapping = mapping.computeIfAbsent(className, k -> new LinkedHashMap<>()); // need to preserve order
+    return class_mapping.computeIfAbsent(methodName, k -> new IntIntMap());
   }
 
   public void addTracer(String className, String methodName, BytecodeMappingTracer tracer) {
-    for (Entry<Integer, Integer> entry : tracer.getMapping().entrySet()) {
-      addMapping(className, methodName, entry.getKey(), entry.getValue());
+    IntIntMap tracerMapping = tracer.getMapping();
+    if (!tracerMapping.isEmpty()) {
+      tracerMapping.forEach(getMethodMapping(className, methodName)::putIfAbsent);
     }
     linesMapping.putAll(tracer.getOriginalLinesMapping());
     unmappedLines.addAll(tracer.getUnmappedLines());
@@ -40,13 +44,13 @@ public class BytecodeSourceMapper {
 
     String lineSeparator = DecompilerContext.getNewLineSeparator();
 
-    for (Entry<String, Map<String, Map<Integer, Integer>>> class_entry : mapping.entrySet()) {
-      Map<String, Map<Integer, Integer>> class_mapping = class_entry.getValue();
+    for (Entry<String, Map<String, IntIntMap>> class_entry : mapping.entrySet()) {
+      Map<String, IntIntMap> class_mapping = class_entry.getValue();
       buffer.append("class '" + class_entry.getKey() + "' {" + lineSeparator);
 
       boolean is_first_method = true;
-      for (Entry<String, Map<Integer, Integer>> method_entry : class_mapping.entrySet()) {
-        Map<Integer, Integer> method_mapping = method_entry.getValue();
+      for (Entry<String, IntIntMap> method_entry : class_mapping.entrySet()) {
+        IntIntMap method_mapping = method_entry.getValue();
 
         if (!is_first_method) {
           buffer.appendLineSeparator();
@@ -54,13 +58,10 @@ public class BytecodeSourceMapper {
 
         buffer.appendIndent(1).append("method '" + method_entry.getKey() + "' {" + lineSeparator);
 
-        List<Integer> lstBytecodeOffsets = new ArrayList<>(method_mapping.keySet());
-        Collections.sort(lstBytecodeOffsets);
-
-        for (Integer offset : lstBytecodeOffsets) {
-          Integer line = method_mapping.get(offset);
+        for (int offset : method_mapping.sortedKeys()) {
+          int line = method_mapping.get(offset, -1);
 
-          String strOffset = offsetsToHex ? Integer.toHexString(offset) : line.toString();
+          String strOffset = offsetsToHex ? Integer.toHexString(offset) : Integer.toString(line);
           buffer.appendIndent(2).append(strOffset).appendIndent(2).append((line + offset_total) + lineSeparator);
         }
         buffer.appendIndent(1).append("}").appendLineSeparator();
@@ -73,14 +74,14 @@ public class BytecodeSourceMapper {
 
     // lines mapping
     buffer.append("Lines mapping:").appendLineSeparator();
-    Map<Integer, Integer> sorted = new TreeMap<>(linesMapping);
-    for (Entry<Integer, Integer> entry : sorted.entrySet()) {
-      buffer.append(entry.getKey()).append(" <-> ").append(entry.getValue() + offset_total + 1).appendLineSeparator();
+    for (int line : linesMapping.sortedKeys()) {
+      buffer.append(line).append(" <-> ").append(linesMapping.get(line, -1) + offset_total + 1).appendLineSeparator();
     }
 
     if (!unmappedLines.isEmpty()) {
       buffer.append("Not mapped:").appendLineSeparator();
-      for (Integer line : unmappedLines) {
+      for (int i = 0; i < unmappedLines.size(); i++) {
+        int line = unmappedLines.get(i);
         if (!linesMapping.containsKey(line)) {
           buffer.append(line).appendLineSeparator();
         }
@@ -98,10 +99,10 @@ public class BytecodeSourceMapper {
   public int[] getOriginalLinesMapping() {
     int[] res = new int[linesMapping.size() * 2];
     int i = 0;
-    for (Entry<Integer, Integer> entry : linesMapping.entrySet()) {
-      res[i] = entry.getKey();
-      unmappedLines.remove(entry.getKey());
-      res[i + 1] = entry.getValue() + offset_total + 1; // make it 1 based
+    for (int line : linesMapping.sortedKeys()) {
+      res[i] = line;
+      unmappedLines.remove(line);
+      res[i + 1] = linesMapping.get(line, -1) + offset_total + 1; // make it 1 based
       i += 2;
     }
     return res;
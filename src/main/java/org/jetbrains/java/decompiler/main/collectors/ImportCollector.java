@@ -37,7 +37,7 @@ public class ImportCollector {
       currentPackagePoint = "";
     }
 
-    Map<String, StructClass> classes = DecompilerContext.getStructContext().getClasses();
+    StructContext context = DecompilerContext.getStructContext();
     LinkedList<String> queue = new LinkedList<>();
     StructClass currentClass = root.classStruct;
     while (currentClass != null) {
@@ -63,9 +63,9 @@ public class ImportCollector {
       }
 
       // .. and traverse through parent.
-      currentClass = !queue.isEmpty() ? classes.get(queue.removeFirst()) : null;
+      currentClass = !queue.isEmpty() ? context.getClass(queue.removeFirst()) : null;
       while (currentClass == null && !queue.isEmpty()) {
-        currentClass = classes.get(queue.removeFirst());
+        currentClass = context.getClass(queue.removeFirst());
       }
     }
   }
@@ -131,8 +131,8 @@ public class ImportCollector {
     // 2) class with the same short name in the default package
     // 3) inner class with the same short name in the current class, a super class, or an implemented interface
     boolean existsDefaultClass =
-      (context.getClass(currentPackageSlash + shortName) != null && !packageName.equals(currentPackagePoint)) || // current package
-      (context.getClass(shortName) != null && !currentPackagePoint.isEmpty()) || // default package
+      (context.hasClass(currentPackageSlash + shortName) && !packageName.equals(currentPackagePoint)) || // current package
+      (context.hasClass(shortName) && !currentPackagePoint.isEmpty()) || // default package
       setInnerClassNames.contains(shortName); // inner class
 
     if (existsDefaultClass ||
@@ -0,0 +1,371 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main.decompiler;
+
+import org.jetbrains.java.decompiler.main.extern.IBytecodeProvider;
+import org.jetbrains.java.decompiler.util.InterpreterUtil;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Bytecode provider opening every archive only once. Archives are memory-mapped and indexed by their
+ * central directory, so an entry is read without searching or re-reading the archive. Archives this
+ * reader does not handle (ZIP64, over 2 GB) are kept open as a {@link ZipFile} instead.
+ * <p>
+ * {@link #getBytecodeBuffer} returns uncompressed entries of mapped archives as views of the mapping, without copying
+ * them. An archive that has handed out such a view is not unmapped on {@link #close}, since the view may still be
+ * referenced (e.g. by a constant pool); its mapping is released once the views are garbage collected.
+ * <p>
+ * Reads do not modify any shared state and may be performed by several threads at once.
+ */
+public class ArchiveBytecodeProvider implements IBytecodeProvider, Closeable {
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+  private static final int END_HEADER_SIGNATURE = 0x06054b50;
+  private static final int LOCAL_HEADER_SIZE = 30;
+  private static final int CENTRAL_HEADER_SIZE = 46;
+  private static final int END_HEADER_SIZE = 22;
+  private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+  private final Map<String, Archive> archives = new ConcurrentHashMap<>();
+
+  @Override
+  public byte[] getBytecode(String externalPath, String internalPath) throws IOException {
+    if (internalPath == null) {
+      return InterpreterUtil.getBytes(new File(externalPath));
+    }
+
+    byte[] bytes = getEntry(externalPath, internalPath);
+    if (bytes == null) throw new IOException("Entry not found: " + internalPath);
+    return bytes;
+  }
+
+  @Override
+  public ByteBuffer getBytecodeBuffer(String externalPath, String internalPath) throws IOException {
+    if (internalPath == null) {
+      return ByteBuffer.wrap(InterpreterUtil.getBytes(new File(externalPath)));
+    }
+
+    ByteBuffer buffer = getArchive(externalPath).read(internalPath, true);
+    if (buffer == null) throw new IOException("Entry not found: " + internalPath);
+    return buffer;
+  }
+
+  /**
+   * @return content of the entry; null if the archive has no such entry
+   */
+  public byte[] getEntry(String archivePath, String entryName) throws IOException {
+    ByteBuffer buffer = getArchive(archivePath).read(entryName, false);
+    return buffer == null ? null : buffer.array();
+  }
+
+  private Archive getArchive(String path) throws IOException {
+    Archive archive = archives.get(path);
+    if (archive == null) {
+      synchronized (archives) {
+        archive = archives.get(path);
+        if (archive == null) {
+          File file = new File(path);
+          archive = MappedArchive.open(file);
+          if (archive == null) {
+            archive = new ZipFileArchive(new ZipFile(file));
+          }
+          archives.put(path, archive);
+        }
+      }
+    }
+    return archive;
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (archives) {
+      IOException error = null;
+      for (Archive archive : archives.values()) {
+        try {
+          archive.close();
+        }
+        catch (IOException ex) {
+          error = ex;
+        }
+      }
+      archives.clear();
+      if (error != null) {
+        throw error;
+      }
+    }
+  }
+
+  private interface Archive extends Closeable {
+    /**
+     * @param share whether the content may be returned as a view of the archive instead of a new array
+     */
+    ByteBuffer read(String name, boolean share) throws IOException;
+  }
+
+  private static class ZipFileArchive implements Archive {
+    private final ZipFile file;
+
+    private ZipFileArchive(ZipFile file) {
+      this.file = file;
+    }
+
+    @Override
+    public ByteBuffer read(String name, boolean share) throws IOException {
+      ZipEntry entry = file.getEntry(name);
+      return entry == null ? null : ByteBuffer.wrap(InterpreterUtil.getBytes(file, entry));
+    }
+
+    @Override
+    public void close() throws IOException {
+      file.close();
+    }
+  }
+
+  private static class MappedArchive implements Archive {
+    private final MappedByteBuffer buffer;
+    // offset of the archive in the file, non-zero when something is prepended to it
+    private final int base;
+    // entry name -> position of its central directory header
+    private final Map<String, Integer> entries;
+    // reads hold the read lock, the buffer is unmapped under the write lock once no read accesses it
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean closed;
+    // whether a view of the mapping has been handed out, so that it must not be unmapped explicitly
+    private boolean shared;
+
+    private MappedArchive(MappedByteBuffer buffer, int base, Map<String, Integer> entries) {
+      this.buffer = buffer;
+      this.base = base;
+      this.entries = entries;
+    }
+
+    /**
+     * @return mapped archive; null if the file is not a plain ZIP archive under 2 GB
+     */
+    private static MappedArchive open(File file) throws IOException {
+      MappedByteBuffer mapped;
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE || size < END_HEADER_SIZE) {
+          return null;
+        }
+        // the mapping stays valid after the channel is closed
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      }
+      mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+      MappedArchive archive = null;
+      try {
+        archive = index(mapped);
+      }
+      finally {
+        if (archive == null) {
+          unmap(mapped);
+        }
+      }
+      return archive;
+    }
+
+    private static MappedArchive index(MappedByteBuffer buffer) {
+      int end = findEndHeader(buffer);
+      if (end < 0) {
+        return null;
+      }
+
+      int count = buffer.getShort(end + 10) & 0xFFFF;
+      long centralSize = buffer.getInt(end + 12) & 0xFFFFFFFFL;
+      long centralOffset = buffer.getInt(end + 16) & 0xFFFFFFFFL;
+      if (count == 0xFFFF || centralOffset == 0xFFFFFFFFL) {
+        return null;  // ZIP64
+      }
+
+      long start = end - centralSize;
+      long base = start - centralOffset;
+      if (base < 0) {
+        return null;
+      }
+
+      Map<String, Integer> entries = new HashMap<>(count * 4 / 3 + 1);
+      int position = (int)start;
+      for (int i = 0; i < count; i++) {
+        if (position + CENTRAL_HEADER_SIZE > end || buffer.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+          return null;
+        }
+
+        if (buffer.getInt(position + 20) == -1 || buffer.getInt(position + 24) == -1 || buffer.getInt(position + 42) == -1) {
+          return null;  // ZIP64 entry
+        }
+
+        int nameLength = buffer.getShort(position + 28) & 0xFFFF;
+        int extraLength = buffer.getShort(position + 30) & 0xFFFF;
+        int commentLength = buffer.getShort(position + 32) & 0xFFFF;
+
+        byte[] name = new byte[nameLength];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + CENTRAL_HEADER_SIZE);
+        view.get(name);
+        entries.putIfAbsent(new String(name, StandardCharsets.UTF_8), position);
+
+        position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+      }
+
+      return new MappedArchive(buffer, (int)base, entries);
+    }
+
+    private static int findEndHeader(ByteBuffer buffer) {
+      int last = buffer.limit() - END_HEADER_SIZE;
+      int first = Math.max(0, last - MAX_COMMENT_SIZE);
+      for (int position = last; position >= first; position--) {
+        if (buffer.getInt(position) == END_HEADER_SIGNATURE) {
+          return position;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    public ByteBuffer read(String name, boolean share) throws IOException {
+      Integer central = entries.get(name);
+      if (central == null) {
+        return null;
+      }
+
+      lock.readLock().lock();
+      try {
+        if (closed) throw new IOException("Archive closed");
+        return read(name, central, share);
+      }
+      finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    private ByteBuffer read(String name, int central, boolean share) throws IOException {
+      int flags = buffer.getShort(central + 8) & 0xFFFF;
+      int method = buffer.getShort(central + 10) & 0xFFFF;
+      int compressedSize = buffer.getInt(central + 20);
+      int size = buffer.getInt(central + 24);
+      int local = base + buffer.getInt(central + 42);
+
+      if ((flags & 1) != 0) throw new IOException("Encrypted entry: " + name);
+      if (compressedSize < 0 || size < 0) throw new IOException("Entry too large: " + name);
+      if (buffer.getInt(local) != LOCAL_HEADER_SIGNATURE) throw new IOException("Invalid local header: " + name);
+
+      int data = local + LOCAL_HEADER_SIZE + (buffer.getShort(local + 26) & 0xFFFF) + (buffer.getShort(local + 28) & 0xFFFF);
+      if (data + compressedSize > buffer.limit()) throw new IOException("Truncated entry: " + name);
+
+      // a private view, as reads may happen concurrently
+      ByteBuffer view = buffer.duplicate();
+      view.position(data);
+
+      switch (method) {
+        case ZipEntry.STORED: {
+          if (size != compressedSize) throw new IOException("Invalid entry size: " + name);
+          if (share) {
+            shared = true;
+            view.limit(data + size);
+            return view.slice().asReadOnlyBuffer();
+          }
+          byte[] bytes = new byte[size];
+          view.get(bytes);
+          return ByteBuffer.wrap(bytes);
+        }
+        case ZipEntry.DEFLATED: {
+          // an extra byte is needed by the inflater in 'nowrap' mode
+          byte[] input = new byte[compressedSize + 1];
+          view.get(input, 0, compressedSize);
+          return ByteBuffer.wrap(inflate(input, size, name));
+        }
+        default:
+          throw new IOException("Unsupported compression method " + method + ": " + name);
+      }
+    }
+
+    private static byte[] inflate(byte[] input, int size, String name) throws IOException {
+      Inflater inflater = new Inflater(true);
+      try {
+        inflater.setInput(input);
+        byte[] bytes = new byte[size];
+        int off = 0;
+        while (off < size) {
+          int count = inflater.inflate(bytes, off, size - off);
+          if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+            throw new IOException("Truncated entry: " + name);
+          }
+          off += count;
+        }
+        return bytes;
+      }
+      catch (DataFormatException ex) {
+        throw new IOException("Corrupted entry: " + name, ex);
+      }
+      finally {
+        inflater.end();
+      }
+    }
+
+    @Override
+    public void close() {
+      lock.writeLock().lock();
+      try {
+        if (!closed) {
+          closed = true;
+          if (!shared) {
+            unmap(buffer);
+          }
+        }
+      }
+      finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    /**
+     * Frees the mapping right away instead of once the buffer is collected, so the archive may be deleted or replaced
+     * (Windows doesn't allow that for mapped files). If the runtime doesn't give access to the cleaner, the mapping is
+     * left to the garbage collector. The buffer must not be accessed afterwards.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+      try {
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        Method invokeCleaner;
+        try {
+          invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        }
+        catch (NoSuchMethodException e) {
+          // Java 8
+          Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+          cleanerMethod.setAccessible(true);
+          Object cleaner = cleanerMethod.invoke(buffer);
+          if (cleaner != null) {
+            cleaner.getClass().getMethod("clean").invoke(cleaner);
+          }
+          return;
+        }
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        invokeCleaner.invoke(theUnsafe.get(null), buffer);
+      }
+      catch (ReflectiveOperationException | RuntimeException ignored) { }
+    }
+  }
+}
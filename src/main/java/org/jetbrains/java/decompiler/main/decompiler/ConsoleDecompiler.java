@@ -9,12 +9,13 @@ import org.jetbrains.java.decompiler.main.extern.IResultSaver;
 import org.jetbrains.java.decompiler.util.InterpreterUtil;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.jar.Attributes;
 import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
 public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
@@ -64,7 +65,7 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
     }
 
     File destination = new File(args[args.length - 1]);
-    if (!destination.isDirectory()) {
+    if (isArchive(destination) ? !destination.getAbsoluteFile().getParentFile().isDirectory() : !destination.isDirectory()) {
       System.out.println("error: destination '" + destination + "' is not a directory");
       return;
     }
@@ -82,6 +83,11 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
     decompiler.decompileContext();
   }
 
+  private static boolean isArchive(File file) {
+    String name = file.getName().toLowerCase(Locale.ENGLISH);
+    return name.endsWith(".jar") || name.endsWith(".zip");
+  }
+
   @SuppressWarnings("UseOfSystemOutOrSystemErr")
   private static void addPath(List<? super File> list, String path) {
     File file = new File(path);
@@ -98,12 +104,25 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
   // *******************************************************************
 
   private final File root;
+  // when set, all sources are written into this archive instead of the destination directory
+  private final File archive;
   private final Fernflower engine;
+  private final ArchiveBytecodeProvider bytecodeProvider = new ArchiveBytecodeProvider();
   private final Map<String, ZipOutputStream> mapArchiveStreams = new HashMap<>();
   private final Map<String, Set<String>> mapArchiveEntries = new HashMap<>();
 
+  /**
+   * @param destination directory to save sources into, or a .jar or .zip file to pack all of them into
+   */
   protected ConsoleDecompiler(File destination, Map<String, Object> options, IFernflowerLogger logger) {
-    root = destination;
+    if (isArchive(destination)) {
+      root = destination.getAbsoluteFile().getParentFile();
+      archive = destination.getAbsoluteFile();
+    }
+    else {
+      root = destination;
+      archive = null;
+    }
     engine = new Fernflower(this, this, options, logger);
   }
 
@@ -117,30 +136,43 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
 
   public void decompileContext() {
     try {
+      if (archive != null) {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        openArchive(archive, manifest);
+      }
       engine.decompileContext();
     }
     finally {
+      if (archive != null && mapArchiveStreams.containsKey(archive.getPath())) {
+        closeArchive(archive.getPath());
+      }
+      closeArchives();
       engine.clearContext();
     }
   }
 
+  private void closeArchives() {
+    try {
+      bytecodeProvider.close();
+    }
+    catch (IOException ex) {
+      DecompilerContext.getLogger().writeMessage("Cannot close source archives", IFernflowerLogger.Severity.WARN, ex);
+    }
+  }
+
   // *******************************************************************
   // Interface IBytecodeProvider
   // *******************************************************************
 
   @Override
   public byte[] getBytecode(String externalPath, String internalPath) throws IOException {
-    File file = new File(externalPath);
-    if (internalPath == null) {
-      return InterpreterUtil.getBytes(file);
-    }
-    else {
-      try (ZipFile archive = new ZipFile(file)) {
-        ZipEntry entry = archive.getEntry(internalPath);
-        if (entry == null) throw new IOException("Entry not found: " + internalPath);
-        return InterpreterUtil.getBytes(archive, entry);
-      }
-    }
+    return bytecodeProvider.getBytecode(externalPath, internalPath);
+  }
+
+  @Override
+  public ByteBuffer getBytecodeBuffer(String externalPath, String internalPath) throws IOException {
+    return bytecodeProvider.getBytecodeBuffer(externalPath, internalPath);
   }
 
   // *******************************************************************
@@ -151,8 +183,29 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
     return new File(root, path).getAbsolutePath();
   }
 
+  private String getArchivePath(String path, String archiveName) {
+    return archive != null ? archive.getPath() : new File(getAbsolutePath(path), archiveName).getPath();
+  }
+
+  private static String getEntryName(String path, String entryName) {
+    return path.isEmpty() ? entryName : path + '/' + entryName;
+  }
+
   @Override
   public void saveFolder(String path) {
+    if (archive != null) {
+      // directory entries of all parent folders, as a jar tool would write them
+      int index = 0;
+      while (!path.isEmpty() && index >= 0) {
+        index = path.indexOf('/', index + 1);
+        String dirEntry = (index < 0 ? path : path.substring(0, index)) + '/';
+        if (!mapArchiveEntries.computeIfAbsent(archive.getPath(), k -> new HashSet<>()).contains(dirEntry)) {
+          saveDirEntry("", null, dirEntry);
+        }
+      }
+      return;
+    }
+
     File dir = new File(getAbsolutePath(path));
     if (!(dir.mkdirs() || dir.isDirectory())) {
       throw new RuntimeException("Cannot create directory " + dir);
@@ -161,6 +214,22 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
 
   @Override
   public void copyFile(String source, String path, String entryName) {
+    if (archive != null) {
+      String file = archive.getPath();
+      String archiveEntry = getEntryName(path, entryName);
+      if (checkEntry(archiveEntry, file)) {
+        try {
+          ZipOutputStream out = mapArchiveStreams.get(file);
+          out.putNextEntry(new ZipEntry(archiveEntry));
+          out.write(InterpreterUtil.getBytes(new File(source)));
+        }
+        catch (IOException ex) {
+          DecompilerContext.getLogger().writeMessage("Cannot copy " + source + " to " + file, ex);
+        }
+      }
+      return;
+    }
+
     try {
       InterpreterUtil.copyFile(new File(source), new File(getAbsolutePath(path), entryName));
     }
@@ -171,6 +240,11 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
 
   @Override
   public void saveClassFile(String path, String qualifiedName, String entryName, String content, int[] mapping) {
+    if (archive != null) {
+      saveClassEntry("", null, qualifiedName, getEntryName(path, entryName), content);
+      return;
+    }
+
     File file = new File(getAbsolutePath(path), entryName);
     try (Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
       out.write(content);
@@ -182,7 +256,13 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
 
   @Override
   public void createArchive(String path, String archiveName, Manifest manifest) {
-    File file = new File(getAbsolutePath(path), archiveName);
+    // entries of source archives are merged into the destination archive
+    if (archive == null) {
+      openArchive(new File(getAbsolutePath(path), archiveName), manifest);
+    }
+  }
+
+  private void openArchive(File file, Manifest manifest) {
     try {
       if (!(file.createNewFile() || file.isFile())) {
         throw new IOException("Cannot create file " + file);
@@ -204,20 +284,18 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
 
   @Override
   public void copyEntry(String source, String path, String archiveName, String entryName) {
-    String file = new File(getAbsolutePath(path), archiveName).getPath();
+    String file = getArchivePath(path, archiveName);
 
     if (!checkEntry(entryName, file)) {
       return;
     }
 
-    try (ZipFile srcArchive = new ZipFile(new File(source))) {
-      ZipEntry entry = srcArchive.getEntry(entryName);
-      if (entry != null) {
-        try (InputStream in = srcArchive.getInputStream(entry)) {
-          ZipOutputStream out = mapArchiveStreams.get(file);
-          out.putNextEntry(new ZipEntry(entryName));
-          InterpreterUtil.copyStream(in, out);
-        }
+    try {
+      byte[] bytes = bytecodeProvider.getEntry(source, entryName);
+      if (bytes != null) {
+        ZipOutputStream out = mapArchiveStreams.get(file);
+        out.putNextEntry(new ZipEntry(entryName));
+        out.write(bytes);
       }
     }
     catch (IOException ex) {
@@ -228,7 +306,7 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
 
   @Override
   public void saveClassEntry(String path, String archiveName, String qualifiedName, String entryName, String content) {
-    String file = new File(getAbsolutePath(path), archiveName).getPath();
+    String file = getArchivePath(path, archiveName);
 
     if (!checkEntry(entryName, file)) {
       return;
@@ -260,7 +338,12 @@ public class ConsoleDecompiler implements IBytecodeProvider, IResultSaver {
 
   @Override
   public void closeArchive(String path, String archiveName) {
-    String file = new File(getAbsolutePath(path), archiveName).getPath();
+    if (archive == null) {
+      closeArchive(getArchivePath(path, archiveName));
+    }
+  }
+
+  private void closeArchive(String file) {
     try {
       mapArchiveEntries.remove(file);
       mapArchiveStreams.remove(file).close();
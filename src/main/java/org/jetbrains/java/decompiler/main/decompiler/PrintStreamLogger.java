@@ -9,25 +9,27 @@ import java.io.PrintStream;
 public class PrintStreamLogger extends IFernflowerLogger {
 
   private final PrintStream stream;
-  private int indent;
+  // classes may be decompiled by several threads, each keeping its own nesting level
+  private final ThreadLocal<int[]> indent = ThreadLocal.withInitial(() -> new int[1]);
 
   public PrintStreamLogger(PrintStream printStream) {
     stream = printStream;
-    indent = 0;
   }
 
   @Override
   public void writeMessage(String message, Severity severity) {
     if (accepts(severity)) {
-      stream.println(severity.prefix + TextUtil.getIndentString(indent) + message);
+      stream.println(severity.prefix + TextUtil.getIndentString(indent.get()[0]) + message);
     }
   }
 
   @Override
   public void writeMessage(String message, Severity severity, Throwable t) {
     if (accepts(severity)) {
-      writeMessage(message, severity);
-      t.printStackTrace(stream);
+      synchronized (stream) {
+        writeMessage(message, severity);
+        t.printStackTrace(stream);
+      }
     }
   }
 
@@ -35,14 +37,14 @@ public class PrintStreamLogger extends IFernflowerLogger {
   public void startReadingClass(String className) {
     if (accepts(Severity.INFO)) {
       writeMessage("Decompiling class " + className, Severity.INFO);
-      ++indent;
+      ++indent.get()[0];
     }
   }
 
   @Override
   public void endReadingClass() {
     if (accepts(Severity.INFO)) {
-      --indent;
+      --indent.get()[0];
       writeMessage("... done", Severity.INFO);
     }
   }
@@ -51,14 +53,14 @@ public class PrintStreamLogger extends IFernflowerLogger {
   public void startClass(String className) {
     if (accepts(Severity.INFO)) {
       writeMessage("Processing class " + className, Severity.TRACE);
-      ++indent;
+      ++indent.get()[0];
     }
   }
 
   @Override
   public void endClass() {
     if (accepts(Severity.INFO)) {
-      --indent;
+      --indent.get()[0];
       writeMessage("... proceeded", Severity.TRACE);
     }
   }
@@ -67,14 +69,14 @@ public class PrintStreamLogger extends IFernflowerLogger {
   public void startMethod(String methodName) {
     if (accepts(Severity.INFO)) {
       writeMessage("Processing method " + methodName, Severity.TRACE);
-      ++indent;
+      ++indent.get()[0];
     }
   }
 
   @Override
   public void endMethod() {
     if (accepts(Severity.INFO)) {
-      --indent;
+      --indent.get()[0];
       writeMessage("... proceeded", Severity.TRACE);
     }
   }
@@ -83,14 +85,14 @@ public class PrintStreamLogger extends IFernflowerLogger {
   public void startWriteClass(String className) {
     if (accepts(Severity.INFO)) {
       writeMessage("Writing class " + className, Severity.TRACE);
-      ++indent;
+      ++indent.get()[0];
     }
   }
 
   @Override
   public void endWriteClass() {
     if (accepts(Severity.INFO)) {
-      --indent;
+      --indent.get()[0];
       writeMessage("... written", Severity.TRACE);
     }
   }
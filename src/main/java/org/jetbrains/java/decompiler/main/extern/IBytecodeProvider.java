@@ -2,7 +2,16 @@
 package org.jetbrains.java.decompiler.main.extern;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public interface IBytecodeProvider {
   byte[] getBytecode(String externalPath, String internalPath) throws IOException;
+
+  /**
+   * @return class file between the position and the limit of the buffer, which may be a read-only view of a mapped
+   *         archive and is not modified by the decompiler
+   */
+  default ByteBuffer getBytecodeBuffer(String externalPath, String internalPath) throws IOException {
+    return ByteBuffer.wrap(getBytecode(externalPath, internalPath));
+  }
 }
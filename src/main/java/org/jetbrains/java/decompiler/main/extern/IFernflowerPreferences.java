@@ -42,6 +42,10 @@ public interface IFernflowerPreferences {
   String NEW_LINE_SEPARATOR = "nls";
   String INDENT_STRING = "ind";
   String BANNER = "ban";
+  String THREADS = "thr";
+  String CACHE_DIRECTORY = "cdr";
+  String LOADER_CACHE_SIZE = "lcs";
+  String PROFILE_DIRECTORY = "prf";
 
   String DUMP_ORIGINAL_LINES = "__dump_original_lines__";
   String UNIT_TEST_MODE = "__unit_test_mode__";
@@ -87,6 +91,10 @@ public interface IFernflowerPreferences {
     defaults.put(NEW_LINE_SEPARATOR, (InterpreterUtil.IS_WINDOWS ? "0" : "1"));
     defaults.put(INDENT_STRING, "   ");
     defaults.put(BANNER, "");
+    defaults.put(THREADS, "1");
+    defaults.put(CACHE_DIRECTORY, "");
+    defaults.put(LOADER_CACHE_SIZE, "64");
+    defaults.put(PROFILE_DIRECTORY, "");
     defaults.put(UNIT_TEST_MODE, "0");
     defaults.put(DUMP_ORIGINAL_LINES, "0");
 
@@ -2,11 +2,12 @@
 package org.jetbrains.java.decompiler.main.rels;
 
 import org.jetbrains.java.decompiler.code.CodeConstants;
+import org.jetbrains.java.decompiler.main.DecompileProfiler;
 import org.jetbrains.java.decompiler.main.DecompilerContext;
+import org.jetbrains.java.decompiler.main.DecompilerOptions;
 import org.jetbrains.java.decompiler.main.collectors.CounterContainer;
 import org.jetbrains.java.decompiler.main.collectors.VarNamesCollector;
 import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
-import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.Exprent;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.VarExprent;
 import org.jetbrains.java.decompiler.modules.decompiler.stats.RootStatement;
@@ -39,8 +40,8 @@ public class ClassWrapper {
     DecompilerContext.setProperty(DecompilerContext.CURRENT_CLASS_WRAPPER, this);
     DecompilerContext.getLogger().startClass(classStruct.qualifiedName);
 
-    int maxSec = Integer.parseInt(DecompilerContext.getProperty(IFernflowerPreferences.MAX_PROCESSING_METHOD).toString());
-    boolean testMode = DecompilerContext.getOption(IFernflowerPreferences.UNIT_TEST_MODE);
+    int maxSec = DecompilerContext.getOptions().getMaxProcessingMethod();
+    boolean testMode = DecompilerContext.getOption(DecompilerOptions.Flag.UNIT_TEST_MODE);
 
     for (StructMethod mt : classStruct.getMethods()) {
       DecompilerContext.getLogger().startMethod(mt.getName() + " " + mt.getDescriptor());
@@ -56,41 +57,29 @@ public class ClassWrapper {
 
       boolean isError = false;
 
+      DecompileProfiler.Record profile = mt.containsCode() ? DecompileProfiler.startMethod(mt) : DecompileProfiler.Record.NONE;
+
       try {
         if (mt.containsCode()) {
           if (maxSec == 0 || testMode) {
-            root = MethodProcessorRunnable.codeToJava(mt, md, varProc);
+            root = MethodProcessorRunnable.codeToJava(mt, md, varProc, profile);
           }
           else {
-            MethodProcessorRunnable mtProc = new MethodProcessorRunnable(mt, md, varProc, DecompilerContext.getCurrentContext());
-
-            Thread mtThread = new Thread(mtProc, "Java decompiler");
-            long stopAt = System.currentTimeMillis() + maxSec * 1000L;
-
-            mtThread.start();
-
-            while (!mtProc.isFinished()) {
-              try {
-                synchronized (mtProc.lock) {
-                  mtProc.lock.wait(200);
-                }
-              }
-              catch (InterruptedException e) {
-                killThread(mtThread);
-                throw e;
-              }
-
-              if (System.currentTimeMillis() >= stopAt) {
-                String message = "Processing time limit exceeded for method " + mt.getName() + ", execution interrupted.";
-                DecompilerContext.getLogger().writeMessage(message, IFernflowerLogger.Severity.ERROR);
-                killThread(mtThread);
-                isError = true;
-                break;
-              }
+            MethodProcessorRunnable mtProc =
+              new MethodProcessorRunnable(mt, md, varProc, DecompilerContext.getCurrentContext().createMethodContext(), profile, maxSec);
+            try {
+              root = mtProc.process();
             }
-
-            if (!isError) {
-              root = mtProc.getResult();
+            catch (MethodProcessorRunnable.TimeLimitExceededException e) {
+              String message = "Processing time limit exceeded for method " + mt.getName() + ", execution interrupted.";
+              DecompilerContext.getLogger().writeMessage(message, IFernflowerLogger.Severity.ERROR);
+              profile.fail(DecompileProfiler.Status.TIMEOUT, null);
+              isError = true;
+
+              // the method may still be processed in the background
+              varProc = new VarProcessor(mt, md);
+              DecompilerContext.startMethod(varProc);
+              counter = DecompilerContext.getCounterContainer();
             }
           }
         }
@@ -125,6 +114,7 @@ public class ClassWrapper {
       catch (Throwable t) {
         String message = "Method " + mt.getName() + " " + mt.getDescriptor() + " couldn't be decompiled.";
         DecompilerContext.getLogger().writeMessage(message, IFernflowerLogger.Severity.WARN, t);
+        profile.fail(DecompileProfiler.Status.ERROR, t);
         isError = true;
       }
 
@@ -140,7 +130,7 @@ public class ClassWrapper {
         varProc.refreshVarNames(namesCollector);
 
         // if debug information present and should be used
-        if (DecompilerContext.getOption(IFernflowerPreferences.USE_DEBUG_VAR_NAMES)) {
+        if (DecompilerContext.getOption(DecompilerOptions.Flag.USE_DEBUG_VAR_NAMES)) {
           StructLocalVariableTableAttribute attr = mt.getLocalVariableAttr();
           if (attr != null) {
             // only param names here
@@ -156,7 +146,7 @@ public class ClassWrapper {
                   VarExprent varExprent = (VarExprent)e;
                   String name = varExprent.getDebugName(mt);
                   if (name != null) {
-                    varProc.setVarName(varExprent.getVarVersionPair(), name);
+                    methodWrapper.varproc.setVarName(varExprent.getVarVersionPair(), name);
                   }
                 });
               return 0;
@@ -171,11 +161,6 @@ public class ClassWrapper {
     DecompilerContext.getLogger().endClass();
   }
 
-  @SuppressWarnings("deprecation")
-  private static void killThread(Thread thread) {
-    thread.stop();
-  }
-
   public MethodWrapper getMethodWrapper(String name, String descriptor) {
     return methods.getWithKey(InterpreterUtil.makeUniqueKey(name, descriptor));
   }
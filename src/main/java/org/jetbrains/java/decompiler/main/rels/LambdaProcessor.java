@@ -2,8 +2,7 @@
 package org.jetbrains.java.decompiler.main.rels;
 
 import org.jetbrains.java.decompiler.code.CodeConstants;
-import org.jetbrains.java.decompiler.code.Instruction;
-import org.jetbrains.java.decompiler.code.InstructionSequence;
+import org.jetbrains.java.decompiler.code.InstructionTable;
 import org.jetbrains.java.decompiler.main.ClassesProcessor;
 import org.jetbrains.java.decompiler.main.ClassesProcessor.ClassNode;
 import org.jetbrains.java.decompiler.main.DecompilerContext;
@@ -64,17 +63,13 @@ public class LambdaProcessor {
 
     // iterate over code and find invocations of bootstrap methods. Replace them with anonymous classes.
     for (StructMethod mt : cl.getMethods()) {
-      mt.expandData();
-
-      InstructionSequence seq = mt.getInstructionSequence();
-      if (seq != null && seq.length() > 0) {
-        int len = seq.length();
+      InstructionTable table = mt.getInstructionTable();
+      if (table != null && table.size() > 0) {
+        int len = table.size();
 
         for (int i = 0; i < len; ++i) {
-          Instruction instr = seq.getInstr(i);
-
-          if (instr.opcode == CodeConstants.opc_invokedynamic) {
-            LinkConstant invoke_dynamic = cl.getPool().getLinkConstant(instr.operand(0));
+          if (table.getOpcode(i) == CodeConstants.opc_invokedynamic) {
+            LinkConstant invoke_dynamic = cl.getPool().getLinkConstant(table.getOperand(i, 0));
 
             if (lambda_methods.get(invoke_dynamic.index1)) { // lambda invocation found
 
@@ -104,8 +99,6 @@ public class LambdaProcessor {
           }
         }
       }
-
-      mt.releaseResources();
     }
 
     // build class hierarchy on lambda
@@ -4,74 +4,207 @@ package org.jetbrains.java.decompiler.main.rels;
 import org.jetbrains.java.decompiler.code.CodeConstants;
 import org.jetbrains.java.decompiler.code.InstructionSequence;
 import org.jetbrains.java.decompiler.code.cfg.ControlFlowGraph;
+import org.jetbrains.java.decompiler.main.DecompileProfiler;
+import org.jetbrains.java.decompiler.main.DecompileProfiler.Pass;
 import org.jetbrains.java.decompiler.main.DecompilerContext;
+import org.jetbrains.java.decompiler.main.DecompilerOptions;
 import org.jetbrains.java.decompiler.main.collectors.CounterContainer;
 import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
-import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
 import org.jetbrains.java.decompiler.modules.code.DeadCodeHelper;
 import org.jetbrains.java.decompiler.modules.decompiler.*;
 import org.jetbrains.java.decompiler.modules.decompiler.deobfuscator.ExceptionDeobfuscator;
 import org.jetbrains.java.decompiler.modules.decompiler.stats.RootStatement;
 import org.jetbrains.java.decompiler.modules.decompiler.vars.VarProcessor;
-import org.jetbrains.java.decompiler.struct.StructClass;
 import org.jetbrains.java.decompiler.struct.StructMethod;
 import org.jetbrains.java.decompiler.struct.gen.MethodDescriptor;
 
 import java.io.IOException;
+import java.util.concurrent.*;
 
 public class MethodProcessorRunnable implements Runnable {
-  public final Object lock = new Object();
+  // shared by all classes; when every thread is busy the method is processed on the calling thread
+  private static final ExecutorService executor = new ThreadPoolExecutor(
+    0, Math.max(2, Runtime.getRuntime().availableProcessors()), 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+    r -> {
+      Thread thread = new Thread(r, "Java decompiler");
+      thread.setDaemon(true);
+      return thread;
+    },
+    new ThreadPoolExecutor.CallerRunsPolicy());
+
+  private static final ThreadLocal<MethodProcessorRunnable> currentProcessor = new ThreadLocal<>();
 
   private final StructMethod method;
   private final MethodDescriptor methodDescriptor;
   private final VarProcessor varProc;
-  private final DecompilerContext parentContext;
+  private final DecompilerContext context;
+  private final DecompileProfiler.Record profile;
+  private final long timeLimitNanos;
 
   private volatile RootStatement root;
   private volatile Throwable error;
-  private volatile boolean finished = false;
+  private volatile long deadline;
+  private volatile boolean cancelled = false;
 
   public MethodProcessorRunnable(StructMethod method,
                                  MethodDescriptor methodDescriptor,
                                  VarProcessor varProc,
-                                 DecompilerContext parentContext) {
+                                 DecompilerContext context,
+                                 DecompileProfiler.Record profile,
+                                 int maxSec) {
     this.method = method;
     this.methodDescriptor = methodDescriptor;
     this.varProc = varProc;
-    this.parentContext = parentContext;
+    this.context = context;
+    this.profile = profile;
+    this.timeLimitNanos = TimeUnit.SECONDS.toNanos(maxSec);
   }
 
   @Override
   public void run() {
     error = null;
     root = null;
+    deadline = System.nanoTime() + timeLimitNanos;
 
+    DecompilerContext callerContext = DecompilerContext.getCurrentContext();
     try {
-      DecompilerContext.setCurrentContext(parentContext);
-      root = codeToJava(method, methodDescriptor, varProc);
+      DecompilerContext.setCurrentContext(context);
+      currentProcessor.set(this);
+      root = codeToJava(method, methodDescriptor, varProc, profile);
     }
     catch (Throwable t) {
       error = t;
     }
     finally {
-      DecompilerContext.setCurrentContext(null);
+      currentProcessor.remove();
+      DecompilerContext.setCurrentContext(callerContext);
     }
+  }
 
-    finished = true;
-    synchronized (lock) {
-      lock.notifyAll();
+  /**
+   * Processes the method on the shared executor and waits for the result. Passes check the time limit
+   * between iterations and abort once it is exceeded. The method is processed in a context of its own
+   * (see {@link DecompilerContext#createMethodContext()}), so if it doesn't abort within the time limit
+   * once more, it is left behind. Its variable processor and counters must not be used by the caller then.
+   *
+   * @throws TimeLimitExceededException if the method ran out of time
+   */
+  public RootStatement process() throws Throwable {
+    long timeLimitMillis = TimeUnit.NANOSECONDS.toMillis(timeLimitNanos);
+    Future<?> future = executor.submit(this);
+    try {
+      future.get(timeLimitMillis, TimeUnit.MILLISECONDS);
+    }
+    catch (TimeoutException e) {
+      cancelled = true;
+      if (!awaitAborted(future, timeLimitMillis)) {
+        String message = "Processing of method " + method.getName() + " " + method.getDescriptor() + " didn't stop, abandoned.";
+        DecompilerContext.getLogger().writeMessage(message, IFernflowerLogger.Severity.WARN);
+        throw new TimeLimitExceededException(method);
+      }
+    }
+    catch (InterruptedException e) {
+      cancelled = true;
+      throw e;
+    }
+
+    return getResult();
+  }
+
+  private static boolean awaitAborted(Future<?> future, long timeoutMillis) throws ExecutionException {
+    boolean interrupted = false;
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    try {
+      while (true) {
+        try {
+          future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+          return true;
+        }
+        catch (InterruptedException e) {
+          interrupted = true;
+        }
+        catch (TimeoutException e) {
+          return false;
+        }
+      }
+    }
+    finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Aborts processing of the current method if it ran out of time.
+   */
+  public static void checkTimeLimit() {
+    MethodProcessorRunnable processor = currentProcessor.get();
+    if (processor != null && (processor.cancelled || System.nanoTime() - processor.deadline >= 0)) {
+      throw new TimeLimitExceededException(processor.method);
     }
   }
 
   public static RootStatement codeToJava(StructMethod mt, MethodDescriptor md, VarProcessor varProc) throws IOException {
-    StructClass cl = mt.getClassStruct();
+    return codeToJava(mt, md, varProc, DecompileProfiler.Record.NONE);
+  }
 
-    boolean isInitializer = CodeConstants.CLINIT_NAME.equals(mt.getName()); // for now static initializer only
+  public static RootStatement codeToJava(StructMethod mt,
+                                         MethodDescriptor md,
+                                         VarProcessor varProc,
+                                         DecompileProfiler.Record profile) throws IOException {
+    profile.begin();
+    ControlFlowGraph graph = buildGraph(mt);
+    profile.end(Pass.GRAPH);
+
+    profile.begin();
+    simplifyGraph(mt, graph);
+    profile.end(Pass.DEAD_CODE);
+
+    checkTimeLimit();
+
+    profile.begin();
+    RootStatement root = DomHelper.parseGraph(graph);
+    profile.end(Pass.PARSE_GRAPH);
+
+    profile.begin();
+    root = processFinally(mt, md, varProc, graph, root);
+    profile.end(Pass.FINALLY);
+
+    checkTimeLimit();
+
+    profile.begin();
+    processExpressions(mt, md, varProc, root);
+    profile.end(Pass.EXPRESSIONS);
 
+    profile.begin();
+    simplifyStackVars(mt, varProc, root);
+    profile.end(Pass.STACK_VARS);
+
+    profile.begin();
+    simplifyStatements(mt, varProc, root);
+    profile.end(Pass.MERGE_IFS);
+
+    checkTimeLimit();
+
+    profile.begin();
+    defineVariables(varProc, root);
+    profile.end(Pass.VARIABLES);
+
+    mt.releaseResources();
+
+    return root;
+  }
+
+  // the stages of method processing, in the order they are applied by codeToJava
+
+  public static ControlFlowGraph buildGraph(StructMethod mt) throws IOException {
     mt.expandData();
     InstructionSequence seq = mt.getInstructionSequence();
-    ControlFlowGraph graph = new ControlFlowGraph(seq);
+    return new ControlFlowGraph(seq);
+  }
 
+  public static void simplifyGraph(StructMethod mt, ControlFlowGraph graph) {
     DeadCodeHelper.removeDeadBlocks(graph);
     graph.inlineJsr(mt);
 
@@ -84,16 +217,16 @@ public class MethodProcessorRunnable implements Runnable {
 
     ExceptionDeobfuscator.restorePopRanges(graph);
 
-    if (DecompilerContext.getOption(IFernflowerPreferences.REMOVE_EMPTY_RANGES)) {
+    if (DecompilerContext.getOption(DecompilerOptions.Flag.REMOVE_EMPTY_RANGES)) {
       ExceptionDeobfuscator.removeEmptyRanges(graph);
     }
 
-    if (DecompilerContext.getOption(IFernflowerPreferences.ENSURE_SYNCHRONIZED_MONITOR)) {
+    if (DecompilerContext.getOption(DecompilerOptions.Flag.ENSURE_SYNCHRONIZED_MONITOR)) {
       // special case: search for 'synchronized' ranges w/o monitorexit instruction (as generated by Kotlin and Scala)
       DeadCodeHelper.extendSynchronizedRangeToMonitorexit(graph);
     }
 
-    if (DecompilerContext.getOption(IFernflowerPreferences.NO_EXCEPTIONS_RETURN)) {
+    if (DecompilerContext.getOption(DecompilerOptions.Flag.NO_EXCEPTIONS_RETURN)) {
       // special case: single return instruction outside of a protected range
       DeadCodeHelper.incorporateValueReturns(graph);
     }
@@ -110,13 +243,14 @@ public class MethodProcessorRunnable implements Runnable {
       if (!ExceptionDeobfuscator.handleMultipleEntryExceptionRanges(graph)) {
         DecompilerContext.getLogger().writeMessage("Found multiple entry exception ranges which could not be splitted", IFernflowerLogger.Severity.WARN);
       }
-      ExceptionDeobfuscator.insertDummyExceptionHandlerBlocks(graph, cl.getBytecodeVersion());
+      ExceptionDeobfuscator.insertDummyExceptionHandlerBlocks(graph, mt.getClassStruct().getBytecodeVersion());
     }
+  }
 
-    RootStatement root = DomHelper.parseGraph(graph);
-
+  public static RootStatement processFinally(StructMethod mt, MethodDescriptor md, VarProcessor varProc, ControlFlowGraph graph, RootStatement root) {
     FinallyProcessor fProc = new FinallyProcessor(md, varProc);
     while (fProc.iterateGraph(mt, root, graph)) {
+      checkTimeLimit();
       root = DomHelper.parseGraph(graph);
     }
 
@@ -130,31 +264,44 @@ public class MethodProcessorRunnable implements Runnable {
 
     ClearStructHelper.clearStatements(root);
 
+    return root;
+  }
+
+  public static void processExpressions(StructMethod mt, MethodDescriptor md, VarProcessor varProc, RootStatement root) {
     ExprProcessor proc = new ExprProcessor(md, varProc);
-    proc.processStatement(root, cl);
+    proc.processStatement(root, mt.getClassStruct());
 
     SequenceHelper.condenseSequences(root);
+  }
 
+  public static void simplifyStackVars(StructMethod mt, VarProcessor varProc, RootStatement root) {
     StackVarsProcessor stackProc = new StackVarsProcessor();
 
     do {
-      stackProc.simplifyStackVars(root, mt, cl);
+      checkTimeLimit();
+      stackProc.simplifyStackVars(root, mt, mt.getClassStruct());
       varProc.setVarVersions(root);
     }
     while (new PPandMMHelper().findPPandMM(root));
+  }
+
+  public static void simplifyStatements(StructMethod mt, VarProcessor varProc, RootStatement root) {
+    boolean isInitializer = CodeConstants.CLINIT_NAME.equals(mt.getName()); // for now static initializer only
 
     while (true) {
+      checkTimeLimit();
       LabelHelper.cleanUpEdges(root);
 
       do {
+        checkTimeLimit();
         MergeHelper.enhanceLoops(root);
       }
       while (LoopExtractHelper.extractLoops(root) || IfHelper.mergeAllIfs(root));
 
-      if (DecompilerContext.getOption(IFernflowerPreferences.IDEA_NOT_NULL_ANNOTATION)) {
+      if (DecompilerContext.getOption(DecompilerOptions.Flag.IDEA_NOT_NULL_ANNOTATION)) {
         if (IdeaNotNullHelper.removeHardcodedChecks(root, mt)) {
           SequenceHelper.condenseSequences(root);
-          stackProc.simplifyStackVars(root, mt, cl);
+          new StackVarsProcessor().simplifyStackVars(root, mt, mt.getClassStruct());
           varProc.setVarVersions(root);
         }
       }
@@ -175,7 +322,9 @@ public class MethodProcessorRunnable implements Runnable {
       //  break;
       //}
     }
+  }
 
+  public static void defineVariables(VarProcessor varProc, RootStatement root) {
     ExitHelper.removeRedundantReturns(root);
 
     SecondaryFunctionsHelper.identifySecondaryFunctions(root, varProc);
@@ -185,10 +334,6 @@ public class MethodProcessorRunnable implements Runnable {
     // must be the last invocation, because it makes the statement structure inconsistent
     // FIXME: new edge type needed
     LabelHelper.replaceContinueWithBreak(root);
-
-    mt.releaseResources();
-
-    return root;
   }
 
   public RootStatement getResult() throws Throwable {
@@ -197,7 +342,11 @@ public class MethodProcessorRunnable implements Runnable {
     return root;
   }
 
-  public boolean isFinished() {
-    return finished;
+  public static class TimeLimitExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public TimeLimitExceededException(StructMethod method) {
+      super("Processing time limit exceeded for method " + method.getName(), null, false, false);
+    }
   }
 }
\ No newline at end of file
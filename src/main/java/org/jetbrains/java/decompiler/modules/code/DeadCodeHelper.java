@@ -9,7 +9,8 @@ import org.jetbrains.java.decompiler.code.cfg.BasicBlock;
 import org.jetbrains.java.decompiler.code.cfg.ControlFlowGraph;
 import org.jetbrains.java.decompiler.code.cfg.ExceptionRangeCFG;
 import org.jetbrains.java.decompiler.main.DecompilerContext;
-import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.jetbrains.java.decompiler.main.DecompilerOptions;
+import org.jetbrains.java.decompiler.main.rels.MethodProcessorRunnable;
 
 import java.util.*;
 
@@ -17,31 +18,34 @@ public final class DeadCodeHelper {
 
   public static void removeDeadBlocks(ControlFlowGraph graph) {
 
-    LinkedList<BasicBlock> stack = new LinkedList<>();
-    HashSet<BasicBlock> setStacked = new HashSet<>();
+    List<BasicBlock> blocks = graph.getBlocks();
 
-    stack.add(graph.getFirst());
-    setStacked.add(graph.getFirst());
+    // marks by block id
+    boolean[] stacked = new boolean[graph.last_id + 1];
+    BasicBlock[] stack = new BasicBlock[blocks.size() + 1]; // the exit block is no member of the list
+    int size = 0;
 
-    while (!stack.isEmpty()) {
-      BasicBlock block = stack.removeFirst();
+    stack[size++] = graph.getFirst();
+    stacked[graph.getFirst().id] = true;
 
-      List<BasicBlock> lstSuccs = new ArrayList<>(block.getSuccs());
-      lstSuccs.addAll(block.getSuccExceptions());
+    while (size > 0) {
+      BasicBlock block = stack[--size];
 
-      for (BasicBlock succ : lstSuccs) {
-        if (!setStacked.contains(succ)) {
-          stack.add(succ);
-          setStacked.add(succ);
+      for (List<BasicBlock> lstSuccs : Arrays.asList(block.getSuccs(), block.getSuccExceptions())) {
+        for (BasicBlock succ : lstSuccs) {
+          if (!stacked[succ.id]) {
+            stack[size++] = succ;
+            stacked[succ.id] = true;
+          }
         }
       }
     }
 
-    HashSet<BasicBlock> setAllBlocks = new HashSet<>(graph.getBlocks());
-    setAllBlocks.removeAll(setStacked);
-
-    for (BasicBlock block : setAllBlocks) {
-      graph.removeBlock(block);
+    for (int i = blocks.size() - 1; i >= 0; i--) {
+      BasicBlock block = blocks.get(i);
+      if (!stacked[block.id]) {
+        graph.removeBlock(block);
+      }
     }
   }
 
@@ -128,7 +132,7 @@ public final class DeadCodeHelper {
           List<BasicBlock> lst = range.getProtectedRange();
 
           if (lst.size() == 1 && lst.get(0) == block) {
-            if (DecompilerContext.getOption(IFernflowerPreferences.REMOVE_EMPTY_RANGES)) {
+            if (DecompilerContext.getOption(DecompilerOptions.Flag.REMOVE_EMPTY_RANGES)) {
               block.removeSuccessorException(range.getHandler());
               lstRanges.remove(i);
 
@@ -528,6 +532,7 @@ public final class DeadCodeHelper {
   public static void mergeBasicBlocks(ControlFlowGraph graph) {
 
     while (true) {
+      MethodProcessorRunnable.checkTimeLimit();
 
       boolean merged = false;
 
@@ -554,7 +559,7 @@ public final class DeadCodeHelper {
 
               if (sameRanges) {
                 seq.addSequence(next.getSeq());
-                block.getInstrOldOffsets().addAll(next.getInstrOldOffsets());
+                block.addOldOffsets(next);
                 next.getSeq().clear();
 
                 removeEmptyBlock(graph, next, true);
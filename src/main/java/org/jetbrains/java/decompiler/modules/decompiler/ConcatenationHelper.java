@@ -7,11 +7,11 @@ import org.jetbrains.java.decompiler.struct.consts.PooledConstant;
 import org.jetbrains.java.decompiler.struct.consts.PrimitiveConstant;
 import org.jetbrains.java.decompiler.struct.gen.MethodDescriptor;
 import org.jetbrains.java.decompiler.struct.gen.VarType;
+import org.jetbrains.java.decompiler.util.IntSet;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
 
 public final class ConcatenationHelper {
 
@@ -124,7 +124,7 @@ public final class ConcatenationHelper {
     return createConcatExprent(lstOperands, expr.bytecode);
   }
 
-  private static Exprent createConcatExprent(List<Exprent> lstOperands, Set<Integer> bytecode) {
+  private static Exprent createConcatExprent(List<Exprent> lstOperands, IntSet bytecode) {
     // build exprent to return
     Exprent func = lstOperands.get(0);
 
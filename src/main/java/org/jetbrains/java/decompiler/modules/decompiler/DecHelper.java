@@ -47,7 +47,7 @@ public final class DecHelper {
     // check for other handlers (excluding head)
     for (int i = 1; i < lst.size(); i++) {
       Statement stat = lst.get(i);
-      if (!stat.getPredecessorEdges(StatEdge.TYPE_EXCEPTION).isEmpty() && !handlers.contains(stat)) {
+      if (stat.hasPredecessor(StatEdge.TYPE_EXCEPTION) && !handlers.contains(stat)) {
         return false;
       }
     }
@@ -185,7 +185,7 @@ public final class DecHelper {
 
   public static Set<Statement> getUniquePredExceptions(Statement head) {
     Set<Statement> setHandlers = new HashSet<>(head.getNeighbours(StatEdge.TYPE_EXCEPTION, Statement.DIRECTION_FORWARD));
-    setHandlers.removeIf(statement -> statement.getPredecessorEdges(StatEdge.TYPE_EXCEPTION).size() > 1);
+    setHandlers.removeIf(statement -> statement.getPredecessorEdgeView(StatEdge.TYPE_EXCEPTION).size() > 1);
     return setHandlers;
   }
 
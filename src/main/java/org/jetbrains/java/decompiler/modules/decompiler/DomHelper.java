@@ -6,13 +6,14 @@ import org.jetbrains.java.decompiler.code.cfg.ControlFlowGraph;
 import org.jetbrains.java.decompiler.code.cfg.ExceptionRangeCFG;
 import org.jetbrains.java.decompiler.main.DecompilerContext;
 import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
+import org.jetbrains.java.decompiler.main.rels.MethodProcessorRunnable;
 import org.jetbrains.java.decompiler.modules.decompiler.decompose.FastExtendedPostdominanceHelper;
 import org.jetbrains.java.decompiler.modules.decompiler.deobfuscator.IrreducibleCFGDeobfuscator;
 import org.jetbrains.java.decompiler.modules.decompiler.stats.*;
 import org.jetbrains.java.decompiler.util.FastFixedSetFactory;
 import org.jetbrains.java.decompiler.util.FastFixedSetFactory.FastFixedSet;
+import org.jetbrains.java.decompiler.util.IntKeyedCollection;
 import org.jetbrains.java.decompiler.util.InterpreterUtil;
-import org.jetbrains.java.decompiler.util.VBStyleCollection;
 
 import java.util.*;
 
@@ -21,8 +22,8 @@ public final class DomHelper {
 
   private static RootStatement graphToStatement(ControlFlowGraph graph) {
 
-    VBStyleCollection<Statement, Integer> stats = new VBStyleCollection<>();
-    VBStyleCollection<BasicBlock, Integer> blocks = graph.getBlocks();
+    IntKeyedCollection<Statement> stats = new IntKeyedCollection<>();
+    IntKeyedCollection<BasicBlock> blocks = graph.getBlocks();
 
     for (BasicBlock block : blocks) {
       stats.addWithKey(new BasicBlockStatement(block), block.id);
@@ -87,7 +88,7 @@ public final class DomHelper {
     return new RootStatement(general, dummyexit);
   }
 
-  public static VBStyleCollection<List<Integer>, Integer> calcPostDominators(Statement container) {
+  public static IntKeyedCollection<List<Integer>> calcPostDominators(Statement container) {
 
     HashMap<Statement, FastFixedSet<Statement>> lists = new HashMap<>();
 
@@ -162,7 +163,7 @@ public final class DomHelper {
     }
     while (!setFlagNodes.isEmpty());
 
-    VBStyleCollection<List<Integer>, Integer> ret = new VBStyleCollection<>();
+    IntKeyedCollection<List<Integer>> ret = new IntKeyedCollection<>();
     List<Statement> lstRevPost = container.getReversePostOrderList(); // sort order crucial!
 
     final HashMap<Integer, Integer> mapSortOrder = new HashMap<>();
@@ -193,7 +194,7 @@ public final class DomHelper {
 
     RootStatement root = graphToStatement(graph);
 
-    if (!processStatement(root, new HashMap<>())) {
+    if (!processStatement(root, new HashMap<>(), new FastExtendedPostdominanceHelper())) {
 
       //			try {
       //				DotExporter.toDotFile(root.getFirst().getStats().get(13), new File("c:\\Temp\\stat1.dot"));
@@ -258,7 +259,7 @@ public final class DomHelper {
               if (ca.getFirst().isContainsMonitorExit() && ca.getHandler().isContainsMonitorExit()) {
 
                 // remove the head block from sequence
-                current.removeSuccessor(current.getSuccessorEdges(Statement.STATEDGE_DIRECT_ALL).get(0));
+                current.removeSuccessor(current.getSuccessorEdgeView(Statement.STATEDGE_DIRECT_ALL).get(0));
 
                 for (StatEdge edge : current.getPredecessorEdges(Statement.STATEDGE_DIRECT_ALL)) {
                   current.removePredecessor(edge);
@@ -273,7 +274,7 @@ public final class DomHelper {
                 SynchronizedStatement sync = new SynchronizedStatement(current, ca.getFirst(), ca.getHandler());
                 sync.setAllParent();
 
-                for (StatEdge edge : new HashSet<>(ca.getLabelEdges())) {
+                for (StatEdge edge : new ArrayList<>(ca.getLabelEdges())) {
                   sync.addLabeledEdge(edge);
                 }
 
@@ -294,7 +295,9 @@ public final class DomHelper {
     }
   }
 
-  private static boolean processStatement(Statement general, HashMap<Integer, Set<Integer>> mapExtPost) {
+  private static boolean processStatement(Statement general,
+                                          HashMap<Integer, Set<Integer>> mapExtPost,
+                                          FastExtendedPostdominanceHelper extpost) {
 
     if (general.type == Statement.TYPE_ROOT) {
       Statement stat = general.getFirst();
@@ -302,7 +305,7 @@ public final class DomHelper {
         return true;
       }
       else {
-        boolean complete = processStatement(stat, mapExtPost);
+        boolean complete = processStatement(stat, mapExtPost, extpost);
         if (complete) {
           // replace general purpose statement with simple one
           general.replaceStatement(stat, stat.getFirst());
@@ -352,6 +355,7 @@ public final class DomHelper {
           boolean forceall = i != 0;
 
           while (true) {
+            MethodProcessorRunnable.checkTimeLimit();
 
             if (findSimpleStatements(general, mapExtPost)) {
               reducibility = 0;
@@ -361,10 +365,10 @@ public final class DomHelper {
               return true;
             }
 
-            Statement stat = findGeneralStatement(general, forceall, mapExtPost);
+            Statement stat = findGeneralStatement(general, forceall, mapExtPost, extpost);
 
             if (stat != null) {
-              boolean complete = processStatement(stat, general.getFirst() == stat ? mapExtPost : new HashMap<>());
+              boolean complete = processStatement(stat, general.getFirst() == stat ? mapExtPost : new HashMap<>(), extpost);
 
               if (complete) {
                 // replace general purpose statement with simple one
@@ -402,18 +406,20 @@ public final class DomHelper {
     return false;
   }
 
-  private static Statement findGeneralStatement(Statement stat, boolean forceall, HashMap<Integer, Set<Integer>> mapExtPost) {
+  private static Statement findGeneralStatement(Statement stat,
+                                                boolean forceall,
+                                                HashMap<Integer, Set<Integer>> mapExtPost,
+                                                FastExtendedPostdominanceHelper extpost) {
 
-    VBStyleCollection<Statement, Integer> stats = stat.getStats();
-    VBStyleCollection<List<Integer>, Integer> vbPost;
+    IntKeyedCollection<Statement> stats = stat.getStats();
+    IntKeyedCollection<List<Integer>> vbPost;
 
     if (mapExtPost.isEmpty()) {
-      FastExtendedPostdominanceHelper extpost = new FastExtendedPostdominanceHelper();
       mapExtPost.putAll(extpost.getExtendedPostdominators(stat));
     }
 
     if (forceall) {
-      vbPost = new VBStyleCollection<>();
+      vbPost = new IntKeyedCollection<>();
       List<Statement> lstAll = stat.getPostReversePostOrderList();
 
       for (Statement st : lstAll) {
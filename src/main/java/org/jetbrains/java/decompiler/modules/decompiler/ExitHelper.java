@@ -98,7 +98,7 @@ public final class ExitHelper {
             ifst.getStats().addWithKey(bstat, bstat.id);
             bstat.setParent(ifst);
 
-            StatEdge oldexitedge = dest.getAllSuccessorEdges().get(0);
+            StatEdge oldexitedge = dest.getFirstSuccessor();
             StatEdge newexitedge = new StatEdge(StatEdge.TYPE_BREAK, bstat, oldexitedge.getDestination());
             bstat.addSuccessor(newexitedge);
             oldexitedge.closure.addLabeledEdge(newexitedge);
@@ -109,14 +109,14 @@ public final class ExitHelper {
     }
 
 
-    if (stat.getAllSuccessorEdges().size() == 1 &&
-        stat.getAllSuccessorEdges().get(0).getType() == StatEdge.TYPE_BREAK &&
+    if (stat.getSuccessorEdgeView(Statement.STATEDGE_ALL).size() == 1 &&
+        stat.getFirstSuccessor().getType() == StatEdge.TYPE_BREAK &&
         stat.getLabelEdges().isEmpty()) {
       Statement parent = stat.getParent();
       if (stat != parent.getFirst() || (parent.type != Statement.TYPE_IF &&
                                         parent.type != Statement.TYPE_SWITCH)) {
 
-        StatEdge destedge = stat.getAllSuccessorEdges().get(0);
+        StatEdge destedge = stat.getFirstSuccessor();
         dest = isExitEdge(destedge);
         if (dest != null) {
           stat.removeSuccessor(destedge);
@@ -125,7 +125,7 @@ public final class ExitHelper {
             DecompilerContext.getCounterContainer().getCounterAndIncrement(CounterContainer.STATEMENT_COUNTER)));
           bstat.setExprents(DecHelper.copyExprentList(dest.getExprents()));
 
-          StatEdge oldexitedge = dest.getAllSuccessorEdges().get(0);
+          StatEdge oldexitedge = dest.getFirstSuccessor();
           StatEdge newexitedge = new StatEdge(StatEdge.TYPE_BREAK, bstat, oldexitedge.getDestination());
           bstat.addSuccessor(newexitedge);
           oldexitedge.closure.addLabeledEdge(newexitedge);
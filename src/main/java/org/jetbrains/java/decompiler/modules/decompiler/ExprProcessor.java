@@ -6,6 +6,8 @@ import org.jetbrains.java.decompiler.code.Instruction;
 import org.jetbrains.java.decompiler.code.InstructionSequence;
 import org.jetbrains.java.decompiler.code.cfg.BasicBlock;
 import org.jetbrains.java.decompiler.main.DecompilerContext;
+import org.jetbrains.java.decompiler.main.rels.MethodProcessorRunnable;
+import org.jetbrains.java.decompiler.util.IntSet;
 import org.jetbrains.java.decompiler.util.TextBuffer;
 import org.jetbrains.java.decompiler.main.collectors.BytecodeMappingTracer;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.*;
@@ -137,6 +139,7 @@ public class ExprProcessor implements CodeConstants {
     mapData.put(dgraph.first, map);
 
     while (!stack.isEmpty()) {
+      MethodProcessorRunnable.checkTimeLimit();
 
       DirectNode node = stack.removeFirst();
       LinkedList<String> entrypoints = stackEntryPoint.removeFirst();
@@ -281,8 +284,8 @@ public class ExprProcessor implements CodeConstants {
     for (int i = 0; i < seq.length(); i++) {
 
       Instruction instr = seq.getInstr(i);
-      Integer bytecode_offset = block.getOldOffset(i);
-      Set<Integer> bytecode_offsets = bytecode_offset >= 0 ? Collections.singleton(bytecode_offset) : null;
+      int bytecode_offset = block.getOldOffset(i);
+      IntSet bytecode_offsets = bytecode_offset >= 0 ? IntSet.of(bytecode_offset) : null;
 
       switch (instr.opcode) {
         case opc_aconst_null:
@@ -734,10 +737,10 @@ public class ExprProcessor implements CodeConstants {
   private static void addDeletedGotoInstructionMapping(Statement stat, BytecodeMappingTracer tracer) {
     if (stat instanceof BasicBlockStatement) {
       BasicBlock block = ((BasicBlockStatement)stat).getBlock();
-      List<Integer> offsets = block.getInstrOldOffsets();
-      if (!offsets.isEmpty() &&
-          offsets.size() > block.getSeq().length()) { // some instructions have been deleted, but we still have offsets
-        tracer.addMapping(offsets.get(offsets.size() - 1)); // add the last offset
+      int count = block.getOldOffsetCount();
+      if (count > 0 &&
+          count > block.getSeq().length()) { // some instructions have been deleted, but we still have offsets
+        tracer.addMapping(block.getOldOffset(count - 1)); // add the last offset
       }
     }
   }
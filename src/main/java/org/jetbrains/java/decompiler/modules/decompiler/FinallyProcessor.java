@@ -9,8 +9,9 @@ import org.jetbrains.java.decompiler.code.cfg.BasicBlock;
 import org.jetbrains.java.decompiler.code.cfg.ControlFlowGraph;
 import org.jetbrains.java.decompiler.code.cfg.ExceptionRangeCFG;
 import org.jetbrains.java.decompiler.main.DecompilerContext;
+import org.jetbrains.java.decompiler.main.DecompilerOptions;
 import org.jetbrains.java.decompiler.main.collectors.CounterContainer;
-import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.jetbrains.java.decompiler.main.rels.MethodProcessorRunnable;
 import org.jetbrains.java.decompiler.modules.code.DeadCodeHelper;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.AssignmentExprent;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.ExitExprent;
@@ -57,6 +58,7 @@ public class FinallyProcessor {
     stack.add(root);
 
     while (!stack.isEmpty()) {
+      MethodProcessorRunnable.checkTimeLimit();
       Statement stat = stack.removeLast();
 
       Statement parent = stat.getParent();
@@ -84,7 +86,7 @@ public class FinallyProcessor {
           }
           else {
 
-            if (DecompilerContext.getOption(IFernflowerPreferences.FINALLY_DEINLINE) && verifyFinallyEx(graph, fin, inf)) {
+            if (DecompilerContext.getOption(DecompilerOptions.Flag.FINALLY_DEINLINE) && verifyFinallyEx(graph, fin, inf)) {
               finallyBlockIDs.put(handler.id, null);
             }
             else {
@@ -156,6 +158,7 @@ public class FinallyProcessor {
     Set<DirectNode> setVisited = new HashSet<>();
 
     while (!stack.isEmpty()) {
+      MethodProcessorRunnable.checkTimeLimit();
       DirectNode node = stack.removeFirst();
 
       if (setVisited.contains(node)) {
@@ -487,9 +490,14 @@ public class FinallyProcessor {
     startBlocks.remove(graph.getLast());
     startBlocks.removeAll(tryBlocks);
 
+    // blocks split off the copies get new ids, which later decide how the statement is structured,
+    // so the copies are compared in a fixed order, the last one first
+    List<BasicBlock> lstStarts = new ArrayList<>(startBlocks);
+    lstStarts.sort((block1, block2) -> Integer.compare(block2.id, block1.id));
+
     List<Area> lstAreas = new ArrayList<>();
 
-    for (BasicBlock start : startBlocks) {
+    for (BasicBlock start : lstStarts) {
 
       Area arr = compareSubgraphsEx(graph, start, catchBlocks, first, finallytype, mapLast, skippedFirst);
       if (arr == null) {
@@ -569,6 +577,7 @@ public class FinallyProcessor {
     stack.add(new BlockStackEntry(startCatch, startSample, new ArrayList<>()));
 
     while (!stack.isEmpty()) {
+      MethodProcessorRunnable.checkTimeLimit();
 
       BlockStackEntry entry = stack.remove(0);
       BasicBlock blockCatch = entry.blockCatch;
@@ -660,16 +669,16 @@ public class FinallyProcessor {
       }
     }
 
-    return new Area(startSample, setSample, getUniqueNext(graph, new HashSet<>(mapNext.values())));
+    return new Area(startSample, setSample, getUniqueNext(graph, new ArrayList<>(mapNext.values())));
   }
 
-  private static BasicBlock getUniqueNext(ControlFlowGraph graph, Set<BasicBlock[]> setNext) {
+  private static BasicBlock getUniqueNext(ControlFlowGraph graph, List<BasicBlock[]> lstNext) {
     // precondition: there is at most one true exit path in a finally statement
 
     BasicBlock next = null;
     boolean multiple = false;
 
-    for (BasicBlock[] arr : setNext) {
+    for (BasicBlock[] arr : lstNext) {
 
       if (arr[2] != null) {
         next = arr[1];
@@ -691,7 +700,7 @@ public class FinallyProcessor {
     }
 
     if (multiple) { // TODO: generic solution
-      for (BasicBlock[] arr : setNext) {
+      for (BasicBlock[] arr : lstNext) {
         BasicBlock block = arr[1];
 
         if (block != next) {
@@ -730,7 +739,7 @@ public class FinallyProcessor {
       //				ex.printStackTrace();
       //			}
 
-      for (BasicBlock[] arr : setNext) {
+      for (BasicBlock[] arr : lstNext) {
         if (arr[1] != next) {
           // FIXME: exception edge possible?
           arr[0].removeSuccessor(arr[1]);
@@ -789,16 +798,17 @@ public class FinallyProcessor {
 
     if (seqPattern.length() < seqSample.length()) { // split in two blocks
       SimpleInstructionSequence seq = new SimpleInstructionSequence();
-      LinkedList<Integer> oldOffsets = new LinkedList<>();
+      BasicBlock newblock = new BasicBlock(++graph.last_id);
+      for (int i = seqPattern.length(); i < seqSample.length(); i++) {
+        newblock.addOldOffset(sample.getOldOffset(i));
+      }
+
       for (int i = seqSample.length() - 1; i >= seqPattern.length(); i--) {
         seq.addInstruction(0, seqSample.getInstr(i), -1);
-        oldOffsets.addFirst(sample.getOldOffset(i));
         seqSample.removeInstruction(i);
       }
 
-      BasicBlock newblock = new BasicBlock(++graph.last_id);
       newblock.setSeq(seq);
-      newblock.getInstrOldOffsets().addAll(oldOffsets);
 
       List<BasicBlock> lstTemp = new ArrayList<>(sample.getSuccs());
 
@@ -901,7 +911,7 @@ public class FinallyProcessor {
           is_outside_range = true;
         }
 
-        Set<ExceptionRangeCFG> setRemovedExceptionRanges = new HashSet<>();
+        Set<ExceptionRangeCFG> setRemovedExceptionRanges = new LinkedHashSet<>();
         for (BasicBlock handler : block.getSuccExceptions()) {
           setRemovedExceptionRanges.add(graph.getExceptionRange(handler, block));
         }
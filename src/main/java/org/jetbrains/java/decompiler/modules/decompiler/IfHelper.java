@@ -121,7 +121,7 @@ public final class IfHelper {
           if (ifchild.getFirst().getExprents().isEmpty()) {
 
             ifparent.getFirst().removeSuccessor(ifparent.getIfEdge());
-            ifchild.removeSuccessor(ifchild.getAllSuccessorEdges().get(0));
+            ifchild.removeSuccessor(ifchild.getFirstSuccessor());
             ifparent.getStats().removeWithKey(ifchild.id);
 
             if (ifbranch.edgetypes.get(0) == 1) { // target null
@@ -151,8 +151,8 @@ public final class IfHelper {
               ifparent.getStats().addWithKey(ifinner, ifinner.id);
               ifinner.setParent(ifparent);
 
-              if (!ifinner.getAllSuccessorEdges().isEmpty()) {
-                StatEdge edge = ifinner.getAllSuccessorEdges().get(0);
+              if (ifinner.hasAnySuccessor()) {
+                StatEdge edge = ifinner.getFirstSuccessor();
                 if (edge.closure == ifchild) {
                   edge.closure = null;
                 }
@@ -199,7 +199,7 @@ public final class IfHelper {
 
               ifparent.setIfstat(null);
 
-              StatEdge ifedge = ifchild.getAllSuccessorEdges().get(0);
+              StatEdge ifedge = ifchild.getFirstSuccessor();
 
               ifchild.removeSuccessor(ifedge);
               ifedge.setSource(ifparent.getFirst());
@@ -357,13 +357,13 @@ public final class IfHelper {
         }
       }
 
-      if (!ifchild.getAllSuccessorEdges().isEmpty()) {
-        ifnode.addChild(new IfNode(ifchild.getAllSuccessorEdges().get(0).getDestination()), 1);
+      if (ifchild.hasAnySuccessor()) {
+        ifnode.addChild(new IfNode(ifchild.getFirstSuccessor().getDestination()), 1);
       }
     }
 
     // else branch
-    StatEdge edge = stat.getAllSuccessorEdges().get(0);
+    StatEdge edge = stat.getFirstSuccessor();
     Statement elsechild = edge.getDestination();
     IfNode elsenode = new IfNode(elsechild);
 
@@ -383,8 +383,8 @@ public final class IfHelper {
         }
       }
 
-      if (!elsechild.getAllSuccessorEdges().isEmpty()) {
-        elsenode.addChild(new IfNode(elsechild.getAllSuccessorEdges().get(0).getDestination()), 1);
+      if (elsechild.hasAnySuccessor()) {
+        elsenode.addChild(new IfNode(elsechild.getFirstSuccessor().getDestination()), 1);
       }
     }
 
@@ -421,10 +421,10 @@ public final class IfHelper {
     Statement last = parent.type == Statement.TYPE_SEQUENCE ? parent.getStats().getLast() : ifstat;
     noelsestat = (last == ifstat);
 
-    elsedirect = !last.getAllSuccessorEdges().isEmpty() && last.getAllSuccessorEdges().get(0).getType() == StatEdge.TYPE_FINALLYEXIT ||
+    elsedirect = last.hasAnySuccessor() && last.getFirstSuccessor().getType() == StatEdge.TYPE_FINALLYEXIT ||
                  hasDirectEndEdge(last, from);
 
-    if (!noelsestat && existsPath(ifstat, ifstat.getAllSuccessorEdges().get(0).getDestination())) {
+    if (!noelsestat && existsPath(ifstat, ifstat.getFirstSuccessor().getDestination())) {
       return false;
     }
 
@@ -473,7 +473,7 @@ public final class IfHelper {
         stelse.setAllParent();
       }
 
-      ifstat.removeSuccessor(ifstat.getAllSuccessorEdges().get(0));
+      ifstat.removeSuccessor(ifstat.getFirstSuccessor());
       for (Statement st : lst) {
         sequence.getStats().removeWithKey(st.id);
       }
@@ -502,7 +502,7 @@ public final class IfHelper {
 
       if (noelsestat) {
         StatEdge ifedge = ifstat.getIfEdge();
-        StatEdge elseedge = ifstat.getAllSuccessorEdges().get(0);
+        StatEdge elseedge = ifstat.getFirstSuccessor();
 
         if (noifstat) {
           ifstat.getFirst().removeSuccessor(ifedge);
@@ -561,7 +561,7 @@ public final class IfHelper {
           stelse.setAllParent();
         }
 
-        ifstat.removeSuccessor(ifstat.getAllSuccessorEdges().get(0));
+        ifstat.removeSuccessor(ifstat.getFirstSuccessor());
         for (Statement st : lst) {
           sequence.getStats().removeWithKey(st.id);
         }
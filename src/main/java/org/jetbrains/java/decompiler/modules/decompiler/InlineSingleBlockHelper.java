@@ -47,9 +47,9 @@ public final class InlineSingleBlockHelper {
 
     Statement first = seq.getStats().get(index);
     Statement pre = seq.getStats().get(index - 1);
-    pre.removeSuccessor(pre.getAllSuccessorEdges().get(0));   // single regular edge
+    pre.removeSuccessor(pre.getFirstSuccessor());   // single regular edge
 
-    StatEdge edge = first.getPredecessorEdges(StatEdge.TYPE_BREAK).get(0);
+    StatEdge edge = first.getPredecessorEdgeView(StatEdge.TYPE_BREAK).get(0);
     Statement source = edge.getSource();
     Statement parent = source.getParent();
     source.removeSuccessor(edge);
@@ -255,7 +255,7 @@ public final class LabelHelper {
           Statement stnext = swst.getCaseStatements().get(i + 1);
 
           if (stnext.getExprents() != null && stnext.getExprents().isEmpty()) {
-            stnext = stnext.getAllSuccessorEdges().get(0).getDestination();
+            stnext = stnext.getFirstSuccessor().getDestination();
           }
           processEdgesWithNext(stt, setExplicitEdges(stt), stnext);
         }
@@ -264,7 +264,7 @@ public final class LabelHelper {
         if (last >= 0) { // empty switch possible
           Statement stlast = swst.getCaseStatements().get(last);
           if (stlast.getExprents() != null && stlast.getExprents().isEmpty()) {
-            StatEdge edge = stlast.getAllSuccessorEdges().get(0);
+            StatEdge edge = stlast.getFirstSuccessor();
             mapEdges.put(edge.getDestination(), new ArrayList<>(Collections.singletonList(edge)));
           }
           else {
@@ -344,7 +344,7 @@ public final class LabelHelper {
         }
       }
 
-      if (stat.getAllSuccessorEdges().isEmpty() && !implfound) {
+      if (!stat.hasAnySuccessor() && !implfound) {
         List<StatEdge> lstEdges = null;
         for (Entry<Statement, List<StatEdge>> entr : mapEdges.entrySet()) {
           if (entr.getKey().type != Statement.TYPE_DUMMYEXIT &&
@@ -388,7 +388,7 @@ public final class LabelHelper {
         Statement stlast = swst.getCaseStatements().get(last);
 
         if (stlast.getExprents() != null && stlast.getExprents().isEmpty()) {
-          if (!stlast.getAllSuccessorEdges().get(0).explicit) {
+          if (!stlast.getFirstSuccessor().explicit) {
             List<StatEdge> lstEdges = swst.getCaseEdges().get(last);
             lstEdges.remove(swst.getDefault_edge());
 
@@ -84,7 +84,7 @@ public final class LoopExtractHelper {
       IfStatement lastif = (IfStatement)last;
       if (lastif.iftype == IfStatement.IFTYPE_IF && lastif.getIfstat() != null) {
         Statement ifstat = lastif.getIfstat();
-        StatEdge elseedge = lastif.getAllSuccessorEdges().get(0);
+        StatEdge elseedge = lastif.getFirstSuccessor();
 
         if (elseedge.getType() == StatEdge.TYPE_CONTINUE && elseedge.closure == stat) {
 
@@ -50,7 +50,7 @@ public final class SecondaryFunctionsHelper {
         Statement ifstat = ifelsestat.getIfstat();
 
         if (ifelsestat.iftype == IfStatement.IFTYPE_IFELSE && ifstat.getExprents() != null &&
-            ifstat.getExprents().isEmpty() && (ifstat.getAllSuccessorEdges().isEmpty() || !ifstat.getAllSuccessorEdges().get(0).explicit)) {
+            ifstat.getExprents().isEmpty() && (!ifstat.hasAnySuccessor() || !ifstat.getFirstSuccessor().explicit)) {
 
           // move else to the if position
           ifelsestat.getStats().removeWithKey(ifstat.id);
@@ -59,8 +59,8 @@ public final class SecondaryFunctionsHelper {
           ifelsestat.setIfstat(ifelsestat.getElsestat());
           ifelsestat.setElsestat(null);
 
-          if (ifelsestat.getAllSuccessorEdges().isEmpty() && !ifstat.getAllSuccessorEdges().isEmpty()) {
-            StatEdge endedge = ifstat.getAllSuccessorEdges().get(0);
+          if (!ifelsestat.hasAnySuccessor() && ifstat.hasAnySuccessor()) {
+            StatEdge endedge = ifstat.getFirstSuccessor();
 
             ifstat.removeSuccessor(endedge);
             endedge.setSource(ifelsestat);
@@ -9,7 +9,6 @@ import org.jetbrains.java.decompiler.modules.decompiler.stats.SequenceStatement;
 import org.jetbrains.java.decompiler.modules.decompiler.stats.Statement;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 
 
@@ -46,7 +45,7 @@ public final class SequenceHelper {
 
             // move successors
             Statement last = st.getStats().getLast();
-            if (last.getAllSuccessorEdges().isEmpty() && i < lst.size() - 1) {
+            if (!last.hasAnySuccessor() && i < lst.size() - 1) {
               last.addSuccessor(new StatEdge(StatEdge.TYPE_REGULAR, last, lst.get(i + 1)));
             }
             else {
@@ -68,7 +67,7 @@ public final class SequenceHelper {
               st.removeSuccessor(edge);
             }
 
-            for (StatEdge edge : new HashSet<>(st.getLabelEdges())) {
+            for (StatEdge edge : new ArrayList<>(st.getLabelEdges())) {
               if (edge.getSource() != last) {
                 last.addLabeledEdge(edge);
               }
@@ -102,13 +101,13 @@ public final class SequenceHelper {
 
         Statement st = stat.getFirst();
 
-        boolean ok = st.getAllSuccessorEdges().isEmpty();
+        boolean ok = !st.hasAnySuccessor();
         if (!ok) {
-          StatEdge edge = st.getAllSuccessorEdges().get(0);
+          StatEdge edge = st.getFirstSuccessor();
 
-          ok = stat.getAllSuccessorEdges().isEmpty();
+          ok = !stat.hasAnySuccessor();
           if (!ok) {
-            StatEdge statedge = stat.getAllSuccessorEdges().get(0);
+            StatEdge statedge = stat.getFirstSuccessor();
             ok = (edge.getDestination() == statedge.getDestination());
 
             if (ok) {
@@ -177,7 +176,7 @@ public final class SequenceHelper {
 
         if (st.getExprents() != null && st.getExprents().isEmpty()) {
 
-          if (st.getAllSuccessorEdges().isEmpty()) {
+          if (!st.hasAnySuccessor()) {
             List<StatEdge> lstBreaks = st.getPredecessorEdges(StatEdge.TYPE_BREAK);
 
             if (lstBreaks.isEmpty()) {
@@ -188,7 +187,7 @@ public final class SequenceHelper {
             }
           }
           else {
-            StatEdge sucedge = st.getAllSuccessorEdges().get(0);
+            StatEdge sucedge = st.getFirstSuccessor();
             if (sucedge.getType() != StatEdge.TYPE_FINALLYEXIT) {
               st.removeSuccessor(sucedge);
 
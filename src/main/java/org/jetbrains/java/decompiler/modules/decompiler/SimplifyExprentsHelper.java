@@ -4,8 +4,9 @@ package org.jetbrains.java.decompiler.modules.decompiler;
 import org.jetbrains.java.decompiler.code.CodeConstants;
 import org.jetbrains.java.decompiler.main.ClassesProcessor.ClassNode;
 import org.jetbrains.java.decompiler.main.DecompilerContext;
-import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.jetbrains.java.decompiler.main.DecompilerOptions;
 import org.jetbrains.java.decompiler.main.rels.ClassWrapper;
+import org.jetbrains.java.decompiler.main.rels.MethodProcessorRunnable;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.*;
 import org.jetbrains.java.decompiler.modules.decompiler.sforms.SSAConstructorSparseEx;
 import org.jetbrains.java.decompiler.modules.decompiler.stats.IfStatement;
@@ -15,6 +16,7 @@ import org.jetbrains.java.decompiler.struct.StructClass;
 import org.jetbrains.java.decompiler.struct.gen.VarType;
 import org.jetbrains.java.decompiler.struct.match.MatchEngine;
 import org.jetbrains.java.decompiler.util.FastSparseSetFactory.FastSparseSet;
+import org.jetbrains.java.decompiler.util.IntSet;
 import org.jetbrains.java.decompiler.util.InterpreterUtil;
 
 import java.util.*;
@@ -56,9 +58,10 @@ public class SimplifyExprentsHelper {
 
     List<Exprent> expressions = stat.getExprents();
     if (expressions == null) {
-      boolean processClass14 = DecompilerContext.getOption(IFernflowerPreferences.DECOMPILE_CLASS_1_4);
+      boolean processClass14 = DecompilerContext.getOption(DecompilerOptions.Flag.DECOMPILE_CLASS_1_4);
 
       while (true) {
+        MethodProcessorRunnable.checkTimeLimit();
         boolean changed = false;
 
         for (Statement st : stat.getStats()) {
@@ -137,7 +140,7 @@ public class SimplifyExprentsHelper {
       }
 
       // remove getClass() invocation, which is part of a qualified new
-      if (DecompilerContext.getOption(IFernflowerPreferences.REMOVE_GET_CLASS_NEW)) {
+      if (DecompilerContext.getOption(DecompilerOptions.Flag.REMOVE_GET_CLASS_NEW)) {
         if (isQualifiedNewGetClass(current, next)) {
           list.remove(index);
           res = true;
@@ -638,7 +641,7 @@ public class SimplifyExprentsHelper {
     if (stat.type == Statement.TYPE_IF && stat.getExprents() == null) {
       IfStatement statement = (IfStatement)stat;
       Exprent ifHeadExpr = statement.getHeadexprent();
-      Set<Integer> ifHeadExprBytecode = (ifHeadExpr == null ? null : ifHeadExpr.bytecode);
+      IntSet ifHeadExprBytecode = (ifHeadExpr == null ? null : ifHeadExpr.bytecode);
 
       if (statement.iftype == IfStatement.IFTYPE_IFELSE) {
         Statement ifStatement = statement.getIfstat();
@@ -646,8 +649,8 @@ public class SimplifyExprentsHelper {
 
         if (ifStatement.getExprents() != null && ifStatement.getExprents().size() == 1 &&
             elseStatement.getExprents() != null && elseStatement.getExprents().size() == 1 &&
-            ifStatement.getAllSuccessorEdges().size() == 1 && elseStatement.getAllSuccessorEdges().size() == 1 &&
-            ifStatement.getAllSuccessorEdges().get(0).getDestination() == elseStatement.getAllSuccessorEdges().get(0).getDestination()) {
+            ifStatement.getSuccessorEdgeView(Statement.STATEDGE_ALL).size() == 1 && elseStatement.getSuccessorEdgeView(Statement.STATEDGE_ALL).size() == 1 &&
+            ifStatement.getFirstSuccessor().getDestination() == elseStatement.getFirstSuccessor().getDestination()) {
           Exprent ifExpr = ifStatement.getExprents().get(0);
           Exprent elseExpr = elseStatement.getExprents().get(0);
 
@@ -678,8 +681,8 @@ public class SimplifyExprentsHelper {
                   data.add(new AssignmentExprent(ifVar, new FunctionExprent(FunctionExprent.FUNCTION_IIF, operands, ifHeadExprBytecode), ifHeadExprBytecode));
                   statement.setExprents(data);
 
-                  if (statement.getAllSuccessorEdges().isEmpty()) {
-                    StatEdge ifEdge = ifStatement.getAllSuccessorEdges().get(0);
+                  if (!statement.hasAnySuccessor()) {
+                    StatEdge ifEdge = ifStatement.getFirstSuccessor();
                     StatEdge edge = new StatEdge(ifEdge.getType(), statement, ifEdge.getDestination());
 
                     statement.addSuccessor(edge);
@@ -722,7 +725,7 @@ public class SimplifyExprentsHelper {
                                                                                  elseExit.getValue()), ifHeadExprBytecode), ifExit.getRetType(), ifHeadExprBytecode));
               statement.setExprents(data);
 
-              StatEdge retEdge = ifStatement.getAllSuccessorEdges().get(0);
+              StatEdge retEdge = ifStatement.getFirstSuccessor();
               Statement closure = retEdge.closure == statement ? statement.getParent() : retEdge.closure;
               statement.addSuccessor(new StatEdge(StatEdge.TYPE_BREAK, statement, retEdge.getDestination(), closure));
 
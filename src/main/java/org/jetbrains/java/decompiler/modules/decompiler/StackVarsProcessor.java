@@ -2,6 +2,7 @@
 package org.jetbrains.java.decompiler.modules.decompiler;
 
 import org.jetbrains.java.decompiler.code.CodeConstants;
+import org.jetbrains.java.decompiler.main.rels.MethodProcessorRunnable;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.*;
 import org.jetbrains.java.decompiler.modules.decompiler.sforms.*;
 import org.jetbrains.java.decompiler.modules.decompiler.stats.DoStatement;
@@ -26,6 +27,7 @@ public class StackVarsProcessor {
     SSAUConstructorSparseEx ssau = null;
 
     while (true) {
+      MethodProcessorRunnable.checkTimeLimit();
       boolean found = false;
 
       SSAConstructorSparseEx ssa = new SSAConstructorSparseEx();
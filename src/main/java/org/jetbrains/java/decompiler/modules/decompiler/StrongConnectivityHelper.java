@@ -2,89 +2,179 @@
 package org.jetbrains.java.decompiler.modules.decompiler;
 
 import org.jetbrains.java.decompiler.modules.decompiler.stats.Statement;
-import org.jetbrains.java.decompiler.util.ListStack;
+import org.jetbrains.java.decompiler.util.IntIntMap;
 
 import java.util.*;
 
+/**
+ * Tarjan's algorithm without recursion. Statements are numbered in the order they are met, the state of the search is
+ * kept in int arrays indexed by these numbers.
+ */
 public class StrongConnectivityHelper {
   private final List<List<Statement>> components;
-  private final Set<Statement> setProcessed;
 
-  private ListStack<Statement> lstack;
+  // statement id -> number
+  private final IntIntMap numbers = new IntIntMap();
+  private final List<Statement> nodes = new ArrayList<>();
+  private int[][] successors = new int[16][];
+  private boolean[] processed = new boolean[16];
+
+  // number of the tree a statement has been visited in
+  private int[] trees = new int[16];
+  private int tree;
+  private int[] treeNodes = new int[16];
+  private int treeSize;
+
+  private int[] dfsnums = new int[16];
+  private int[] lows = new int[16];
   private int ncounter;
-  private Set<Statement> tset;
-  private Map<Statement, Integer> dfsnummap;
-  private Map<Statement, Integer> lowmap;
+
+  private int[] lstack = new int[16];
+  private int lstackSize;
+
+  private int[] frameNodes = new int[16];
+  private int[] framePositions = new int[16];
 
   public StrongConnectivityHelper(Statement stat) {
     components = new ArrayList<>();
-    setProcessed = new HashSet<>();
 
-    visitTree(stat.getFirst());
+    visitTree(getNumber(stat.getFirst()));
 
     for (Statement st : stat.getStats()) {
-      if (!setProcessed.contains(st) && st.getPredecessorEdges(Statement.STATEDGE_DIRECT_ALL).isEmpty()) {
-        visitTree(st);
+      int number = getNumber(st);
+      if (!processed[number] && !st.hasPredecessor(Statement.STATEDGE_DIRECT_ALL)) {
+        visitTree(number);
       }
     }
 
     // should not find any more nodes! FIXME: ??
     for (Statement st : stat.getStats()) {
-      if (!setProcessed.contains(st)) {
-        visitTree(st);
+      int number = getNumber(st);
+      if (!processed[number]) {
+        visitTree(number);
       }
     }
   }
 
-  private void visitTree(Statement stat) {
-    lstack = new ListStack<>();
-    ncounter = 0;
-    tset = new HashSet<>();
-    dfsnummap = new HashMap<>();
-    lowmap = new HashMap<>();
+  private int getNumber(Statement stat) {
+    int number = numbers.get(stat.id, -1);
+
+    if (number < 0) {
+      number = nodes.size();
+      numbers.put(stat.id, number);
+      nodes.add(stat);
+
+      if (number == processed.length) {
+        int length = number * 2;
+        successors = Arrays.copyOf(successors, length);
+        processed = Arrays.copyOf(processed, length);
+        trees = Arrays.copyOf(trees, length);
+        dfsnums = Arrays.copyOf(dfsnums, length);
+        lows = Arrays.copyOf(lows, length);
+      }
+    }
+
+    return number;
+  }
 
-    visit(stat);
+  private int[] getSuccessors(int node) {
+    int[] succs = successors[node];
+
+    if (succs == null) {
+      List<StatEdge> edges = nodes.get(node).getSuccessorEdgeView(StatEdge.TYPE_REGULAR);
+      succs = new int[edges.size()];
+      for (int i = 0; i < succs.length; i++) {
+        succs[i] = getNumber(edges.get(i).getDestination());
+      }
+      successors[node] = succs;
+    }
 
-    setProcessed.addAll(tset);
-    setProcessed.add(stat);
+    return succs;
   }
 
-  private void visit(Statement stat) {
-    lstack.push(stat);
-    dfsnummap.put(stat, ncounter);
-    lowmap.put(stat, ncounter);
-    ncounter++;
+  private void visitTree(int root) {
+    tree++;
+    treeSize = 0;
+    ncounter = 0;
+    lstackSize = 0;
 
-    List<Statement> lstSuccs = stat.getNeighbours(StatEdge.TYPE_REGULAR, Statement.DIRECTION_FORWARD); // TODO: set?
-    lstSuccs.removeAll(setProcessed);
+    visit(root);
 
-    for (Statement succ : lstSuccs) {
-      int secvalue;
+    for (int i = 0; i < treeSize; i++) {
+      processed[treeNodes[i]] = true;
+    }
+    processed[root] = true;
+  }
 
-      if (tset.contains(succ)) {
-        secvalue = dfsnummap.get(succ);
-      }
-      else {
-        tset.add(succ);
-        visit(succ);
-        secvalue = lowmap.get(succ);
+  private void visit(int root) {
+    int frames = 0;
+
+    enter(root);
+    frameNodes[frames] = root;
+    framePositions[frames++] = 0;
+
+    while (frames > 0) {
+      int node = frameNodes[frames - 1];
+      int[] succs = getSuccessors(node);
+
+      if (framePositions[frames - 1] < succs.length) {
+        int succ = succs[framePositions[frames - 1]++];
+
+        if (processed[succ]) {
+          continue;
+        }
+
+        if (trees[succ] == tree) {
+          lows[node] = Math.min(lows[node], dfsnums[succ]);
+        }
+        else {
+          // the root of a tree isn't marked, so a path back to it visits it once more
+          trees[succ] = tree;
+          if (treeSize == treeNodes.length) {
+            treeNodes = Arrays.copyOf(treeNodes, treeSize * 2);
+          }
+          treeNodes[treeSize++] = succ;
+
+          enter(succ);
+          if (frames == frameNodes.length) {
+            frameNodes = Arrays.copyOf(frameNodes, frames * 2);
+            framePositions = Arrays.copyOf(framePositions, frames * 2);
+          }
+          frameNodes[frames] = succ;
+          framePositions[frames++] = 0;
+        }
+        continue;
       }
-      lowmap.put(stat, Math.min(lowmap.get(stat), secvalue));
-    }
 
+      if (lows[node] == dfsnums[node]) {
+        List<Statement> lst = new ArrayList<>();
+        int v;
+        do {
+          v = lstack[--lstackSize];
+          lst.add(nodes.get(v));
+        }
+        while (v != node);
+        components.add(lst);
+      }
 
-    if (lowmap.get(stat).intValue() == dfsnummap.get(stat).intValue()) {
-      List<Statement> lst = new ArrayList<>();
-      Statement v;
-      do {
-        v = lstack.pop();
-        lst.add(v);
+      frames--;
+      if (frames > 0) {
+        int parent = frameNodes[frames - 1];
+        lows[parent] = Math.min(lows[parent], lows[node]);
       }
-      while (v != stat);
-      components.add(lst);
     }
   }
 
+  private void enter(int node) {
+    if (lstackSize == lstack.length) {
+      lstack = Arrays.copyOf(lstack, lstackSize * 2);
+    }
+    lstack[lstackSize++] = node;
+    dfsnums[node] = ncounter;
+    lows[node] = ncounter;
+    ncounter++;
+  }
+
   public static boolean isExitComponent(List<? extends Statement> lst) {
     Set<Statement> set = new HashSet<>();
     for (Statement stat : lst) {
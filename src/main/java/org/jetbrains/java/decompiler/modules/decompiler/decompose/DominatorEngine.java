@@ -3,15 +3,22 @@ package org.jetbrains.java.decompiler.modules.decompiler.decompose;
 
 import org.jetbrains.java.decompiler.modules.decompiler.StatEdge;
 import org.jetbrains.java.decompiler.modules.decompiler.stats.Statement;
-import org.jetbrains.java.decompiler.util.VBStyleCollection;
+import org.jetbrains.java.decompiler.util.IntIntMap;
+import org.jetbrains.java.decompiler.util.IntKeyedCollection;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class DominatorEngine {
 
   private final Statement statement;
 
-  private final VBStyleCollection<Integer, Integer> colOrderedIDoms = new VBStyleCollection<>();
+  private final IntKeyedCollection<Integer> colOrderedIDoms = new IntKeyedCollection<>();
+
+  // statement id -> number in reverse post order
+  private final IntIntMap numbers = new IntIntMap();
+
+  private IntDominatorEngine engine;
 
 
   public DominatorEngine(Statement statement) {
@@ -22,93 +29,50 @@ public class DominatorEngine {
     calcIDoms();
   }
 
-  private void orderStatements() {
-
-    for (Statement stat : statement.getReversePostOrderList()) {
-      colOrderedIDoms.addWithKey(null, stat.id);
-    }
-  }
-
-  private static Integer getCommonIDom(Integer key1, Integer key2, VBStyleCollection<Integer, Integer> orderedIDoms) {
-
-    if (key1 == null) {
-      return key2;
-    }
-    else if (key2 == null) {
-      return key1;
-    }
-
-    int index1 = orderedIDoms.getIndexByKey(key1);
-    int index2 = orderedIDoms.getIndexByKey(key2);
-
-    while (index1 != index2) {
-      if (index1 > index2) {
-        key1 = orderedIDoms.getWithKey(key1);
-        index1 = orderedIDoms.getIndexByKey(key1);
-      }
-      else {
-        key2 = orderedIDoms.getWithKey(key2);
-        index2 = orderedIDoms.getIndexByKey(key2);
-      }
-    }
-
-    return key1;
-  }
-
   private void calcIDoms() {
 
-    orderStatements();
+    List<Statement> lstStats = statement.getReversePostOrderList();
 
-    colOrderedIDoms.putWithKey(statement.getFirst().id, statement.getFirst().id);
-
-    // exclude first statement
-    List<Integer> lstIds = colOrderedIDoms.getLstKeys().subList(1, colOrderedIDoms.getLstKeys().size());
-
-    while (true) {
-
-      boolean changed = false;
+    int[] ids = new int[lstStats.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = lstStats.get(i).id;
+      numbers.put(ids[i], i);
+    }
 
-      for (Integer id : lstIds) {
+    int[][] predecessors = new int[ids.length][];
+    boolean[] roots = new boolean[ids.length];
+    roots[numbers.get(statement.getFirst().id, -1)] = true;
 
-        Statement stat = statement.getStats().getWithKey(id);
-        Integer idom = null;
+    int[] buffer = new int[8];
+    for (int i = 0; i < ids.length; i++) {
+      int count = 0;
 
-        for (StatEdge edge : stat.getAllPredecessorEdges()) {
-          if (colOrderedIDoms.getWithKey(edge.getSource().id) != null) {
-            idom = getCommonIDom(idom, edge.getSource().id, colOrderedIDoms);
+      for (StatEdge edge : lstStats.get(i).getAllPredecessorEdges()) {
+        int pred = numbers.get(edge.getSource().id, -1);
+        if (pred >= 0) {
+          if (count == buffer.length) {
+            buffer = Arrays.copyOf(buffer, count * 2);
           }
-        }
-
-        Integer oldidom = colOrderedIDoms.putWithKey(idom, id);
-        if (!idom.equals(oldidom)) {
-          changed = true;
+          buffer[count++] = pred;
         }
       }
 
-      if (!changed) {
-        break;
-      }
+      predecessors[i] = Arrays.copyOf(buffer, count);
+    }
+
+    engine = new IntDominatorEngine(predecessors, roots);
+    engine.initialize();
+
+    for (int i = 0; i < ids.length; i++) {
+      colOrderedIDoms.addWithKey(ids[engine.getIDom(i)], ids[i]);
     }
   }
 
-  public VBStyleCollection<Integer, Integer> getOrderedIDoms() {
+  public IntKeyedCollection<Integer> getOrderedIDoms() {
     return colOrderedIDoms;
   }
 
   public boolean isDominator(Integer node, Integer dom) {
-
-    while (!node.equals(dom)) {
-
-      Integer idom = colOrderedIDoms.getWithKey(node);
-
-      if (idom.equals(node)) {
-        return false; // root node
-      }
-      else {
-        node = idom;
-      }
-    }
-
-    return true;
+    return engine.isDominator(numbers.get(node, -1), numbers.get(dom, -1));
   }
 }
@@ -3,7 +3,7 @@ package org.jetbrains.java.decompiler.modules.decompiler.decompose;
 
 import org.jetbrains.java.decompiler.modules.decompiler.StatEdge;
 import org.jetbrains.java.decompiler.modules.decompiler.stats.Statement;
-import org.jetbrains.java.decompiler.util.VBStyleCollection;
+import org.jetbrains.java.decompiler.util.IntKeyedCollection;
 
 import java.util.*;
 import java.util.Map.Entry;
@@ -60,11 +60,10 @@ public class DominatorTreeExceptionFilter {
   }
 
   private void buildDominatorTree() {
-    VBStyleCollection<Integer, Integer> orderedIDoms = domEngine.getOrderedIDoms();
+    IntKeyedCollection<Integer> orderedIDoms = domEngine.getOrderedIDoms();
 
-    List<Integer> lstKeys = orderedIDoms.getLstKeys();
-    for (int index = lstKeys.size() - 1; index >= 0; index--) {
-      Integer key = lstKeys.get(index);
+    for (int index = orderedIDoms.size() - 1; index >= 0; index--) {
+      Integer key = orderedIDoms.getKey(index);
       Integer idom = orderedIDoms.get(index);
       mapTreeBranches.computeIfAbsent(idom, k -> new HashSet<>()).add(key);
     }
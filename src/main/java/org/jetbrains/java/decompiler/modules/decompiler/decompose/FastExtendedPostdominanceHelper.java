@@ -1,44 +1,61 @@
 // Copyright 2000-2017 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
 package org.jetbrains.java.decompiler.modules.decompiler.decompose;
 
+import org.jetbrains.java.decompiler.main.rels.MethodProcessorRunnable;
 import org.jetbrains.java.decompiler.modules.decompiler.StatEdge;
 import org.jetbrains.java.decompiler.modules.decompiler.stats.Statement;
-import org.jetbrains.java.decompiler.util.FastFixedSetFactory;
-import org.jetbrains.java.decompiler.util.FastFixedSetFactory.FastFixedSet;
-import org.jetbrains.java.decompiler.util.InterpreterUtil;
+import org.jetbrains.java.decompiler.util.IntKeyedCollection;
 
 import java.util.*;
-import java.util.Map.Entry;
 
+/**
+ * Statements are addressed by their index in the general statement; sets of them are rows of 64-bit words.
+ */
 public class FastExtendedPostdominanceHelper {
 
-  private List<Statement> lstReversePostOrderList;
+  private IntKeyedCollection<Statement> stats;
 
-  private HashMap<Integer, FastFixedSet<Integer>> mapSupportPoints = new HashMap<>();
+  private int words;
 
-  private final HashMap<Integer, FastFixedSet<Integer>> mapExtPostdominators = new HashMap<>();
+  private int[] reversePostOrder;
 
-  private Statement statement;
+  private long[][] supportPoints;
 
-  private FastFixedSetFactory<Integer> factory;
+  private long[][] extPostdominators;
 
   public HashMap<Integer, Set<Integer>> getExtendedPostdominators(Statement statement) {
 
-    this.statement = statement;
+    calcExtendedPostdominators(statement);
 
-    HashSet<Integer> set = new HashSet<>();
-    for (Statement st : statement.getStats()) {
-      set.add(st.id);
+    HashMap<Integer, Set<Integer>> res = new HashMap<>();
+
+    for (int head = 0; head < extPostdominators.length; head++) {
+      long[] row = extPostdominators[head];
+      if (row != null) {
+        Set<Integer> set = new HashSet<>();
+        for (int index = nextIndex(row, 0); index >= 0; index = nextIndex(row, index + 1)) {
+          set.add(stats.getKey(index));
+        }
+        res.put(stats.getKey(head), set);
+      }
     }
-    this.factory = new FastFixedSetFactory<>(set);
 
-    lstReversePostOrderList = statement.getReversePostOrderList();
+    return res;
+  }
+
+  private void calcExtendedPostdominators(Statement statement) {
+
+    stats = statement.getStats();
+    words = (stats.size() >>> 6) + 1;
 
-    //		try {
-    //			DotExporter.toDotFile(statement, new File("c:\\Temp\\stat1.dot"));
-    //		} catch (Exception ex) {
-    //			ex.printStackTrace();
-    //		}
+    List<Statement> lstReversePostOrderList = statement.getReversePostOrderList();
+    reversePostOrder = new int[lstReversePostOrderList.size()];
+    for (int i = 0; i < reversePostOrder.length; i++) {
+      reversePostOrder[i] = stats.getIndexByKey(lstReversePostOrderList.get(i).id);
+    }
+
+    supportPoints = new long[stats.size()][];
+    extPostdominators = new long[stats.size()][];
 
     calcDefaultReachableSets();
 
@@ -51,13 +68,7 @@ public class FastExtendedPostdominanceHelper {
 
     filterOnDominance(filter);
 
-    Set<Entry<Integer, FastFixedSet<Integer>>> entries = mapExtPostdominators.entrySet();
-    HashMap<Integer, Set<Integer>> res = new HashMap<>(entries.size());
-    for (Entry<Integer, FastFixedSet<Integer>> entry : entries) {
-      res.put(entry.getKey(), entry.getValue().toPlainSet());
-    }
-
-    return res;
+    supportPoints = null;
   }
 
 
@@ -65,143 +76,157 @@ public class FastExtendedPostdominanceHelper {
 
     DominatorEngine engine = filter.getDomEngine();
 
-    for (Integer head : new HashSet<>(mapExtPostdominators.keySet())) {
+    for (int head = 0; head < extPostdominators.length; head++) {
 
-      FastFixedSet<Integer> setPostdoms = mapExtPostdominators.get(head);
+      long[] setPostdoms = extPostdominators[head];
+      if (setPostdoms == null) {
+        continue;
+      }
 
-      LinkedList<Statement> stack = new LinkedList<>();
-      LinkedList<FastFixedSet<Integer>> stackPath = new LinkedList<>();
+      Integer headid = stats.getKey(head);
 
-      stack.add(statement.getStats().getWithKey(head));
-      stackPath.add(factory.spawnEmptySet());
+      LinkedList<Integer> stack = new LinkedList<>();
+      LinkedList<long[]> stackPath = new LinkedList<>();
 
-      Set<Statement> setVisited = new HashSet<>();
+      stack.add(head);
+      stackPath.add(new long[words]);
 
-      setVisited.add(stack.getFirst());
+      boolean[] visited = new boolean[stats.size()];
+
+      visited[head] = true;
 
       while (!stack.isEmpty()) {
 
-        Statement stat = stack.removeFirst();
-        FastFixedSet<Integer> path = stackPath.removeFirst();
+        int index = stack.removeFirst();
+        long[] path = stackPath.removeFirst();
 
-        if (setPostdoms.contains(stat.id)) {
-          path.add(stat.id);
+        if (contains(setPostdoms, index)) {
+          add(path, index);
         }
 
-        if (path.contains(setPostdoms)) {
+        if (containsAll(path, setPostdoms)) {
           continue;
         }
 
-        if(!engine.isDominator(stat.id, head)) {
-          setPostdoms.complement(path);
+        if (!engine.isDominator(stats.getKey(index), headid)) {
+          complement(setPostdoms, path);
           continue;
         }
 
-        for (StatEdge edge : stat.getSuccessorEdges(StatEdge.TYPE_REGULAR)) {
+        for (StatEdge edge : stats.get(index).getSuccessorEdgeView(StatEdge.TYPE_REGULAR)) {
 
-          Statement edge_destination = edge.getDestination();
+          int destination = stats.getIndexByKey(edge.getDestination().id);
 
-          if(!setVisited.contains(edge_destination)) {
+          if (destination >= 0 && !visited[destination]) {
 
-            stack.add(edge_destination);
-            stackPath.add(path.getCopy());
+            stack.add(destination);
+            stackPath.add(path.clone());
 
-            setVisited.add(edge_destination);
+            visited[destination] = true;
           }
         }
       }
 
-      if (setPostdoms.isEmpty()) {
-        mapExtPostdominators.remove(head);
+      if (isEmpty(setPostdoms)) {
+        extPostdominators[head] = null;
       }
     }
   }
 
   private void filterOnExceptionRanges(DominatorTreeExceptionFilter filter) {
-    for (Integer head : new HashSet<>(mapExtPostdominators.keySet())) {
-      FastFixedSet<Integer> set = mapExtPostdominators.get(head);
-      for (Iterator<Integer> it = set.iterator(); it.hasNext(); ) {
-        if (!filter.acceptStatementPair(head, it.next())) {
-          it.remove();
+    for (int head = 0; head < extPostdominators.length; head++) {
+      long[] set = extPostdominators[head];
+      if (set == null) {
+        continue;
+      }
+
+      Integer headid = stats.getKey(head);
+      for (int index = nextIndex(set, 0); index >= 0; index = nextIndex(set, index + 1)) {
+        if (!filter.acceptStatementPair(headid, stats.getKey(index))) {
+          remove(set, index);
         }
       }
-      if (set.isEmpty()) {
-        mapExtPostdominators.remove(head);
+      if (isEmpty(set)) {
+        extPostdominators[head] = null;
       }
     }
   }
 
   private void removeErroneousNodes() {
-    mapSupportPoints = new HashMap<>();
+    supportPoints = new long[stats.size()][];
 
     calcReachabilitySuppPoints(StatEdge.TYPE_REGULAR);
 
-    iterateReachability((node, mapSets) -> {
-      Integer nodeid = node.id;
+    int[][] regularPredecessors = getPredecessors(StatEdge.TYPE_REGULAR);
 
-      FastFixedSet<Integer> setReachability = mapSets.get(nodeid);
-      List<FastFixedSet<Integer>> lstPredSets = new ArrayList<>();
+    iterateReachability((node, sets) -> {
+      long[] setReachability = sets[node];
+      List<long[]> lstPredSets = new ArrayList<>();
 
-      for (StatEdge prededge : node.getPredecessorEdges(StatEdge.TYPE_REGULAR)) {
-        FastFixedSet<Integer> setPred = mapSets.get(prededge.getSource().id);
+      for (int pred : regularPredecessors[node]) {
+        long[] setPred = sets[pred];
         if (setPred == null) {
-          setPred = mapSupportPoints.get(prededge.getSource().id);
+          setPred = supportPoints[pred];
         }
 
         // setPred cannot be empty as it is a reachability set
-        lstPredSets.add(setPred);
+        if (setPred != null) {
+          lstPredSets.add(setPred);
+        }
       }
 
-      for (Integer id : setReachability) {
+      long[] setIntersection = new long[words];
 
-        FastFixedSet<Integer> setReachabilityCopy = setReachability.getCopy();
+      for (int id = nextIndex(setReachability, 0); id >= 0; id = nextIndex(setReachability, id + 1)) {
 
-        FastFixedSet<Integer> setIntersection = factory.spawnEmptySet();
+        Arrays.fill(setIntersection, 0L);
         boolean isIntersectionInitialized = false;
 
-        for (FastFixedSet<Integer> predset : lstPredSets) {
-          if (predset.contains(id)) {
+        for (long[] predset : lstPredSets) {
+          if (contains(predset, id)) {
             if (!isIntersectionInitialized) {
-              setIntersection.union(predset);
+              union(setIntersection, predset);
               isIntersectionInitialized = true;
             }
             else {
-              setIntersection.intersection(predset);
+              intersection(setIntersection, predset);
             }
           }
         }
 
-        if (nodeid != id.intValue()) {
-          setIntersection.add(nodeid);
+        if (node != id) {
+          add(setIntersection, node);
         }
         else {
-          setIntersection.remove(nodeid);
+          remove(setIntersection, node);
         }
 
-        setReachabilityCopy.complement(setIntersection);
-
-        mapExtPostdominators.get(id).complement(setReachabilityCopy);
+        // reachable nodes not in the intersection are no postdominators of id
+        long[] setPostdoms = extPostdominators[id];
+        for (int i = 0; i < words; i++) {
+          setPostdoms[i] &= ~(setReachability[i] & ~setIntersection[i]);
+        }
       }
 
       return false;
-    }, StatEdge.TYPE_REGULAR);
+    }, regularPredecessors);
 
     // exception handlers cannot be postdominator nodes
-    // TODO: replace with a standard set?
-    FastFixedSet<Integer> setHandlers = factory.spawnEmptySet();
+    long[] setHandlers = new long[words];
     boolean handlerfound = false;
 
-    for (Statement stat : statement.getStats()) {
-      if (stat.getPredecessorEdges(Statement.STATEDGE_DIRECT_ALL).isEmpty() &&
-          !stat.getPredecessorEdges(StatEdge.TYPE_EXCEPTION).isEmpty()) { // exception handler
-        setHandlers.add(stat.id);
+    for (int index = 0; index < stats.size(); index++) {
+      Statement stat = stats.get(index);
+      if (!stat.hasPredecessor(Statement.STATEDGE_DIRECT_ALL) &&
+          stat.hasPredecessor(StatEdge.TYPE_EXCEPTION)) { // exception handler
+        add(setHandlers, index);
         handlerfound = true;
       }
     }
 
     if (handlerfound) {
-      for (FastFixedSet<Integer> set : mapExtPostdominators.values()) {
-        set.complement(setHandlers);
+      for (long[] set : extPostdominators) {
+        complement(set, setHandlers);
       }
     }
   }
@@ -211,96 +236,74 @@ public class FastExtendedPostdominanceHelper {
 
     calcReachabilitySuppPoints(edgetype);
 
-    for (Statement stat : statement.getStats()) {
-      mapExtPostdominators.put(stat.id, factory.spawnEmptySet());
+    for (int index = 0; index < stats.size(); index++) {
+      extPostdominators[index] = new long[words];
     }
 
-    iterateReachability((node, mapSets) -> {
-      Integer nodeid = node.id;
-      FastFixedSet<Integer> setReachability = mapSets.get(nodeid);
+    iterateReachability((node, sets) -> {
+      long[] setReachability = sets[node];
 
-      for (Integer id : setReachability) {
-        mapExtPostdominators.get(id).add(nodeid);
+      for (int id = nextIndex(setReachability, 0); id >= 0; id = nextIndex(setReachability, id + 1)) {
+        add(extPostdominators[id], node);
       }
 
       return false;
-    }, edgetype);
+    }, getPredecessors(edgetype));
   }
 
-  private void calcReachabilitySuppPoints(final int edgetype) {
-    iterateReachability((node, mapSets) -> {
+  private void calcReachabilitySuppPoints(int edgetype) {
+    int[][] successors = new int[stats.size()][];
+    for (int index = 0; index < stats.size(); index++) {
+      successors[index] = getNeighbourIndices(stats.get(index).getSuccessorEdgeView(Statement.STATEDGE_ALL), edgetype, true);
+    }
+
+    iterateReachability((node, sets) -> {
       // consider to be a support point
-      for (StatEdge sucedge : node.getAllSuccessorEdges()) {
-        if ((sucedge.getType() & edgetype) != 0) {
-          if (mapSets.containsKey(sucedge.getDestination().id)) {
-            FastFixedSet<Integer> setReachability = mapSets.get(node.id);
-
-            if (!InterpreterUtil.equalObjects(setReachability, mapSupportPoints.get(node.id))) {
-              mapSupportPoints.put(node.id, setReachability);
-              return true;
-            }
+      for (int succ : successors[node]) {
+        if (sets[succ] != null) {
+          long[] setReachability = sets[node];
+
+          if (!Arrays.equals(setReachability, supportPoints[node])) {
+            supportPoints[node] = setReachability;
+            return true;
           }
+          break;
         }
       }
 
       return false;
-    }, edgetype);
+    }, getPredecessors(edgetype));
   }
 
-  private void iterateReachability(IReachabilityAction action, int edgetype) {
+  private void iterateReachability(IReachabilityAction action, int[][] predecessors) {
+    long[][] sets = new long[stats.size()][];
+
     while (true) {
+      MethodProcessorRunnable.checkTimeLimit();
       boolean iterate = false;
 
-      HashMap<Integer, FastFixedSet<Integer>> mapSets = new HashMap<>();
+      // sets of nodes not processed yet in this pass are null
+      Arrays.fill(sets, null);
 
-      for (Statement stat : lstReversePostOrderList) {
+      for (int node : reversePostOrder) {
 
-        FastFixedSet<Integer> set = factory.spawnEmptySet();
-        set.add(stat.id);
+        long[] set = new long[words];
+        add(set, node);
 
-        for (StatEdge prededge : stat.getAllPredecessorEdges()) {
-          if ((prededge.getType() & edgetype) != 0) {
-            Statement pred = prededge.getSource();
-
-            FastFixedSet<Integer> setPred = mapSets.get(pred.id);
-            if (setPred == null) {
-              setPred = mapSupportPoints.get(pred.id);
-            }
+        for (int pred : predecessors[node]) {
+          long[] setPred = sets[pred];
+          if (setPred == null) {
+            setPred = supportPoints[pred];
+          }
 
-            if (setPred != null) {
-              set.union(setPred);
-            }
+          if (setPred != null) {
+            union(set, setPred);
           }
         }
 
-        mapSets.put(stat.id, set);
+        sets[node] = set;
 
-        if (action != null) {
-          iterate |= action.action(stat, mapSets);
-        }
-
-        // remove reachability information of fully processed nodes (saves memory)
-        for (StatEdge prededge : stat.getAllPredecessorEdges()) {
-          if ((prededge.getType() & edgetype) != 0) {
-            Statement pred = prededge.getSource();
-
-            if (mapSets.containsKey(pred.id)) {
-              boolean remstat = true;
-              for (StatEdge sucedge : pred.getAllSuccessorEdges()) {
-                if ((sucedge.getType() & edgetype) != 0) {
-                  if (!mapSets.containsKey(sucedge.getDestination().id)) {
-                    remstat = false;
-                    break;
-                  }
-                }
-              }
-
-              if (remstat) {
-                mapSets.put(pred.id, null);
-              }
-            }
-          }
-        }
+        iterate |= action.action(node, sets);
       }
 
       if (!iterate) {
@@ -309,8 +312,103 @@ public class FastExtendedPostdominanceHelper {
     }
   }
 
+  /**
+   * @return indices of the sources of the edges of the given type for every statement
+   */
+  private int[][] getPredecessors(int edgetype) {
+    int[][] predecessors = new int[stats.size()][];
+    for (int index = 0; index < stats.size(); index++) {
+      predecessors[index] = getNeighbourIndices(stats.get(index).getPredecessorEdgeView(Statement.STATEDGE_ALL), edgetype, false);
+    }
+    return predecessors;
+  }
+
+  private int[] getNeighbourIndices(List<StatEdge> edges, int edgetype, boolean forward) {
+    int[] indices = new int[edges.size()];
+    int count = 0;
+
+    for (StatEdge edge : edges) {
+      if ((edge.getType() & edgetype) != 0) {
+        int index = stats.getIndexByKey((forward ? edge.getDestination() : edge.getSource()).id);
+        if (index >= 0) { // neighbours outside of the statement are left out
+          indices[count++] = index;
+        }
+      }
+    }
+
+    return count == indices.length ? indices : Arrays.copyOf(indices, count);
+  }
+
+  private static boolean contains(long[] set, int index) {
+    return (set[index >>> 6] & (1L << index)) != 0;
+  }
+
+  private static void add(long[] set, int index) {
+    set[index >>> 6] |= 1L << index;
+  }
+
+  private static void remove(long[] set, int index) {
+    set[index >>> 6] &= ~(1L << index);
+  }
+
+  private static boolean containsAll(long[] set, long[] subset) {
+    for (int i = 0; i < set.length; i++) {
+      if ((subset[i] & ~set[i]) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void union(long[] set, long[] other) {
+    for (int i = 0; i < set.length; i++) {
+      set[i] |= other[i];
+    }
+  }
+
+  private static void intersection(long[] set, long[] other) {
+    for (int i = 0; i < set.length; i++) {
+      set[i] &= other[i];
+    }
+  }
+
+  private static void complement(long[] set, long[] other) {
+    for (int i = 0; i < set.length; i++) {
+      set[i] &= ~other[i];
+    }
+  }
+
+  private static boolean isEmpty(long[] set) {
+    for (long word : set) {
+      if (word != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the first index in the set not below the given one, or -1
+   */
+  private static int nextIndex(long[] set, int from) {
+    int word = from >>> 6;
+    if (word >= set.length) {
+      return -1;
+    }
+
+    long block = set[word] & (-1L << from);
+    while (block == 0) {
+      if (++word == set.length) {
+        return -1;
+      }
+      block = set[word];
+    }
+
+    return (word << 6) + Long.numberOfTrailingZeros(block);
+  }
+
 
   private interface IReachabilityAction {
-    boolean action(Statement node, HashMap<Integer, FastFixedSet<Integer>> mapSets);
+    boolean action(int node, long[][] sets);
   }
 }
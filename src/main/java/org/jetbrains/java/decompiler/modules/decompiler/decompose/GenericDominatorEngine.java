@@ -1,134 +1,73 @@
 // Copyright 2000-2017 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
 package org.jetbrains.java.decompiler.modules.decompiler.decompose;
 
-import org.jetbrains.java.decompiler.util.VBStyleCollection;
-
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class GenericDominatorEngine {
 
   private final IGraph graph;
 
-  private final VBStyleCollection<IGraphNode, IGraphNode> colOrderedIDoms = new VBStyleCollection<>();
+  // node -> number in reverse post order
+  private final Map<IGraphNode, Integer> numbers = new HashMap<>();
 
-  private Set<? extends IGraphNode> setRoots;
+  private IntDominatorEngine engine;
 
   public GenericDominatorEngine(IGraph graph) {
     this.graph = graph;
   }
 
   public void initialize() {
-    calcIDoms();
-  }
-
-  private void orderNodes() {
-
-    setRoots = graph.getRoots();
-
-    for (IGraphNode node : graph.getReversePostOrderList()) {
-      colOrderedIDoms.addWithKey(null, node);
-    }
-  }
-
-  private static IGraphNode getCommonIDom(IGraphNode node1, IGraphNode node2, VBStyleCollection<IGraphNode, IGraphNode> orderedIDoms) {
+    List<? extends IGraphNode> nodes = graph.getReversePostOrderList();
+    Set<? extends IGraphNode> setRoots = graph.getRoots();
 
-    IGraphNode nodeOld;
-
-    if (node1 == null) {
-      return node2;
-    }
-    else if (node2 == null) {
-      return node1;
+    for (IGraphNode node : nodes) {
+      numbers.putIfAbsent(node, numbers.size());
     }
 
-    int index1 = orderedIDoms.getIndexByKey(node1);
-    int index2 = orderedIDoms.getIndexByKey(node2);
+    int[][] predecessors = new int[numbers.size()][];
+    boolean[] roots = new boolean[numbers.size()];
 
-    while (index1 != index2) {
-      if (index1 > index2) {
-        nodeOld = node1;
-        node1 = orderedIDoms.getWithKey(node1);
+    int[] buffer = new int[8];
+    for (Map.Entry<IGraphNode, Integer> entry : numbers.entrySet()) {
+      IGraphNode node = entry.getKey();
+      int number = entry.getValue();
 
-        if (nodeOld == node1) { // no idom - root or merging point
-          return null;
-        }
-
-        index1 = orderedIDoms.getIndexByKey(node1);
+      List<? extends IGraphNode> preds = node.getPredecessors();
+      if (buffer.length < preds.size()) {
+        buffer = new int[preds.size()];
       }
-      else {
-        nodeOld = node2;
-        node2 = orderedIDoms.getWithKey(node2);
-
-        if (nodeOld == node2) { // no idom - root or merging point
-          return null;
-        }
-
-        index2 = orderedIDoms.getIndexByKey(node2);
-      }
-    }
-
-    return node1;
-  }
 
-  private void calcIDoms() {
-
-    orderNodes();
-
-    List<IGraphNode> lstNodes = colOrderedIDoms.getLstKeys();
-
-    while (true) {
-
-      boolean changed = false;
-
-      for (IGraphNode node : lstNodes) {
-
-        IGraphNode idom = null;
-
-        if (!setRoots.contains(node)) {
-          for (IGraphNode pred : node.getPredecessors()) {
-            if (colOrderedIDoms.getWithKey(pred) != null) {
-              idom = getCommonIDom(idom, pred, colOrderedIDoms);
-              if (idom == null) {
-                break; // no idom found: merging point of two trees
-              }
-            }
-          }
-        }
-
-        if (idom == null) {
-          idom = node;
-        }
-
-        IGraphNode oldidom = colOrderedIDoms.putWithKey(idom, node);
-        if (!idom.equals(oldidom)) { // oldidom is null iff the node is touched for the first time
-          changed = true;
+      int count = 0;
+      for (IGraphNode pred : preds) {
+        Integer predNumber = numbers.get(pred);
+        if (predNumber != null) {
+          buffer[count++] = predNumber;
         }
       }
 
-      if (!changed) {
-        break;
-      }
+      predecessors[number] = Arrays.copyOf(buffer, count);
+      roots[number] = setRoots.contains(node);
     }
+
+    engine = new IntDominatorEngine(predecessors, roots);
+    engine.initialize();
   }
 
   public boolean isDominator(IGraphNode node, IGraphNode dom) {
+    if (node.equals(dom)) {
+      return true;
+    }
 
-    while (!node.equals(dom)) {
-
-      IGraphNode idom = colOrderedIDoms.getWithKey(node);
-
-      if (idom == node) {
-        return false; // root node or merging point
-      }
-      else if (idom == null) {
-        throw new RuntimeException("Inconsistent idom sequence discovered!");
-      }
-      else {
-        node = idom;
-      }
+    Integer nodeNumber = numbers.get(node);
+    if (nodeNumber == null) {
+      throw new RuntimeException("Inconsistent idom sequence discovered!");
     }
 
-    return true;
+    Integer domNumber = numbers.get(dom);
+    return domNumber != null && engine.isDominator(nodeNumber, domNumber);
   }
 }
@@ -0,0 +1,118 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.modules.decompiler.decompose;
+
+import java.util.Arrays;
+
+/**
+ * Immediate dominators of a graph whose nodes are numbered 0..n-1 in reverse post order, computed with the iterative
+ * algorithm of Cooper, Harvey and Kennedy. A root, as well as a node where trees of different roots merge, is its own
+ * immediate dominator.
+ */
+public class IntDominatorEngine {
+
+  private final int[][] predecessors;
+
+  private final boolean[] roots;
+
+  private final int[] idoms;
+
+  /**
+   * @param predecessors numbers of the predecessors of every node, predecessors outside the graph left out
+   * @param roots        whether a node is a root of the graph
+   */
+  public IntDominatorEngine(int[][] predecessors, boolean[] roots) {
+    this.predecessors = predecessors;
+    this.roots = roots;
+    this.idoms = new int[predecessors.length];
+  }
+
+  public void initialize() {
+    calcIDoms();
+  }
+
+  /**
+   * @return common dominator of both nodes, or -1 if their trees are different
+   */
+  private int getCommonIDom(int node1, int node2) {
+    int[] idoms = this.idoms;
+
+    while (node1 != node2) {
+      if (node1 > node2) {
+        int idom = idoms[node1];
+        if (idom == node1) { // no idom - root or merging point
+          return -1;
+        }
+        node1 = idom;
+      }
+      else {
+        int idom = idoms[node2];
+        if (idom == node2) { // no idom - root or merging point
+          return -1;
+        }
+        node2 = idom;
+      }
+    }
+
+    return node1;
+  }
+
+  private void calcIDoms() {
+    int[] idoms = this.idoms;
+    Arrays.fill(idoms, -1);
+
+    while (true) {
+
+      boolean changed = false;
+
+      for (int node = 0; node < idoms.length; node++) {
+
+        int idom = -1;
+
+        if (!roots[node]) {
+          for (int pred : predecessors[node]) {
+            if (idoms[pred] >= 0) {
+              idom = idom < 0 ? pred : getCommonIDom(idom, pred);
+              if (idom < 0) {
+                break; // no idom found: merging point of two trees
+              }
+            }
+          }
+        }
+
+        if (idom < 0) {
+          idom = node;
+        }
+
+        if (idoms[node] != idom) { // -1 iff the node is touched for the first time
+          idoms[node] = idom;
+          changed = true;
+        }
+      }
+
+      if (!changed) {
+        break;
+      }
+    }
+  }
+
+  public int getIDom(int node) {
+    return idoms[node];
+  }
+
+  public boolean isDominator(int node, int dom) {
+
+    while (node != dom) {
+
+      int idom = idoms[node];
+
+      if (idom == node) {
+        return false; // root node or merging point
+      }
+      else {
+        node = idom;
+      }
+    }
+
+    return true;
+  }
+}
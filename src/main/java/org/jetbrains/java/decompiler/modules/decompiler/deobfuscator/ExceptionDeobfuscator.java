@@ -394,7 +394,7 @@ public final class ExceptionDeobfuscator {
   public static void insertDummyExceptionHandlerBlocks(ControlFlowGraph graph, int bytecode_version) {
     Map<BasicBlock, Set<ExceptionRangeCFG>> mapRanges = new HashMap<>();
     for (ExceptionRangeCFG range : graph.getExceptions()) {
-      mapRanges.computeIfAbsent(range.getHandler(), k -> new HashSet<>()).add(range);
+      mapRanges.computeIfAbsent(range.getHandler(), k -> new LinkedHashSet<>()).add(range);
     }
 
     for (Entry<BasicBlock, Set<ExceptionRangeCFG>> ent : mapRanges.entrySet()) {
@@ -6,7 +6,7 @@ import org.jetbrains.java.decompiler.modules.decompiler.stats.BasicBlockStatemen
 import org.jetbrains.java.decompiler.modules.decompiler.stats.Statement;
 
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 
@@ -17,8 +17,8 @@ public final class IrreducibleCFGDeobfuscator {
 
     class Node {
       public final Integer id;
-      public final Set<Node> preds = new HashSet<>();
-      public final Set<Node> succs = new HashSet<>();
+      public final Set<Node> preds = new LinkedHashSet<>();
+      public final Set<Node> succs = new LinkedHashSet<>();
 
       Node(Integer id) {
         this.id = id;
@@ -29,7 +29,7 @@ public final class IrreducibleCFGDeobfuscator {
 
     // checking exceptions and creating nodes
     for (Statement stat : statement.getStats()) {
-      if (!stat.getSuccessorEdges(StatEdge.TYPE_EXCEPTION).isEmpty()) {
+      if (stat.hasSuccessor(StatEdge.TYPE_EXCEPTION)) {
         return false;
       }
 
@@ -128,7 +128,7 @@ public final class IrreducibleCFGDeobfuscator {
       return false;
     }
 
-    StatEdge enteredge = splitnode.getPredecessorEdges(StatEdge.TYPE_REGULAR).iterator().next();
+    StatEdge enteredge = splitnode.getPredecessorEdgeView(StatEdge.TYPE_REGULAR).iterator().next();
 
     // copy the smallest statement
     Statement splitcopy = copyStatement(splitnode, null, new HashMap<>());
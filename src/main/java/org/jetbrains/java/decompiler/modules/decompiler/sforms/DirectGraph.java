@@ -9,6 +9,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 
 public class DirectGraph {
@@ -29,6 +30,25 @@ public class DirectGraph {
   // nodes, that are exception exits of a finally block with monitor variable
   public final HashMap<String, String> mapFinallyMonitorExceptionPathExits = new HashMap<>();
 
+  /**
+   * @return ids of the nodes entered from an exit of a finally block. Variable versions reaching such a node depend
+   * on the paths through the whole finally range, not only on the state of its direct predecessors.
+   */
+  public Set<String> getFinallyExitSuccessors() {
+    Set<String> result = new HashSet<>();
+    if (!mapShortRangeFinallyPaths.isEmpty()) {
+      for (DirectNode node : nodes) {
+        for (DirectNode pred : node.preds) {
+          if (mapShortRangeFinallyPaths.containsKey(pred.id)) {
+            result.add(node.id);
+            break;
+          }
+        }
+      }
+    }
+    return result;
+  }
+
   public void sortReversePostOrder() {
     LinkedList<DirectNode> res = new LinkedList<>();
     addToReversePostOrderListIterative(first, res);
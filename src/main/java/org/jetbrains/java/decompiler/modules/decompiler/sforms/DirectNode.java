@@ -46,6 +46,12 @@ public class DirectNode {
     this.block = block;
   }
 
+  // hashed by id so that sets of nodes are iterated in the same order in every run
+  @Override
+  public int hashCode() {
+    return id.hashCode();
+  }
+
   @Override
   public String toString() {
     return id;
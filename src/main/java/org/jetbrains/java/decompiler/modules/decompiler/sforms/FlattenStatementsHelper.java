@@ -170,7 +170,7 @@ public class FlattenStatementsHelper {
               break;
             }
 
-            lstSuccEdges.add(stat.getSuccessorEdges(Statement.STATEDGE_DIRECT_ALL).get(0));  // exactly one edge
+            lstSuccEdges.add(stat.getSuccessorEdgeView(Statement.STATEDGE_DIRECT_ALL).get(0));  // exactly one edge
 
             switch (looptype) {
               case DoStatement.LOOP_WHILE:
@@ -274,7 +274,7 @@ public class FlattenStatementsHelper {
               mapDestinationNodes.put(stat.id, new String[]{node.id, null});
 
               if (stat.type == Statement.TYPE_IF && ((IfStatement)stat).iftype == IfStatement.IFTYPE_IF) {
-                lstSuccEdges.add(stat.getSuccessorEdges(Statement.STATEDGE_DIRECT_ALL).get(0));  // exactly one edge
+                lstSuccEdges.add(stat.getSuccessorEdgeView(Statement.STATEDGE_DIRECT_ALL).get(0));  // exactly one edge
                 sourcenode = tailexprlst.get(0) == null ? node : graph.nodes.getWithKey(node.id + "_tail");
               }
             }
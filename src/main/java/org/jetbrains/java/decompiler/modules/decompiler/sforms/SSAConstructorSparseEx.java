@@ -2,6 +2,7 @@
 package org.jetbrains.java.decompiler.modules.decompiler.sforms;
 
 import org.jetbrains.java.decompiler.code.CodeConstants;
+import org.jetbrains.java.decompiler.main.rels.MethodProcessorRunnable;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.AssignmentExprent;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.Exprent;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.FunctionExprent;
@@ -23,6 +24,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 
 public class SSAConstructorSparseEx {
 
@@ -41,12 +43,29 @@ public class SSAConstructorSparseEx {
   // (var, version), version
   private final HashMap<VarVersionPair, FastSparseSet<Integer>> phi = new HashMap<>();
 
+  // phi sets stay part of the maps of the node which created them, so updating one changes these maps in place
+  private boolean phiUpdated;
+
+  // nodes whose predecessors' maps have been changed in place
+  private final HashSet<String> staleNodes = new HashSet<>();
+
   // var, version
   private final HashMap<Integer, Integer> lastversion = new HashMap<>();
 
   // set factory
   private FastSparseSetFactory<Integer> factory;
 
+  // visit all nodes on every pass, the way it was done before passes skipped nodes with unchanged input
+  private final boolean fullPasses;
+
+  public SSAConstructorSparseEx() {
+    this(false);
+  }
+
+  public SSAConstructorSparseEx(boolean fullPasses) {
+    this.fullPasses = fullPasses;
+  }
+
   public void splitVariables(RootStatement root, StructMethod mt) {
 
     FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
@@ -67,16 +86,25 @@ public class SSAConstructorSparseEx {
 
     setCatchMaps(root, dgraph, flatthelper);
 
+    // the first pass visits all nodes, later ones only those with changed input
+    Set<String> finallyExitSuccessors = dgraph.getFinallyExitSuccessors();
     HashSet<String> updated = new HashSet<>();
+    Set<String> alwaysVisited = null;
     do {
+      MethodProcessorRunnable.checkTimeLimit();
       // System.out.println("~~~~~~~~~~~~~ \r\n"+root.toJava());
-      ssaStatements(dgraph, updated);
+      ssaStatements(dgraph, updated, alwaysVisited);
       // System.out.println("~~~~~~~~~~~~~ \r\n"+root.toJava());
+      alwaysVisited = fullPasses ? null : finallyExitSuccessors;
     }
     while (!updated.isEmpty());
   }
 
-  private void ssaStatements(DirectGraph dgraph, HashSet<String> updated) {
+  /**
+   * @param alwaysVisited if not null, only nodes from this set and nodes with updated predecessors are processed.
+   *                      Any other node would get the same input as on its last visit and produce the same output.
+   */
+  private void ssaStatements(DirectGraph dgraph, HashSet<String> updated, Set<String> alwaysVisited) {
 
     // try {
     // DotExporter.toDotFile(dgraph, new File("c:\\Temp\\gr1_my.dot"));
@@ -84,6 +112,10 @@ public class SSAConstructorSparseEx {
 
     for (DirectNode node : dgraph.nodes) {
 
+      if (alwaysVisited != null && !updated.contains(node.id) && !staleNodes.contains(node.id) && !alwaysVisited.contains(node.id)) {
+        continue;
+      }
+
       //			if (node.id.endsWith("_inc")) {
       //				System.out.println();
       //
@@ -95,7 +127,9 @@ public class SSAConstructorSparseEx {
       //			}
 
       updated.remove(node.id);
+      staleNodes.remove(node.id);
       mergeInVarMaps(node, dgraph);
+      phiUpdated = false;
 
       SFormsFastMapDirect varmap = inVarVersions.get(node.id);
       varmap = new SFormsFastMapDirect(varmap);
@@ -125,6 +159,11 @@ public class SSAConstructorSparseEx {
           updated.add(nd.id);
         }
       }
+      else if (phiUpdated) {
+        for (DirectNode nd : node.succs) {
+          staleNodes.add(nd.id);
+        }
+      }
     }
   }
 
@@ -252,7 +291,10 @@ public class SSAConstructorSparseEx {
         if (current_vers != 0 && phi.containsKey(currpaar)) {
           setCurrentVar(varmap, varindex, current_vers);
           // update phi node
-          phi.get(currpaar).union(vers);
+          FastSparseSet<Integer> phiVers = phi.get(currpaar);
+          FastSparseSet<Integer> oldPhiVers = phiVers.getCopy();
+          phiVers.union(vers);
+          phiUpdated |= !phiVers.equals(oldPhiVers);
         }
         else {
           // increase version
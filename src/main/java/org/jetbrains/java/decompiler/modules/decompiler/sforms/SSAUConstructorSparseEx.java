@@ -2,6 +2,7 @@
 package org.jetbrains.java.decompiler.modules.decompiler.sforms;
 
 import org.jetbrains.java.decompiler.code.CodeConstants;
+import org.jetbrains.java.decompiler.main.rels.MethodProcessorRunnable;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.*;
 import org.jetbrains.java.decompiler.modules.decompiler.sforms.FlattenStatementsHelper.FinallyPathWrapper;
 import org.jetbrains.java.decompiler.modules.decompiler.stats.*;
@@ -22,6 +23,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 
 public class SSAUConstructorSparseEx {
 
@@ -66,6 +68,17 @@ public class SSAUConstructorSparseEx {
   // set factory
   private FastSparseSetFactory<Integer> factory;
 
+  // visit all nodes on every pass, the way it was done before passes skipped nodes with unchanged input
+  private final boolean fullPasses;
+
+  public SSAUConstructorSparseEx() {
+    this(false);
+  }
+
+  public SSAUConstructorSparseEx(boolean fullPasses) {
+    this.fullPasses = fullPasses;
+  }
+
   public void splitVariables(RootStatement root, StructMethod mt) {
 
     FlattenStatementsHelper flatthelper = new FlattenStatementsHelper();
@@ -85,24 +98,37 @@ public class SSAUConstructorSparseEx {
     //			DotExporter.toDotFile(dgraph, new File("c:\\Temp\\gr12_my.dot"));
     //		} catch(Exception ex) {ex.printStackTrace();}
 
+    // the first pass visits all nodes, later ones only those with changed input
+    Set<String> finallyExitSuccessors = dgraph.getFinallyExitSuccessors();
     HashSet<String> updated = new HashSet<>();
+    Set<String> alwaysVisited = null;
     do {
+      MethodProcessorRunnable.checkTimeLimit();
       //			System.out.println("~~~~~~~~~~~~~ \r\n"+root.toJava());
-      ssaStatements(dgraph, updated, false);
+      ssaStatements(dgraph, updated, alwaysVisited, false);
       //			System.out.println("~~~~~~~~~~~~~ \r\n"+root.toJava());
+      alwaysVisited = fullPasses ? null : finallyExitSuccessors;
     }
     while (!updated.isEmpty());
 
 
-    ssaStatements(dgraph, updated, true);
+    ssaStatements(dgraph, updated, null, true);
 
     ssuversions.initDominators();
   }
 
-  private void ssaStatements(DirectGraph dgraph, HashSet<String> updated, boolean calcLiveVars) {
+  /**
+   * @param alwaysVisited if not null, only nodes from this set and nodes with updated predecessors are processed.
+   *                      Any other node would get the same input as on its last visit and produce the same output.
+   */
+  private void ssaStatements(DirectGraph dgraph, HashSet<String> updated, Set<String> alwaysVisited, boolean calcLiveVars) {
 
     for (DirectNode node : dgraph.nodes) {
 
+      if (alwaysVisited != null && !updated.contains(node.id) && !alwaysVisited.contains(node.id)) {
+        continue;
+      }
+
       updated.remove(node.id);
       mergeInVarMaps(node, dgraph);
 
@@ -152,7 +152,7 @@ public final class CatchStatement extends Statement {
       // map first instruction storing the exception to the catch statement
       BasicBlock block = stat.getBasichead().getBlock();
       if (!block.getSeq().isEmpty() && block.getInstruction(0).opcode == CodeConstants.opc_astore) {
-        Integer offset = block.getOldOffset(0);
+        int offset = block.getOldOffset(0);
         if (offset > -1) tracer.addMapping(offset);
       }
 
@@ -83,10 +83,10 @@ public final class IfStatement extends Statement {
         List<StatEdge> lstSucc = ifstat.getSuccessorEdges(StatEdge.TYPE_REGULAR);
         List<StatEdge> lstSucc1 = elsestat.getSuccessorEdges(StatEdge.TYPE_REGULAR);
 
-        if (ifstat.getPredecessorEdges(StatEdge.TYPE_REGULAR).size() > 1 || lstSucc.size() > 1) {
+        if (ifstat.getPredecessorEdgeView(StatEdge.TYPE_REGULAR).size() > 1 || lstSucc.size() > 1) {
           post = ifstat;
         }
-        else if (elsestat.getPredecessorEdges(StatEdge.TYPE_REGULAR).size() > 1 || lstSucc1.size() > 1) {
+        else if (elsestat.getPredecessorEdgeView(StatEdge.TYPE_REGULAR).size() > 1 || lstSucc1.size() > 1) {
           post = elsestat;
         }
         else {
@@ -159,7 +159,7 @@ public final class IfStatement extends Statement {
   public static Statement isHead(Statement head) {
 
     if (head.type == TYPE_BASICBLOCK && head.getLastBasicType() == LASTBASICTYPE_IF) {
-      int regsize = head.getSuccessorEdges(StatEdge.TYPE_REGULAR).size();
+      int regsize = head.getSuccessorEdgeView(StatEdge.TYPE_REGULAR).size();
 
       Statement p = null;
 
@@ -234,8 +234,8 @@ public final class IfStatement extends Statement {
       if (elsestat.type == Statement.TYPE_IF
           && elsestat.varDefinitions.isEmpty() && elsestat.getFirst().getExprents().isEmpty() &&
           !elsestat.isLabeled() &&
-          (elsestat.getSuccessorEdges(STATEDGE_DIRECT_ALL).isEmpty()
-           || !elsestat.getSuccessorEdges(STATEDGE_DIRECT_ALL).get(0).explicit)) { // else if
+          (!elsestat.hasSuccessor(STATEDGE_DIRECT_ALL)
+           || !elsestat.getSuccessorEdgeView(STATEDGE_DIRECT_ALL).get(0).explicit)) { // else if
         buf.appendIndent(indent).append("} else ");
 
         TextBuffer content = ExprProcessor.jmpWrapper(elsestat, indent, false, tracer);
@@ -70,7 +70,7 @@ public class SequenceStatement extends Statement {
     if (edge != null && edge.getType() == StatEdge.TYPE_REGULAR) {
       Statement stat = edge.getDestination();
 
-      if (stat != head && stat.getPredecessorEdges(StatEdge.TYPE_REGULAR).size() == 1
+      if (stat != head && stat.getPredecessorEdgeView(StatEdge.TYPE_REGULAR).size() == 1
           && !stat.isMonitorEnter()) {
 
         if (stat.getLastBasicType() == Statement.LASTBASICTYPE_GENERAL) {
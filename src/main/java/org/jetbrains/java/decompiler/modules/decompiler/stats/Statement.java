@@ -16,7 +16,7 @@ import org.jetbrains.java.decompiler.struct.match.IMatchable;
 import org.jetbrains.java.decompiler.struct.match.MatchEngine;
 import org.jetbrains.java.decompiler.struct.match.MatchNode;
 import org.jetbrains.java.decompiler.struct.match.MatchNode.RuleValue;
-import org.jetbrains.java.decompiler.util.VBStyleCollection;
+import org.jetbrains.java.decompiler.util.IntKeyedCollection;
 
 import java.util.*;
 import java.util.Map.Entry;
@@ -46,6 +46,11 @@ public class Statement implements IMatchable {
   public static final int LASTBASICTYPE_SWITCH = 1;
   public static final int LASTBASICTYPE_GENERAL = 2;
 
+  // slots of the edge lists, s. getEdgeSlot()
+  private static final int SLOT_ALL = 0;
+  private static final int SLOT_DIRECT_ALL = 1;
+  private static final int EDGE_SLOTS = 7;
+
 
   // *****************************************************************************
   // public fields
@@ -59,14 +64,12 @@ public class Statement implements IMatchable {
   // private fields
   // *****************************************************************************
 
-  private final Map<Integer, List<StatEdge>> mapSuccEdges = new HashMap<>();
-  private final Map<Integer, List<StatEdge>> mapPredEdges = new HashMap<>();
-
-  private final Map<Integer, List<Statement>> mapSuccStates = new HashMap<>();
-  private final Map<Integer, List<Statement>> mapPredStates = new HashMap<>();
+  // edges and the statements at their other end, indexed by direction and edge slot
+  private final List<StatEdge>[][] edges = newEdgeSlots();
+  private final List<Statement>[][] neighbours = newEdgeSlots();
 
   // statement as graph
-  protected final VBStyleCollection<Statement, Integer> stats = new VBStyleCollection<>();
+  protected final IntKeyedCollection<Statement> stats = new IntKeyedCollection<>();
 
   protected Statement parent;
 
@@ -74,7 +77,7 @@ public class Statement implements IMatchable {
 
   protected List<Exprent> exprents;
 
-  protected final HashSet<StatEdge> labelEdges = new HashSet<>();
+  protected final HashSet<StatEdge> labelEdges = new LinkedHashSet<>();
 
   protected final List<Exprent> varDefinitions = new ArrayList<>();
 
@@ -118,21 +121,37 @@ public class Statement implements IMatchable {
     isMonitorEnter = false;
     containsMonitorExit = false;
 
-    processMap(mapSuccEdges);
-    processMap(mapPredEdges);
-    processMap(mapSuccStates);
-    processMap(mapPredStates);
+    for (int direction = DIRECTION_BACKWARD; direction <= DIRECTION_FORWARD; direction++) {
+      dropExceptionEdges(edges[direction]);
+      dropExceptionEdges(neighbours[direction]);
+    }
   }
 
-  private static <T> void processMap(Map<Integer, List<T>> map) {
-    map.remove(StatEdge.TYPE_EXCEPTION);
+  private static <T> void dropExceptionEdges(List<T>[] slots) {
+    slots[getEdgeSlot(StatEdge.TYPE_EXCEPTION)] = null;
 
-    List<T> lst = map.get(STATEDGE_DIRECT_ALL);
-    if (lst != null) {
-      map.put(STATEDGE_ALL, new ArrayList<>(lst));
-    }
-    else {
-      map.remove(STATEDGE_ALL);
+    List<T> lst = slots[SLOT_DIRECT_ALL];
+    slots[SLOT_ALL] = lst == null ? null : new ArrayList<>(lst);
+  }
+
+  private static int getEdgeSlot(int type) {
+    switch (type) {
+      case STATEDGE_ALL:
+        return SLOT_ALL;
+      case STATEDGE_DIRECT_ALL:
+        return SLOT_DIRECT_ALL;
+      case StatEdge.TYPE_REGULAR:
+        return 2;
+      case StatEdge.TYPE_EXCEPTION:
+        return 3;
+      case StatEdge.TYPE_BREAK:
+        return 4;
+      case StatEdge.TYPE_CONTINUE:
+        return 5;
+      case StatEdge.TYPE_FINALLYEXIT:
+        return 6;
+      default:
+        return -1;
     }
   }
 
@@ -141,7 +160,7 @@ public class Statement implements IMatchable {
     Statement head = stat.getFirst();
     Statement post = stat.getPost();
 
-    VBStyleCollection<Statement, Integer> setNodes = stat.getStats();
+    IntKeyedCollection<Statement> setNodes = stat.getStats();
 
     // post edges
     if (post != null) {
@@ -239,61 +258,46 @@ public class Statement implements IMatchable {
     this.getLabelEdges().add(edge);
   }
 
-  private void addEdgeDirectInternal(int direction, StatEdge edge, int edgetype) {
-    Map<Integer, List<StatEdge>> mapEdges = direction == DIRECTION_BACKWARD ? mapPredEdges : mapSuccEdges;
-    Map<Integer, List<Statement>> mapStates = direction == DIRECTION_BACKWARD ? mapPredStates : mapSuccStates;
-
-    mapEdges.computeIfAbsent(edgetype, k -> new ArrayList<>()).add(edge);
+  private void addEdgeDirectInternal(int direction, StatEdge edge, int slot) {
+    List<StatEdge> lstEdges = edges[direction][slot];
+    if (lstEdges == null) {
+      edges[direction][slot] = lstEdges = new ArrayList<>();
+      neighbours[direction][slot] = new ArrayList<>();
+    }
 
-    mapStates.computeIfAbsent(edgetype, k -> new ArrayList<>()).add(direction == DIRECTION_BACKWARD ? edge.getSource() : edge.getDestination());
+    lstEdges.add(edge);
+    neighbours[direction][slot].add(direction == DIRECTION_BACKWARD ? edge.getSource() : edge.getDestination());
   }
 
   private void addEdgeInternal(int direction, StatEdge edge) {
     int type = edge.getType();
 
-    int[] arrtypes;
-    if (type == StatEdge.TYPE_EXCEPTION) {
-      arrtypes = new int[]{STATEDGE_ALL, StatEdge.TYPE_EXCEPTION};
-    }
-    else {
-      arrtypes = new int[]{STATEDGE_ALL, STATEDGE_DIRECT_ALL, type};
-    }
-
-    for (int edgetype : arrtypes) {
-      addEdgeDirectInternal(direction, edge, edgetype);
+    addEdgeDirectInternal(direction, edge, SLOT_ALL);
+    if (type != StatEdge.TYPE_EXCEPTION) {
+      addEdgeDirectInternal(direction, edge, SLOT_DIRECT_ALL);
     }
+    addEdgeDirectInternal(direction, edge, getEdgeSlot(type));
   }
 
-  private void removeEdgeDirectInternal(int direction, StatEdge edge, int edgetype) {
-
-    Map<Integer, List<StatEdge>> mapEdges = direction == DIRECTION_BACKWARD ? mapPredEdges : mapSuccEdges;
-    Map<Integer, List<Statement>> mapStates = direction == DIRECTION_BACKWARD ? mapPredStates : mapSuccStates;
-
-    List<StatEdge> lst = mapEdges.get(edgetype);
+  private void removeEdgeDirectInternal(int direction, StatEdge edge, int slot) {
+    List<StatEdge> lst = edges[direction][slot];
     if (lst != null) {
       int index = lst.indexOf(edge);
       if (index >= 0) {
         lst.remove(index);
-        mapStates.get(edgetype).remove(index);
+        neighbours[direction][slot].remove(index);
       }
     }
   }
 
   private void removeEdgeInternal(int direction, StatEdge edge) {
-
     int type = edge.getType();
 
-    int[] arrtypes;
-    if (type == StatEdge.TYPE_EXCEPTION) {
-      arrtypes = new int[]{STATEDGE_ALL, StatEdge.TYPE_EXCEPTION};
-    }
-    else {
-      arrtypes = new int[]{STATEDGE_ALL, STATEDGE_DIRECT_ALL, type};
-    }
-
-    for (int edgetype : arrtypes) {
-      removeEdgeDirectInternal(direction, edge, edgetype);
+    removeEdgeDirectInternal(direction, edge, SLOT_ALL);
+    if (type != StatEdge.TYPE_EXCEPTION) {
+      removeEdgeDirectInternal(direction, edge, SLOT_DIRECT_ALL);
     }
+    removeEdgeDirectInternal(direction, edge, getEdgeSlot(type));
   }
 
   public void addPredecessor(StatEdge edge) {
@@ -546,6 +550,11 @@ public class Statement implements IMatchable {
   // private methods
   // *****************************************************************************
 
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static <T> List<T>[][] newEdgeSlots() {
+    return new List[2][EDGE_SLOTS];
+  }
+
   private static void addToReversePostOrderListIterative(Statement root, List<? super Statement> lst) {
 
     LinkedList<Statement> stackNode = new LinkedList<>();
@@ -612,28 +621,13 @@ public class Statement implements IMatchable {
 
   public void changeEdgeNode(int direction, StatEdge edge, Statement value) {
 
-    Map<Integer, List<StatEdge>> mapEdges = direction == DIRECTION_BACKWARD ? mapPredEdges : mapSuccEdges;
-    Map<Integer, List<Statement>> mapStates = direction == DIRECTION_BACKWARD ? mapPredStates : mapSuccStates;
-
     int type = edge.getType();
 
-    int[] arrtypes;
-    if (type == StatEdge.TYPE_EXCEPTION) {
-      arrtypes = new int[]{STATEDGE_ALL, StatEdge.TYPE_EXCEPTION};
-    }
-    else {
-      arrtypes = new int[]{STATEDGE_ALL, STATEDGE_DIRECT_ALL, type};
-    }
-
-    for (int edgetype : arrtypes) {
-      List<StatEdge> lst = mapEdges.get(edgetype);
-      if (lst != null) {
-        int index = lst.indexOf(edge);
-        if (index >= 0) {
-          mapStates.get(edgetype).set(index, value);
-        }
-      }
+    changeEdgeNodeDirect(direction, edge, value, SLOT_ALL);
+    if (type != StatEdge.TYPE_EXCEPTION) {
+      changeEdgeNodeDirect(direction, edge, value, SLOT_DIRECT_ALL);
     }
+    changeEdgeNodeDirect(direction, edge, value, getEdgeSlot(type));
 
     if (direction == DIRECTION_BACKWARD) {
       edge.setSource(value);
@@ -643,6 +637,16 @@ public class Statement implements IMatchable {
     }
   }
 
+  private void changeEdgeNodeDirect(int direction, StatEdge edge, Statement value, int slot) {
+    List<StatEdge> lst = edges[direction][slot];
+    if (lst != null) {
+      int index = lst.indexOf(edge);
+      if (index >= 0) {
+        neighbours[direction][slot].set(index, value);
+      }
+    }
+  }
+
   public void changeEdgeType(int direction, StatEdge edge, int newtype) {
 
     int oldtype = edge.getType();
@@ -654,8 +658,8 @@ public class Statement implements IMatchable {
       throw new RuntimeException("Invalid edge type!");
     }
 
-    removeEdgeDirectInternal(direction, edge, oldtype);
-    addEdgeDirectInternal(direction, edge, newtype);
+    removeEdgeDirectInternal(direction, edge, getEdgeSlot(oldtype));
+    addEdgeDirectInternal(direction, edge, getEdgeSlot(newtype));
 
     if (direction == DIRECTION_FORWARD) {
       edge.getDestination().changeEdgeType(DIRECTION_BACKWARD, edge, newtype);
@@ -666,19 +670,24 @@ public class Statement implements IMatchable {
 
 
   private List<StatEdge> getEdges(int type, int direction) {
+    return collect(edges[direction], type);
+  }
 
-    Map<Integer, List<StatEdge>> map = direction == DIRECTION_BACKWARD ? mapPredEdges : mapSuccEdges;
+  public List<Statement> getNeighbours(int type, int direction) {
+    return collect(neighbours[direction], type);
+  }
 
-    List<StatEdge> res;
+  private static <T> List<T> collect(List<T>[] slots, int type) {
+    List<T> res;
     if ((type & (type - 1)) == 0) {
-      res = map.get(type);
+      res = getSlot(slots, type);
       res = res == null ? new ArrayList<>() : new ArrayList<>(res);
     }
     else {
       res = new ArrayList<>();
       for (int edgetype : StatEdge.TYPES) {
         if ((type & edgetype) != 0) {
-          List<StatEdge> lst = map.get(edgetype);
+          List<T> lst = getSlot(slots, edgetype);
           if (lst != null) {
             res.addAll(lst);
           }
@@ -689,28 +698,17 @@ public class Statement implements IMatchable {
     return res;
   }
 
-  public List<Statement> getNeighbours(int type, int direction) {
-
-    Map<Integer, List<Statement>> map = direction == DIRECTION_BACKWARD ? mapPredStates : mapSuccStates;
+  private static <T> List<T> getSlot(List<T>[] slots, int type) {
+    int slot = getEdgeSlot(type);
+    return slot < 0 ? null : slots[slot];
+  }
 
-    List<Statement> res;
-    if ((type & (type - 1)) == 0) {
-      res = map.get(type);
-      res = res == null ? new ArrayList<>() : new ArrayList<>(res);
+  private List<StatEdge> getEdgeView(int type, int direction) {
+    if ((type & (type - 1)) != 0) {
+      return Collections.unmodifiableList(getEdges(type, direction));
     }
-    else {
-      res = new ArrayList<>();
-      for (int edgetype : StatEdge.TYPES) {
-        if ((type & edgetype) != 0) {
-          List<Statement> lst = map.get(edgetype);
-          if (lst != null) {
-            res.addAll(lst);
-          }
-        }
-      }
-    }
-
-    return res;
+    List<StatEdge> lst = getSlot(edges[direction], type);
+    return lst == null || lst.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(lst);
   }
 
   public Set<Statement> getNeighboursSet(int type, int direction) {
@@ -733,6 +731,36 @@ public class Statement implements IMatchable {
     return getEdges(STATEDGE_ALL, DIRECTION_BACKWARD);
   }
 
+  // the following accessors don't copy the edges, the views they return must not outlive changes of the graph
+
+  public List<StatEdge> getSuccessorEdgeView(int type) {
+    return getEdgeView(type, DIRECTION_FORWARD);
+  }
+
+  public List<StatEdge> getPredecessorEdgeView(int type) {
+    return getEdgeView(type, DIRECTION_BACKWARD);
+  }
+
+  public StatEdge getFirstSuccessor() {
+    return getEdgeView(STATEDGE_ALL, DIRECTION_FORWARD).get(0);
+  }
+
+  public boolean hasAnySuccessor() {
+    return hasSuccessor(STATEDGE_ALL);
+  }
+
+  public boolean hasSuccessor(int type) {
+    return !getEdgeView(type, DIRECTION_FORWARD).isEmpty();
+  }
+
+  public boolean hasAnyPredecessor() {
+    return hasPredecessor(STATEDGE_ALL);
+  }
+
+  public boolean hasPredecessor(int type) {
+    return !getEdgeView(type, DIRECTION_BACKWARD).isEmpty();
+  }
+
   public Statement getFirst() {
     return first;
   }
@@ -745,7 +773,7 @@ public class Statement implements IMatchable {
     return post;
   }
 
-  public VBStyleCollection<Statement, Integer> getStats() {
+  public IntKeyedCollection<Statement> getStats() {
     return stats;
   }
 
@@ -831,6 +859,12 @@ public class Statement implements IMatchable {
     return id.toString();
   }
 
+  // hashed by id so that sets of statements are iterated in the same order in every run
+  @Override
+  public int hashCode() {
+    return id;
+  }
+
   // *****************************************************************************
   // IMatchable implementation
   // *****************************************************************************
@@ -61,7 +61,7 @@ public final class SwitchStatement extends Statement {
       lstNodes.remove(post);
     }
 
-    default_edge = head.getSuccessorEdges(Statement.STATEDGE_DIRECT_ALL).get(0);
+    default_edge = head.getSuccessorEdgeView(Statement.STATEDGE_DIRECT_ALL).get(0);
 
     for (Statement st : lstNodes) {
       stats.addWithKey(st, st.id);
@@ -195,7 +195,7 @@ public final class SwitchStatement extends Statement {
   @Override
   public void initSimpleCopy() {
     first = stats.get(0);
-    default_edge = first.getSuccessorEdges(Statement.STATEDGE_DIRECT_ALL).get(0);
+    default_edge = first.getSuccessorEdgeView(Statement.STATEDGE_DIRECT_ALL).get(0);
 
     sortEdgesAndNodes();
   }
@@ -82,7 +82,7 @@ public class SynchronizedStatement extends Statement {
   private void mapMonitorExitInstr(BytecodeMappingTracer tracer) {
     BasicBlock block = body.getBasichead().getBlock();
     if (!block.getSeq().isEmpty() && block.getLastInstruction().opcode == CodeConstants.opc_monitorexit) {
-      Integer offset = block.getOldOffset(block.size() - 1);
+      int offset = block.getOldOffset(block.size() - 1);
       if (offset > -1) tracer.addMapping(offset);
     }
   }
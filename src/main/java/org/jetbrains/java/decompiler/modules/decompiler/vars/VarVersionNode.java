@@ -56,6 +56,12 @@ public class VarVersionNode implements IGraphNode {
     preds.add(edge);
   }
 
+  // hashed by version so that the edge sets are iterated in the same order in every run
+  @Override
+  public int hashCode() {
+    return var * 31 + version;
+  }
+
   @Override
   public String toString() {
     return "(" + var + "_" + version + ")";
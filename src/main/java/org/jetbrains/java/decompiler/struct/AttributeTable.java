@@ -0,0 +1,186 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.struct;
+
+import org.jetbrains.java.decompiler.struct.attr.StructGeneralAttribute;
+import org.jetbrains.java.decompiler.struct.attr.StructLocalVariableTableAttribute;
+import org.jetbrains.java.decompiler.struct.attr.StructLocalVariableTypeTableAttribute;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Attributes of a class member, identified by the ordinals of their keys. When the loader caches the class file, only
+ * the offsets of the attributes in the class file are recorded, and an attribute is parsed when it's first requested.
+ * <p>
+ * An attribute found more than once replaces the previous ones, except for local variable tables, which are merged.
+ */
+class AttributeTable {
+  private static final int[] EMPTY = {};
+
+  // class to read the attributes from, null if they are parsed right away
+  private final StructClass source;
+  private int size;
+  private int[] keys = EMPTY;
+  private int[] offsets = EMPTY;
+  private StructGeneralAttribute[] values;
+
+  AttributeTable(StructClass source) {
+    this.source = source;
+  }
+
+  boolean isLazy() {
+    return source != null;
+  }
+
+  /**
+   * Records an attribute whose content starts at the given offset of the class file.
+   */
+  void add(StructGeneralAttribute.Key<?> key, int offset) {
+    grow();
+    keys[size] = key.getOrdinal();
+    offsets[size++] = offset;
+  }
+
+  /**
+   * Adds an attribute parsed right away.
+   */
+  void add(StructGeneralAttribute.Key<?> key, StructGeneralAttribute attribute) {
+    int index = indexOf(key);
+    if (index >= 0 && isLocalVariableTable(key)) {
+      mergeLocalVariables(values[index], attribute);
+      return;
+    }
+
+    grow();
+    if (values == null) {
+      values = new StructGeneralAttribute[keys.length];
+    }
+    keys[size] = key.getOrdinal();
+    offsets[size] = -1;
+    values[size++] = attribute;
+  }
+
+  /**
+   * Adds the attributes of the other table, which take precedence over the ones of this table.
+   */
+  void addAll(AttributeTable table) {
+    for (int i = 0; i < table.size; i++) {
+      grow();
+      if (values == null && table.values != null) {
+        values = new StructGeneralAttribute[keys.length];
+      }
+      keys[size] = table.keys[i];
+      offsets[size] = table.offsets[i];
+      if (table.values != null) {
+        values[size] = table.values[i];
+      }
+      size++;
+    }
+  }
+
+  private void grow() {
+    if (size == keys.length) {
+      int length = Math.max(size * 2, 2);
+      keys = Arrays.copyOf(keys, length);
+      offsets = Arrays.copyOf(offsets, length);
+      if (values != null) {
+        values = Arrays.copyOf(values, length);
+      }
+    }
+  }
+
+  void trim() {
+    if (size < keys.length) {
+      keys = Arrays.copyOf(keys, size);
+      offsets = Arrays.copyOf(offsets, size);
+      if (values != null) {
+        values = Arrays.copyOf(values, size);
+      }
+    }
+  }
+
+  // the last attribute with the key, as it replaces all before it
+  private int indexOf(StructGeneralAttribute.Key<?> key) {
+    int ordinal = key.getOrdinal();
+    for (int i = size - 1; i >= 0; i--) {
+      if (keys[i] == ordinal) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  boolean contains(StructGeneralAttribute.Key<?> key) {
+    return indexOf(key) >= 0;
+  }
+
+  synchronized StructGeneralAttribute get(StructGeneralAttribute.Key<?> key) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return null;
+    }
+
+    if (values == null) {
+      values = new StructGeneralAttribute[keys.length];
+    }
+
+    StructGeneralAttribute attribute = values[index];
+    if (attribute == null) {
+      try {
+        attribute = parse(key, index);
+      }
+      catch (IOException ex) {
+        throw new UncheckedIOException("Cannot read attribute " + key.getName() + " of a member of " + source.qualifiedName, ex);
+      }
+      values[index] = attribute;
+    }
+
+    return attribute;
+  }
+
+  private StructGeneralAttribute parse(StructGeneralAttribute.Key<?> key, int index) throws IOException {
+    ClassFileReader in = source.getLoader().loadClassFile(source.qualifiedName);
+    if (in == null) {
+      throw new IOException("Class file of " + source.qualifiedName + " not found");
+    }
+
+    if (!isLocalVariableTable(key)) {
+      return parse(key, in.at(offsets[index]));
+    }
+
+    StructGeneralAttribute table = null;
+    for (int i = 0; i <= index; i++) {
+      if (keys[i] == keys[index]) {
+        StructGeneralAttribute attribute = parse(key, in.at(offsets[i]));
+        if (table == null) {
+          table = attribute;
+        }
+        else {
+          mergeLocalVariables(table, attribute);
+        }
+      }
+    }
+    return table;
+  }
+
+  private StructGeneralAttribute parse(StructGeneralAttribute.Key<?> key, ClassFileReader in) throws IOException {
+    StructGeneralAttribute attribute = StructGeneralAttribute.createAttribute(key.getName());
+    attribute.initContent(in, source.getPool());
+    return attribute;
+  }
+
+  private static boolean isLocalVariableTable(StructGeneralAttribute.Key<?> key) {
+    return key == StructGeneralAttribute.ATTRIBUTE_LOCAL_VARIABLE_TABLE || key == StructGeneralAttribute.ATTRIBUTE_LOCAL_VARIABLE_TYPE_TABLE;
+  }
+
+  private static void mergeLocalVariables(StructGeneralAttribute table, StructGeneralAttribute attribute) {
+    if (table instanceof StructLocalVariableTableAttribute) {
+      ((StructLocalVariableTableAttribute)table).add((StructLocalVariableTableAttribute)attribute);
+    }
+    else {
+      ((StructLocalVariableTypeTableAttribute)table).add((StructLocalVariableTypeTableAttribute)attribute);
+    }
+  }
+}
@@ -1,12 +1,11 @@
 // Copyright 2000-2020 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
 package org.jetbrains.java.decompiler.struct;
 
-import org.jetbrains.java.decompiler.main.DecompilerContext;
-import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.jetbrains.java.decompiler.main.ParallelDecompiler;
+import org.jetbrains.java.decompiler.main.ParallelDecompiler.ClassContent;
 import org.jetbrains.java.decompiler.main.extern.IResultSaver;
 import org.jetbrains.java.decompiler.struct.lazy.LazyLoader;
 import org.jetbrains.java.decompiler.struct.lazy.LazyLoader.Link;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -63,10 +62,7 @@ public class ContextUnit {
     for (StructClass cl : classes) {
       String oldName = cl.qualifiedName;
 
-      StructClass newCl;
-      try (DataInputFullStream in = loader.getClassStream(oldName)) {
-        newCl = new StructClass(in, cl.isOwn(), loader);
-      }
+      StructClass newCl = new StructClass(loader.getClassReader(oldName), cl.isOwn(), loader);
 
       lstClasses.add(newCl);
 
@@ -78,7 +74,23 @@ public class ContextUnit {
     classes = lstClasses;
   }
 
+  public void submitClasses(ParallelDecompiler decompiler) {
+    for (int i = 0; i < classes.size(); i++) {
+      StructClass cl = classes.get(i);
+      if (type == TYPE_FOLDER && !cl.isOwn()) {
+        continue;
+      }
+      if (decompiledData.getClassEntryName(cl, classEntries.get(i)) != null) {
+        decompiler.submit(cl);
+      }
+    }
+  }
+
   public void save() {
+    save(null);
+  }
+
+  public void save(ParallelDecompiler decompiler) {
     switch (type) {
       case TYPE_FOLDER:
         // create folder
@@ -97,13 +109,9 @@ public class ContextUnit {
           }
           String entryName = decompiledData.getClassEntryName(cl, classEntries.get(i));
           if (entryName != null) {
-            String content = decompiledData.getClassContent(cl);
-            if (content != null) {
-              int[] mapping = null;
-              if (DecompilerContext.getOption(IFernflowerPreferences.BYTECODE_SOURCE_MAPPING)) {
-                mapping = DecompilerContext.getBytecodeSourceMapper().getOriginalLinesMapping();
-              }
-              resultSaver.saveClassFile(filename, cl.qualifiedName, entryName, content, mapping);
+            ClassContent content = getClassContent(cl, decompiler);
+            if (content.content != null) {
+              resultSaver.saveClassFile(filename, cl.qualifiedName, entryName, content.content, content.mapping);
             }
           }
         }
@@ -133,8 +141,8 @@ public class ContextUnit {
           StructClass cl = classes.get(i);
           String entryName = decompiledData.getClassEntryName(cl, classEntries.get(i));
           if (entryName != null) {
-            String content = decompiledData.getClassContent(cl);
-            resultSaver.saveClassEntry(archivePath, filename, cl.qualifiedName, entryName, content);
+            ClassContent content = getClassContent(cl, decompiler);
+            resultSaver.saveClassEntry(archivePath, filename, cl.qualifiedName, entryName, content.content);
           }
         }
 
@@ -142,6 +150,10 @@ public class ContextUnit {
     }
   }
 
+  private ClassContent getClassContent(StructClass cl, ParallelDecompiler decompiler) {
+    return decompiler != null ? decompiler.take(cl) : ParallelDecompiler.decompile(decompiledData, cl);
+  }
+
   public void setManifest(Manifest manifest) {
     this.manifest = manifest;
   }
@@ -7,7 +7,7 @@ import org.jetbrains.java.decompiler.struct.attr.StructRecordAttribute;
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
 import org.jetbrains.java.decompiler.struct.consts.PrimitiveConstant;
 import org.jetbrains.java.decompiler.struct.lazy.LazyLoader;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 import org.jetbrains.java.decompiler.util.InterpreterUtil;
 import org.jetbrains.java.decompiler.util.VBStyleCollection;
 
@@ -51,10 +51,10 @@ public class StructClass extends StructMember {
   private ConstantPool pool;
 
   public StructClass(byte[] bytes, boolean own, LazyLoader loader) throws IOException {
-    this(new DataInputFullStream(bytes), own, loader);
+    this(new ClassFileReader(bytes), own, loader);
   }
 
-  public StructClass(DataInputFullStream in, boolean own, LazyLoader loader) throws IOException {
+  public StructClass(ClassFileReader in, boolean own, LazyLoader loader) throws IOException {
     this.own = own;
     this.loader = loader;
 
@@ -97,7 +97,7 @@ public class StructClass extends StructMember {
     }
 
     // attributes
-    attributes = readAttributes(in, pool);
+    attributes = readAttributes(in, pool, this);
 
     releaseResources();
   }
@@ -2,27 +2,36 @@
 package org.jetbrains.java.decompiler.struct;
 
 import org.jetbrains.java.decompiler.main.DecompilerContext;
+import org.jetbrains.java.decompiler.main.ParallelDecompiler;
 import org.jetbrains.java.decompiler.main.extern.IResultSaver;
 import org.jetbrains.java.decompiler.struct.lazy.LazyLoader;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
-import org.jetbrains.java.decompiler.util.InterpreterUtil;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Enumeration;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 public class StructContext {
+  // number of parsed library classes kept for further lookups
+  private static final int LIBRARY_CACHE_SIZE = 1024;
 
   private final IResultSaver saver;
   private final IDecompiledData decompiledData;
   private final LazyLoader loader;
   private final Map<String, ContextUnit> units = new HashMap<>();
   private final Map<String, StructClass> classes = new HashMap<>();
+  // classes of library archives, which are only parsed when they are looked up
+  private final Map<String, LazyLoader.Link> libraryClasses = new HashMap<>();
+  // recently looked up library classes, in access order; guarded by itself
+  private final LinkedHashMap<String, StructClass> libraryCache = new LinkedHashMap<>(16, 0.75f, true);
 
   public StructContext(IResultSaver saver, IDecompiledData decompiledData, LazyLoader loader) {
     this.saver = saver;
@@ -34,10 +43,62 @@ public class StructContext {
   }
 
   public StructClass getClass(String name) {
-    return classes.get(name);
+    StructClass cl = classes.get(name);
+    if (cl == null) {
+      LazyLoader.Link link = libraryClasses.get(name);
+      if (link != null) {
+        cl = getLibraryClass(name, link);
+      }
+    }
+    return cl;
+  }
+
+  public boolean hasClass(String name) {
+    return classes.containsKey(name) || libraryClasses.containsKey(name);
+  }
+
+  private StructClass getLibraryClass(String name, LazyLoader.Link link) {
+    synchronized (libraryCache) {
+      StructClass cl = libraryCache.get(name);
+      if (cl != null) {
+        return cl;
+      }
+    }
+
+    StructClass cl;
+    try {
+      cl = new StructClass(loader.getClassReader(link.externalPath, link.internalPath), false, loader);
+    }
+    catch (IOException ex) {
+      String message = "Corrupted class file: " + link.internalPath + " in " + link.externalPath;
+      DecompilerContext.getLogger().writeMessage(message, ex);
+      return null;
+    }
+
+    if (!name.equals(cl.qualifiedName)) {
+      return null; // the entry doesn't match the class name, so the loader can't find its pool
+    }
+
+    synchronized (libraryCache) {
+      libraryCache.put(name, cl);
+
+      Iterator<StructClass> iterator = libraryCache.values().iterator();
+      while (libraryCache.size() > LIBRARY_CACHE_SIZE) {
+        iterator.next();
+        iterator.remove();
+      }
+    }
+
+    return cl;
   }
 
   public void reloadContext() throws IOException {
+    // pools and library classes cached so far were parsed without renaming
+    loader.clearCache();
+    synchronized (libraryCache) {
+      libraryCache.clear();
+    }
+
     for (ContextUnit unit : units.values()) {
       for (StructClass cl : unit.getClasses()) {
         classes.remove(cl.qualifiedName);
@@ -53,76 +114,159 @@ public class StructContext {
   }
 
   public void saveContext() {
-    for (ContextUnit unit : units.values()) {
-      if (unit.isOwn()) {
-        unit.save();
+    ParallelDecompiler decompiler = new ParallelDecompiler(decompiledData, ParallelDecompiler.getThreadCount());
+    try {
+      if (decompiler.isParallel()) {
+        // queue classes in the order they are saved so that the first units are ready first
+        for (ContextUnit unit : units.values()) {
+          if (unit.isOwn()) {
+            unit.submitClasses(decompiler);
+          }
+        }
+      }
+      for (ContextUnit unit : units.values()) {
+        if (unit.isOwn()) {
+          unit.save(decompiler);
+        }
       }
     }
+    finally {
+      decompiler.shutdown();
+    }
   }
 
   public void addSpace(File file, boolean isOwn) {
-    addSpace("", file, isOwn, 0);
-  }
+    List<SpaceFile> files = new ArrayList<>();
+    collectFiles("", file.toPath(), 0, files);
 
-  private void addSpace(String path, File file, boolean isOwn, int level) {
-    if (file.isDirectory()) {
-      if (level == 1) path += file.getName();
-      else if (level > 1) path += "/" + file.getName();
+    int classCount = 0;
+    for (SpaceFile spaceFile : files) {
+      if (spaceFile.isClass()) {
+        classCount++;
+      }
+    }
 
-      File[] files = file.listFiles();
-      if (files != null) {
-        for (int i = files.length - 1; i >= 0; i--) {
-          addSpace(path, files[i], isOwn, level + 1);
+    // class files are read and parsed on worker threads, but added in the order they were found
+    int threads = Math.min(ParallelDecompiler.getThreadCount(), classCount);
+    ExecutorService executor = threads > 1 ? ParallelDecompiler.createExecutor(threads) : null;
+    try {
+      if (executor != null) {
+        for (SpaceFile spaceFile : files) {
+          if (spaceFile.isClass()) {
+            spaceFile.parsed = executor.submit(() -> readClass(spaceFile.file, isOwn));
+          }
         }
       }
+
+      for (SpaceFile spaceFile : files) {
+        addFile(spaceFile, isOwn);
+      }
     }
-    else {
-      String filename = file.getName();
+    finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+  }
 
-      boolean isArchive = false;
-      try {
-        if (filename.endsWith(".jar")) {
-          isArchive = true;
-          addArchive(path, file, ContextUnit.TYPE_JAR, isOwn);
-        }
-        else if (filename.endsWith(".zip")) {
-          isArchive = true;
-          addArchive(path, file, ContextUnit.TYPE_ZIP, isOwn);
+  private static void collectFiles(String path, Path file, int level, List<SpaceFile> files) {
+    if (Files.isDirectory(file)) {
+      if (level == 1) path += file.getFileName();
+      else if (level > 1) path += "/" + file.getFileName();
+
+      List<Path> children = new ArrayList<>();
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(file)) {
+        for (Path child : stream) {
+          children.add(child);
         }
       }
       catch (IOException ex) {
-        String message = "Corrupted archive file: " + file;
+        String message = "Cannot read directory: " + file;
         DecompilerContext.getLogger().writeMessage(message, ex);
       }
-      if (isArchive) {
-        return;
+
+      for (int i = children.size() - 1; i >= 0; i--) {
+        collectFiles(path, children.get(i), level + 1, files);
       }
+    }
+    else {
+      files.add(new SpaceFile(path, file));
+    }
+  }
 
-      ContextUnit unit = units.get(path);
-      if (unit == null) {
-        unit = new ContextUnit(ContextUnit.TYPE_FOLDER, null, path, isOwn, saver, decompiledData);
-        units.put(path, unit);
+  private void addFile(SpaceFile spaceFile, boolean isOwn) {
+    String path = spaceFile.path;
+    Path file = spaceFile.file;
+    String filename = file.getFileName().toString();
+
+    boolean isArchive = false;
+    try {
+      if (filename.endsWith(".jar")) {
+        isArchive = true;
+        addArchive(path, file.toFile(), ContextUnit.TYPE_JAR, isOwn);
+      }
+      else if (filename.endsWith(".zip")) {
+        isArchive = true;
+        addArchive(path, file.toFile(), ContextUnit.TYPE_ZIP, isOwn);
       }
+    }
+    catch (IOException ex) {
+      String message = "Corrupted archive file: " + file;
+      DecompilerContext.getLogger().writeMessage(message, ex);
+    }
+    if (isArchive) {
+      return;
+    }
 
-      if (filename.endsWith(".class")) {
-        try (DataInputFullStream in = loader.getClassStream(file.getAbsolutePath(), null)) {
-          StructClass cl = new StructClass(in, isOwn, loader);
-          classes.put(cl.qualifiedName, cl);
-          unit.addClass(cl, filename);
-          loader.addClassLink(cl.qualifiedName, new LazyLoader.Link(file.getAbsolutePath(), null));
-        }
-        catch (IOException ex) {
-          String message = "Corrupted class file: " + file;
-          DecompilerContext.getLogger().writeMessage(message, ex);
-        }
+    ContextUnit unit = units.get(path);
+    if (unit == null) {
+      unit = new ContextUnit(ContextUnit.TYPE_FOLDER, null, path, isOwn, saver, decompiledData);
+      units.put(path, unit);
+    }
+
+    if (spaceFile.isClass()) {
+      try {
+        StructClass cl = spaceFile.parsed != null ? getParsedClass(spaceFile.parsed) : readClass(file, isOwn);
+        classes.put(cl.qualifiedName, cl);
+        unit.addClass(cl, filename);
+        loader.addClassLink(cl.qualifiedName, new LazyLoader.Link(file.toAbsolutePath().toString(), null));
       }
-      else {
-        unit.addOtherEntry(file.getAbsolutePath(), filename);
+      catch (IOException ex) {
+        String message = "Corrupted class file: " + file;
+        DecompilerContext.getLogger().writeMessage(message, ex);
+      }
+    }
+    else {
+      unit.addOtherEntry(file.toAbsolutePath().toString(), filename);
+    }
+  }
+
+  private StructClass readClass(Path file, boolean isOwn) throws IOException {
+    return new StructClass(loader.getClassReader(file.toAbsolutePath().toString(), null), isOwn, loader);
+  }
+
+  private static StructClass getParsedClass(Future<StructClass> parsed) throws IOException {
+    try {
+      return parsed.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException)e.getCause();
       }
+      throw new RuntimeException(e.getCause());
     }
   }
 
   private void addArchive(String path, File file, int type, boolean isOwn) throws IOException {
+    if (!isOwn) {
+      addLibraryArchive(file, type);
+      return;
+    }
+
     try (ZipFile archive = type == ContextUnit.TYPE_JAR ? new JarFile(file) : new ZipFile(file)) {
       Enumeration<? extends ZipEntry> entries = archive.entries();
       while (entries.hasMoreElements()) {
@@ -140,8 +284,7 @@ public class StructContext {
         String name = entry.getName();
         if (!entry.isDirectory()) {
           if (name.endsWith(".class")) {
-            byte[] bytes = InterpreterUtil.getBytes(archive, entry);
-            StructClass cl = new StructClass(bytes, isOwn, loader);
+            StructClass cl = new StructClass(loader.getClassReader(file.getAbsolutePath(), name), isOwn, loader);
             classes.put(cl.qualifiedName, cl);
             unit.addClass(cl, name);
             loader.addClassLink(cl.qualifiedName, new LazyLoader.Link(file.getAbsolutePath(), name));
@@ -157,7 +300,54 @@ public class StructContext {
     }
   }
 
+  /**
+   * Registers the classes of a library archive by their entry names, without reading them.
+   */
+  private void addLibraryArchive(File file, int type) throws IOException {
+    try (ZipFile archive = type == ContextUnit.TYPE_JAR ? new JarFile(file) : new ZipFile(file)) {
+      Enumeration<? extends ZipEntry> entries = archive.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+
+        String name = entry.getName();
+        if (!entry.isDirectory() && name.endsWith(".class") && !name.startsWith("META-INF/")) {
+          String className = name.substring(0, name.length() - ".class".length());
+          LazyLoader.Link link = new LazyLoader.Link(file.getAbsolutePath(), name);
+          libraryClasses.put(className, link);
+          loader.addClassLink(className, link);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return classes parsed when they were added, which are all classes except those of library archives
+   */
   public Map<String, StructClass> getClasses() {
     return classes;
   }
-}
\ No newline at end of file
+
+  /**
+   * @return names of all classes, including those of library archives
+   */
+  public Set<String> getClassNames() {
+    Set<String> names = new HashSet<>(classes.keySet());
+    names.addAll(libraryClasses.keySet());
+    return names;
+  }
+
+  private static class SpaceFile {
+    private final String path;
+    private final Path file;
+    private Future<StructClass> parsed;
+
+    private SpaceFile(String path, Path file) {
+      this.path = path;
+      this.file = file;
+    }
+
+    private boolean isClass() {
+      return file.getFileName().toString().endsWith(".class");
+    }
+  }
+}
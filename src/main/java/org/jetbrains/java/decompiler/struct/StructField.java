@@ -2,7 +2,7 @@
 package org.jetbrains.java.decompiler.struct;
 
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 
 import java.io.IOException;
 
@@ -21,7 +21,7 @@ public class StructField extends StructMember {
   private final String descriptor;
 
 
-  public StructField(DataInputFullStream in, StructClass clStruct) throws IOException {
+  public StructField(ClassFileReader in, StructClass clStruct) throws IOException {
     accessFlags = in.readUnsignedShort();
     int nameIndex = in.readUnsignedShort();
     int descriptorIndex = in.readUnsignedShort();
@@ -31,7 +31,7 @@ public class StructField extends StructMember {
     name = values[0];
     descriptor = values[1];
 
-    attributes = readAttributes(in, pool);
+    attributes = readAttributes(in, pool, clStruct);
   }
 
   public String getName() {
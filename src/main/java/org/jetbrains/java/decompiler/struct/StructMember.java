@@ -3,19 +3,15 @@ package org.jetbrains.java.decompiler.struct;
 
 import org.jetbrains.java.decompiler.code.CodeConstants;
 import org.jetbrains.java.decompiler.struct.attr.StructGeneralAttribute;
-import org.jetbrains.java.decompiler.struct.attr.StructLocalVariableTableAttribute;
-import org.jetbrains.java.decompiler.struct.attr.StructLocalVariableTypeTableAttribute;
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 public class StructMember {
 
   protected int accessFlags;
-  protected Map<String, StructGeneralAttribute> attributes;
+  protected AttributeTable attributes;
 
 
   public int getAccessFlags() {
@@ -24,11 +20,11 @@ public class StructMember {
 
   public <T extends StructGeneralAttribute> T getAttribute(StructGeneralAttribute.Key<T> attribute) {
     //noinspection unchecked
-    return (T)attributes.get(attribute.getName());
+    return (T)attributes.get(attribute);
   }
 
   public boolean hasAttribute(StructGeneralAttribute.Key<?> attribute) {
-    return attributes.containsKey(attribute.getName());
+    return attributes.contains(attribute);
   }
 
   public boolean hasModifier(int modifier) {
@@ -39,45 +35,41 @@ public class StructMember {
     return hasModifier(CodeConstants.ACC_SYNTHETIC) || hasAttribute(StructGeneralAttribute.ATTRIBUTE_SYNTHETIC);
   }
 
-  protected Map<String, StructGeneralAttribute> readAttributes(DataInputFullStream in, ConstantPool pool) throws IOException {
+  /**
+   * @param source class whose file is read again when an attribute is requested, null to parse the attributes right away;
+   *               they are also parsed right away when the loader of the class doesn't cache class files
+   */
+  protected AttributeTable readAttributes(ClassFileReader in, ConstantPool pool, StructClass source) throws IOException {
     int length = in.readUnsignedShort();
 
-    Map<String, StructGeneralAttribute> attributes = new HashMap<>(length);
+    boolean lazy = source != null && source.getLoader() != null && source.getLoader().isCaching();
+    AttributeTable attributes = new AttributeTable(lazy ? source : null);
     for (int i = 0; i < length; i++) {
       int nameIndex = in.readUnsignedShort();
       String name = pool.getPrimitiveConstant(nameIndex).getString();
 
-      StructGeneralAttribute attribute = readAttribute(in, pool, name);
-
-      if (attribute != null) {
-        if (StructGeneralAttribute.ATTRIBUTE_LOCAL_VARIABLE_TABLE.getName().equals(name) && attributes.containsKey(name)) {
-          // merge all variable tables
-          StructLocalVariableTableAttribute table = (StructLocalVariableTableAttribute)attributes.get(name);
-          table.add((StructLocalVariableTableAttribute)attribute);
-        }
-        else if (StructGeneralAttribute.ATTRIBUTE_LOCAL_VARIABLE_TYPE_TABLE.getName().equals(name) && attributes.containsKey(name)) {
-          // merge all variable tables
-          StructLocalVariableTypeTableAttribute table = (StructLocalVariableTypeTableAttribute)attributes.get(name);
-          table.add((StructLocalVariableTypeTableAttribute)attribute);
-        }
-        else {
-          attributes.put(attribute.getName(), attribute);
-        }
-      }
+      readAttribute(in, pool, name, attributes);
     }
+    attributes.trim();
 
     return attributes;
   }
 
-  protected StructGeneralAttribute readAttribute(DataInputFullStream in, ConstantPool pool, String name) throws IOException {
-    StructGeneralAttribute attribute = StructGeneralAttribute.createAttribute(name);
+  protected void readAttribute(ClassFileReader in, ConstantPool pool, String name, AttributeTable attributes) throws IOException {
+    StructGeneralAttribute.Key<?> key = StructGeneralAttribute.getKey(name);
     int length = in.readInt();
-    if (attribute == null) {
+    if (key == null || key == StructGeneralAttribute.ATTRIBUTE_CODE) {
+      // unsupported attribute
+      in.discard(length);
+    }
+    else if (attributes.isLazy()) {
+      attributes.add(key, in.position());
       in.discard(length);
     }
     else {
+      StructGeneralAttribute attribute = StructGeneralAttribute.createAttribute(name);
       attribute.initContent(in, pool);
+      attributes.add(key, attribute);
     }
-    return attribute;
   }
-}
\ No newline at end of file
+}
@@ -3,7 +3,7 @@ package org.jetbrains.java.decompiler.struct;
 
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
 import org.jetbrains.java.decompiler.struct.consts.PrimitiveConstant;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 
 import java.io.IOException;
 
@@ -21,7 +21,7 @@ public class StructRecordComponent extends StructMember {
   private final String descriptor;
 
 
-  public StructRecordComponent(DataInputFullStream in, ConstantPool pool) throws IOException {
+  public StructRecordComponent(ClassFileReader in, ConstantPool pool) throws IOException {
     accessFlags = 0;
     int nameIndex = in.readUnsignedShort();
     int descriptorIndex = in.readUnsignedShort();
@@ -29,7 +29,7 @@ public class StructRecordComponent extends StructMember {
     name = ((PrimitiveConstant)pool.getConstant(nameIndex)).getString();
     descriptor = ((PrimitiveConstant)pool.getConstant(descriptorIndex)).getString();
 
-    attributes = readAttributes(in, pool);
+    attributes = readAttributes(in, pool, null);
   }
 
   public String getName() {
@@ -3,7 +3,7 @@ package org.jetbrains.java.decompiler.struct.attr;
 
 import org.jetbrains.java.decompiler.modules.decompiler.exps.Exprent;
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 
 import java.io.IOException;
 
@@ -12,7 +12,7 @@ public class StructAnnDefaultAttribute extends StructGeneralAttribute {
   private Exprent defaultValue;
 
   @Override
-  public void initContent(DataInputFullStream data, ConstantPool pool) throws IOException {
+  public void initContent(ClassFileReader data, ConstantPool pool) throws IOException {
     defaultValue = StructAnnotationAttribute.parseAnnotationElement(data, pool);
   }
 
@@ -7,9 +7,8 @@ import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
 import org.jetbrains.java.decompiler.struct.consts.PrimitiveConstant;
 import org.jetbrains.java.decompiler.struct.gen.FieldDescriptor;
 import org.jetbrains.java.decompiler.struct.gen.VarType;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -19,11 +18,11 @@ public class StructAnnotationAttribute extends StructGeneralAttribute {
   private List<AnnotationExprent> annotations;
 
   @Override
-  public void initContent(DataInputFullStream data, ConstantPool pool) throws IOException {
+  public void initContent(ClassFileReader data, ConstantPool pool) throws IOException {
     annotations = parseAnnotations(pool, data);
   }
 
-  public static List<AnnotationExprent> parseAnnotations(ConstantPool pool, DataInputStream data) throws IOException {
+  public static List<AnnotationExprent> parseAnnotations(ConstantPool pool, ClassFileReader data) throws IOException {
     int len = data.readUnsignedShort();
     if (len > 0) {
       List<AnnotationExprent> annotations = new ArrayList<>(len);
@@ -37,7 +36,7 @@ public class StructAnnotationAttribute extends StructGeneralAttribute {
     }
   }
 
-  public static AnnotationExprent parseAnnotation(DataInputStream data, ConstantPool pool) throws IOException {
+  public static AnnotationExprent parseAnnotation(ClassFileReader data, ConstantPool pool) throws IOException {
     String className = pool.getPrimitiveConstant(data.readUnsignedShort()).getString();
 
     List<String> names;
@@ -59,7 +58,7 @@ public class StructAnnotationAttribute extends StructGeneralAttribute {
     return new AnnotationExprent(new VarType(className).value, names, values);
   }
 
-  public static Exprent parseAnnotationElement(DataInputStream data, ConstantPool pool) throws IOException {
+  public static Exprent parseAnnotationElement(ClassFileReader data, ConstantPool pool) throws IOException {
     int tag = data.readUnsignedByte();
 
     switch (tag) {
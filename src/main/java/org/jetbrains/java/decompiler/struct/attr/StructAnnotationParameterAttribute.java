@@ -3,7 +3,7 @@ package org.jetbrains.java.decompiler.struct.attr;
 
 import org.jetbrains.java.decompiler.modules.decompiler.exps.AnnotationExprent;
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -15,7 +15,7 @@ public class StructAnnotationParameterAttribute extends StructGeneralAttribute {
   private List<List<AnnotationExprent>> paramAnnotations;
 
   @Override
-  public void initContent(DataInputFullStream data, ConstantPool pool) throws IOException {
+  public void initContent(ClassFileReader data, ConstantPool pool) throws IOException {
     int len = data.readUnsignedByte();
     if (len > 0) {
       paramAnnotations = new ArrayList<>(len);
@@ -4,7 +4,7 @@ package org.jetbrains.java.decompiler.struct.attr;
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
 import org.jetbrains.java.decompiler.struct.consts.LinkConstant;
 import org.jetbrains.java.decompiler.struct.consts.PooledConstant;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -16,7 +16,7 @@ public class StructBootstrapMethodsAttribute extends StructGeneralAttribute {
   private final List<List<PooledConstant>> methodArguments = new ArrayList<>();
 
   @Override
-  public void initContent(DataInputFullStream data, ConstantPool pool) throws IOException {
+  public void initContent(ClassFileReader data, ConstantPool pool) throws IOException {
     int method_number = data.readUnsignedShort();
 
     for (int i = 0; i < method_number; ++i) {
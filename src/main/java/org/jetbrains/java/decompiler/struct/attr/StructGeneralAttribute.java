@@ -2,9 +2,11 @@
 package org.jetbrains.java.decompiler.struct.attr;
 
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 /*
   attribute_info {
@@ -14,6 +16,10 @@ import java.io.IOException;
   }
 */
 public class StructGeneralAttribute {
+  // keys by attribute name, filled in as the keys are created
+  private static final Map<String, Key<?>> KEYS = new HashMap<>();
+  private static int keyCount;
+
   public static final Key<StructGeneralAttribute> ATTRIBUTE_CODE = new Key<>("Code");
   public static final Key<StructInnerClassesAttribute> ATTRIBUTE_INNER_CLASSES = new Key<>("InnerClasses");
   public static final Key<StructGenericSignatureAttribute> ATTRIBUTE_SIGNATURE = new Key<>("Signature");
@@ -38,14 +44,36 @@ public class StructGeneralAttribute {
 
   public static class Key<T extends StructGeneralAttribute> {
     private final String name;
+    private final int ordinal;
 
     public Key(String name) {
       this.name = name;
+
+      synchronized (KEYS) {
+        ordinal = keyCount++;
+        KEYS.putIfAbsent(name, this);
+      }
     }
 
     public String getName() {
       return name;
     }
+
+    /**
+     * @return number of the key, counting the keys in the order they have been created
+     */
+    public int getOrdinal() {
+      return ordinal;
+    }
+  }
+
+  /**
+   * @return key of the attribute with the given name, null if there is none
+   */
+  public static Key<?> getKey(String name) {
+    synchronized (KEYS) {
+      return KEYS.get(name);
+    }
   }
 
   private String name;
@@ -110,7 +138,7 @@ public class StructGeneralAttribute {
     return attr;
   }
 
-  public void initContent(DataInputFullStream data, ConstantPool pool) throws IOException { }
+  public void initContent(ClassFileReader data, ConstantPool pool) throws IOException { }
 
   public String getName() {
     return name;
@@ -2,7 +2,7 @@
 package org.jetbrains.java.decompiler.struct.attr;
 
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 
 import java.io.IOException;
 
@@ -11,7 +11,7 @@ public class StructGenericSignatureAttribute extends StructGeneralAttribute {
   private String signature;
 
   @Override
-  public void initContent(DataInputFullStream data, ConstantPool pool) throws IOException {
+  public void initContent(ClassFileReader data, ConstantPool pool) throws IOException {
     int index = data.readUnsignedShort();
     signature = pool.getPrimitiveConstant(index).getString();
   }
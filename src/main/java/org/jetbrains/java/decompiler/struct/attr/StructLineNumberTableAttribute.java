@@ -2,7 +2,7 @@
 package org.jetbrains.java.decompiler.struct.attr;
 
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 import org.jetbrains.java.decompiler.util.InterpreterUtil;
 
 import java.io.IOException;
@@ -19,7 +19,7 @@ public class StructLineNumberTableAttribute extends StructGeneralAttribute {
   private int[] myLineInfo = InterpreterUtil.EMPTY_INT_ARRAY;
 
   @Override
-  public void initContent(DataInputFullStream data, ConstantPool pool) throws IOException {
+  public void initContent(ClassFileReader data, ConstantPool pool) throws IOException {
     int len = data.readUnsignedShort() * 2;
     if (len > 0) {
       myLineInfo = new int[len];
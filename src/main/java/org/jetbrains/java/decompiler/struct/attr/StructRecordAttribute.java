@@ -3,7 +3,7 @@ package org.jetbrains.java.decompiler.struct.attr;
 
 import org.jetbrains.java.decompiler.struct.StructRecordComponent;
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 
 import java.io.IOException;
 import java.util.Arrays;
@@ -22,7 +22,7 @@ public class StructRecordAttribute extends StructGeneralAttribute {
   List<StructRecordComponent> components;
   
   @Override
-  public void initContent(DataInputFullStream data,
+  public void initContent(ClassFileReader data,
                           ConstantPool pool) throws IOException {
     int componentCount = data.readUnsignedShort();
     StructRecordComponent[] components = new StructRecordComponent[componentCount];
@@ -4,9 +4,8 @@ package org.jetbrains.java.decompiler.struct.attr;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.AnnotationExprent;
 import org.jetbrains.java.decompiler.modules.decompiler.exps.TypeAnnotation;
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -16,7 +15,7 @@ public class StructTypeAnnotationAttribute extends StructGeneralAttribute {
   private List<TypeAnnotation> annotations = Collections.emptyList();
 
   @Override
-  public void initContent(DataInputFullStream data, ConstantPool pool) throws IOException {
+  public void initContent(ClassFileReader data, ConstantPool pool) throws IOException {
     int len = data.readUnsignedShort();
     if (len > 0) {
       annotations = new ArrayList<>(len);
@@ -29,7 +28,7 @@ public class StructTypeAnnotationAttribute extends StructGeneralAttribute {
     }
   }
 
-  private static TypeAnnotation parse(DataInputStream data, ConstantPool pool) throws IOException {
+  private static TypeAnnotation parse(ClassFileReader data, ConstantPool pool) throws IOException {
     int targetType = data.readUnsignedByte();
     int target = targetType << 24;
 
@@ -57,12 +56,12 @@ public class StructTypeAnnotationAttribute extends StructGeneralAttribute {
       case TypeAnnotation.TYPE_ARG_METHOD_CALL:
       case TypeAnnotation.TYPE_ARG_CONSTRUCTOR_REF:
       case TypeAnnotation.TYPE_ARG_METHOD_REF:
-        data.skipBytes(3);
+        data.discard(3);
         break;
 
       case TypeAnnotation.LOCAL_VARIABLE:
       case TypeAnnotation.RESOURCE_VARIABLE:
-        data.skipBytes(data.readUnsignedShort() * 6);
+        data.discard(data.readUnsignedShort() * 6);
         break;
 
       case TypeAnnotation.FIELD:
@@ -77,8 +76,7 @@ public class StructTypeAnnotationAttribute extends StructGeneralAttribute {
     int pathLength = data.readUnsignedByte();
     byte[] path = null;
     if (pathLength > 0) {
-      path = new byte[2 * pathLength];
-      data.readFully(path);
+      path = data.read(2 * pathLength);
     }
 
     AnnotationExprent annotation = StructAnnotationAttribute.parseAnnotation(data, pool);
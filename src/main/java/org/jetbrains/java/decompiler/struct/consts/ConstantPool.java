@@ -8,91 +8,71 @@ import org.jetbrains.java.decompiler.struct.gen.FieldDescriptor;
 import org.jetbrains.java.decompiler.struct.gen.MethodDescriptor;
 import org.jetbrains.java.decompiler.struct.gen.NewClassNameBuilder;
 import org.jetbrains.java.decompiler.struct.gen.VarType;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
 
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 @SuppressWarnings("AssignmentToForLoopParameter")
 public class ConstantPool implements NewClassNameBuilder {
   public static final int FIELD = 1;
   public static final int METHOD = 2;
 
-  private final List<PooledConstant> pool;
+  // the entries are only read from the class file when they are first requested
+  private final ClassFileReader data;
+  private final byte[] tags;
+  private final int[] offsets;
+  private final AtomicReferenceArray<PooledConstant> pool;
   private final PoolInterceptor interceptor;
 
-  public ConstantPool(DataInputStream in) throws IOException {
+  public ConstantPool(ClassFileReader in) throws IOException {
     int size = in.readUnsignedShort();
-    pool = new ArrayList<>(size);
-    BitSet[] nextPass = {new BitSet(size), new BitSet(size), new BitSet(size)};
+    data = in.at(0);
+    tags = new byte[size];
+    offsets = new int[size];
+    pool = new AtomicReferenceArray<>(size);
 
-    // first dummy constant
-    pool.add(null);
-
-    // first pass: read the elements
+    // the first entry, as well as the one following a long or double constant, is left empty
     for (int i = 1; i < size; i++) {
       byte tag = (byte)in.readUnsignedByte();
+      tags[i] = tag;
+      offsets[i] = in.position();
 
       switch (tag) {
         case CodeConstants.CONSTANT_Utf8:
-          pool.add(new PrimitiveConstant(CodeConstants.CONSTANT_Utf8, in.readUTF()));
+          in.discard(in.readUnsignedShort());
           break;
 
         case CodeConstants.CONSTANT_Integer:
-          pool.add(new PrimitiveConstant(CodeConstants.CONSTANT_Integer, Integer.valueOf(in.readInt())));
-          break;
-
         case CodeConstants.CONSTANT_Float:
-          pool.add(new PrimitiveConstant(CodeConstants.CONSTANT_Float, in.readFloat()));
+        case CodeConstants.CONSTANT_Fieldref:
+        case CodeConstants.CONSTANT_Methodref:
+        case CodeConstants.CONSTANT_InterfaceMethodref:
+        case CodeConstants.CONSTANT_NameAndType:
+        case CodeConstants.CONSTANT_InvokeDynamic:
+          in.discard(4);
           break;
 
         case CodeConstants.CONSTANT_Long:
-          pool.add(new PrimitiveConstant(CodeConstants.CONSTANT_Long, in.readLong()));
-          pool.add(null);
-          i++;
-          break;
-
         case CodeConstants.CONSTANT_Double:
-          pool.add(new PrimitiveConstant(CodeConstants.CONSTANT_Double, in.readDouble()));
-          pool.add(null);
+          in.discard(8);
           i++;
           break;
 
         case CodeConstants.CONSTANT_Class:
         case CodeConstants.CONSTANT_String:
         case CodeConstants.CONSTANT_MethodType:
-          pool.add(new PrimitiveConstant(tag, in.readUnsignedShort()));
-          nextPass[0].set(i);
-          break;
-
-        case CodeConstants.CONSTANT_NameAndType:
-          pool.add(new LinkConstant(tag, in.readUnsignedShort(), in.readUnsignedShort()));
-          nextPass[0].set(i);
-          break;
-
-        case CodeConstants.CONSTANT_Fieldref:
-        case CodeConstants.CONSTANT_Methodref:
-        case CodeConstants.CONSTANT_InterfaceMethodref:
-        case CodeConstants.CONSTANT_InvokeDynamic:
-          pool.add(new LinkConstant(tag, in.readUnsignedShort(), in.readUnsignedShort()));
-          nextPass[1].set(i);
+          in.discard(2);
           break;
 
         case CodeConstants.CONSTANT_MethodHandle:
-          pool.add(new LinkConstant(tag, in.readUnsignedByte(), in.readUnsignedShort()));
-          nextPass[2].set(i);
+          in.discard(3);
           break;
-      }
-    }
 
-    // resolving complex pool elements
-    for (BitSet pass : nextPass) {
-      int idx = 0;
-      while ((idx = pass.nextSetBit(idx + 1)) > 0) {
-        pool.get(idx).resolveConstant(this);
+        default:
+          tags[i] = 0;
       }
     }
 
@@ -100,13 +80,48 @@ public class ConstantPool implements NewClassNameBuilder {
     interceptor = DecompilerContext.getPoolInterceptor();
   }
 
-  public static void skipPool(DataInputFullStream in) throws IOException {
+  private PooledConstant readConstant(int index) throws IOException {
+    ClassFileReader in = data.at(offsets[index]);
+    byte tag = tags[index];
+
+    switch (tag) {
+      case CodeConstants.CONSTANT_Utf8:
+        return new PrimitiveConstant(CodeConstants.CONSTANT_Utf8, in.readUTF());
+
+      case CodeConstants.CONSTANT_Integer:
+        return new PrimitiveConstant(CodeConstants.CONSTANT_Integer, Integer.valueOf(in.readInt()));
+
+      case CodeConstants.CONSTANT_Float:
+        return new PrimitiveConstant(CodeConstants.CONSTANT_Float, in.readFloat());
+
+      case CodeConstants.CONSTANT_Long:
+        return new PrimitiveConstant(CodeConstants.CONSTANT_Long, in.readLong());
+
+      case CodeConstants.CONSTANT_Double:
+        return new PrimitiveConstant(CodeConstants.CONSTANT_Double, in.readDouble());
+    }
+
+    PooledConstant constant;
+    if (tag == CodeConstants.CONSTANT_Class || tag == CodeConstants.CONSTANT_String || tag == CodeConstants.CONSTANT_MethodType) {
+      constant = new PrimitiveConstant(tag, in.readUnsignedShort());
+    }
+    else if (tag == CodeConstants.CONSTANT_MethodHandle) {
+      constant = new LinkConstant(tag, in.readUnsignedByte(), in.readUnsignedShort());
+    }
+    else {
+      constant = new LinkConstant(tag, in.readUnsignedShort(), in.readUnsignedShort());
+    }
+    constant.resolveConstant(this);
+    return constant;
+  }
+
+  public static void skipPool(ClassFileReader in) throws IOException {
     int size = in.readUnsignedShort();
 
     for (int i = 1; i < size; i++) {
       switch (in.readUnsignedByte()) {
         case CodeConstants.CONSTANT_Utf8:
-          in.readUTF();
+          in.discard(in.readUnsignedShort());
           break;
 
         case CodeConstants.CONSTANT_Integer:
@@ -162,7 +177,44 @@ public class ConstantPool implements NewClassNameBuilder {
   }
 
   public PooledConstant getConstant(int index) {
-    return pool.get(index);
+    PooledConstant constant = pool.get(index);
+
+    if (constant == null && tags[index] != 0) {
+      try {
+        constant = readConstant(index);
+      }
+      catch (IOException ex) {
+        throw new RuntimeException(ex);
+      }
+
+      if (!pool.compareAndSet(index, null, constant)) {
+        constant = pool.get(index);
+      }
+    }
+
+    return constant;
+  }
+
+  /**
+   * @return names of the classes referenced by the pool, renamed like in {@link #getPrimitiveConstant}; for arrays
+   * the names of their element classes
+   */
+  public List<String> getClassNames() {
+    List<String> names = new ArrayList<>();
+    for (int i = 1; i < tags.length; i++) {
+      if (tags[i] == CodeConstants.CONSTANT_Class) {
+        String name = getPrimitiveConstant(i).getString();
+        if (name.startsWith("[")) {
+          VarType type = new VarType(name, true);
+          if (type.type != CodeConstants.TYPE_OBJECT) {
+            continue;
+          }
+          name = type.value;
+        }
+        names.add(name);
+      }
+    }
+    return names;
   }
 
   public PrimitiveConstant getPrimitiveConstant(int index) {
@@ -32,7 +32,7 @@ public class PrimitiveConstant extends PooledConstant {
   @Override
   public void resolveConstant(ConstantPool pool) {
     if (type == CONSTANT_Class || type == CONSTANT_String || type == CONSTANT_MethodType) {
-      value = pool.getPrimitiveConstant(index).getString();
+      value = ((PrimitiveConstant)pool.getConstant(index)).getString();
       initConstant();
     }
   }
@@ -5,18 +5,33 @@ import org.jetbrains.java.decompiler.main.extern.IBytecodeProvider;
 import org.jetbrains.java.decompiler.struct.StructMethod;
 import org.jetbrains.java.decompiler.struct.attr.StructGeneralAttribute;
 import org.jetbrains.java.decompiler.struct.consts.ConstantPool;
-import org.jetbrains.java.decompiler.util.DataInputFullStream;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
+import org.jetbrains.java.decompiler.util.InterpreterUtil;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 public class LazyLoader {
+  // constants take up to this many times the size of their class file encoding once they all have been read
+  private static final int POOL_WEIGHT_FACTOR = 4;
+
   private final Map<String, Link> mapClassLinks = new HashMap<>();
   private final IBytecodeProvider provider;
+  private final long cacheBudget;
+  // recently loaded classes, in access order; guarded by itself
+  private final LinkedHashMap<String, ClassData> cache = new LinkedHashMap<>(16, 0.75f, true);
+  private long cacheWeight;
 
   public LazyLoader(IBytecodeProvider provider) {
+    this(provider, 0);
+  }
+
+  /**
+   * @param cacheBudget approximate number of bytes the loaded class files and constant pools may take
+   */
+  public LazyLoader(IBytecodeProvider provider, long cacheBudget) {
     this.provider = provider;
+    this.cacheBudget = cacheBudget;
   }
 
   public void addClassLink(String classname, Link link) {
@@ -25,103 +40,113 @@ public class LazyLoader {
 
   public void removeClassLink(String classname) {
     mapClassLinks.remove(classname);
+    synchronized (cache) {
+      ClassData data = cache.remove(classname);
+      if (data != null) {
+        cacheWeight -= data.weight;
+      }
+    }
+  }
+
+  /**
+   * @return whether loaded classes are kept, so that reading parts of a class again usually doesn't read its file again
+   */
+  public boolean isCaching() {
+    return cacheBudget > 0;
   }
 
   public Link getClassLink(String classname) {
     return mapClassLinks.get(classname);
   }
 
-  public ConstantPool loadPool(String classname) {
-    try (DataInputFullStream in = getClassStream(classname)) {
-      if (in != null) {
-        in.discard(8);
-        return new ConstantPool(in);
-      }
-
-      return null;
-    }
-    catch (IOException ex) {
-      throw new RuntimeException(ex);
+  /**
+   * Drops all cached classes, e.g. after the pool interceptor has been changed.
+   */
+  public void clearCache() {
+    synchronized (cache) {
+      cache.clear();
+      cacheWeight = 0;
     }
   }
 
-  public byte[] loadBytecode(StructMethod mt, int codeFullLength) {
-    String className = mt.getClassStruct().qualifiedName;
-
-    try (DataInputFullStream in = getClassStream(className)) {
-      if (in != null) {
-        in.discard(8);
-
-        ConstantPool pool = mt.getClassStruct().getPool();
-        if (pool == null) {
-          pool = new ConstantPool(in);
-        }
-        else {
-          ConstantPool.skipPool(in);
-        }
-
-        in.discard(6);
-
-        // interfaces
-        in.discard(in.readUnsignedShort() * 2);
-
-        // fields
-        int size = in.readUnsignedShort();
-        for (int i = 0; i < size; i++) {
-          in.discard(6);
-          skipAttributes(in);
-        }
-
-        // methods
-        size = in.readUnsignedShort();
-        for (int i = 0; i < size; i++) {
-          in.discard(2);
-
-          int nameIndex = in.readUnsignedShort();
-          int descriptorIndex = in.readUnsignedShort();
-
-          String[] values = pool.getClassElement(ConstantPool.METHOD, className, nameIndex, descriptorIndex);
-          if (!mt.getName().equals(values[0]) || !mt.getDescriptor().equals(values[1])) {
-            skipAttributes(in);
-            continue;
-          }
-
-          int attrSize = in.readUnsignedShort();
-          for (int j = 0; j < attrSize; j++) {
-            int attrNameIndex = in.readUnsignedShort();
-            String attrName = pool.getPrimitiveConstant(attrNameIndex).getString();
-            if (!StructGeneralAttribute.ATTRIBUTE_CODE.getName().equals(attrName)) {
-              in.discard(in.readInt());
-              continue;
-            }
+  public ConstantPool loadPool(String classname) {
+    ClassData data = getClassData(classname);
+    return data == null ? null : data.pool;
+  }
 
-            in.discard(12);
+  /**
+   * @return reader of the class file, backed by the cached bytes
+   */
+  public ClassFileReader loadClassFile(String classname) {
+    ClassData data = getClassData(classname);
+    return data == null ? null : new ClassFileReader(data.bytes);
+  }
 
-            return in.read(codeFullLength);
-          }
+  /**
+   * @return reader of the code and exception table of the method, backed by the class file bytes
+   */
+  public ClassFileReader loadBytecode(StructMethod mt, int codeFullLength) {
+    ClassData data = getClassData(mt.getClassStruct().qualifiedName);
+    if (data != null) {
+      Integer offset = data.codeOffsets.get(InterpreterUtil.makeUniqueKey(mt.getName(), mt.getDescriptor()));
+      if (offset != null) {
+        return new ClassFileReader(data.bytes, offset, codeFullLength);
+      }
+    }
+    return null;
+  }
 
-          break;
-        }
+  private ClassData getClassData(String classname) {
+    synchronized (cache) {
+      ClassData data = cache.get(classname);
+      if (data != null) {
+        return data;
       }
+    }
 
-      return null;
+    ClassData data;
+    try {
+      byte[] bytes = getClassBytes(classname);
+      if (bytes == null) {
+        return null;
+      }
+      data = new ClassData(classname, bytes);
     }
     catch (IOException ex) {
       throw new RuntimeException(ex);
     }
+
+    if (data.weight <= cacheBudget) {
+      synchronized (cache) {
+        ClassData previous = cache.put(classname, data);
+        cacheWeight += data.weight - (previous == null ? 0 : previous.weight);
+
+        Iterator<ClassData> iterator = cache.values().iterator();
+        while (cacheWeight > cacheBudget && iterator.hasNext()) {
+          cacheWeight -= iterator.next().weight;
+          iterator.remove();
+        }
+      }
+    }
+
+    return data;
+  }
+
+  public ClassFileReader getClassReader(String externalPath, String internalPath) throws IOException {
+    return new ClassFileReader(provider.getBytecodeBuffer(externalPath, internalPath));
   }
 
-  public DataInputFullStream getClassStream(String externalPath, String internalPath) throws IOException {
-    byte[] bytes = provider.getBytecode(externalPath, internalPath);
-    return new DataInputFullStream(bytes);
+  public byte[] getClassBytes(String qualifiedClassName) throws IOException {
+    Link link = mapClassLinks.get(qualifiedClassName);
+    return link == null ? null : provider.getBytecode(link.externalPath, link.internalPath);
   }
 
-  public DataInputFullStream getClassStream(String qualifiedClassName) throws IOException {
+  public ClassFileReader getClassReader(String qualifiedClassName) throws IOException {
     Link link = mapClassLinks.get(qualifiedClassName);
-    return link == null ? null : getClassStream(link.externalPath, link.internalPath);
+    return link == null ? null : getClassReader(link.externalPath, link.internalPath);
   }
 
-  public static void skipAttributes(DataInputFullStream in) throws IOException {
+  public static void skipAttributes(ClassFileReader in) throws IOException {
     int length = in.readUnsignedShort();
     for (int i = 0; i < length; i++) {
       in.discard(2);
@@ -129,6 +154,59 @@ public class LazyLoader {
     }
   }
 
+  /**
+   * Class file with its parsed constant pool and the offsets of the method bodies in it.
+   */
+  private static class ClassData {
+    private final byte[] bytes;
+    private final ConstantPool pool;
+    // method key -> offset of the code in the Code attribute
+    private final Map<String, Integer> codeOffsets = new HashMap<>();
+    private final long weight;
+
+    private ClassData(String className, byte[] bytes) throws IOException {
+      this.bytes = bytes;
+
+      ClassFileReader in = new ClassFileReader(bytes);
+      in.discard(8);
+      pool = new ConstantPool(in);
+      weight = bytes.length + (long)POOL_WEIGHT_FACTOR * in.position();
+
+      in.discard(6);
+
+      // interfaces
+      in.discard(in.readUnsignedShort() * 2);
+
+      // fields
+      int size = in.readUnsignedShort();
+      for (int i = 0; i < size; i++) {
+        in.discard(6);
+        skipAttributes(in);
+      }
+
+      // methods
+      size = in.readUnsignedShort();
+      for (int i = 0; i < size; i++) {
+        in.discard(2);
+
+        int nameIndex = in.readUnsignedShort();
+        int descriptorIndex = in.readUnsignedShort();
+        String[] values = pool.getClassElement(ConstantPool.METHOD, className, nameIndex, descriptorIndex);
+
+        int attrSize = in.readUnsignedShort();
+        for (int j = 0; j < attrSize; j++) {
+          int attrNameIndex = in.readUnsignedShort();
+          int length = in.readInt();
+          String attrName = pool.getPrimitiveConstant(attrNameIndex).getString();
+          if (StructGeneralAttribute.ATTRIBUTE_CODE.getName().equals(attrName)) {
+            codeOffsets.put(InterpreterUtil.makeUniqueKey(values[0], values[1]), in.position() + 8);
+          }
+          in.discard(length);
+        }
+      }
+    }
+  }
+
   public static class Link {
     public final String externalPath;
     public final String internalPath;
@@ -4,7 +4,7 @@ package org.jetbrains.java.decompiler.struct.match;
 import org.jetbrains.java.decompiler.struct.match.IMatchable.MatchProperties;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
@@ -32,7 +32,7 @@ public class MatchNode {
   public static final int MATCHNODE_EXPRENT = 1;
 
   private final int type;
-  private final Map<MatchProperties, RuleValue> rules = new HashMap<>();
+  private final Map<MatchProperties, RuleValue> rules = new EnumMap<>(MatchProperties.class);
   private final List<MatchNode> children = new ArrayList<>();
 
   public MatchNode(int type) {
@@ -0,0 +1,182 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads big-endian class file data from a byte array or buffer, which may be a view of a memory-mapped archive.
+ * The reader keeps its own position and only uses absolute reads, so {@link #at} hands out another reader of the same
+ * bytes without copying them.
+ */
+public class ClassFileReader {
+  private final ByteBuffer buffer;
+  private final int start;
+  private final int end;
+  private int position;
+
+  public ClassFileReader(byte[] bytes) {
+    this(ByteBuffer.wrap(bytes), 0, bytes.length);
+  }
+
+  public ClassFileReader(byte[] bytes, int offset, int length) {
+    this(ByteBuffer.wrap(bytes), offset, offset + length);
+  }
+
+  /**
+   * Reads the remaining bytes of the buffer, without changing its position.
+   */
+  public ClassFileReader(ByteBuffer buffer) {
+    this(buffer.duplicate().order(ByteOrder.BIG_ENDIAN), buffer.position(), buffer.limit());
+  }
+
+  private ClassFileReader(ByteBuffer buffer, int start, int end) {
+    this.buffer = buffer;
+    this.start = start;
+    this.end = end;
+    this.position = start;
+  }
+
+  /**
+   * @return number of bytes read so far
+   */
+  public int position() {
+    return position - start;
+  }
+
+  public int available() {
+    return end - position;
+  }
+
+  private int advance(int n) throws IOException {
+    if (n < 0 || n > end - position) {
+      throw new EOFException();
+    }
+    int p = position;
+    position += n;
+    return p;
+  }
+
+  public int readUnsignedByte() throws IOException {
+    return buffer.get(advance(1)) & 0xFF;
+  }
+
+  public int readUnsignedShort() throws IOException {
+    return buffer.getShort(advance(2)) & 0xFFFF;
+  }
+
+  public int readShort() throws IOException {
+    return buffer.getShort(advance(2));
+  }
+
+  public int readByte() throws IOException {
+    return buffer.get(advance(1));
+  }
+
+  public int readInt() throws IOException {
+    return buffer.getInt(advance(4));
+  }
+
+  public long readLong() throws IOException {
+    return buffer.getLong(advance(8));
+  }
+
+  public float readFloat() throws IOException {
+    return buffer.getFloat(advance(4));
+  }
+
+  public double readDouble() throws IOException {
+    return buffer.getDouble(advance(8));
+  }
+
+  /**
+   * Reads a string in the modified UTF-8 encoding of {@code CONSTANT_Utf8}, like {@link java.io.DataInput#readUTF}.
+   */
+  public String readUTF() throws IOException {
+    int length = readUnsignedShort();
+    int p = advance(length);
+    int limit = p + length;
+
+    int ascii = p;
+    while (ascii < limit && buffer.get(ascii) >= 0) {
+      ascii++;
+    }
+    if (ascii == limit) {
+      if (buffer.hasArray()) {
+        return new String(buffer.array(), buffer.arrayOffset() + p, length, StandardCharsets.ISO_8859_1);
+      }
+      byte[] bytes = new byte[length];
+      ByteBuffer view = buffer.duplicate();
+      view.position(p);
+      view.get(bytes);
+      return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    char[] chars = new char[length];
+    int count = 0;
+    while (p < limit) {
+      int c = buffer.get(p++) & 0xFF;
+      switch (c >> 4) {
+        case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
+          chars[count++] = (char)c;
+          break;
+        case 12: case 13: {
+          if (p >= limit) {
+            throw new UTFDataFormatException("malformed input: partial character at end");
+          }
+          int c2 = buffer.get(p++);
+          if ((c2 & 0xC0) != 0x80) {
+            throw new UTFDataFormatException("malformed input around byte " + (p - 1 - start));
+          }
+          chars[count++] = (char)(((c & 0x1F) << 6) | (c2 & 0x3F));
+          break;
+        }
+        case 14: {
+          if (p + 1 >= limit) {
+            throw new UTFDataFormatException("malformed input: partial character at end");
+          }
+          int c2 = buffer.get(p++);
+          int c3 = buffer.get(p++);
+          if ((c2 & 0xC0) != 0x80 || (c3 & 0xC0) != 0x80) {
+            throw new UTFDataFormatException("malformed input around byte " + (p - 2 - start));
+          }
+          chars[count++] = (char)(((c & 0x0F) << 12) | ((c2 & 0x3F) << 6) | (c3 & 0x3F));
+          break;
+        }
+        default:
+          throw new UTFDataFormatException("malformed input around byte " + (p - 1 - start));
+      }
+    }
+
+    return new String(chars, 0, count);
+  }
+
+  /**
+   * @return copy of the next {@code n} bytes
+   */
+  public byte[] read(int n) throws IOException {
+    int p = advance(n);
+    byte[] bytes = new byte[n];
+    ByteBuffer view = buffer.duplicate();
+    view.position(p);
+    view.get(bytes);
+    return bytes;
+  }
+
+  public void discard(int n) throws IOException {
+    advance(n);
+  }
+
+  /**
+   * @return reader of the same bytes as this one, positioned the given number of bytes from their start
+   */
+  public ClassFileReader at(int position) {
+    ClassFileReader reader = new ClassFileReader(buffer, start, end);
+    reader.position = start + position;
+    return reader;
+  }
+}
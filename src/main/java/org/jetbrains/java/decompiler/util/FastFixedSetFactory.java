@@ -5,29 +5,25 @@ import java.util.*;
 
 public class FastFixedSetFactory<E> {
 
-  private final VBStyleCollection<int[], E> colValuesInternal = new VBStyleCollection<>();
+  // element -> bit index, the word is index / 64
+  private final Map<E, Integer> indices = new HashMap<>();
+
+  private final List<E> elements;
 
   private final int dataLength;
 
   public FastFixedSetFactory(Collection<E> set) {
 
-    dataLength = set.size() / 32 + 1;
+    dataLength = (set.size() >>> 6) + 1;
 
-    int index = 0;
-    int mask = 1;
+    elements = new ArrayList<>(set.size());
 
     for (E element : set) {
-
-      int block = index / 32;
-
-      if (index % 32 == 0) {
-        mask = 1;
+      Integer index = indices.get(element);
+      if (index == null) {
+        indices.put(element, elements.size());
+        elements.add(element);
       }
-
-      colValuesInternal.putWithKey(new int[]{block, mask}, element);
-
-      index++;
-      mask <<= 1;
     }
   }
 
@@ -39,50 +35,53 @@ public class FastFixedSetFactory<E> {
     return dataLength;
   }
 
-  private VBStyleCollection<int[], E> getInternalValuesCollection() {
-    return colValuesInternal;
+  private int getIndex(E element) {
+    return indices.get(element);
+  }
+
+  private E getElement(int index) {
+    return elements.get(index);
+  }
+
+  private int size() {
+    return elements.size();
   }
 
   public static final class FastFixedSet<E> implements Iterable<E> {
 
     private final FastFixedSetFactory<E> factory;
 
-    private final VBStyleCollection<int[], E> colValuesInternal;
-
-    private int[] data;
+    private long[] data;
 
 
     private FastFixedSet(FastFixedSetFactory<E> factory) {
       this.factory = factory;
-      this.colValuesInternal = factory.getInternalValuesCollection();
-      this.data = new int[factory.getDataLength()];
+      this.data = new long[factory.getDataLength()];
     }
 
     public FastFixedSet<E> getCopy() {
 
       FastFixedSet<E> copy = new FastFixedSet<>(factory);
-
-      int arrlength = data.length;
-      int[] cpdata = Arrays.copyOf(data, arrlength);
-      copy.setData(cpdata);
+      copy.setData(data.clone());
 
       return copy;
     }
 
     public void setAllElements() {
 
-      int[] lastindex = colValuesInternal.get(colValuesInternal.size() - 1);
+      int size = factory.size();
+      int full = size >>> 6;
 
-      for (int i = lastindex[0] - 1; i >= 0; i--) {
-        data[i] = 0xFFFFFFFF;
-      }
+      Arrays.fill(data, 0, full, -1L);
 
-      data[lastindex[0]] = lastindex[1] | (lastindex[1] - 1);
+      if ((size & 0x3F) != 0) {
+        data[full] = (1L << size) - 1;
+      }
     }
 
     public void add(E element) {
-      int[] index = colValuesInternal.getWithKey(element);
-      data[index[0]] |= index[1];
+      int index = factory.getIndex(element);
+      data[index >>> 6] |= 1L << index;
     }
 
     public void addAll(Collection<E> set) {
@@ -92,20 +91,20 @@ public class FastFixedSetFactory<E> {
     }
 
     public void remove(E element) {
-      int[] index = colValuesInternal.getWithKey(element);
-      data[index[0]] &= ~index[1];
+      int index = factory.getIndex(element);
+      data[index >>> 6] &= ~(1L << index);
     }
 
     public boolean contains(E element) {
-      int[] index = colValuesInternal.getWithKey(element);
-      return (data[index[0]] & index[1]) != 0;
+      int index = factory.getIndex(element);
+      return (data[index >>> 6] & (1L << index)) != 0;
     }
 
     public boolean contains(FastFixedSet<E> set) {
-      int[] extdata = set.getData();
-      int[] intdata = data;
+      long[] extdata = set.getData();
+      long[] intdata = data;
 
-      for (int i = intdata.length - 1; i >= 0; i--) {
+      for (int i = 0; i < intdata.length; i++) {
         if ((extdata[i] & ~intdata[i]) != 0) {
           return false;
         }
@@ -115,28 +114,28 @@ public class FastFixedSetFactory<E> {
     }
 
     public void union(FastFixedSet<E> set) {
-      int[] extdata = set.getData();
-      int[] intdata = data;
+      long[] extdata = set.getData();
+      long[] intdata = data;
 
-      for (int i = intdata.length - 1; i >= 0; i--) {
+      for (int i = 0; i < intdata.length; i++) {
         intdata[i] |= extdata[i];
       }
     }
 
     public void intersection(FastFixedSet<E> set) {
-      int[] extdata = set.getData();
-      int[] intdata = data;
+      long[] extdata = set.getData();
+      long[] intdata = data;
 
-      for (int i = intdata.length - 1; i >= 0; i--) {
+      for (int i = 0; i < intdata.length; i++) {
         intdata[i] &= extdata[i];
       }
     }
 
     public void complement(FastFixedSet<E> set) {
-      int[] extdata = set.getData();
-      int[] intdata = data;
+      long[] extdata = set.getData();
+      long[] intdata = data;
 
-      for (int i = intdata.length - 1; i >= 0; i--) {
+      for (int i = 0; i < intdata.length; i++) {
         intdata[i] &= ~extdata[i];
       }
     }
@@ -146,22 +145,13 @@ public class FastFixedSetFactory<E> {
       if (o == this) return true;
       if (!(o instanceof FastFixedSet)) return false;
 
-      int[] extdata = ((FastFixedSet)o).getData();
-      int[] intdata = data;
-
-      for (int i = intdata.length - 1; i >= 0; i--) {
-        if (intdata[i] != extdata[i]) {
-          return false;
-        }
-      }
-
-      return true;
+      return Arrays.equals(data, ((FastFixedSet)o).getData());
     }
 
     public boolean isEmpty() {
-      int[] intdata = data;
+      long[] intdata = data;
 
-      for (int i = intdata.length - 1; i >= 0; i--) {
+      for (int i = 0; i < intdata.length; i++) {
         if (intdata[i] != 0) {
           return false;
         }
@@ -181,18 +171,13 @@ public class FastFixedSetFactory<E> {
 
     private <T extends Collection<E>> T toPlainCollection(T cl) {
 
-      int[] intdata = data;
+      long[] intdata = data;
       for (int bindex = 0; bindex < intdata.length; bindex++) {
-        int block = intdata[bindex];
-        if (block != 0) {
-          int index = bindex << 5; // * 32
-          for (int i = 31; i >= 0; i--) {
-            if ((block & 1) != 0) {
-              cl.add(colValuesInternal.getKey(index));
-            }
-            index++;
-            block >>>= 1;
-          }
+        long block = intdata[bindex];
+        while (block != 0) {
+          int index = (bindex << 6) + Long.numberOfTrailingZeros(block);
+          cl.add(factory.getElement(index));
+          block &= block - 1;
         }
       }
 
@@ -203,20 +188,18 @@ public class FastFixedSetFactory<E> {
 
       StringBuilder buffer = new StringBuilder("{");
 
-      int[] intdata = data;
+      long[] intdata = data;
       boolean first = true;
 
-      for (int i = colValuesInternal.size() - 1; i >= 0; i--) {
-        int[] index = colValuesInternal.get(i);
-
-        if ((intdata[index[0]] & index[1]) != 0) {
+      for (int i = factory.size() - 1; i >= 0; i--) {
+        if ((intdata[i >>> 6] & (1L << i)) != 0) {
           if (first) {
             first = false;
           }
           else {
             buffer.append(",");
           }
-          buffer.append(colValuesInternal.getKey(i));
+          buffer.append(factory.getElement(i));
         }
       }
 
@@ -225,11 +208,11 @@ public class FastFixedSetFactory<E> {
       return buffer.toString();
     }
 
-    private int[] getData() {
+    private long[] getData() {
       return data;
     }
 
-    private void setData(int[] data) {
+    private void setData(long[] data) {
       this.data = data;
     }
 
@@ -240,46 +223,36 @@ public class FastFixedSetFactory<E> {
 
   public static final class FastFixedSetIterator<E> implements Iterator<E> {
 
-    private final VBStyleCollection<int[], E> colValuesInternal;
-    private final int[] data;
+    private final FastFixedSetFactory<E> factory;
+    private final long[] data;
     private final int size;
 
     private int pointer = -1;
     private int next_pointer = -1;
 
     private FastFixedSetIterator(FastFixedSet<E> set) {
-      colValuesInternal = set.getFactory().getInternalValuesCollection();
+      factory = set.getFactory();
       data = set.getData();
-      size = colValuesInternal.size();
+      size = factory.size();
     }
 
     private int getNextIndex(int index) {
 
       index++;
-      int ret = index;
-      int bindex = index / 32;
-      int dindex = index % 32;
-
-      while (bindex < data.length) {
-        int block = data[bindex];
-
-        if (block != 0) {
-          block >>>= dindex;
-          while (dindex < 32) {
-            if ((block & 1) != 0) {
-              return ret;
-            }
-            block >>>= 1;
-            dindex++;
-            ret++;
+      int bindex = index >>> 6;
+
+      if (bindex < data.length) {
+        long block = data[bindex] & (-1L << index);
+
+        while (true) {
+          if (block != 0) {
+            return (bindex << 6) + Long.numberOfTrailingZeros(block);
           }
+          if (++bindex == data.length) {
+            break;
+          }
+          block = data[bindex];
         }
-        else {
-          ret += (32 - dindex);
-        }
-
-        dindex = 0;
-        bindex++;
       }
 
       return -1;
@@ -304,13 +277,12 @@ public class FastFixedSetFactory<E> {
       }
 
       next_pointer = -1;
-      return pointer < size ? colValuesInternal.getKey(pointer) : null;
+      return pointer < size ? factory.getElement(pointer) : null;
     }
 
     @Override
     public void remove() {
-      int[] index = colValuesInternal.get(pointer);
-      data[index[0]] &= ~index[1];
+      data[pointer >>> 6] &= ~(1L << pointer);
     }
   }
-}
\ No newline at end of file
+}
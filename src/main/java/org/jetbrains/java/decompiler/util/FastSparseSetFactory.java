@@ -5,64 +5,43 @@ import java.util.*;
 
 public class FastSparseSetFactory<E> {
 
-  private final VBStyleCollection<int[], E> colValuesInternal = new VBStyleCollection<>();
+  // element -> bit index, the word is index / 64
+  private final Map<E, Integer> indices = new HashMap<>();
 
-  private int lastBlock;
-
-  private int lastMask;
+  private final List<E> elements;
 
   public FastSparseSetFactory(Collection<? extends E> set) {
 
-    int block = -1;
-    int mask = -1;
-    int index = 0;
+    elements = new ArrayList<>(set.size());
 
     for (E element : set) {
-
-      block = index / 32;
-
-      if (index % 32 == 0) {
-        mask = 1;
-      }
-      else {
-        mask <<= 1;
-      }
-
-      colValuesInternal.putWithKey(new int[]{block, mask}, element);
-
-      index++;
+      getIndex(element);
     }
-
-    lastBlock = block;
-    lastMask = mask;
   }
 
-  private int[] addElement(E element) {
-
-    if (lastMask == -1 || lastMask == 0x80000000) {
-      lastMask = 1;
-      lastBlock++;
+  /**
+   * @return bit index of the element; an unknown element is registered with the next free index
+   */
+  private int getIndex(E element) {
+    Integer index = indices.get(element);
+    if (index == null) {
+      index = elements.size();
+      indices.put(element, index);
+      elements.add(element);
     }
-    else {
-      lastMask <<= 1;
-    }
-
-    int[] pointer = new int[]{lastBlock, lastMask};
-    colValuesInternal.putWithKey(pointer, element);
-
-    return pointer;
+    return index;
   }
 
-  public FastSparseSet<E> spawnEmptySet() {
-    return new FastSparseSet<>(this);
+  private E getElement(int index) {
+    return elements.get(index);
   }
 
-  public int getLastBlock() {
-    return lastBlock;
+  private int size() {
+    return elements.size();
   }
 
-  private VBStyleCollection<int[], E> getInternalValuesCollection() {
-    return colValuesInternal;
+  public FastSparseSet<E> spawnEmptySet() {
+    return new FastSparseSet<>(this, new long[(elements.size() + 63) >>> 6]);
   }
 
 
@@ -71,177 +50,102 @@ public class FastSparseSetFactory<E> {
 
     private final FastSparseSetFactory<E> factory;
 
-    private final VBStyleCollection<int[], E> colValuesInternal;
-
-    private int[] data;
-    private int[] next;
+    // copies share the words until one of them is modified
+    private long[] data;
+    private boolean shared;
 
-    private FastSparseSet(FastSparseSetFactory<E> factory) {
+    private FastSparseSet(FastSparseSetFactory<E> factory, long[] data) {
       this.factory = factory;
-      this.colValuesInternal = factory.getInternalValuesCollection();
-
-      int length = factory.getLastBlock() + 1;
-      this.data = new int[length];
-      this.next = new int[length];
-    }
-
-    private FastSparseSet(FastSparseSetFactory<E> factory, int[] data, int[] next) {
-      this.factory = factory;
-      this.colValuesInternal = factory.getInternalValuesCollection();
-
       this.data = data;
-      this.next = next;
     }
 
     public FastSparseSet<E> getCopy() {
-      return new FastSparseSet<>(factory, data.clone(), next.clone());
+      FastSparseSet<E> copy = new FastSparseSet<>(factory, data);
+      copy.shared = shared = true;
+      return copy;
     }
 
-    private int[] ensureCapacity(int index) {
-
-      int newlength = data.length;
-      if (newlength == 0) {
-        newlength = 1;
+    /**
+     * @return words of this set which may be modified in place, at least the given number of them
+     */
+    private long[] getWritableData(int length) {
+      if (data.length < length) {
+        data = Arrays.copyOf(data, Math.max(length, data.length * 2));
+        shared = false;
       }
-
-      while (newlength <= index) {
-        newlength *= 2;
+      else if (shared) {
+        data = data.clone();
+        shared = false;
       }
-
-      data = Arrays.copyOf(data, newlength);
-      next = Arrays.copyOf(next, newlength);
-
       return data;
     }
 
     public void add(E element) {
-      int[] index = colValuesInternal.getWithKey(element);
-
-      if (index == null) {
-        index = factory.addElement(element);
-      }
-
-      int block = index[0];
-      if (block >= data.length) {
-        ensureCapacity(block);
-      }
-
-      data[block] |= index[1];
-
-      changeNext(next, block, next[block], block);
+      int index = factory.getIndex(element);
+      int word = index >>> 6;
+      getWritableData(word + 1)[word] |= 1L << index;
     }
 
     public void remove(E element) {
-      int[] index = colValuesInternal.getWithKey(element);
-
-      if (index == null) {
-        index = factory.addElement(element);
+      int index = factory.getIndex(element);
+      int word = index >>> 6;
+      if (word < data.length && (data[word] & (1L << index)) != 0) {
+        getWritableData(0)[word] &= ~(1L << index);
       }
-
-      int block = index[0];
-      if (block < data.length) {
-        data[block] &= ~index[1];
-
-        if (data[block] == 0) {
-          changeNext(next, block, block, next[block]);
-        }
-      }
-    }
-
-    public boolean contains(E element) {
-      int[] index = colValuesInternal.getWithKey(element);
-
-      if (index == null) {
-        index = factory.addElement(element);
-      }
-
-      return index[0] < data.length && ((data[index[0]] & index[1]) != 0);
     }
 
-    private void setNext() {
-
-      int link = 0;
-      for (int i = data.length - 1; i >= 0; i--) {
-        next[i] = link;
-        if (data[i] != 0) {
-          link = i;
-        }
+    private void removeIndex(int index) {
+      int word = index >>> 6;
+      if (word < data.length) {
+        getWritableData(0)[word] &= ~(1L << index);
       }
     }
 
-    private static void changeNext(int[] arrnext, int key, int oldnext, int newnext) {
-      for (int i = key - 1; i >= 0; i--) {
-        if (arrnext[i] == oldnext) {
-          arrnext[i] = newnext;
-        }
-        else {
-          break;
-        }
-      }
+    public boolean contains(E element) {
+      int index = factory.getIndex(element);
+      int word = index >>> 6;
+      return word < data.length && (data[word] & (1L << index)) != 0;
     }
 
     public void union(FastSparseSet<E> set) {
+      long[] extdata = set.getData();
+      if (extdata == data) {
+        return; // a copy of this set which hasn't been changed yet
+      }
 
-      int[] extdata = set.getData();
-      int[] extnext = set.getNext();
-      int[] intdata = data;
-      int intlength = intdata.length;
-
-      int pointer = 0;
-      do {
-        if (pointer >= intlength) {
-          intdata = ensureCapacity(extdata.length - 1);
-        }
-
-        boolean nextrec = (intdata[pointer] == 0);
-        intdata[pointer] |= extdata[pointer];
-
-        if (nextrec) {
-          changeNext(next, pointer, next[pointer], pointer);
-        }
+      long[] intdata = getWritableData(extdata.length);
 
-        pointer = extnext[pointer];
+      for (int i = 0; i < extdata.length; i++) {
+        intdata[i] |= extdata[i];
       }
-      while (pointer != 0);
     }
 
     public void intersection(FastSparseSet<E> set) {
-      int[] extdata = set.getData();
-      int[] intdata = data;
+      long[] extdata = set.getData();
+      if (extdata == data) {
+        return; // a copy of this set which hasn't been changed yet
+      }
+
+      long[] intdata = getWritableData(0);
 
       int minlength = Math.min(extdata.length, intdata.length);
 
-      for (int i = minlength - 1; i >= 0; i--) {
+      for (int i = 0; i < minlength; i++) {
         intdata[i] &= extdata[i];
       }
 
-      for (int i = intdata.length - 1; i >= minlength; i--) {
-        intdata[i] = 0;
-      }
-
-      setNext();
+      Arrays.fill(intdata, minlength, intdata.length, 0L);
     }
 
     public void complement(FastSparseSet<E> set) {
+      long[] extdata = set.getData();
+      long[] intdata = getWritableData(0);
 
-      int[] extdata = set.getData();
-      int[] intdata = data;
-      int extlength = extdata.length;
-
-      int pointer = 0;
-      do {
-        if (pointer >= extlength) {
-          break;
-        }
-
-        intdata[pointer] &= ~extdata[pointer];
-        if (intdata[pointer] == 0) {
-          changeNext(next, pointer, pointer, next[pointer]);
-        }
+      int minlength = Math.min(extdata.length, intdata.length);
 
-        pointer = next[pointer];
+      for (int i = 0; i < minlength; i++) {
+        intdata[i] &= ~extdata[i];
       }
-      while (pointer != 0);
     }
 
 
@@ -249,21 +153,25 @@ public class FastSparseSetFactory<E> {
       if (o == this) return true;
       if (!(o instanceof FastSparseSet)) return false;
 
-      int[] longdata = ((FastSparseSet)o).getData();
-      int[] shortdata = data;
+      long[] longdata = ((FastSparseSet)o).getData();
+      long[] shortdata = data;
+
+      if (longdata == shortdata) {
+        return true;
+      }
 
       if (data.length > longdata.length) {
         shortdata = longdata;
         longdata = data;
       }
 
-      for (int i = shortdata.length - 1; i >= 0; i--) {
+      for (int i = 0; i < shortdata.length; i++) {
         if (shortdata[i] != longdata[i]) {
           return false;
         }
       }
 
-      for (int i = longdata.length - 1; i >= shortdata.length; i--) {
+      for (int i = shortdata.length; i < longdata.length; i++) {
         if (longdata[i] != 0) {
           return false;
         }
@@ -272,25 +180,21 @@ public class FastSparseSetFactory<E> {
       return true;
     }
 
+    /**
+     * @return 0 for an empty set, 1 for a single element and 2 for anything larger
+     */
     public int getCardinality() {
 
       boolean found = false;
-      int[] intdata = data;
+      long[] intdata = data;
 
-      for (int i = intdata.length - 1; i >= 0; i--) {
-        int block = intdata[i];
+      for (int i = 0; i < intdata.length; i++) {
+        long block = intdata[i];
         if (block != 0) {
-          if (found) {
+          if (found || (block & (block - 1)) != 0) {
             return 2;
           }
-          else {
-            if ((block & (block - 1)) == 0) {
-              found = true;
-            }
-            else {
-              return 2;
-            }
-          }
+          found = true;
         }
       }
 
@@ -298,7 +202,15 @@ public class FastSparseSetFactory<E> {
     }
 
     public boolean isEmpty() {
-      return data.length == 0 || (next[0] == 0 && data[0] == 0);
+      long[] intdata = data;
+
+      for (int i = 0; i < intdata.length; i++) {
+        if (intdata[i] != 0) {
+          return false;
+        }
+      }
+
+      return true;
     }
 
     @Override
@@ -309,18 +221,12 @@ public class FastSparseSetFactory<E> {
     public Set<E> toPlainSet() {
       HashSet<E> set = new HashSet<>();
 
-      int[] intdata = data;
-
-      int size = data.length * 32;
-      if (size > colValuesInternal.size()) {
-        size = colValuesInternal.size();
-      }
-
-      for (int i = size - 1; i >= 0; i--) {
-        int[] index = colValuesInternal.get(i);
-
-        if ((intdata[index[0]] & index[1]) != 0) {
-          set.add(colValuesInternal.getKey(i));
+      long[] intdata = data;
+      for (int bindex = 0; bindex < intdata.length; bindex++) {
+        long block = intdata[bindex];
+        while (block != 0) {
+          set.add(factory.getElement((bindex << 6) + Long.numberOfTrailingZeros(block)));
+          block &= block - 1;
         }
       }
 
@@ -331,14 +237,10 @@ public class FastSparseSetFactory<E> {
       return toPlainSet().toString();
     }
 
-    private int[] getData() {
+    private long[] getData() {
       return data;
     }
 
-    private int[] getNext() {
-      return next;
-    }
-
     public FastSparseSetFactory<E> getFactory() {
       return factory;
     }
@@ -346,46 +248,37 @@ public class FastSparseSetFactory<E> {
 
   public static final class FastSparseSetIterator<E> implements Iterator<E> {
 
-    private final VBStyleCollection<int[], E> colValuesInternal;
-    private final int[] data;
-    private final int[] next;
+    private final FastSparseSet<E> set;
+    private final FastSparseSetFactory<E> factory;
+    private final long[] data;
     private final int size;
 
     private int pointer = -1;
     private int next_pointer = -1;
 
     private FastSparseSetIterator(FastSparseSet<E> set) {
-      colValuesInternal = set.getFactory().getInternalValuesCollection();
+      this.set = set;
+      factory = set.getFactory();
       data = set.getData();
-      next = set.getNext();
-      size = colValuesInternal.size();
+      size = factory.size();
     }
 
     private int getNextIndex(int index) {
 
       index++;
-      int bindex = index >>> 5;
-      int dindex = index & 0x1F;
+      int bindex = index >>> 6;
 
-      while (bindex < data.length) {
-        int block = data[bindex];
+      if (bindex < data.length) {
+        long block = data[bindex] & (-1L << index);
 
-        if (block != 0) {
-          block >>>= dindex;
-          while (dindex < 32) {
-            if ((block & 1) != 0) {
-              return (bindex << 5) + dindex;
-            }
-            block >>>= 1;
-            dindex++;
+        while (true) {
+          if (block != 0) {
+            return (bindex << 6) + Long.numberOfTrailingZeros(block);
           }
-        }
-
-        dindex = 0;
-        bindex = next[bindex];
-
-        if (bindex == 0) {
-          break;
+          if (++bindex == data.length) {
+            break;
+          }
+          block = data[bindex];
         }
       }
 
@@ -411,14 +304,12 @@ public class FastSparseSetFactory<E> {
       }
 
       next_pointer = -1;
-      return pointer < size ? colValuesInternal.getKey(pointer) : null;
+      return pointer < size ? factory.getElement(pointer) : null;
     }
 
     @Override
     public void remove() {
-      int[] index = colValuesInternal.get(pointer);
-      data[index[0]] &= ~index[1];
+      set.removeIndex(pointer);
     }
   }
 }
-
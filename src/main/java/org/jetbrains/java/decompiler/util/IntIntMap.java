@@ -0,0 +1,178 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.util;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from int to int with open addressing, storing keys and values in plain arrays
+ * instead of boxing every entry.
+ */
+public final class IntIntMap {
+  public interface EntryConsumer {
+    void accept(int key, int value);
+  }
+
+  private static final int MIN_CAPACITY = 8;
+
+  private int[] keys;
+  private int[] values;
+  private boolean[] used;
+  private int size;
+
+  public IntIntMap() {
+    allocate(MIN_CAPACITY);
+  }
+
+  public IntIntMap(IntIntMap other) {
+    keys = other.keys.clone();
+    values = other.values.clone();
+    used = other.used.clone();
+    size = other.size;
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    values = new int[capacity];
+    used = new boolean[capacity];
+  }
+
+  static int hash(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private int indexOf(int key) {
+    int mask = keys.length - 1;
+    int index = hash(key) & mask;
+    while (used[index]) {
+      if (keys[index] == key) {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+    return -index - 1;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean containsKey(int key) {
+    return indexOf(key) >= 0;
+  }
+
+  public int get(int key, int defaultValue) {
+    int index = indexOf(key);
+    return index >= 0 ? values[index] : defaultValue;
+  }
+
+  public void put(int key, int value) {
+    int index = indexOf(key);
+    if (index >= 0) {
+      values[index] = value;
+    }
+    else {
+      insert(-index - 1, key, value);
+    }
+  }
+
+  /**
+   * @return true if the key was not mapped before and the value has been put
+   */
+  public boolean putIfAbsent(int key, int value) {
+    int index = indexOf(key);
+    if (index >= 0) {
+      return false;
+    }
+    insert(-index - 1, key, value);
+    return true;
+  }
+
+  /**
+   * @return true if the key was mapped and has been removed
+   */
+  public boolean remove(int key) {
+    int index = indexOf(key);
+    if (index < 0) {
+      return false;
+    }
+
+    // backward shift deletion: pull following entries of the probe sequence into the hole
+    int mask = keys.length - 1;
+    int free = index;
+    int next = (free + 1) & mask;
+    while (used[next]) {
+      int home = hash(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - free) & mask)) {
+        keys[free] = keys[next];
+        values[free] = values[next];
+        free = next;
+      }
+      next = (next + 1) & mask;
+    }
+    used[free] = false;
+    size--;
+    return true;
+  }
+
+  public void clear() {
+    if (size > 0) {
+      Arrays.fill(used, false);
+      size = 0;
+    }
+  }
+
+  public void putAll(IntIntMap other) {
+    other.forEach(this::put);
+  }
+
+  private void insert(int index, int key, int value) {
+    if ((size + 1) * 4 > keys.length * 3) {
+      rehash(keys.length * 2);
+      index = -indexOf(key) - 1;
+    }
+    keys[index] = key;
+    values[index] = value;
+    used[index] = true;
+    size++;
+  }
+
+  private void rehash(int capacity) {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    boolean[] oldUsed = used;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int index = -indexOf(oldKeys[i]) - 1;
+        keys[index] = oldKeys[i];
+        values[index] = oldValues[i];
+        used[index] = true;
+      }
+    }
+  }
+
+  public void forEach(EntryConsumer consumer) {
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        consumer.accept(keys[i], values[i]);
+      }
+    }
+  }
+
+  public int[] sortedKeys() {
+    int[] result = new int[size];
+    int count = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (used[i]) {
+        result[count++] = keys[i];
+      }
+    }
+    Arrays.sort(result);
+    return result;
+  }
+}
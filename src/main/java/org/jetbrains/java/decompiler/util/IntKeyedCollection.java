@@ -0,0 +1,160 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Counterpart of {@link VBStyleCollection} for int keys such as statement and block ids. Keys are kept
+ * in a plain array next to the elements and looked up through an {@link IntIntMap}, so no key is boxed.
+ * Elements added without a key get {@link #NO_KEY}, which therefore can't be used as a key itself.
+ */
+public class IntKeyedCollection<E> extends ArrayList<E> {
+  private static final long serialVersionUID = 1L;
+
+  public static final int NO_KEY = Integer.MIN_VALUE;
+
+  private IntIntMap map;
+  private int[] keys;
+
+  public IntKeyedCollection() {
+    this(10);
+  }
+
+  public IntKeyedCollection(int initialCapacity) {
+    super(initialCapacity);
+    map = new IntIntMap();
+    keys = new int[Math.max(initialCapacity, 1)];
+  }
+
+  @Override
+  public boolean add(E element) {
+    addWithKey(element, NO_KEY);
+    return true;
+  }
+
+  @Override
+  public boolean remove(Object element) {
+    int index = indexOf(element);
+    if (index < 0) {
+      return false;
+    }
+    remove(index);
+    return true;
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends E> c) {
+    ensureKeyCapacity(super.size() + c.size());
+    Arrays.fill(keys, super.size(), super.size() + c.size(), NO_KEY);
+    return super.addAll(c);
+  }
+
+  public void addWithKey(E element, int key) {
+    int index = super.size();
+    ensureKeyCapacity(index + 1);
+    keys[index] = key;
+    if (key != NO_KEY) {
+      map.put(key, index);
+    }
+    super.add(element);
+  }
+
+  public E putWithKey(E element, int key) {
+    int index = map.get(key, -1);
+    if (index < 0) {
+      addWithKey(element, key);
+      return null;
+    }
+    return super.set(index, element);
+  }
+
+  @Override
+  public void add(int index, E element) {
+    addWithKeyAndIndex(index, element, NO_KEY);
+  }
+
+  public void addWithKeyAndIndex(int index, E element, int key) {
+    int size = super.size();
+    ensureKeyCapacity(size + 1);
+    System.arraycopy(keys, index, keys, index + 1, size - index);
+    keys[index] = key;
+    super.add(index, element);
+    reindex(index);
+  }
+
+  public void removeWithKey(int key) {
+    remove(map.get(key, -1));
+  }
+
+  @Override
+  public E remove(int index) {
+    E element = super.remove(index);
+    int key = keys[index];
+    if (key != NO_KEY) {
+      map.remove(key);
+    }
+    System.arraycopy(keys, index + 1, keys, index, super.size() - index);
+    reindex(index);
+    return element;
+  }
+
+  public E getWithKey(int key) {
+    int index = map.get(key, -1);
+    return index < 0 ? null : super.get(index);
+  }
+
+  /**
+   * @return index of the element with the given key, -1 if there is none
+   */
+  public int getIndexByKey(int key) {
+    return map.get(key, -1);
+  }
+
+  public E getLast() {
+    return super.get(super.size() - 1);
+  }
+
+  public boolean containsKey(int key) {
+    return map.containsKey(key);
+  }
+
+  @Override
+  public void clear() {
+    map.clear();
+    super.clear();
+  }
+
+  @Override
+  public IntKeyedCollection<E> clone() {
+    IntKeyedCollection<E> c = new IntKeyedCollection<>(super.size());
+    c.addAllInternal(this);
+    c.keys = Arrays.copyOf(keys, Math.max(super.size(), 1));
+    c.map = new IntIntMap(map);
+    return c;
+  }
+
+  private void addAllInternal(Collection<? extends E> c) {
+    super.addAll(c);
+  }
+
+  public int getKey(int index) {
+    if (index >= super.size()) throw new IndexOutOfBoundsException(String.valueOf(index));
+    return keys[index];
+  }
+
+  private void ensureKeyCapacity(int capacity) {
+    if (capacity > keys.length) {
+      keys = Arrays.copyOf(keys, Math.max(capacity, keys.length * 2));
+    }
+  }
+
+  private void reindex(int from) {
+    for (int i = super.size() - 1; i >= from; i--) {
+      if (keys[i] != NO_KEY) {
+        map.put(keys[i], i);
+      }
+    }
+  }
+}
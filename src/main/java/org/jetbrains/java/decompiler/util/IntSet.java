@@ -0,0 +1,143 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.util;
+
+import java.util.Arrays;
+
+/**
+ * Set of ints kept as a sorted array. Meant for the few bytecode offsets or line numbers attached
+ * to a single element, where it takes a fraction of the memory of a {@code HashSet<Integer>}.
+ */
+public final class IntSet {
+  private static final int[] EMPTY = new int[0];
+
+  private int[] values;
+  private int size;
+
+  public IntSet() {
+    values = EMPTY;
+  }
+
+  public IntSet(IntSet other) {
+    values = other.size == 0 ? EMPTY : Arrays.copyOf(other.values, other.size);
+    size = other.size;
+  }
+
+  public static IntSet of(int value) {
+    IntSet set = new IntSet();
+    set.values = new int[]{value};
+    set.size = 1;
+    return set;
+  }
+
+  public boolean add(int value) {
+    int index = Arrays.binarySearch(values, 0, size, value);
+    if (index >= 0) {
+      return false;
+    }
+
+    index = -index - 1;
+    if (size == values.length) {
+      values = Arrays.copyOf(values, Math.max(4, size * 2));
+    }
+    System.arraycopy(values, index, values, index + 1, size - index);
+    values[index] = value;
+    size++;
+    return true;
+  }
+
+  public void addAll(IntSet other) {
+    if (other == null || other.size == 0) {
+      return;
+    }
+    if (size == 0) {
+      values = Arrays.copyOf(other.values, other.size);
+      size = other.size;
+      return;
+    }
+
+    // merge of two sorted arrays
+    int[] merged = new int[size + other.size];
+    int i = 0, j = 0, count = 0;
+    while (i < size && j < other.size) {
+      int a = values[i], b = other.values[j];
+      if (a < b) {
+        merged[count++] = a;
+        i++;
+      }
+      else if (a > b) {
+        merged[count++] = b;
+        j++;
+      }
+      else {
+        merged[count++] = a;
+        i++;
+        j++;
+      }
+    }
+    while (i < size) merged[count++] = values[i++];
+    while (j < other.size) merged[count++] = other.values[j++];
+
+    values = merged;
+    size = count;
+  }
+
+  public boolean remove(int value) {
+    int index = Arrays.binarySearch(values, 0, size, value);
+    if (index < 0) {
+      return false;
+    }
+    System.arraycopy(values, index + 1, values, index, size - index - 1);
+    size--;
+    return true;
+  }
+
+  public boolean contains(int value) {
+    return Arrays.binarySearch(values, 0, size, value) >= 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return value at the given position, values are in ascending order
+   */
+  public int get(int index) {
+    if (index >= size) throw new IndexOutOfBoundsException(String.valueOf(index));
+    return values[index];
+  }
+
+  public int[] toArray() {
+    return Arrays.copyOf(values, size);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) return true;
+    if (!(o instanceof IntSet)) return false;
+    IntSet other = (IntSet)o;
+    if (size != other.size) return false;
+    for (int i = 0; i < size; i++) {
+      if (values[i] != other.values[i]) return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      result = 31 * result + values[i];
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+}
@@ -51,6 +51,10 @@ public class SFormsFastMapDirect {
     }
   }
 
+  /**
+   * Copies the map together with its sets. The copied sets share their content with the original ones
+   * until either of them is modified, so sets which are never changed afterwards are not duplicated.
+   */
   public SFormsFastMapDirect getCopy() {
 
     SFormsFastMapDirect map = new SFormsFastMapDirect(false);
@@ -4,7 +4,7 @@
 package org.jetbrains.java.decompiler.util;
 
 import org.jetbrains.java.decompiler.main.DecompilerContext;
-import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.jetbrains.java.decompiler.main.DecompilerOptions;
 
 import java.util.*;
 
@@ -15,21 +15,28 @@ import java.util.*;
  */
 @SuppressWarnings("UnusedReturnValue")
 public class TextBuffer {
-  private final String myLineSeparator = DecompilerContext.getNewLineSeparator();
-  private final String myIndent = (String)DecompilerContext.getProperty(IFernflowerPreferences.INDENT_STRING);
+  private final String myLineSeparator;
+  private final String myIndent;
   private final StringBuilder myStringBuilder;
   private Map<Integer, Integer> myLineToOffsetMapping = null;
 
   public TextBuffer() {
-    myStringBuilder = new StringBuilder();
+    this(new StringBuilder());
   }
 
   public TextBuffer(int size) {
-    myStringBuilder = new StringBuilder(size);
+    this(new StringBuilder(size));
   }
 
   public TextBuffer(String text) {
-    myStringBuilder = new StringBuilder(text);
+    this(new StringBuilder(text));
+  }
+
+  private TextBuffer(StringBuilder builder) {
+    DecompilerOptions options = DecompilerContext.getOptions();
+    myLineSeparator = options.getLineSeparator();
+    myIndent = options.getIndentString();
+    myStringBuilder = builder;
   }
 
   public TextBuffer append(String str) {
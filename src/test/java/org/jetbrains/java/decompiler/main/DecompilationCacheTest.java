@@ -0,0 +1,61 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main;
+
+import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Stream;
+
+class DecompilationCacheTest {
+  @TempDir
+  Path temp;
+
+  @Test
+  void changedDependencyShouldInvalidateEntry() throws IOException {
+    compile("pkg/A.java", "package pkg; public class A { void f() { B.g(1, 2); } }",
+            "pkg/B.java", "package pkg; public class B { static void g(int... values) { } }");
+    Assertions.assertTrue(decompile().get("pkg/A").contains("B.g(1, 2);"));
+
+    // the bytecode of A stays the same, but the call is no longer written as a varargs call
+    compile("pkg/B.java", "package pkg; public class B { static void g(int[] values) { } }");
+    Assertions.assertTrue(decompile().get("pkg/A").contains("B.g(new int[]{1, 2});"));
+  }
+
+  @Test
+  void classOfOtherPackageShouldNotInvalidateEntries() throws IOException {
+    compile("pkg/A.java", "package pkg; public class A { void f() { B.g(1, 2); } }",
+            "pkg/B.java", "package pkg; public class B { static void g(int... values) { } }");
+    decompile();
+    long entries = countEntries();
+
+    compile("other/C.java", "package other; public class C { }");
+    decompile();
+    Assertions.assertEquals(entries + 1, countEntries());
+
+    compile("pkg/D.java", "package pkg; public class D { }");
+    decompile();
+    Assertions.assertEquals(entries * 2 + 2, countEntries());
+  }
+
+  private void compile(String... files) throws IOException {
+    TestDecompiler.compile(temp, files);
+  }
+
+  private Map<String, String> decompile() {
+    return TestDecompiler.decompile(temp.resolve("classes"),
+                                    Collections.singletonMap(IFernflowerPreferences.CACHE_DIRECTORY, temp.resolve("cache").toString()));
+  }
+
+  private long countEntries() throws IOException {
+    try (Stream<Path> files = Files.walk(temp.resolve("cache"))) {
+      return files.filter(Files::isRegularFile).count();
+    }
+  }
+}
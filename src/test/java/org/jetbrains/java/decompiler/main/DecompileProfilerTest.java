@@ -0,0 +1,58 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main;
+
+import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
+import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class DecompileProfilerTest {
+  @Test
+  void summaryShouldOnlyListMethods(@TempDir Path dir) throws IOException {
+    TestDecompiler.compile(dir, "pkg/Sample.java",
+                           "package pkg;\n" +
+                           "public class Sample {\n" +
+                           "  int twice(int x) {\n" +
+                           "    return x * 2;\n" +
+                           "  }\n" +
+                           "}\n");
+
+    Path profile = dir.resolve("profile");
+    Map<String, Object> options = new HashMap<>();
+    options.put(IFernflowerPreferences.PROFILE_DIRECTORY, profile.toString());
+
+    List<String> messages = new ArrayList<>();
+    TestDecompiler.decompile(dir.resolve("classes"), options, new IFernflowerLogger() {
+      @Override
+      public void writeMessage(String message, Severity severity) {
+        messages.add(message);
+      }
+
+      @Override
+      public void writeMessage(String message, Severity severity, Throwable t) {
+        messages.add(message);
+      }
+    });
+
+    String summary = messages.stream().filter(m -> m.startsWith("Slowest methods:")).findFirst().orElse(null);
+    Assertions.assertNotNull(summary, messages.toString());
+    String[] lines = summary.split("\\R");
+    Assertions.assertEquals(3, lines.length, summary);
+    Assertions.assertTrue(summary.contains("pkg/Sample <init> ()V"), summary);
+    Assertions.assertTrue(summary.contains("pkg/Sample twice (I)I"), summary);
+
+    // the class record is still reported in the files
+    String csv = new String(Files.readAllBytes(profile.resolve("profile.csv")), StandardCharsets.UTF_8);
+    Assertions.assertTrue(csv.contains("pkg/Sample,,ok,write,"), csv);
+  }
+}
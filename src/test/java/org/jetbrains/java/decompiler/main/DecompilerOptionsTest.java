@@ -0,0 +1,59 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main;
+
+import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
+import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+class DecompilerOptionsTest {
+  private final List<String> warnings = new ArrayList<>();
+  private final IFernflowerLogger logger = new IFernflowerLogger() {
+    @Override
+    public void writeMessage(String message, Severity severity) {
+      if (severity == Severity.WARN) {
+        warnings.add(message);
+      }
+    }
+
+    @Override
+    public void writeMessage(String message, Severity severity, Throwable t) {
+      writeMessage(message, severity);
+    }
+  };
+
+  @Test
+  void validNumberShouldBeUsed() {
+    Assertions.assertEquals(128, parseCacheSize(" 128"));
+    Assertions.assertEquals(0, parseCacheSize("0"));
+    Assertions.assertEquals(64, DecompilerOptions.parseNumber(Collections.emptyMap(), IFernflowerPreferences.LOADER_CACHE_SIZE, 0, 1024, logger));
+    Assertions.assertEquals(Collections.emptyList(), warnings);
+  }
+
+  @Test
+  void invalidNumberShouldFallBackToDefault() {
+    Assertions.assertEquals(64, parseCacheSize("64MB"));
+    Assertions.assertEquals(64, parseCacheSize("-1"));
+    Assertions.assertEquals(64, parseCacheSize("4096"));
+    Assertions.assertEquals(3, warnings.size());
+    Assertions.assertTrue(warnings.get(0).contains("'64MB'"), warnings.get(0));
+  }
+
+  @Test
+  void invalidThreadCountShouldNotFailDecompiler() {
+    Map<String, Object> options = Collections.singletonMap(IFernflowerPreferences.THREADS, "many");
+    DecompilerOptions decompilerOptions = new DecompilerOptions(options, logger);
+    Assertions.assertEquals(1, decompilerOptions.getThreads());
+    Assertions.assertEquals(1, warnings.size());
+  }
+
+  private long parseCacheSize(String value) {
+    Map<String, Object> options = Collections.singletonMap(IFernflowerPreferences.LOADER_CACHE_SIZE, value);
+    return DecompilerOptions.parseNumber(options, IFernflowerPreferences.LOADER_CACHE_SIZE, 0, 1024, logger);
+  }
+}
@@ -0,0 +1,66 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+
+class FinallyStructureTest {
+  // the outer finally covers the back edge of the loop, so it must not end up inside the loop
+  private static final String WORKER =
+    "package pkg;\n" +
+    "public class Worker {\n" +
+    "  private final java.util.Deque<Runnable> queue = new java.util.ArrayDeque<>();\n" +
+    "  private boolean running;\n" +
+    "  private Runnable task;\n" +
+    "  void work() {\n" +
+    "    boolean interrupted = false;\n" +
+    "    boolean started = false;\n" +
+    "    try {\n" +
+    "      while (true) {\n" +
+    "        synchronized (queue) {\n" +
+    "          if (!started) {\n" +
+    "            if (running) return;\n" +
+    "            running = true;\n" +
+    "            started = true;\n" +
+    "          }\n" +
+    "          task = queue.poll();\n" +
+    "          if (task == null) {\n" +
+    "            running = false;\n" +
+    "            return;\n" +
+    "          }\n" +
+    "        }\n" +
+    "        interrupted |= Thread.interrupted();\n" +
+    "        try {\n" +
+    "          task.run();\n" +
+    "        }\n" +
+    "        catch (RuntimeException e) {\n" +
+    "          e.printStackTrace();\n" +
+    "        }\n" +
+    "        finally {\n" +
+    "          task = null;\n" +
+    "        }\n" +
+    "      }\n" +
+    "    }\n" +
+    "    finally {\n" +
+    "      if (interrupted) {\n" +
+    "        Thread.currentThread().interrupt();\n" +
+    "      }\n" +
+    "    }\n" +
+    "  }\n" +
+    "}\n";
+
+  @Test
+  void loopShouldStayInsideOuterFinally(@TempDir Path dir) throws IOException {
+    TestDecompiler.compile(dir, "pkg/Worker.java", WORKER);
+
+    String source = TestDecompiler.decompile(dir.resolve("classes"), Collections.emptyMap()).get("pkg/Worker");
+    int tryIndex = source.indexOf("try {");
+    int loopIndex = source.indexOf("while(true) {");
+    Assertions.assertTrue(tryIndex >= 0 && loopIndex > tryIndex, source);
+  }
+}
@@ -0,0 +1,98 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main;
+
+import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+class ParallelDecompilerTest {
+  // JDK classes whose output used to depend on identity hash codes
+  private static final String[] CLASSES = {
+    "sun.security.ssl.SSLSocketImpl", "sun.security.ssl.SSLEngineImpl", "sun.security.ssl.X509KeyManagerImpl",
+    "sun.security.ssl.OutputRecord", "sun.security.ssl.SSLSocketOutputRecord"
+  };
+
+  @Test
+  void parallelOutputShouldMatchSequentialOutput(@TempDir Path dir) throws IOException {
+    for (String name : CLASSES) {
+      try {
+        copyClass(dir, Class.forName(name, false, ClassLoader.getSystemClassLoader()));
+      }
+      catch (ClassNotFoundException ignore) { }  // not in every JDK version
+    }
+
+    Map<String, String> sequential = decompile(dir, 1);
+    Assertions.assertFalse(sequential.isEmpty());
+    Assertions.assertEquals(sequential, decompile(dir, 1));
+    Assertions.assertEquals(sequential, decompile(dir, 4));
+    Assertions.assertEquals(sequential, decompile(dir, 4));
+  }
+
+  @Test
+  void constructorsOfOtherRootClassesShouldMatchSequentialOutput(@TempDir Path dir) throws IOException {
+    // every class calls the constructors of inner classes of other root classes, which are decompiled at the same time
+    int count = 16;
+    String[] files = new String[count * 2];
+    for (int i = 0; i < count; i++) {
+      int next = (i + 1) % count;
+      files[i * 2] = "pkg/A" + i + ".java";
+      files[i * 2 + 1] =
+        "package pkg;\n" +
+        "public class A" + i + " {\n" +
+        "  int value;\n" +
+        "  public class Inner {\n" +
+        "    public Inner(int x, String s) { value = x + s.length(); }\n" +
+        "    private Inner() { this(0, \"\"); }\n" +
+        "    public class Deep { public Deep(long l) { value += (int)l; } }\n" +
+        "  }\n" +
+        "  public static class Sub extends A" + next + ".Inner {\n" +
+        "    public Sub(A" + next + " outer) { outer.super(1, \"a\"); }\n" +
+        "  }\n" +
+        "  Object create(A" + next + " other) {\n" +
+        "    A" + next + ".Inner inner = other.new Inner(2, \"b\");\n" +
+        "    return inner.new Deep(3L);\n" +
+        "  }\n" +
+        "}\n";
+    }
+    TestDecompiler.compile(dir, files);
+    Path classes = dir.resolve("classes");
+
+    Map<String, String> sequential = decompile(classes, 1);
+    Assertions.assertEquals(count, sequential.size());
+    for (int i = 0; i < 4; i++) {
+      Assertions.assertEquals(sequential, decompile(classes, 4));
+    }
+  }
+
+  private static void copyClass(Path dir, Class<?> cl) throws IOException {
+    copyClassFile(dir, cl.getName());
+    for (Class<?> nested : cl.getDeclaredClasses()) {
+      copyClass(dir, nested);
+    }
+    for (int i = 1; copyClassFile(dir, cl.getName() + "$" + i); i++) ;  // anonymous classes
+  }
+
+  private static boolean copyClassFile(Path dir, String className) throws IOException {
+    try (InputStream in = ClassLoader.getSystemResourceAsStream(className.replace('.', '/') + ".class")) {
+      if (in == null) {
+        return false;
+      }
+      Files.copy(in, dir.resolve(className.substring(className.lastIndexOf('.') + 1) + ".class"));
+      return true;
+    }
+  }
+
+  private static Map<String, String> decompile(Path dir, int threads) {
+    Map<String, Object> options = new HashMap<>();
+    options.put(IFernflowerPreferences.THREADS, String.valueOf(threads));
+    return TestDecompiler.decompile(dir, options);
+  }
+}
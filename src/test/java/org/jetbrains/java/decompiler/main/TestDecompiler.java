@@ -0,0 +1,101 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main;
+
+import org.jetbrains.java.decompiler.main.decompiler.PrintStreamLogger;
+import org.jetbrains.java.decompiler.main.extern.IFernflowerLogger;
+import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.jetbrains.java.decompiler.main.extern.IResultSaver;
+import org.junit.jupiter.api.Assertions;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.Manifest;
+
+/**
+ * Decompiles the classes of a directory and keeps the sources in memory.
+ */
+final class TestDecompiler {
+  private TestDecompiler() { }
+
+  /**
+   * Compiles pairs of file names and sources into {@code dir/classes}.
+   */
+  static void compile(Path dir, String... files) throws IOException {
+    List<String> arguments = new ArrayList<>();
+    Collections.addAll(arguments, "-d", dir.resolve("classes").toString());
+    for (int i = 0; i < files.length; i += 2) {
+      Path file = dir.resolve("src").resolve(files[i]);
+      Files.createDirectories(file.getParent());
+      Files.write(file, files[i + 1].getBytes(StandardCharsets.UTF_8));
+      arguments.add(file.toString());
+    }
+    Assertions.assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, arguments.toArray(new String[0])));
+  }
+
+  /**
+   * @return sources by the names of their classes
+   */
+  static Map<String, String> decompile(Path source, Map<String, Object> options) {
+    Map<String, Object> properties = new HashMap<>(options);
+    properties.put(IFernflowerPreferences.LOG_LEVEL, "error");
+    return decompile(source, properties, new PrintStreamLogger(System.out));
+  }
+
+  /**
+   * @return sources by the names of their classes
+   */
+  static Map<String, String> decompile(Path source, Map<String, Object> properties, IFernflowerLogger logger) {
+    ContentSaver saver = new ContentSaver();
+    Fernflower fernflower = new Fernflower((externalPath, internalPath) -> Files.readAllBytes(Paths.get(externalPath)), saver, properties, logger);
+    try {
+      fernflower.addSource(source.toFile());
+      fernflower.decompileContext();
+    }
+    finally {
+      fernflower.clearContext();
+    }
+    return saver.contents;
+  }
+
+  private static class ContentSaver implements IResultSaver {
+    private final Map<String, String> contents = new TreeMap<>();
+
+    @Override
+    public void saveFolder(String path) { }
+
+    @Override
+    public void copyFile(String source, String path, String entryName) { }
+
+    @Override
+    public void saveClassFile(String path, String qualifiedName, String entryName, String content, int[] mapping) {
+      contents.put(qualifiedName, content);
+    }
+
+    @Override
+    public void createArchive(String path, String archiveName, Manifest manifest) { }
+
+    @Override
+    public void saveDirEntry(String path, String archiveName, String entryName) { }
+
+    @Override
+    public void copyEntry(String source, String path, String archiveName, String entry) { }
+
+    @Override
+    public void saveClassEntry(String path, String archiveName, String qualifiedName, String entryName, String content) {
+      contents.put(qualifiedName, content);
+    }
+
+    @Override
+    public void closeArchive(String path, String archiveName) { }
+  }
+}
@@ -0,0 +1,51 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main;
+
+import org.jetbrains.java.decompiler.main.extern.IFernflowerPreferences;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+class TimeLimitTest {
+  @Test
+  void methodRunningPastLimitShouldBeSkipped(@TempDir Path dir) throws IOException {
+    // each finally block is copied to every exit of its try block, so the copies grow exponentially with the depth;
+    // processing the method takes about half a minute
+    String source =
+      "package pkg;\n" +
+      "public class Slow {\n" +
+      "  void slow(int x, StringBuilder s) {\n" +
+      "    " + nestedFinally(5) + "\n" +
+      "  }\n" +
+      "  int fast(int x) {\n" +
+      "    return x + 1;\n" +
+      "  }\n" +
+      "}\n";
+    TestDecompiler.compile(dir, "pkg/Slow.java", source);
+
+    Map<String, Object> options = new HashMap<>();
+    options.put(IFernflowerPreferences.MAX_PROCESSING_METHOD, "1");
+    options.put(IFernflowerPreferences.NEW_LINE_SEPARATOR, "1");
+
+    long start = System.nanoTime();
+    String decompiled = TestDecompiler.decompile(dir.resolve("classes"), options).get("pkg/Slow");
+    long seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start);
+
+    Assertions.assertTrue(seconds < 10, "took " + seconds + " s");
+    Assertions.assertTrue(decompiled.contains("void slow(int param1, StringBuilder param2) {\n      // $FF: Couldn't be decompiled"), decompiled);
+    Assertions.assertTrue(decompiled.contains("return var1 + 1;"), decompiled);
+  }
+
+  private static String nestedFinally(int depth) {
+    if (depth == 0) {
+      return "s.append(x);";
+    }
+    return "try { if (x > " + depth + ") return; s.append(" + depth + "); } finally { " + nestedFinally(depth - 1) + " }";
+  }
+}
@@ -0,0 +1,66 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.main.decompiler;
+
+import org.jetbrains.java.decompiler.util.ClassFileReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+class ArchiveBytecodeProviderTest {
+  // a constant in the modified UTF-8 encoding of class files: length, then 'a', U+00E9 and U+20AC
+  private static final byte[] CONTENT = {0, 6, 'a', (byte)0xC3, (byte)0xA9, (byte)0xE2, (byte)0x82, (byte)0xAC};
+
+  @Test
+  void storedEntryShouldBeReadFromMapping(@TempDir Path dir) throws IOException {
+    String archive = createArchive(dir).toString();
+
+    ArchiveBytecodeProvider provider = new ArchiveBytecodeProvider();
+    ByteBuffer stored = provider.getBytecodeBuffer(archive, "Stored.class");
+    ByteBuffer deflated = provider.getBytecodeBuffer(archive, "Deflated.class");
+
+    Assertions.assertTrue(stored.isDirect());
+    Assertions.assertTrue(stored.isReadOnly());
+    Assertions.assertEquals("aé€", new ClassFileReader(stored).readUTF());
+    Assertions.assertEquals("aé€", new ClassFileReader(deflated).readUTF());
+    Assertions.assertArrayEquals(CONTENT, provider.getBytecode(archive, "Stored.class"));
+    Assertions.assertArrayEquals(CONTENT, provider.getBytecode(archive, "Deflated.class"));
+
+    // the view may still be referenced after the provider is closed, so the archive must stay mapped
+    provider.close();
+    Assertions.assertEquals("aé€", new ClassFileReader(stored).readUTF());
+  }
+
+  private static Path createArchive(Path dir) throws IOException {
+    Path archive = dir.resolve("test.jar");
+    try (OutputStream out = Files.newOutputStream(archive); ZipOutputStream zip = new ZipOutputStream(out)) {
+      ZipEntry stored = new ZipEntry("Stored.class");
+      stored.setMethod(ZipEntry.STORED);
+      stored.setSize(CONTENT.length);
+      CRC32 crc = new CRC32();
+      crc.update(CONTENT);
+      stored.setCrc(crc.getValue());
+      zip.putNextEntry(stored);
+      zip.write(CONTENT);
+      zip.closeEntry();
+
+      zip.putNextEntry(new ZipEntry("Deflated.class"));
+      zip.write(CONTENT);
+      zip.closeEntry();
+
+      zip.putNextEntry(new ZipEntry("README.txt"));
+      zip.write("padding".getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+    }
+    return archive;
+  }
+}
@@ -0,0 +1,174 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.modules.decompiler;
+
+import org.jetbrains.java.decompiler.main.Fernflower;
+import org.jetbrains.java.decompiler.main.decompiler.PrintStreamLogger;
+import org.jetbrains.java.decompiler.modules.decompiler.stats.DummyExitStatement;
+import org.jetbrains.java.decompiler.modules.decompiler.stats.GeneralStatement;
+import org.jetbrains.java.decompiler.modules.decompiler.stats.Statement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+class StrongConnectivityHelperTest {
+  // statement ids are taken from the current decompiler context
+  private Fernflower fernflower;
+
+  @BeforeEach
+  void setUp() {
+    fernflower = new Fernflower((externalPath, internalPath) -> null, null, Collections.emptyMap(), new PrintStreamLogger(System.out));
+  }
+
+  @AfterEach
+  void tearDown() {
+    fernflower.clearContext();
+  }
+
+  @Test
+  void shouldFindComponents() {
+    // 0 -> 1 <-> 2 -> 3 -> 4 -> 3, 5 -> 0, 6 without edges
+    List<Statement> nodes = createNodes(7);
+    connect(nodes, 0, 1, 1, 2, 2, 1, 2, 3, 3, 4, 4, 3, 5, 0);
+
+    List<List<Statement>> components = new StrongConnectivityHelper(createGraph(nodes)).getComponents();
+
+    Assertions.assertEquals(Arrays.asList(Arrays.asList(nodes.get(4), nodes.get(3)),
+                                          Arrays.asList(nodes.get(2), nodes.get(1)),
+                                          Collections.singletonList(nodes.get(0)),
+                                          Collections.singletonList(nodes.get(5)),
+                                          Collections.singletonList(nodes.get(6))), components);
+    Assertions.assertEquals(Arrays.asList(nodes.get(4), nodes.get(6)), StrongConnectivityHelper.getExitReps(components));
+  }
+
+  @Test
+  void longChainShouldNotOverflowStack() {
+    int size = 100_000;
+    List<Statement> nodes = createNodes(size);
+    for (int i = 1; i < size; i++) {
+      connect(nodes, i - 1, i);
+    }
+    connect(nodes, size - 1, 1);
+
+    List<List<Statement>> components = new StrongConnectivityHelper(createGraph(nodes)).getComponents();
+
+    Assertions.assertEquals(2, components.size());
+    Assertions.assertEquals(size - 1, components.get(0).size());
+    Assertions.assertEquals(Collections.singletonList(nodes.get(0)), components.get(1));
+  }
+
+  @Test
+  void shouldMatchRecursiveSearch() {
+    Random random = new Random(18);
+
+    for (int round = 0; round < 300; round++) {
+      int size = 1 + random.nextInt(25);
+      List<Statement> nodes = createNodes(size);
+      for (int edges = random.nextInt(size * 2); edges > 0; edges--) {
+        connect(nodes, random.nextInt(size), random.nextInt(size));
+      }
+      Statement graph = createGraph(nodes);
+
+      Assertions.assertEquals(new RecursiveSearch(graph).components, new StrongConnectivityHelper(graph).getComponents(),
+                              "round " + round);
+    }
+  }
+
+  private static List<Statement> createNodes(int count) {
+    List<Statement> nodes = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      nodes.add(new DummyExitStatement());
+    }
+    return nodes;
+  }
+
+  private static void connect(List<Statement> nodes, int... pairs) {
+    for (int i = 0; i < pairs.length; i += 2) {
+      Statement source = nodes.get(pairs[i]);
+      source.addSuccessor(new StatEdge(StatEdge.TYPE_REGULAR, source, nodes.get(pairs[i + 1])));
+    }
+  }
+
+  private static Statement createGraph(List<Statement> nodes) {
+    return new GeneralStatement(nodes.get(0), nodes, null);
+  }
+
+  /**
+   * Tarjan's algorithm as it was written before the search was made iterative, the root of a tree included.
+   */
+  private static class RecursiveSearch {
+    private final List<List<Statement>> components = new ArrayList<>();
+    private final Set<Statement> processed = new HashSet<>();
+
+    private final Deque<Statement> stack = new ArrayDeque<>();
+    private int counter;
+    private final Set<Statement> tree = new HashSet<>();
+    private final Map<Statement, Integer> dfsnums = new HashMap<>();
+    private final Map<Statement, Integer> lows = new HashMap<>();
+
+    RecursiveSearch(Statement stat) {
+      visitTree(stat.getFirst());
+
+      for (Statement st : stat.getStats()) {
+        if (!processed.contains(st) && !st.hasPredecessor(Statement.STATEDGE_DIRECT_ALL)) {
+          visitTree(st);
+        }
+      }
+
+      for (Statement st : stat.getStats()) {
+        if (!processed.contains(st)) {
+          visitTree(st);
+        }
+      }
+    }
+
+    private void visitTree(Statement stat) {
+      stack.clear();
+      counter = 0;
+      tree.clear();
+      dfsnums.clear();
+      lows.clear();
+
+      visit(stat);
+
+      processed.addAll(tree);
+      processed.add(stat);
+    }
+
+    private void visit(Statement stat) {
+      stack.push(stat);
+      dfsnums.put(stat, counter);
+      lows.put(stat, counter);
+      counter++;
+
+      List<Statement> succs = stat.getNeighbours(StatEdge.TYPE_REGULAR, Statement.DIRECTION_FORWARD);
+      succs.removeAll(processed);
+
+      for (Statement succ : succs) {
+        int value;
+        if (tree.contains(succ)) {
+          value = dfsnums.get(succ);
+        }
+        else {
+          tree.add(succ);
+          visit(succ);
+          value = lows.get(succ);
+        }
+        lows.put(stat, Math.min(lows.get(stat), value));
+      }
+
+      if (lows.get(stat).intValue() == dfsnums.get(stat).intValue()) {
+        List<Statement> component = new ArrayList<>();
+        Statement v;
+        do {
+          v = stack.pop();
+          component.add(v);
+        }
+        while (v != stat);
+        components.add(component);
+      }
+    }
+  }
+}
@@ -0,0 +1,160 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.modules.decompiler.decompose;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+class IntDominatorEngineTest {
+  @Test
+  void loopWithTwoEntriesShouldBeDominatedByBranch() {
+    // 0 -> 1, 0 -> 2, 1 <-> 2, 2 -> 3: both loop nodes can be entered directly from the branch
+    IntDominatorEngine engine = initialize(new int[][]{{}, {0, 2}, {0, 1}, {2}}, 0);
+
+    Assertions.assertArrayEquals(new int[]{0, 0, 0, 2}, getIDoms(engine, 4));
+    Assertions.assertFalse(engine.isDominator(2, 1));
+    Assertions.assertFalse(engine.isDominator(1, 2));
+    Assertions.assertTrue(engine.isDominator(3, 0));
+  }
+
+  @Test
+  void nestedIrreducibleLoopsShouldNeedSeveralPasses() {
+    // 0 -> 1 -> 2 -> 3 -> 4, 0 -> 4, 4 -> 1, 4 -> 3: the first pass ignores the back edges and takes 2 for the idom of 3
+    IntDominatorEngine engine = initialize(new int[][]{{}, {0, 4}, {1}, {2, 4}, {0, 3}}, 0);
+
+    Assertions.assertArrayEquals(new int[]{0, 0, 1, 0, 0}, getIDoms(engine, 5));
+    Assertions.assertTrue(engine.isDominator(2, 1));
+    Assertions.assertFalse(engine.isDominator(3, 2));
+  }
+
+  @Test
+  void nodeReachedFromTwoRootsShouldBeMergingPoint() {
+    IntDominatorEngine engine = initialize(new int[][]{{}, {}, {0, 1}, {2}}, 0, 1);
+
+    Assertions.assertArrayEquals(new int[]{0, 1, 2, 2}, getIDoms(engine, 4));
+    Assertions.assertTrue(engine.isDominator(3, 2));
+    Assertions.assertFalse(engine.isDominator(3, 0));
+    Assertions.assertFalse(engine.isDominator(2, 1));
+  }
+
+  @Test
+  void shouldMatchNaiveDominators() {
+    Random random = new Random(16);
+
+    for (int round = 0; round < 300; round++) {
+      int size = 1 + random.nextInt(30);
+      List<List<Integer>> successors = new ArrayList<>();
+      for (int node = 0; node < size; node++) {
+        List<Integer> targets = new ArrayList<>();
+        for (int edges = random.nextInt(4); edges > 0; edges--) {
+          targets.add(random.nextInt(size));
+        }
+        successors.add(targets);
+      }
+
+      int[][] predecessors = toReversePostOrder(successors);
+      IntDominatorEngine engine = initialize(predecessors, 0);
+
+      int count = predecessors.length;
+      for (int node = 0; node < count; node++) {
+        for (int dom = 0; dom < count; dom++) {
+          boolean expected = node == dom || !isReachable(predecessors, node, dom);
+          Assertions.assertEquals(expected, engine.isDominator(node, dom),
+                                  "round " + round + ", node " + node + ", dominator " + dom + ", graph " + Arrays.deepToString(predecessors));
+        }
+      }
+    }
+  }
+
+  private static IntDominatorEngine initialize(int[][] predecessors, int... roots) {
+    boolean[] isRoot = new boolean[predecessors.length];
+    for (int root : roots) {
+      isRoot[root] = true;
+    }
+    IntDominatorEngine engine = new IntDominatorEngine(predecessors, isRoot);
+    engine.initialize();
+    return engine;
+  }
+
+  private static int[] getIDoms(IntDominatorEngine engine, int size) {
+    int[] idoms = new int[size];
+    for (int node = 0; node < size; node++) {
+      idoms[node] = engine.getIDom(node);
+    }
+    return idoms;
+  }
+
+  /**
+   * @return predecessors of the nodes reachable from node 0, renumbered in reverse post order
+   */
+  private static int[][] toReversePostOrder(List<List<Integer>> successors) {
+    List<Integer> postOrder = new ArrayList<>();
+    visit(successors, 0, new boolean[successors.size()], postOrder);
+
+    int[] numbers = new int[successors.size()];
+    Arrays.fill(numbers, -1);
+    for (int i = 0; i < postOrder.size(); i++) {
+      numbers[postOrder.get(i)] = postOrder.size() - 1 - i;
+    }
+
+    List<List<Integer>> predecessors = new ArrayList<>();
+    for (int i = 0; i < postOrder.size(); i++) {
+      predecessors.add(new ArrayList<>());
+    }
+    for (int node = 0; node < successors.size(); node++) {
+      if (numbers[node] >= 0) {
+        for (int target : successors.get(node)) {
+          predecessors.get(numbers[target]).add(numbers[node]);
+        }
+      }
+    }
+
+    int[][] result = new int[predecessors.size()][];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = predecessors.get(i).stream().mapToInt(Integer::intValue).toArray();
+    }
+    return result;
+  }
+
+  private static void visit(List<List<Integer>> successors, int node, boolean[] visited, List<Integer> postOrder) {
+    visited[node] = true;
+    for (int target : successors.get(node)) {
+      if (!visited[target]) {
+        visit(successors, target, visited, postOrder);
+      }
+    }
+    postOrder.add(node);
+  }
+
+  /**
+   * @return whether the node can be reached from node 0 without passing the removed node
+   */
+  private static boolean isReachable(int[][] predecessors, int node, int removed) {
+    if (removed == 0) {
+      return false;
+    }
+
+    // walk the edges backwards from the node towards the root
+    boolean[] visited = new boolean[predecessors.length];
+    List<Integer> stack = new ArrayList<>();
+    stack.add(node);
+    visited[node] = true;
+    while (!stack.isEmpty()) {
+      int current = stack.remove(stack.size() - 1);
+      if (current == 0) {
+        return true;
+      }
+      for (int pred : predecessors[current]) {
+        if (pred != removed && !visited[pred]) {
+          visited[pred] = true;
+          stack.add(pred);
+        }
+      }
+    }
+    return false;
+  }
+}
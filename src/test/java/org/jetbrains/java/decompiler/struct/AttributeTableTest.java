@@ -0,0 +1,96 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.struct;
+
+import org.jetbrains.java.decompiler.main.Fernflower;
+import org.jetbrains.java.decompiler.main.decompiler.PrintStreamLogger;
+import org.jetbrains.java.decompiler.struct.attr.StructGeneralAttribute;
+import org.jetbrains.java.decompiler.struct.attr.StructGenericSignatureAttribute;
+import org.jetbrains.java.decompiler.struct.lazy.LazyLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+
+class AttributeTableTest {
+  private static final String SAMPLE = Sample.class.getName().replace('.', '/');
+
+  @SuppressWarnings("unused")
+  private static class Sample {
+    List<String> names;
+
+    <T extends Number> T first(List<T> values) {
+      return values.get(0);
+    }
+  }
+
+  // constant pools are created in the current decompiler context
+  private Fernflower fernflower;
+
+  @BeforeEach
+  void setUp() {
+    fernflower = new Fernflower((externalPath, internalPath) -> null, null, Collections.emptyMap(), new PrintStreamLogger(System.out));
+  }
+
+  @AfterEach
+  void tearDown() {
+    fernflower.clearContext();
+  }
+
+  @Test
+  void attributesShouldBeParsedRightAwayWithoutCache() throws IOException {
+    int[] reads = new int[1];
+    LazyLoader loader = createLoader(reads, 0);
+    StructClass cl = new StructClass(loader.getClassBytes(SAMPLE), true, loader);
+    reads[0] = 0;
+
+    assertSignatures(cl);
+    Assertions.assertEquals(0, reads[0]);
+  }
+
+  @Test
+  void lazyAttributesShouldReadClassFileOnce() throws IOException {
+    int[] reads = new int[1];
+    LazyLoader loader = createLoader(reads, 1 << 20);
+    StructClass cl = new StructClass(loader.getClassBytes(SAMPLE), true, loader);
+    reads[0] = 0;
+
+    assertSignatures(cl);
+    Assertions.assertEquals(1, reads[0]);
+  }
+
+  private static LazyLoader createLoader(int[] reads, long cacheBudget) throws IOException {
+    byte[] bytes = readSample();
+    LazyLoader loader = new LazyLoader((externalPath, internalPath) -> {
+      reads[0]++;
+      return bytes;
+    }, cacheBudget);
+    loader.addClassLink(SAMPLE, new LazyLoader.Link("sample.jar", SAMPLE + ".class"));
+    return loader;
+  }
+
+  private static byte[] readSample() throws IOException {
+    try (InputStream in = AttributeTableTest.class.getResourceAsStream("/" + SAMPLE + ".class")) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      for (int n; (n = in.read(buffer)) > 0; ) {
+        out.write(buffer, 0, n);
+      }
+      return out.toByteArray();
+    }
+  }
+
+  private static void assertSignatures(StructClass cl) {
+    StructGenericSignatureAttribute field = cl.getField("names", "Ljava/util/List;").getAttribute(StructGeneralAttribute.ATTRIBUTE_SIGNATURE);
+    Assertions.assertEquals("Ljava/util/List<Ljava/lang/String;>;", field.getSignature());
+
+    StructGenericSignatureAttribute method =
+      cl.getMethod("first", "(Ljava/util/List;)Ljava/lang/Number;").getAttribute(StructGeneralAttribute.ATTRIBUTE_SIGNATURE);
+    Assertions.assertEquals("<T:Ljava/lang/Number;>(Ljava/util/List<TT;>;)TT;", method.getSignature());
+  }
+}
@@ -0,0 +1,180 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.struct.consts;
+
+import org.jetbrains.java.decompiler.code.CodeConstants;
+import org.jetbrains.java.decompiler.main.Fernflower;
+import org.jetbrains.java.decompiler.main.decompiler.PrintStreamLogger;
+import org.jetbrains.java.decompiler.util.ClassFileReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+class ConstantPoolTest {
+  private static final String TEXT = "aé€\u0000😀";
+
+  // constant pools are created in the current decompiler context
+  private Fernflower fernflower;
+
+  @BeforeEach
+  void setUp() {
+    fernflower = new Fernflower((externalPath, internalPath) -> null, null, Collections.emptyMap(), new PrintStreamLogger(System.out));
+  }
+
+  @AfterEach
+  void tearDown() {
+    fernflower.clearContext();
+  }
+
+  @Test
+  void constantsShouldBeReadFromArray() throws IOException {
+    ClassFileReader in = new ClassFileReader(createPool(false));
+    assertConstants(new ConstantPool(in));
+    Assertions.assertEquals(0xCAFE, in.readUnsignedShort());
+  }
+
+  @Test
+  void constantsShouldBeReadFromDirectBuffer() throws IOException {
+    byte[] bytes = createPool(false);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+    buffer.put(bytes).flip();
+
+    ClassFileReader in = new ClassFileReader(buffer.asReadOnlyBuffer());
+    assertConstants(new ConstantPool(in));
+    Assertions.assertEquals(0xCAFE, in.readUnsignedShort());
+  }
+
+  @Test
+  void malformedConstantShouldOnlyFailWhenRequested() throws IOException {
+    ClassFileReader in = new ClassFileReader(createPool(true));
+    ConstantPool pool = new ConstantPool(in);
+    Assertions.assertEquals(0xCAFE, in.readUnsignedShort());
+
+    Assertions.assertEquals("pkg/Sample", pool.getPrimitiveConstant(2).getString());
+    Assertions.assertThrows(RuntimeException.class, () -> pool.getConstant(7));
+    Assertions.assertThrows(RuntimeException.class, () -> pool.getConstant(8));
+  }
+
+  @Test
+  void concurrentRequestsShouldGetSameConstant() throws Exception {
+    byte[] bytes = createPool(false);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      for (int round = 0; round < 1000; round++) {
+        ConstantPool pool = new ConstantPool(new ClassFileReader(bytes));
+        CyclicBarrier barrier = new CyclicBarrier(8);
+
+        List<Future<PooledConstant[]>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+          futures.add(executor.submit(() -> {
+            barrier.await();
+            // the threads walk the pool backwards, resolving the references of the method handle and the string first
+            PooledConstant[] constants = new PooledConstant[16];
+            for (int i = constants.length - 1; i >= 0; i--) {
+              constants[i] = pool.getConstant(i);
+            }
+            return constants;
+          }));
+        }
+
+        PooledConstant[] expected = futures.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<PooledConstant[]> future : futures) {
+          PooledConstant[] constants = future.get(10, TimeUnit.SECONDS);
+          for (int i = 0; i < constants.length; i++) {
+            Assertions.assertSame(expected[i], constants[i], "round " + round + ", entry " + i);
+          }
+        }
+        assertConstants(pool);
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+  }
+
+  private static void assertConstants(ConstantPool pool) {
+    // the first entry and the ones following long and double constants are unused
+    Assertions.assertNull(pool.getConstant(0));
+    Assertions.assertNull(pool.getConstant(4));
+    Assertions.assertNull(pool.getConstant(6));
+
+    Assertions.assertEquals(1L << 40, pool.getPrimitiveConstant(3).value);
+    Assertions.assertEquals(2.5, pool.getPrimitiveConstant(5).value);
+    Assertions.assertEquals(-7, pool.getPrimitiveConstant(13).value);
+    Assertions.assertEquals(1.5f, pool.getPrimitiveConstant(14).value);
+
+    PrimitiveConstant string = pool.getPrimitiveConstant(8);
+    Assertions.assertEquals(CodeConstants.CONSTANT_String, string.type);
+    Assertions.assertEquals(TEXT, string.getString());
+    Assertions.assertEquals("pkg/Sample", pool.getPrimitiveConstant(2).getString());
+    Assertions.assertEquals(Collections.singletonList("pkg/Sample"), pool.getClassNames());
+
+    for (int index : new int[]{12, 15}) {
+      LinkConstant method = pool.getLinkConstant(index);
+      Assertions.assertEquals("pkg/Sample", method.classname);
+      Assertions.assertEquals("run", method.elementname);
+      Assertions.assertEquals("()V", method.descriptor);
+    }
+    Assertions.assertEquals(CodeConstants.CONSTANT_MethodHandle_REF_invokeVirtual, pool.getLinkConstant(15).index1);
+
+    Assertions.assertArrayEquals(new String[]{"run", "()V"}, pool.getClassElement(ConstantPool.METHOD, "pkg/Sample", 9, 10));
+  }
+
+  /**
+   * @return constant pool with 16 entries, followed by two marker bytes
+   */
+  private static byte[] createPool(boolean malformed) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeShort(16);
+
+    out.writeByte(CodeConstants.CONSTANT_Utf8); // 1
+    out.writeUTF("pkg/Sample");
+    out.writeByte(CodeConstants.CONSTANT_Class); // 2
+    out.writeShort(1);
+    out.writeByte(CodeConstants.CONSTANT_Long); // 3, 4
+    out.writeLong(1L << 40);
+    out.writeByte(CodeConstants.CONSTANT_Double); // 5, 6
+    out.writeDouble(2.5);
+    out.writeByte(CodeConstants.CONSTANT_Utf8); // 7
+    if (malformed) {
+      out.writeShort(2);
+      out.writeByte(0xE2); // the first two bytes of a three byte character
+      out.writeByte(0x82);
+    }
+    else {
+      out.writeUTF(TEXT);
+    }
+    out.writeByte(CodeConstants.CONSTANT_String); // 8
+    out.writeShort(7);
+    out.writeByte(CodeConstants.CONSTANT_Utf8); // 9
+    out.writeUTF("run");
+    out.writeByte(CodeConstants.CONSTANT_Utf8); // 10
+    out.writeUTF("()V");
+    out.writeByte(CodeConstants.CONSTANT_NameAndType); // 11
+    out.writeShort(9);
+    out.writeShort(10);
+    out.writeByte(CodeConstants.CONSTANT_Methodref); // 12
+    out.writeShort(2);
+    out.writeShort(11);
+    out.writeByte(CodeConstants.CONSTANT_Integer); // 13
+    out.writeInt(-7);
+    out.writeByte(CodeConstants.CONSTANT_Float); // 14
+    out.writeFloat(1.5f);
+    out.writeByte(CodeConstants.CONSTANT_MethodHandle); // 15
+    out.writeByte(CodeConstants.CONSTANT_MethodHandle_REF_invokeVirtual);
+    out.writeShort(12);
+
+    out.writeShort(0xCAFE);
+    return bytes.toByteArray();
+  }
+}
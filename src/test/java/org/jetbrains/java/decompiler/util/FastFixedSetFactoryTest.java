@@ -0,0 +1,102 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.util;
+
+import org.jetbrains.java.decompiler.util.FastFixedSetFactory.FastFixedSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+class FastFixedSetFactoryTest {
+  @Test
+  void setAllElementsShouldStopAtLastElement() {
+    // sizes ending in the middle of a word and right at its end
+    for (int size : new int[]{1, 63, 64, 65, 130}) {
+      FastFixedSetFactory<Integer> factory = new FastFixedSetFactory<>(range(size));
+      FastFixedSet<Integer> set = factory.spawnEmptySet();
+      set.setAllElements();
+      Assertions.assertEquals(new HashSet<>(range(size)), set.toPlainSet(), "size " + size);
+
+      FastFixedSet<Integer> all = factory.spawnEmptySet();
+      all.addAll(range(size));
+      Assertions.assertEquals(all, set, "size " + size);
+    }
+  }
+
+  @Test
+  void iteratorShouldVisitElementsAcrossWords() {
+    FastFixedSetFactory<Integer> factory = new FastFixedSetFactory<>(range(200));
+    FastFixedSet<Integer> set = factory.spawnEmptySet();
+    for (int element : new int[]{0, 63, 64, 127, 128, 199}) {
+      set.add(element);
+    }
+
+    List<Integer> visited = new ArrayList<>();
+    for (Iterator<Integer> iterator = set.iterator(); iterator.hasNext(); ) {
+      int element = iterator.next();
+      visited.add(element);
+      if (element == 64) {
+        iterator.remove();
+      }
+    }
+    Assertions.assertEquals(Arrays.asList(0, 63, 64, 127, 128, 199), visited);
+    Assertions.assertFalse(set.contains(64));
+    Assertions.assertEquals("{199,128,127,63,0}", set.toString());
+  }
+
+  @Test
+  void shouldMatchHashSet() {
+    Random random = new Random(13);
+    FastFixedSetFactory<Integer> factory = new FastFixedSetFactory<>(range(150));
+
+    for (int round = 0; round < 500; round++) {
+      Set<Integer> expectedA = randomSet(random, 150), expectedB = randomSet(random, 150);
+      FastFixedSet<Integer> a = toSet(factory, expectedA), b = toSet(factory, expectedB);
+      FastFixedSet<Integer> copy = a.getCopy();
+
+      Assertions.assertEquals(expectedA.containsAll(expectedB), a.contains(b));
+      switch (random.nextInt(3)) {
+        case 0:
+          a.union(b);
+          expectedA.addAll(expectedB);
+          break;
+        case 1:
+          a.intersection(b);
+          expectedA.retainAll(expectedB);
+          break;
+        default:
+          a.complement(b);
+          expectedA.removeAll(expectedB);
+      }
+
+      Assertions.assertEquals(expectedA, a.toPlainSet());
+      Assertions.assertEquals(expectedA.isEmpty(), a.isEmpty());
+      Assertions.assertEquals(expectedB, b.toPlainSet());
+      Assertions.assertEquals(a.equals(copy), expectedA.equals(copy.toPlainSet()));
+    }
+  }
+
+  static List<Integer> range(int size) {
+    List<Integer> elements = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      elements.add(i);
+    }
+    return elements;
+  }
+
+  static Set<Integer> randomSet(Random random, int bound) {
+    Set<Integer> set = new HashSet<>();
+    // sparse and dense sets, some with whole words empty
+    int count = random.nextInt(4) == 0 ? 0 : random.nextInt(bound);
+    for (int i = 0; i < count; i++) {
+      set.add(random.nextInt(bound));
+    }
+    return set;
+  }
+
+  private static FastFixedSet<Integer> toSet(FastFixedSetFactory<Integer> factory, Set<Integer> elements) {
+    FastFixedSet<Integer> set = factory.spawnEmptySet();
+    set.addAll(elements);
+    return set;
+  }
+}
@@ -0,0 +1,228 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.util;
+
+import org.jetbrains.java.decompiler.util.FastSparseSetFactory.FastSparseSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+class FastSparseSetFactoryTest {
+  @Test
+  void setShouldGrowForElementsRegisteredLater() {
+    FastSparseSetFactory<Integer> factory = new FastSparseSetFactory<>(FastFixedSetFactoryTest.range(10));
+    FastSparseSet<Integer> small = factory.spawnEmptySet();
+    small.add(3);
+
+    // registers elements past the first word after the set has been created
+    FastSparseSet<Integer> large = factory.spawnEmptySet();
+    large.add(3);
+    large.add(200);
+    Assertions.assertNotEquals(small, large);
+    Assertions.assertNotEquals(large, small);
+
+    large.remove(200);
+    Assertions.assertEquals(small, large);
+    Assertions.assertEquals(large, small);
+
+    small.union(factory.spawnEmptySet());
+    small.add(130);
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(3, 130)), small.toPlainSet());
+    Assertions.assertEquals(2, small.getCardinality());
+
+    small.intersection(large);
+    Assertions.assertEquals(Collections.singleton(3), small.toPlainSet());
+    Assertions.assertEquals(1, small.getCardinality());
+
+    small.complement(large);
+    Assertions.assertTrue(small.isEmpty());
+    Assertions.assertEquals(0, small.getCardinality());
+  }
+
+  @Test
+  void iteratorShouldVisitElementsAcrossWords() {
+    FastSparseSetFactory<Integer> factory = new FastSparseSetFactory<>(FastFixedSetFactoryTest.range(200));
+    FastSparseSet<Integer> set = factory.spawnEmptySet();
+    for (int element : new int[]{199, 128, 127, 64, 63, 0}) {
+      set.add(element);
+    }
+
+    List<Integer> visited = new ArrayList<>();
+    for (Iterator<Integer> iterator = set.iterator(); iterator.hasNext(); ) {
+      int element = iterator.next();
+      visited.add(element);
+      if (element == 127) {
+        iterator.remove();
+      }
+    }
+    Assertions.assertEquals(Arrays.asList(0, 63, 64, 127, 128, 199), visited);
+    Assertions.assertFalse(set.contains(127));
+  }
+
+  @Test
+  void shouldMatchHashSet() {
+    Random random = new Random(17);
+    FastSparseSetFactory<Integer> factory = new FastSparseSetFactory<>(FastFixedSetFactoryTest.range(150));
+
+    for (int round = 0; round < 500; round++) {
+      // elements past the factory's initial ones make sets of different lengths
+      Set<Integer> expectedA = FastFixedSetFactoryTest.randomSet(random, 150 + round);
+      Set<Integer> expectedB = FastFixedSetFactoryTest.randomSet(random, 150 + round);
+      FastSparseSet<Integer> a = toSet(factory, expectedA), b = toSet(factory, expectedB);
+
+      switch (random.nextInt(3)) {
+        case 0:
+          a.union(b);
+          expectedA.addAll(expectedB);
+          break;
+        case 1:
+          a.intersection(b);
+          expectedA.retainAll(expectedB);
+          break;
+        default:
+          a.complement(b);
+          expectedA.removeAll(expectedB);
+      }
+
+      Assertions.assertEquals(expectedA, a.toPlainSet());
+      Assertions.assertEquals(expectedB, b.toPlainSet());
+      Assertions.assertEquals(expectedA.isEmpty(), a.isEmpty());
+      Assertions.assertEquals(Math.min(expectedA.size(), 2), a.getCardinality());
+      Assertions.assertEquals(expectedA.equals(expectedB), a.equals(b));
+      for (int element : expectedB) {
+        Assertions.assertEquals(expectedA.contains(element), a.contains(element));
+      }
+    }
+  }
+
+  @Test
+  void copyShouldNotSeeChangesOfOriginal() {
+    FastSparseSetFactory<Integer> factory = new FastSparseSetFactory<>(FastFixedSetFactoryTest.range(100));
+    FastSparseSet<Integer> original = toSet(factory, new HashSet<>(Arrays.asList(1, 70)));
+    FastSparseSet<Integer> copy = original.getCopy();
+
+    original.add(2);
+    original.remove(70);
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2)), original.toPlainSet());
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 70)), copy.toPlainSet());
+
+    copy.add(3);
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2)), original.toPlainSet());
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 3, 70)), copy.toPlainSet());
+  }
+
+  @Test
+  void originalShouldNotSeeChangesOfCopy() {
+    FastSparseSetFactory<Integer> factory = new FastSparseSetFactory<>(FastFixedSetFactoryTest.range(100));
+    FastSparseSet<Integer> original = toSet(factory, new HashSet<>(Arrays.asList(1, 70)));
+    FastSparseSet<Integer> copy = original.getCopy();
+
+    copy.remove(1);
+    for (Iterator<Integer> iterator = copy.iterator(); iterator.hasNext(); ) {
+      iterator.next();
+      iterator.remove();
+    }
+    Assertions.assertTrue(copy.isEmpty());
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 70)), original.toPlainSet());
+
+    // the original is still marked as shared and must not write through to the array of the copy
+    original.remove(70);
+    copy.add(5);
+    Assertions.assertEquals(Collections.singleton(1), original.toPlainSet());
+    Assertions.assertEquals(Collections.singleton(5), copy.toPlainSet());
+  }
+
+  @Test
+  void copyShouldNotSeeGrowthOfOriginal() {
+    FastSparseSetFactory<Integer> factory = new FastSparseSetFactory<>(FastFixedSetFactoryTest.range(10));
+    FastSparseSet<Integer> original = toSet(factory, Collections.singleton(1));
+    FastSparseSet<Integer> copy = original.getCopy();
+
+    original.add(500);
+    copy.add(2);
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 500)), original.toPlainSet());
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2)), copy.toPlainSet());
+  }
+
+  @Test
+  void operationsWithUnchangedCopyShouldKeepSet() {
+    FastSparseSetFactory<Integer> factory = new FastSparseSetFactory<>(FastFixedSetFactoryTest.range(100));
+    Set<Integer> expected = new HashSet<>(Arrays.asList(1, 64, 99));
+    FastSparseSet<Integer> original = toSet(factory, expected);
+    FastSparseSet<Integer> copy = original.getCopy();
+
+    original.union(copy);
+    original.intersection(copy);
+    Assertions.assertEquals(expected, original.toPlainSet());
+    Assertions.assertEquals(original, copy);
+
+    copy.complement(original);
+    Assertions.assertTrue(copy.isEmpty());
+    Assertions.assertEquals(expected, original.toPlainSet());
+  }
+
+  @Test
+  void copiesShouldMatchHashSets() {
+    Random random = new Random(19);
+    FastSparseSetFactory<Integer> factory = new FastSparseSetFactory<>(FastFixedSetFactoryTest.range(100));
+    List<FastSparseSet<Integer>> sets = new ArrayList<>();
+    List<Set<Integer>> expected = new ArrayList<>();
+    sets.add(factory.spawnEmptySet());
+    expected.add(new HashSet<>());
+
+    for (int round = 0; round < 5000; round++) {
+      int i = random.nextInt(sets.size()), j = random.nextInt(sets.size());
+      FastSparseSet<Integer> set = sets.get(i);
+      Set<Integer> model = expected.get(i);
+      int element = random.nextInt(200);
+
+      switch (random.nextInt(7)) {
+        case 0:
+          if (sets.size() < 50) {
+            sets.add(set.getCopy());
+            expected.add(new HashSet<>(model));
+          }
+          break;
+        case 1:
+          set.add(element);
+          model.add(element);
+          break;
+        case 2:
+          set.remove(element);
+          model.remove(element);
+          break;
+        case 3:
+          set.union(sets.get(j));
+          model.addAll(expected.get(j));
+          break;
+        case 4:
+          set.intersection(sets.get(j));
+          model.retainAll(expected.get(j));
+          break;
+        case 5:
+          set.complement(sets.get(j));
+          model.removeAll(expected.get(j));
+          break;
+        default:
+          for (Iterator<Integer> iterator = set.iterator(); iterator.hasNext(); ) {
+            if (iterator.next() % 3 == 0) {
+              iterator.remove();
+            }
+          }
+          model.removeIf(e -> e % 3 == 0);
+      }
+
+      for (int k = 0; k < sets.size(); k++) {
+        Assertions.assertEquals(expected.get(k), sets.get(k).toPlainSet(), "round " + round + ", set " + k);
+      }
+    }
+  }
+
+  static FastSparseSet<Integer> toSet(FastSparseSetFactory<Integer> factory, Set<Integer> elements) {
+    FastSparseSet<Integer> set = factory.spawnEmptySet();
+    for (int element : elements) {
+      set.add(element);
+    }
+    return set;
+  }
+}
@@ -0,0 +1,106 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+class IntIntMapTest {
+  // capacity of a new map
+  private static final int CAPACITY = 8;
+
+  @Test
+  void removeShouldKeepEntriesThatWrappedAroundTable() {
+    // three keys with the last slot as their home, so two of them wrap to the start of the table
+    int[] keys = keysWithHome(CAPACITY - 1, 3);
+    IntIntMap map = new IntIntMap();
+    for (int key : keys) {
+      map.put(key, key * 10);
+    }
+
+    Assertions.assertTrue(map.remove(keys[0]));
+    Assertions.assertFalse(map.containsKey(keys[0]));
+    Assertions.assertEquals(keys[1] * 10, map.get(keys[1], -1));
+    Assertions.assertEquals(keys[2] * 10, map.get(keys[2], -1));
+
+    Assertions.assertTrue(map.remove(keys[1]));
+    Assertions.assertEquals(keys[2] * 10, map.get(keys[2], -1));
+    Assertions.assertEquals(1, map.size());
+  }
+
+  @Test
+  void removeShouldNotMoveEntryBeforeItsHome() {
+    // a key at its home slot right after the removed entry has to stay there
+    int[] wrapped = keysWithHome(CAPACITY - 1, 2);
+    int[] atStart = keysWithHome(0, 1);
+    IntIntMap map = new IntIntMap();
+    map.put(atStart[0], 1);
+    map.put(wrapped[0], 2);
+    map.put(wrapped[1], 3);  // probes past the last slot and the occupied first slot
+
+    Assertions.assertTrue(map.remove(wrapped[0]));
+    Assertions.assertEquals(1, map.get(atStart[0], -1));
+    Assertions.assertEquals(3, map.get(wrapped[1], -1));
+
+    Assertions.assertTrue(map.remove(atStart[0]));
+    Assertions.assertEquals(3, map.get(wrapped[1], -1));
+  }
+
+  @Test
+  void shouldMatchHashMap() {
+    Random random = new Random(42);
+    IntIntMap map = new IntIntMap();
+    Map<Integer, Integer> expected = new HashMap<>();
+
+    // a small key range makes many collisions, growing and removals
+    for (int i = 0; i < 100_000; i++) {
+      int key = random.nextInt(200) - 100;
+      switch (random.nextInt(4)) {
+        case 0:
+          Assertions.assertEquals(expected.remove(key) != null, map.remove(key));
+          break;
+        case 1:
+          Assertions.assertEquals(expected.putIfAbsent(key, i) == null, map.putIfAbsent(key, i));
+          break;
+        default:
+          expected.put(key, i);
+          map.put(key, i);
+      }
+      Assertions.assertEquals(expected.size(), map.size());
+      if (i % 1000 == 0) {
+        assertSameEntries(expected, map);
+      }
+    }
+    assertSameEntries(expected, map);
+
+    IntIntMap copy = new IntIntMap(map);
+    map.clear();
+    Assertions.assertTrue(map.isEmpty());
+    assertSameEntries(expected, copy);
+  }
+
+  private static void assertSameEntries(Map<Integer, Integer> expected, IntIntMap map) {
+    for (int key = -100; key < 100; key++) {
+      Integer value = expected.get(key);
+      Assertions.assertEquals(value != null, map.containsKey(key));
+      Assertions.assertEquals(value == null ? Integer.MIN_VALUE : value, map.get(key, Integer.MIN_VALUE));
+    }
+
+    Map<Integer, Integer> actual = new HashMap<>();
+    map.forEach((key, value) -> Assertions.assertNull(actual.put(key, value)));
+    Assertions.assertEquals(expected, actual);
+    Assertions.assertArrayEquals(expected.keySet().stream().mapToInt(Integer::intValue).sorted().toArray(), map.sortedKeys());
+  }
+
+  private static int[] keysWithHome(int slot, int count) {
+    int[] keys = new int[count];
+    int found = 0;
+    for (int key = 0; found < count; key++) {
+      if ((IntIntMap.hash(key) & (CAPACITY - 1)) == slot) {
+        keys[found++] = key;
+      }
+    }
+    return keys;
+  }
+}
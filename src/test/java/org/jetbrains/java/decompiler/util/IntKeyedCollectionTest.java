@@ -0,0 +1,141 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+class IntKeyedCollectionTest {
+  @Test
+  void insertShouldReindexFollowingElements() {
+    IntKeyedCollection<String> collection = new IntKeyedCollection<>(1);
+    collection.addWithKey("b", 2);
+    collection.addWithKey("c", 3);
+    collection.addWithKeyAndIndex(0, "a", 1);
+    collection.add(1, "unkeyed");
+
+    Assertions.assertEquals(Arrays.asList("a", "unkeyed", "b", "c"), collection);
+    Assertions.assertEquals(0, collection.getIndexByKey(1));
+    Assertions.assertEquals(2, collection.getIndexByKey(2));
+    Assertions.assertEquals(3, collection.getIndexByKey(3));
+    Assertions.assertEquals(IntKeyedCollection.NO_KEY, collection.getKey(1));
+    Assertions.assertEquals("c", collection.getWithKey(3));
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> collection.getKey(4));
+  }
+
+  @Test
+  void removeShouldReindexFollowingElements() {
+    IntKeyedCollection<String> collection = new IntKeyedCollection<>();
+    collection.addWithKey("a", 10);
+    collection.addWithKey("b", 20);
+    collection.add("unkeyed");
+    collection.addWithKey("c", 30);
+    collection.addWithKey("d", 40);
+
+    Assertions.assertEquals("b", collection.remove(1));
+    Assertions.assertFalse(collection.containsKey(20));
+    Assertions.assertNull(collection.getWithKey(20));
+    Assertions.assertEquals(2, collection.getIndexByKey(30));
+    Assertions.assertEquals(3, collection.getIndexByKey(40));
+
+    collection.removeWithKey(10);
+    Assertions.assertEquals(Arrays.asList("unkeyed", "c", "d"), collection);
+    Assertions.assertEquals(1, collection.getIndexByKey(30));
+
+    Assertions.assertTrue(collection.remove("c"));
+    Assertions.assertFalse(collection.remove("c"));
+    Assertions.assertFalse(collection.containsKey(30));
+    Assertions.assertEquals(1, collection.getIndexByKey(40));
+    Assertions.assertEquals("d", collection.getLast());
+  }
+
+  @Test
+  void putShouldReplaceElementWithSameKey() {
+    IntKeyedCollection<String> collection = new IntKeyedCollection<>();
+    Assertions.assertNull(collection.putWithKey("a", 1));
+    Assertions.assertNull(collection.putWithKey("b", 2));
+    Assertions.assertEquals("a", collection.putWithKey("A", 1));
+    Assertions.assertEquals(Arrays.asList("A", "b"), collection);
+  }
+
+  @Test
+  void cloneShouldBeIndependent() {
+    IntKeyedCollection<String> collection = new IntKeyedCollection<>();
+    collection.addWithKey("a", 1);
+    collection.addWithKey("b", 2);
+    collection.addAll(Arrays.asList("x", "y"));
+
+    IntKeyedCollection<String> copy = collection.clone();
+    copy.removeWithKey(1);
+    copy.addWithKey("c", 3);
+    collection.addWithKeyAndIndex(0, "z", 26);
+
+    Assertions.assertEquals(Arrays.asList("z", "a", "b", "x", "y"), collection);
+    Assertions.assertEquals(Arrays.asList("b", "x", "y", "c"), copy);
+    Assertions.assertEquals(1, collection.getIndexByKey(1));
+    Assertions.assertFalse(collection.containsKey(3));
+    Assertions.assertEquals(0, copy.getIndexByKey(2));
+    Assertions.assertFalse(copy.containsKey(26));
+    Assertions.assertEquals(IntKeyedCollection.NO_KEY, copy.getKey(1));
+  }
+
+  @Test
+  void shouldMatchListModel() {
+    Random random = new Random(7);
+    IntKeyedCollection<String> collection = new IntKeyedCollection<>(2);
+    List<String> elements = new ArrayList<>();
+    List<Integer> keys = new ArrayList<>();
+    int nextKey = 0;
+
+    for (int i = 0; i < 20_000; i++) {
+      int size = elements.size();
+      int operation = random.nextInt(6);
+      if (size > 0 && operation == 0) {
+        int index = random.nextInt(size);
+        Assertions.assertEquals(elements.remove(index), collection.remove(index));
+        keys.remove(index);
+      }
+      else if (size > 0 && operation == 1) {
+        int index = random.nextInt(size);
+        int key = keys.get(index);
+        if (key != IntKeyedCollection.NO_KEY) {
+          collection.removeWithKey(key);
+          elements.remove(index);
+          keys.remove(index);
+        }
+      }
+      else if (operation == 2) {
+        int index = random.nextInt(size + 1);
+        String element = "e" + i;
+        int key = random.nextBoolean() ? nextKey++ : IntKeyedCollection.NO_KEY;
+        collection.addWithKeyAndIndex(index, element, key);
+        elements.add(index, element);
+        keys.add(index, key);
+      }
+      else {
+        String element = "e" + i;
+        collection.addWithKey(element, nextKey);
+        elements.add(element);
+        keys.add(nextKey++);
+      }
+
+      Assertions.assertEquals(elements, collection);
+      if (i % 100 == 0) {
+        for (int index = 0; index < keys.size(); index++) {
+          int key = keys.get(index);
+          Assertions.assertEquals(key, collection.getKey(index));
+          if (key != IntKeyedCollection.NO_KEY) {
+            Assertions.assertEquals(index, collection.getIndexByKey(key));
+          }
+        }
+        for (int key = 0; key < nextKey; key++) {
+          Assertions.assertEquals(keys.contains(key), collection.containsKey(key));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,74 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class IntSetTest {
+  @Test
+  void valuesShouldStaySortedAndUnique() {
+    IntSet set = new IntSet();
+    Assertions.assertTrue(set.add(7));
+    Assertions.assertTrue(set.add(-3));
+    Assertions.assertTrue(set.add(12));
+    Assertions.assertTrue(set.add(0));
+    Assertions.assertTrue(set.add(5));
+    Assertions.assertFalse(set.add(7));
+
+    Assertions.assertArrayEquals(new int[]{-3, 0, 5, 7, 12}, set.toArray());
+    Assertions.assertEquals(5, set.size());
+    Assertions.assertEquals(5, set.get(2));
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> set.get(5));
+
+    Assertions.assertTrue(set.remove(0));
+    Assertions.assertFalse(set.remove(0));
+    Assertions.assertTrue(set.remove(12));
+    Assertions.assertArrayEquals(new int[]{-3, 5, 7}, set.toArray());
+    Assertions.assertTrue(set.contains(5));
+    Assertions.assertFalse(set.contains(12));
+  }
+
+  @Test
+  void addAllShouldMergeSortedValues() {
+    IntSet set = IntSet.of(4);
+    set.add(1);
+    set.add(9);
+
+    IntSet other = new IntSet();
+    other.add(9);
+    other.add(2);
+    other.add(10);
+    other.add(-1);
+
+    set.addAll(other);
+    Assertions.assertArrayEquals(new int[]{-1, 1, 2, 4, 9, 10}, set.toArray());
+    Assertions.assertArrayEquals(new int[]{-1, 2, 9, 10}, other.toArray());
+
+    set.addAll(null);
+    set.addAll(new IntSet());
+    Assertions.assertEquals(6, set.size());
+
+    IntSet empty = new IntSet();
+    empty.addAll(other);
+    Assertions.assertEquals(other, empty);
+    // the merged values must not share the array of the other set
+    empty.add(3);
+    Assertions.assertFalse(other.contains(3));
+  }
+
+  @Test
+  void copyShouldBeIndependent() {
+    IntSet set = IntSet.of(1);
+    set.add(2);
+    IntSet copy = new IntSet(set);
+    Assertions.assertEquals(set, copy);
+    Assertions.assertEquals(set.hashCode(), copy.hashCode());
+
+    copy.add(3);
+    set.remove(1);
+    Assertions.assertArrayEquals(new int[]{2}, set.toArray());
+    Assertions.assertArrayEquals(new int[]{1, 2, 3}, copy.toArray());
+    Assertions.assertNotEquals(set, copy);
+    Assertions.assertEquals("[1, 2, 3]", copy.toString());
+  }
+}
@@ -0,0 +1,72 @@
+// Copyright 2000-2021 JetBrains s.r.o. Use of this source code is governed by the Apache 2.0 license that can be found in the LICENSE file.
+package org.jetbrains.java.decompiler.util;
+
+import org.jetbrains.java.decompiler.modules.decompiler.exps.VarExprent;
+import org.jetbrains.java.decompiler.util.FastSparseSetFactory.FastSparseSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+class SFormsFastMapDirectTest {
+  private final FastSparseSetFactory<Integer> factory = new FastSparseSetFactory<>(FastFixedSetFactoryTest.range(10));
+
+  @Test
+  void copyShouldBeIndependentOfOriginal() {
+    SFormsFastMapDirect original = new SFormsFastMapDirect();
+    // a local variable, a stack variable and a field
+    for (int key : new int[]{1, VarExprent.STACK_BASE + 1, -1}) {
+      original.put(key, set(1, 2));
+    }
+
+    SFormsFastMapDirect copy = original.getCopy();
+    original.get(1).add(3);
+    copy.get(-1).remove(1);
+    copy.get(VarExprent.STACK_BASE + 1).add(4);
+
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2, 3)), original.get(1).toPlainSet());
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2)), copy.get(1).toPlainSet());
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2)), original.get(-1).toPlainSet());
+    Assertions.assertEquals(Collections.singleton(2), copy.get(-1).toPlainSet());
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2)), original.get(VarExprent.STACK_BASE + 1).toPlainSet());
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2, 4)), copy.get(VarExprent.STACK_BASE + 1).toPlainSet());
+  }
+
+  @Test
+  void operationsOnCopyShouldKeepOriginal() {
+    SFormsFastMapDirect original = new SFormsFastMapDirect();
+    original.put(1, set(1, 2));
+    original.put(2, set(3));
+
+    SFormsFastMapDirect other = new SFormsFastMapDirect();
+    other.put(1, set(2, 5));
+    other.put(3, set(6));
+
+    SFormsFastMapDirect union = original.getCopy();
+    union.union(other);
+    SFormsFastMapDirect intersection = original.getCopy();
+    intersection.intersection(other);
+    SFormsFastMapDirect complement = original.getCopy();
+    complement.complement(other);
+
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2, 5)), union.get(1).toPlainSet());
+    Assertions.assertEquals(Collections.singleton(6), union.get(3).toPlainSet());
+    Assertions.assertEquals(Collections.singleton(2), intersection.get(1).toPlainSet());
+    Assertions.assertNull(intersection.get(2));
+    Assertions.assertEquals(Collections.singleton(1), complement.get(1).toPlainSet());
+
+    Assertions.assertEquals(2, original.size());
+    Assertions.assertEquals(new HashSet<>(Arrays.asList(1, 2)), original.get(1).toPlainSet());
+    Assertions.assertEquals(Collections.singleton(3), original.get(2).toPlainSet());
+
+    // a set copied by the union shares its words with the other map
+    union.get(3).add(7);
+    Assertions.assertEquals(Collections.singleton(6), other.get(3).toPlainSet());
+  }
+
+  private FastSparseSet<Integer> set(Integer... elements) {
+    return FastSparseSetFactoryTest.toSet(factory, new HashSet<>(Arrays.asList(elements)));
+  }
+}